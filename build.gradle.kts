@@ -3,17 +3,79 @@ plugins {
 }
 
 group = "dev.alubenets.asyncapi"
-version = "0.0.1-SNAPSHOT"
+version = "0.1.0-SNAPSHOT"
 
 repositories {
     mavenCentral()
 }
 
+sourceSets {
+    create("processor")
+    create("jmh") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+    test {
+        compileClasspath += sourceSets["jmh"].output + configurations["jmhCompileClasspath"]
+        runtimeClasspath += sourceSets["jmh"].output + configurations["jmhRuntimeClasspath"]
+    }
+}
+
+val jmhImplementation: Configuration by configurations.getting
+val jmhAnnotationProcessor: Configuration by configurations.getting
+
 dependencies {
+    annotationProcessor(sourceSets["processor"].output)
+
     testImplementation(platform("org.junit:junit-bom:5.11.4"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    jmhImplementation("org.openjdk.jmh:jmh-core:1.37")
+    jmhAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+val generatePayloads by tasks.registering(JavaExec::class) {
+    description = "Generates the payload classes of the benchmarks from src/jmh/resources/payloads.yaml."
+    group = "build"
+    val document = file("src/jmh/resources/payloads.yaml")
+    val output = layout.buildDirectory.dir("generated/sources/payloads/jmh/java")
+    inputs.file(document)
+    outputs.dir(output)
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("dev.alubenets.asyncapi.payloads.PayloadClassGenerator")
+    args(document, "dev.alubenets.asyncapi.benchmarks.payloads", output.get().asFile)
+    doFirst {
+        delete(output)
+    }
 }
 
+sourceSets["jmh"].java.srcDir(generatePayloads)
+
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+tasks.register<JavaExec>("jmh") {
+    description = "Runs the JMH benchmarks with the GC profiler, -Pjmh.includes=<regexp> selects a subset and " +
+        "-Pjmh.profiler=<name> replaces the profiler."
+    group = "verification"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args(listOfNotNull(project.findProperty("jmh.includes")?.toString()))
+    args("-prof", project.findProperty("jmh.profiler")?.toString() ?: "gc")
+}
+
+tasks.register<JavaExec>("footprint") {
+    description = "Reports the heap retained per entry by HashMap and frozen model maps."
+    group = "verification"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("dev.alubenets.asyncapi.benchmarks.MapFootprint")
+}
+
+tasks.register<JavaExec>("storeFootprint") {
+    description = "Reports the heap retained by similar documents with and without a canonical store."
+    group = "verification"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("dev.alubenets.asyncapi.benchmarks.StoreFootprint")
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.ChannelBindings;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.OperationBindings;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.snapshot.Snapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the bindings of every channel and operation of a document that carries five protocols of bindings on each,
+ * from a fresh snapshot where bindings are decoded on first access: only the Kafka bindings, as a Kafka-only service
+ * would, against every protocol. {@code cachedKafka} reads the already decoded Kafka bindings again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BindingsBenchmark {
+
+    @Param({"1000", "20000"})
+    int channels;
+
+    private ByteBuffer snapshot;
+    private AsyncAPI document;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = AsyncApiReader.create()
+            .read(new ByteArrayInputStream(SyntheticDocuments.jsonWithBindings(channels)));
+        snapshot = ByteBuffer.wrap(Snapshot.toBytes(document));
+        readKafka(document, null);
+    }
+
+    @Benchmark
+    public void snapshotKafka(Blackhole blackhole) throws IOException {
+        readKafka(Snapshot.read(snapshot.duplicate()), blackhole);
+    }
+
+    @Benchmark
+    public void snapshotAllProtocols(Blackhole blackhole) throws IOException {
+        AsyncAPI fresh = Snapshot.read(snapshot.duplicate());
+        for (Channel channel : fresh.channels().values()) {
+            ChannelBindings bindings = channel.bindings();
+            blackhole.consume(bindings.kafka());
+            blackhole.consume(bindings.amqp());
+            blackhole.consume(bindings.ws());
+            blackhole.consume(bindings.binding("mqtt"));
+            blackhole.consume(bindings.binding("nats"));
+        }
+        for (Operation operation : fresh.operations().values()) {
+            OperationBindings bindings = operation.bindings();
+            blackhole.consume(bindings.kafka());
+            blackhole.consume(bindings.amqp());
+            blackhole.consume(bindings.mqtt());
+            blackhole.consume(bindings.binding("ws"));
+            blackhole.consume(bindings.binding("nats"));
+        }
+    }
+
+    @Benchmark
+    public void cachedKafka(Blackhole blackhole) {
+        readKafka(document, blackhole);
+    }
+
+    private static void readKafka(AsyncAPI document, Blackhole blackhole) {
+        for (Channel channel : document.channels().values()) {
+            String topic = channel.bindings().kafka().topic();
+            if (blackhole != null) {
+                blackhole.consume(topic);
+            }
+        }
+        for (Operation operation : document.operations().values()) {
+            Object groupId = operation.bindings().kafka().groupId();
+            if (blackhole != null) {
+                blackhole.consume(groupId);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.codecs.ModelCodec;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.writer.AsyncApiWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads every component of every channel through the generated codec and through reflective accessors, and writes a
+ * document once in a fresh JVM, which is what a short-lived tool pays before any binding is warmed up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    private AsyncAPI document;
+    private ModelCodec<Channel> codec;
+    private Method[] accessors;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = AsyncApiReader.create().read(new ByteArrayInputStream(SyntheticDocuments.json(1000)));
+        codec = ModelCodec.of(Channel.class);
+        RecordComponent[] components = Channel.class.getRecordComponents();
+        accessors = new Method[components.length];
+        for (int i = 0; i < components.length; i++) {
+            accessors[i] = components[i].getAccessor();
+        }
+    }
+
+    @Benchmark
+    public int generated() {
+        int present = 0;
+        for (Channel channel : document.channels().values()) {
+            for (int i = 0; i < codec.size(); i++) {
+                present += codec.get(channel, i) != null ? 1 : 0;
+            }
+        }
+        return present;
+    }
+
+    @Benchmark
+    public int reflective() throws ReflectiveOperationException {
+        int present = 0;
+        for (Channel channel : document.channels().values()) {
+            for (Method accessor : accessors) {
+                present += accessor.invoke(channel) != null ? 1 : 0;
+            }
+        }
+        return present;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public byte[] firstWrite() {
+        return AsyncApiWriter.create().toBytes(document);
+    }
+}
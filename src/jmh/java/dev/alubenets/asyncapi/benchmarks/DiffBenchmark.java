@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.diff.DocumentDiff;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Channels;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diffs a document against a version with one edited channel, once parsed separately and once as a patched copy that
+ * shares all other objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiffBenchmark {
+
+    @Param({"1000", "50000"})
+    int channels;
+
+    private AsyncAPI document;
+    private AsyncAPI parsed;
+    private AsyncAPI patched;
+
+    @Setup
+    public void setUp() throws IOException {
+        String json = new String(SyntheticDocuments.json(channels), StandardCharsets.UTF_8);
+        String edited = json.replace("\"Channel 7\"", "\"Channel seven\"");
+        document = read(json);
+        parsed = read(edited);
+
+        String name = "channel7";
+        Channel channel = document.channels().get(name);
+        Channels copy = new Channels();
+        copy.putAll(document.channels());
+        copy.put(name, new Channel(channel.$ref(), channel.address(), channel.messages(), "Channel seven",
+            channel.summary(), channel.description(), channel.servers(), channel.parameters(), channel.tags(),
+            channel.externalDocs(), channel.bindings()));
+        patched = new AsyncAPI(document.info(), document.id(), document.servers(), document.defaultContentType(),
+            copy, document.operations(), document.components());
+    }
+
+    @Benchmark
+    public DocumentDiff parsed() {
+        return DocumentDiff.compare(document, parsed);
+    }
+
+    @Benchmark
+    public DocumentDiff patched() {
+        return DocumentDiff.compare(document, patched);
+    }
+
+    private static AsyncAPI read(String json) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.expression.RuntimeExpression;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.parser.DocumentFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates the correlation ID and reply address expressions of a request against decoded headers and against the
+ * raw JSON payload, and against a payload that is decoded first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpressionBenchmark {
+
+    private RuntimeExpression replyTo;
+    private RuntimeExpression correlationId;
+    private Map<String, Object> headers;
+    private byte[] payload;
+    private AsyncApiReader reader;
+
+    @Setup
+    public void setUp() {
+        replyTo = RuntimeExpression.compile("$message.header#/replyTo");
+        correlationId = RuntimeExpression.compile("$message.payload#/meta/correlationId");
+        headers = Map.of("replyTo", "user/42/replies", "contentType", "application/json", "traceId", "4bf92f35");
+        StringBuilder json = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < 20; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"sku\":\"item-").append(i)
+                .append("\",\"quantity\":").append(i).append(",\"price\":").append(i * 1.25).append('}');
+        }
+        json.append("],\"meta\":{\"source\":\"checkout\",\"correlationId\":\"5f0c8a5e-2b7d-4f41-9c1e-3a6b2d9e7f10\"}}");
+        payload = json.toString().getBytes(StandardCharsets.UTF_8);
+        reader = AsyncApiReader.create().withFormat(DocumentFormat.JSON);
+    }
+
+    @Benchmark
+    public Object headerValue() {
+        return replyTo.evaluate(headers, null);
+    }
+
+    @Benchmark
+    public Object rawPayload() {
+        return correlationId.evaluateJson(payload);
+    }
+
+    @Benchmark
+    public Object decodedPayload() throws IOException {
+        return correlationId.evaluate(reader.readTree(new ByteArrayInputStream(payload)));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.generator.MessageGenerator;
+import dev.alubenets.asyncapi.generator.MessageProducer;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates payloads of a message of a synthetic document into a direct buffer, on one thread and on all cores with
+ * a producer per thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    private final AtomicLong seeds = new AtomicLong();
+    private MessageGenerator generator;
+
+    @Setup
+    public void setUp() throws IOException {
+        AsyncAPI document = AsyncApiReader.create().read(new ByteArrayInputStream(SyntheticDocuments.json(10)));
+        Message message = document.components().messages().values().iterator().next();
+        generator = MessageGenerator.compile(message, ReferenceResolver.of(document));
+    }
+
+    @State(Scope.Thread)
+    public static class Producer {
+
+        MessageProducer producer;
+        ByteBuffer buffer;
+
+        @Setup
+        public void setUp(GeneratorBenchmark benchmark) {
+            producer = benchmark.generator.newProducer(benchmark.seeds.incrementAndGet());
+            buffer = ByteBuffer.allocateDirect(64 * 1024);
+        }
+    }
+
+    @Benchmark
+    public int payload(Producer state) {
+        state.buffer.clear();
+        return state.producer.writePayload(state.buffer);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int payloadOnAllCores(Producer state) {
+        state.buffer.clear();
+        return state.producer.writePayload(state.buffer);
+    }
+}
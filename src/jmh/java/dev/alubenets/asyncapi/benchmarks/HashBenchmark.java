@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.hash.ContentHash;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Channels;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes a frozen document that was hashed before and copies of it with one edited channel, which share all other
+ * objects with it, against {@link Object#hashCode()} of the same copies, which walks the whole document every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashBenchmark {
+
+    @Param({"1000", "50000"})
+    int channels;
+
+    private AsyncAPI document;
+    private int edits;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = AsyncApiReader.create().withFrozenMaps(true)
+            .read(new ByteArrayInputStream(SyntheticDocuments.json(channels)));
+        ContentHash.of(document);
+    }
+
+    @Benchmark
+    public ContentHash cached() {
+        return ContentHash.of(document);
+    }
+
+    @Benchmark
+    public ContentHash patched() {
+        return ContentHash.of(patch());
+    }
+
+    @Benchmark
+    public int patchedHashCode() {
+        return patch().hashCode();
+    }
+
+    private AsyncAPI patch() {
+        String name = "channel7";
+        Channel channel = document.channels().get(name);
+        Channels copy = new Channels();
+        copy.putAll(document.channels());
+        copy.put(name, new Channel(channel.$ref(), channel.address(), channel.messages(), "Channel " + edits++,
+            channel.summary(), channel.description(), channel.servers(), channel.parameters(), channel.tags(),
+            channel.externalDocs(), channel.bindings()));
+        copy.freeze();
+        return new AsyncAPI(document.info(), document.id(), document.servers(), document.defaultContentType(),
+            copy, document.operations(), document.components());
+    }
+}
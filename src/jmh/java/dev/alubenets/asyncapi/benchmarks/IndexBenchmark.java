@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.index.DocumentIndex;
+import dev.alubenets.asyncapi.index.IdSet;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Server;
+import dev.alubenets.asyncapi.models.Tag;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers "receiving operations tagged billing on channels of server-0" from the index and by scanning the document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexBenchmark {
+
+    @Param({"1000", "100000"})
+    int channels;
+
+    private AsyncAPI document;
+    private ReferenceResolver resolver;
+    private DocumentIndex index;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = AsyncApiReader.create().read(new ByteArrayInputStream(SyntheticDocuments.json(channels)));
+        resolver = ReferenceResolver.of(document);
+        index = DocumentIndex.build(document, resolver);
+    }
+
+    @Benchmark
+    public DocumentIndex build() {
+        return DocumentIndex.build(document, ReferenceResolver.of(document));
+    }
+
+    @Benchmark
+    public int queryIndex() {
+        return index.operationsWithAction(Operation.Action.RECEIVE)
+            .and(index.operationsTagged("billing"))
+            .and(index.operationsOnServer("server-0"))
+            .size();
+    }
+
+    @Benchmark
+    public int queryScan() {
+        Server server = resolver.resolve(document.servers().get("server-0"));
+        int count = 0;
+        for (Operation operation : document.operations().values()) {
+            if (operation.action() != Operation.Action.RECEIVE || !tagged(operation, "billing")) {
+                continue;
+            }
+            Channel channel = resolver.resolve((Channel) operation.channel());
+            for (Server candidate : channel.servers()) {
+                if (resolver.resolve(candidate) == server) {
+                    count++;
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean tagged(Operation operation, String name) {
+        for (Tag tag : operation.tags()) {
+            if (name.equals(tag.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
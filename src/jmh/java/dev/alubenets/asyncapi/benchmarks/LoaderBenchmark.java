@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.loader.BatchLoader;
+import dev.alubenets.asyncapi.loader.LoadResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Loads a batch of service documents that all refer to one shared component file, on a single thread and on a pool
+ * with one thread per core. The speedup is the ratio of the two.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoaderBenchmark {
+
+    private static final int CHANNELS = 20;
+    private static final int SHARED_MESSAGES = 50;
+
+    @Param({"100", "800"})
+    int documents;
+
+    private Path directory;
+    private List<Path> paths;
+    private ForkJoinPool sequentialPool;
+    private ForkJoinPool parallelPool;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("asyncapi-batch");
+        StringBuilder common = new StringBuilder("components:\n  messages:\n");
+        for (int m = 0; m < SHARED_MESSAGES; m++) {
+            common.append("    Message").append(m).append(":\n")
+                .append("      name: message").append(m).append('\n')
+                .append("      contentType: application/json\n")
+                .append("      payload:\n        $ref: '#/components/schemas/Payload'\n");
+        }
+        common.append("  schemas:\n    Payload:\n      type: object\n")
+            .append("      properties:\n        id:\n          type: string\n");
+        Files.writeString(directory.resolve("common.yaml"), common);
+
+        paths = new ArrayList<>(documents);
+        for (int d = 0; d < documents; d++) {
+            StringBuilder document = new StringBuilder()
+                .append("asyncapi: 3.0.0\ninfo:\n  title: Service ").append(d).append("\n  version: 1.0.0\n")
+                .append("channels:\n");
+            for (int c = 0; c < CHANNELS; c++) {
+                document.append("  channel").append(c).append(":\n")
+                    .append("    address: service").append(d).append("/events/").append(c).append('\n')
+                    .append("    messages:\n      event:\n")
+                    .append("        $ref: 'common.yaml#/components/messages/Message")
+                    .append((d + c) % SHARED_MESSAGES).append("'\n");
+            }
+            Path path = directory.resolve("service" + d + ".yaml");
+            Files.writeString(path, document);
+            paths.add(path);
+        }
+        sequentialPool = new ForkJoinPool(1);
+        parallelPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sequentialPool.shutdown();
+        parallelPool.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<LoadResult> sequential() {
+        return BatchLoader.create().withPool(sequentialPool).load(paths);
+    }
+
+    @Benchmark
+    public List<LoadResult> parallel() {
+        return BatchLoader.create().withPool(parallelPool).load(paths);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Channels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups in frozen {@link Channels} with a {@link HashMap} of the same entries, for hits and misses. See
+ * {@link MapFootprint} for the heap side of the comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    private Map<String, Channel> hashMap;
+    private Channels frozen;
+    private String[] hits;
+    private String[] misses;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        hashMap = new HashMap<>();
+        frozen = new Channels();
+        for (int i = 0; i < size; i++) {
+            Channel channel = new Channel(null, "service/" + i, null, null, null, null, null, null, null, null, null);
+            hashMap.put("channel" + i, channel);
+            frozen.put("channel" + i, channel);
+        }
+        frozen.freeze();
+        Random random = new Random(42);
+        hits = new String[LOOKUPS];
+        misses = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            hits[i] = "channel" + random.nextInt(size);
+            misses[i] = "missing" + random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Channel hashMapHit() {
+        return hashMap.get(hits[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Channel frozenHit() {
+        return frozen.get(hits[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Channel hashMapMiss() {
+        return hashMap.get(misses[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Channel frozenMiss() {
+        return frozen.get(misses[next++ & (LOOKUPS - 1)]);
+    }
+}
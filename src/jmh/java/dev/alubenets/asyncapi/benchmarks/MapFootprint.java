@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Channels;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Reports the heap retained by the map structure of {@link HashMap} and frozen {@link Channels}, per entry.
+ * <p>
+ * Keys and values are shared by all measured copies, so only the tables, nodes and arrays of the maps are counted.
+ * Run with {@code ./gradlew footprint}.
+ */
+public final class MapFootprint {
+
+    private static final int[] SIZES = {10, 1000, 100_000};
+    private static final int TOTAL_ENTRIES = 2_000_000;
+
+    private MapFootprint() {
+    }
+
+    public static void main(String[] args) {
+        System.out.printf("%10s %18s %18s%n", "entries", "HashMap B/entry", "frozen B/entry");
+        for (int size : SIZES) {
+            String[] keys = new String[size];
+            Channel[] values = new Channel[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = "channel" + i;
+                values[i] = new Channel(null, "service/" + i, null, null, null, null, null, null, null, null, null);
+            }
+            int copies = Math.max(1, TOTAL_ENTRIES / size);
+            double hashMap = perEntry(size, copies, () -> fill(new HashMap<>(), keys, values));
+            double frozen = perEntry(size, copies, () -> {
+                Channels channels = fill(new Channels(), keys, values);
+                channels.freeze();
+                return channels;
+            });
+            System.out.printf("%10d %18.1f %18.1f%n", size, hashMap, frozen);
+        }
+    }
+
+    private static <M extends Map<String, Channel>> M fill(M map, String[] keys, Channel[] values) {
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    private static double perEntry(int size, int copies, Supplier<Map<String, Channel>> factory) {
+        Object[] retained = new Object[copies];
+        long before = usedHeap();
+        for (int i = 0; i < copies; i++) {
+            retained[i] = factory.get();
+        }
+        long after = usedHeap();
+        if (retained[copies - 1] == null) {
+            throw new IllegalStateException();
+        }
+        return (double) (after - before) / ((long) size * copies);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the paths taken on an already loaded document: resolving every {@code $ref} of the channels, looking up
+ * channels by name, and the record {@code equals}/{@code hashCode}, which walk the whole document.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"10", "1000", "100000"})
+    int channels;
+
+    private AsyncAPI document;
+    private AsyncAPI copy;
+    private AsyncAPI frozen;
+    private ReferenceResolver resolver;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] json = SyntheticDocuments.json(channels);
+        AsyncApiReader reader = AsyncApiReader.create();
+        document = reader.read(new ByteArrayInputStream(json));
+        copy = reader.read(new ByteArrayInputStream(json));
+        frozen = reader.withFrozenMaps(true).read(new ByteArrayInputStream(json));
+        resolver = ReferenceResolver.of(document);
+        resolveAll(resolver);
+        Random random = new Random(42);
+        names = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            names[i] = "channel" + random.nextInt(channels);
+        }
+    }
+
+    /**
+     * First access: every reference is located and memoized by a fresh resolver.
+     */
+    @Benchmark
+    public int resolveCold() {
+        return resolveAll(ReferenceResolver.of(document));
+    }
+
+    /**
+     * Repeated access: every reference is served from the memoized results.
+     */
+    @Benchmark
+    public int resolveWarm() {
+        return resolveAll(resolver);
+    }
+
+    @Benchmark
+    public Channel lookup() {
+        return document.channels().get(names[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Channel lookupFrozen() {
+        return frozen.channels().get(names[next++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public boolean equalsDeep() {
+        return document.equals(copy);
+    }
+
+    @Benchmark
+    public int hashCodeDeep() {
+        return document.hashCode();
+    }
+
+    private int resolveAll(ReferenceResolver resolver) {
+        int resolved = 0;
+        for (Channel channel : document.channels().values()) {
+            for (Message message : channel.messages().values()) {
+                resolved += resolver.resolve(message).name().length();
+            }
+            resolved += resolver.resolve(channel.parameters().get("entityId")).description().length();
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.parser.DocumentFormat;
+import dev.alubenets.asyncapi.parser.InterningPool;
+import dev.alubenets.asyncapi.parser.TreeTokenReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares binding documents straight from tokens with the tree-then-map approach, where the whole document is first
+ * materialized as maps and lists and then mapped onto the models. Run with {@code -prof gc} to compare allocation.
+ * {@code streamingInterned} reads through an {@link InterningPool} shared by all invocations, like a long-lived loader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int channels;
+
+    @Param({"JSON", "YAML"})
+    DocumentFormat format;
+
+    private byte[] document;
+    private AsyncApiReader reader;
+    private AsyncApiReader interning;
+
+    @Setup
+    public void setUp() {
+        document = format == DocumentFormat.JSON
+            ? SyntheticDocuments.json(channels)
+            : SyntheticDocuments.yaml(channels);
+        reader = AsyncApiReader.create().withFormat(format);
+        interning = reader.withInterning(InterningPool.create());
+    }
+
+    @Benchmark
+    public AsyncAPI streaming() throws IOException {
+        return reader.read(new ByteArrayInputStream(document));
+    }
+
+    @Benchmark
+    public AsyncAPI streamingInterned() throws IOException {
+        return interning.read(new ByteArrayInputStream(document));
+    }
+
+    @Benchmark
+    public AsyncAPI treeThenMap() throws IOException {
+        Object tree = reader.readTree(new ByteArrayInputStream(document));
+        return reader.read(new TreeTokenReader(tree));
+    }
+}
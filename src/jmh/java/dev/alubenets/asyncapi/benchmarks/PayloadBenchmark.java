@@ -0,0 +1,150 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.benchmarks.payloads.LightMeasuredPayload;
+import dev.alubenets.asyncapi.benchmarks.payloads.Order;
+import dev.alubenets.asyncapi.benchmarks.payloads.SensorBatchPayload;
+import dev.alubenets.asyncapi.generator.MessageGenerator;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.parser.DocumentFormat;
+import dev.alubenets.asyncapi.payloads.PayloadInput;
+import dev.alubenets.asyncapi.payloads.PayloadOutput;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import dev.alubenets.asyncapi.writer.AsyncApiWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a payload and reads one of its fields the way a handler does, and encodes a decoded payload, through a
+ * generic {@code Map<String, Object>} and through the classes generated by
+ * {@link dev.alubenets.asyncapi.payloads.PayloadClassGenerator} from {@code payloads.yaml}. The payloads are
+ * generated from the schemas of the messages: a small reading, an order with a nested customer and a list of items,
+ * and a batch of numeric readings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadBenchmark {
+
+    @Param({"lightMeasured", "orderPlaced", "sensorBatch"})
+    public String message;
+
+    private final AsyncApiReader reader = AsyncApiReader.create().withFormat(DocumentFormat.JSON);
+    private final AsyncApiWriter writer = AsyncApiWriter.create().withFormat(DocumentFormat.JSON);
+    private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    private final PayloadOutput output = PayloadOutput.create();
+    private PayloadInput input;
+    private byte[] json;
+    private Object tree;
+    private Object decoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        AsyncAPI document;
+        try (InputStream in = PayloadBenchmark.class.getResourceAsStream("/payloads.yaml")) {
+            document = AsyncApiReader.create().read(in);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        MessageGenerator.compile(document.components().messages().get(message), ReferenceResolver.of(document))
+            .newProducer(42)
+            .writePayload(buffer);
+        json = Arrays.copyOf(buffer.array(), buffer.position());
+        tree = reader.readTree(new ByteArrayInputStream(json));
+        input = PayloadInput.of(json);
+        decoded = decode(input);
+    }
+
+    @Benchmark
+    public double mapRead() throws IOException {
+        Map<?, ?> payload = (Map<?, ?>) reader.readTree(new ByteArrayInputStream(json));
+        return switch (message) {
+            case "lightMeasured" -> ((Number) payload.get("lumens")).doubleValue();
+            case "orderPlaced" -> ((Number) payload.get("total")).doubleValue()
+                + ((List<?>) payload.get("items")).size();
+            default -> ((Number) ((List<?>) payload.get("readings")).get(0)).doubleValue();
+        };
+    }
+
+    @Benchmark
+    public double generatedRead() throws IOException {
+        input.reset(json);
+        Object payload = decode(input);
+        return switch (message) {
+            case "lightMeasured" -> ((LightMeasuredPayload) payload).lumens();
+            case "orderPlaced" -> ((Order) payload).total() + ((Order) payload).items().size();
+            default -> ((SensorBatchPayload) payload).readings()[0];
+        };
+    }
+
+    @Benchmark
+    public int mapWrite() throws IOException {
+        stream.reset();
+        writer.writeValue(tree, stream);
+        return stream.size();
+    }
+
+    @Benchmark
+    public int generatedWrite() {
+        output.reset();
+        switch (message) {
+            case "lightMeasured" -> ((LightMeasuredPayload) decoded).encode(output);
+            case "orderPlaced" -> ((Order) decoded).encode(output);
+            default -> ((SensorBatchPayload) decoded).encode(output);
+        }
+        return output.size();
+    }
+
+    private Object decode(PayloadInput in) throws IOException {
+        return switch (message) {
+            case "lightMeasured" -> LightMeasuredPayload.decode(in);
+            case "orderPlaced" -> Order.decode(in);
+            default -> SensorBatchPayload.decode(in);
+        };
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Info;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.registry.DocumentRegistry;
+import dev.alubenets.asyncapi.registry.RegisteredDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up the latest version of documents on seven threads while another thread keeps publishing new versions, in a
+ * {@link DocumentRegistry} and in a synchronized map. The versions are built in advance, so the writer measures
+ * publishing only.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistryBenchmark {
+
+    private static final int DOCUMENTS = 1000;
+    private static final int VERSIONS = 8;
+
+    private final DocumentRegistry registry = DocumentRegistry.create(3);
+    private final Map<String, RegisteredDocument> map = Collections.synchronizedMap(new HashMap<>());
+    private String[] ids;
+    private RegisteredDocument[] versions;
+    private int published;
+
+    @Setup
+    public void setUp() throws IOException {
+        AsyncAPI document = AsyncApiReader.create().read(new ByteArrayInputStream(SyntheticDocuments.json(10)));
+        ids = new String[DOCUMENTS];
+        for (int i = 0; i < DOCUMENTS; i++) {
+            ids[i] = "urn:dev:alubenets:service:" + i;
+            RegisteredDocument first = RegisteredDocument.of(version(document, ids[i], "1.0.0"));
+            registry.publish(first);
+            map.put(first.id(), first);
+        }
+        versions = new RegisteredDocument[VERSIONS];
+        for (int i = 0; i < VERSIONS; i++) {
+            versions[i] = RegisteredDocument.of(version(document, ids[i * 97 % DOCUMENTS], "1.1." + i));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Reader {
+
+        int next;
+    }
+
+    @Benchmark
+    @Group("registry")
+    @GroupThreads(7)
+    public int registryRead(Reader reader) {
+        String id = ids[reader.next++ % DOCUMENTS];
+        return registry.latest(id).index().channelId("channel3");
+    }
+
+    @Benchmark
+    @Group("registry")
+    @GroupThreads(1)
+    public RegisteredDocument registryPublish() {
+        return registry.publish(versions[published++ % VERSIONS]);
+    }
+
+    @Benchmark
+    @Group("synchronizedMap")
+    @GroupThreads(7)
+    public int synchronizedMapRead(Reader reader) {
+        String id = ids[reader.next++ % DOCUMENTS];
+        return map.get(id).index().channelId("channel3");
+    }
+
+    @Benchmark
+    @Group("synchronizedMap")
+    @GroupThreads(1)
+    public RegisteredDocument synchronizedMapPublish() {
+        RegisteredDocument version = versions[published++ % VERSIONS];
+        return map.put(version.id(), version);
+    }
+
+    private static AsyncAPI version(AsyncAPI document, String id, String version) {
+        Info info = document.info();
+        return new AsyncAPI(new Info(info.title(), version, info.description(), info.termsOfService(),
+            info.contact(), info.license(), info.tags(), info.externalDocs()), id, document.servers(),
+            document.defaultContentType(), document.channels(), document.operations(), document.components());
+    }
+}
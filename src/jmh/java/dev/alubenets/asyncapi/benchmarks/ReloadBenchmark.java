@@ -0,0 +1,166 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.loader.BatchLoader;
+import dev.alubenets.asyncapi.loader.LoadResult;
+import dev.alubenets.asyncapi.registry.DocumentRegistry;
+import dev.alubenets.asyncapi.registry.RegisteredDocument;
+import dev.alubenets.asyncapi.reload.HotReloader;
+import dev.alubenets.asyncapi.reload.ReloadResult;
+import dev.alubenets.asyncapi.reload.WatchedDocuments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reloads service documents after a one-line change of the component file they all refer to: the enum of a shared
+ * channel parameter, which changes the routes of every channel. {@code incremental} reloads through
+ * {@link WatchedDocuments}, reading the changed file only and updating the indexes and routers; {@code rebuild}
+ * loads every document again and builds its registered version from scratch. The file system watcher and its
+ * debounce period are left out, both measure the reload itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReloadBenchmark {
+
+    private static final int CHANNELS = 10;
+    private static final int SHARED_MESSAGES = 20;
+
+    @Param({"100", "2000"})
+    int documents;
+
+    private Path directory;
+    private Path common;
+    private List<Path> paths;
+    private DocumentRegistry registry;
+    private WatchedDocuments watched;
+    private boolean widened;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("asyncapi-reload");
+        common = directory.resolve("common.yaml");
+        Files.writeString(common, common("[eu, us]"));
+        paths = new ArrayList<>(documents);
+        for (int d = 0; d < documents; d++) {
+            StringBuilder document = new StringBuilder()
+                .append("asyncapi: 3.0.0\nid: 'urn:example:service").append(d).append("'\n")
+                .append("info:\n  title: Service ").append(d).append("\n  version: 1.0.0\n")
+                .append("channels:\n");
+            for (int c = 0; c < CHANNELS; c++) {
+                document.append("  channel").append(c).append(":\n")
+                    .append("    address: 'service").append(d).append("/{region}/events/").append(c).append("'\n")
+                    .append("    parameters:\n      region:\n")
+                    .append("        $ref: 'common.yaml#/components/parameters/region'\n")
+                    .append("    messages:\n      event:\n")
+                    .append("        $ref: 'common.yaml#/components/messages/Message")
+                    .append((d + c) % SHARED_MESSAGES).append("'\n");
+            }
+            document.append("operations:\n");
+            for (int c = 0; c < CHANNELS; c++) {
+                document.append("  publish").append(c).append(":\n    action: send\n")
+                    .append("    channel:\n      $ref: '#/channels/channel").append(c).append("'\n");
+            }
+            Path path = directory.resolve("service" + d + ".yaml");
+            Files.writeString(path, document);
+            paths.add(path);
+        }
+        registry = DocumentRegistry.create();
+        watched = HotReloader.create().open(registry);
+        ReloadResult loaded = watched.add(paths);
+        if (!loaded.isSuccess()) {
+            throw new IllegalStateException("Cannot load the documents: " + loaded.errors());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        watched.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public ReloadResult incremental() throws IOException {
+        change();
+        return watched.reload(List.of(common));
+    }
+
+    @Benchmark
+    public DocumentRegistry rebuild() throws IOException {
+        change();
+        List<RegisteredDocument> rebuilt = new ArrayList<>(documents);
+        for (LoadResult result : BatchLoader.create().load(paths)) {
+            rebuilt.add(RegisteredDocument.of(result.document(), result.resolver()));
+        }
+        registry.publishAll(rebuilt);
+        return registry;
+    }
+
+    private void change() throws IOException {
+        widened = !widened;
+        Files.writeString(common, common(widened ? "[eu, us, ap]" : "[eu, us]"));
+    }
+
+    private static String common(String regions) {
+        StringBuilder common = new StringBuilder("components:\n  parameters:\n    region:\n")
+            .append("      enum: ").append(regions).append('\n')
+            .append("  messages:\n");
+        for (int m = 0; m < SHARED_MESSAGES; m++) {
+            common.append("    Message").append(m).append(":\n")
+                .append("      name: message").append(m).append('\n')
+                .append("      contentType: application/json\n")
+                .append("      payload:\n        type: object\n")
+                .append("        properties:\n          id:\n            type: string\n");
+        }
+        return common.toString();
+    }
+}
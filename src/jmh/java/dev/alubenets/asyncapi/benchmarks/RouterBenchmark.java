@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.parser.TreeTokenReader;
+import dev.alubenets.asyncapi.routing.ChannelMatch;
+import dev.alubenets.asyncapi.routing.ChannelRouter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares matching concrete addresses with the compiled {@link ChannelRouter} against trying one regular expression
+ * per channel. Run with {@code -prof gc} to confirm that routing does not allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouterBenchmark {
+
+    private static final int ADDRESSES = 1024;
+
+    @Param({"5000"})
+    int channels;
+
+    private ChannelRouter router;
+    private ChannelMatch match;
+    private Pattern[] patterns;
+    private String[] addresses;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        AsyncAPI document = AsyncApiReader.create().read(new TreeTokenReader(SyntheticDocuments.tree(channels)));
+        router = ChannelRouter.compile(document);
+        match = router.newMatch();
+        patterns = new Pattern[channels];
+        for (int i = 0; i < channels; i++) {
+            String address = document.channels().get("channel" + i).address();
+            patterns[i] = Pattern.compile(Pattern.quote(address).replace("{entityId}", "\\E([^/]+)\\Q"));
+        }
+        Random random = new Random(42);
+        addresses = new String[ADDRESSES];
+        for (int i = 0; i < ADDRESSES; i++) {
+            int channel = random.nextInt(channels);
+            addresses[i] = "service/" + (channel % 97) + "/entity" + channel + "/" + random.nextInt(1_000_000)
+                + "/changed";
+        }
+    }
+
+    @Benchmark
+    public boolean router() {
+        return router.match(addresses[next++ & (ADDRESSES - 1)], match);
+    }
+
+    @Benchmark
+    public int regex() {
+        String address = addresses[next++ & (ADDRESSES - 1)];
+        for (int i = 0; i < patterns.length; i++) {
+            if (patterns[i].matcher(address).matches()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
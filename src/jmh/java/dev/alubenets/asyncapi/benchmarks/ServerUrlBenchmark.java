@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Server;
+import dev.alubenets.asyncapi.models.ServerVariable;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.routing.ServerUrlTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the connection URL of a server for rotating variable values, from a compiled template and by replacing
+ * the placeholders in the host string.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServerUrlBenchmark {
+
+    private static final String[] ENVIRONMENTS = {"prod", "staging", "dev"};
+
+    private Server server;
+    private ServerUrlTemplate template;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        AsyncAPI document = AsyncApiReader.create().read(new ByteArrayInputStream(SyntheticDocuments.json(10)));
+        server = document.servers().get("server-0");
+        template = ServerUrlTemplate.compile(document).get("server-0");
+    }
+
+    @Benchmark
+    public String expandTemplate() {
+        return template.expand(ENVIRONMENTS[next++ % ENVIRONMENTS.length]);
+    }
+
+    @Benchmark
+    public String expandByReplace() {
+        Map<String, String> values = Map.of("env", ENVIRONMENTS[next++ % ENVIRONMENTS.length]);
+        String host = server.host();
+        for (Map.Entry<String, ServerVariable> variable : server.variables().entrySet()) {
+            String value = values.getOrDefault(variable.getKey(), variable.getValue()._default());
+            if (variable.getValue()._enum() != null && !variable.getValue()._enum().contains(value)) {
+                throw new IllegalArgumentException(value);
+            }
+            host = host.replace("{" + variable.getKey() + "}", value);
+        }
+        return server.protocol() + "://" + host;
+    }
+}
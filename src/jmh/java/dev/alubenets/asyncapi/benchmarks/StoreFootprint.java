@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.hash.CanonicalStore;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.function.UnaryOperator;
+
+/**
+ * Reports the heap retained by a registry of similar documents, each with a few channels of its own, read as they are
+ * and canonicalized through a {@link CanonicalStore}. Run with {@code ./gradlew storeFootprint}.
+ */
+public final class StoreFootprint {
+
+    private static final int DOCUMENTS = 200;
+    private static final int CHANNELS = 1000;
+
+    private StoreFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String json = new String(SyntheticDocuments.json(CHANNELS), StandardCharsets.UTF_8);
+        double plain = retained(json, UnaryOperator.identity());
+        CanonicalStore store = CanonicalStore.create();
+        double shared = retained(json, store::canonicalize);
+        System.out.printf("%10s %14s %14s %10s %14s%n", "documents", "plain MB", "shared MB", "ratio", "estimated MB");
+        System.out.printf("%10d %14.1f %14.1f %10.1f %14.1f%n", DOCUMENTS, plain, shared, store.ratio(),
+            store.savedBytes() / 1e6);
+    }
+
+    private static double retained(String json, UnaryOperator<AsyncAPI> canonicalize) throws IOException {
+        AsyncApiReader reader = AsyncApiReader.create().withFrozenMaps(true);
+        AsyncAPI[] retained = new AsyncAPI[DOCUMENTS];
+        long before = usedHeap();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            String variant = json.replace("\"channel" + i % CHANNELS + "\"", "\"service" + i + "\"");
+            retained[i] = canonicalize.apply(
+                reader.read(new ByteArrayInputStream(variant.getBytes(StandardCharsets.UTF_8))));
+        }
+        long after = usedHeap();
+        if (retained[DOCUMENTS - 1] == null) {
+            throw new IllegalStateException();
+        }
+        return (after - before) / 1e6;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
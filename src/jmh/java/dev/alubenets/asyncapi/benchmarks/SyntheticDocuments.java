@@ -0,0 +1,291 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates reproducible AsyncAPI documents of a given size for the benchmarks.
+ * <p>
+ * Every channel has a templated address with one parameter, a message referencing one of a limited set of shared
+ * component messages, and a matching operation. The output only depends on the requested size.
+ */
+final class SyntheticDocuments {
+
+    private static final int SHARED_MESSAGES = 50;
+    private static final String[] PROTOCOLS = {"kafka", "amqp", "mqtt"};
+
+    private SyntheticDocuments() {
+    }
+
+    /**
+     * @param channels number of channels and operations in the document.
+     * @return the document as a tree of maps, lists and strings.
+     */
+    static Map<String, Object> tree(int channels) {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("asyncapi", "3.0.0");
+        document.put("id", "urn:dev:alubenets:synthetic:" + channels);
+        document.put("info", map(
+            "title", "Synthetic API with " + channels + " channels",
+            "version", "1.0.0",
+            "description", "Generated for benchmarks.",
+            "tags", List.of(map("name", "synthetic", "description", "Generated document"))
+        ));
+        document.put("defaultContentType", "application/json");
+
+        Map<String, Object> servers = new LinkedHashMap<>();
+        for (int i = 0; i < PROTOCOLS.length; i++) {
+            servers.put("server-" + i, map(
+                "host", "{env}.broker-" + i + ".example.com:9092",
+                "protocol", PROTOCOLS[i],
+                "description", "Broker " + i,
+                "variables", map("env", map("enum", List.of("prod", "staging", "dev"), "default", "dev")),
+                "tags", List.of(map("name", "env:" + PROTOCOLS[i]))
+            ));
+        }
+        document.put("servers", servers);
+
+        Map<String, Object> channelMap = new LinkedHashMap<>();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (int i = 0; i < channels; i++) {
+            String channel = "channel" + i;
+            String message = "message" + (i % SHARED_MESSAGES);
+            channelMap.put(channel, map(
+                "address", "service/" + (i % 97) + "/entity" + i + "/{entityId}/changed",
+                "title", "Channel " + i,
+                "description", "Entity " + i + " change notifications.",
+                "servers", List.of(map("$ref", "#/servers/server-" + (i % PROTOCOLS.length))),
+                "messages", map(message, map("$ref", "#/components/messages/" + message)),
+                "parameters", map("entityId", map("$ref", "#/components/parameters/entityId")),
+                "tags", List.of(map("name", "domain-" + (i % 10)))
+            ));
+            operations.put("on" + channel, map(
+                "action", i % 2 == 0 ? "receive" : "send",
+                "channel", map("$ref", "#/channels/" + channel),
+                "summary", "Handles entity " + i + " changes.",
+                "tags", List.of(map("name", i % 3 == 0 ? "billing" : "core")),
+                "messages", List.of(map("$ref", "#/channels/" + channel + "/messages/" + message))
+            ));
+        }
+        document.put("channels", channelMap);
+        document.put("operations", operations);
+
+        Map<String, Object> messages = new LinkedHashMap<>();
+        Map<String, Object> schemas = new LinkedHashMap<>();
+        for (int i = 0; i < SHARED_MESSAGES; i++) {
+            messages.put("message" + i, map(
+                "name", "message" + i,
+                "title", "Message " + i,
+                "contentType", "application/json",
+                "payload", map("$ref", "#/components/schemas/payload" + i),
+                "tags", List.of(map("name", "domain-" + (i % 10)))
+            ));
+            schemas.put("payload" + i, map(
+                "type", "object",
+                "required", List.of("id", "changedAt"),
+                "properties", map(
+                    "id", map("type", "string", "format", "uuid"),
+                    "changedAt", map("type", "string", "format", "date-time"),
+                    "revision", map("type", "integer", "minimum", 0),
+                    "status", map("type", "string", "enum", List.of("created", "updated", "deleted"))
+                )
+            ));
+        }
+        document.put("components", map(
+            "messages", messages,
+            "schemas", schemas,
+            "parameters", map("entityId", map("description", "Identifier of the entity.")),
+            "securitySchemes", map("saslScram", map("type", "scramSha256", "description", "SASL/SCRAM"))
+        ));
+        return document;
+    }
+
+    static byte[] json(int channels) {
+        StringBuilder out = new StringBuilder();
+        writeJson(tree(channels), out);
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param channels number of channels and operations in the document.
+     * @return the document with three traits on every operation and two on every shared message, as JSON.
+     */
+    @SuppressWarnings("unchecked")
+    static byte[] jsonWithTraits(int channels) {
+        Map<String, Object> document = tree(channels);
+        for (Object operation : ((Map<String, Object>) document.get("operations")).values()) {
+            ((Map<String, Object>) operation).put("traits", List.of(
+                map("$ref", "#/components/operationTraits/kafka"),
+                map("$ref", "#/components/operationTraits/audited"),
+                map("description", "Overrides the audited description.")
+            ));
+        }
+        Map<String, Object> components = (Map<String, Object>) document.get("components");
+        for (Object message : ((Map<String, Object>) components.get("messages")).values()) {
+            ((Map<String, Object>) message).put("traits", List.of(
+                map("$ref", "#/components/messageTraits/envelope"),
+                map("headers", map("properties", map("tenant", map("type", "string"))), "contentType", "text/plain")
+            ));
+        }
+        components.put("operationTraits", map(
+            "kafka", map(
+                "bindings", map("kafka", map("groupId", map("type", "string"), "bindingVersion", "0.5.0")),
+                "externalDocs", map("url", "https://example.com/kafka", "description", "Kafka conventions")
+            ),
+            "audited", map(
+                "description", "Audited operation.",
+                "tags", List.of(map("name", "audited")),
+                "security", List.of(map("$ref", "#/components/securitySchemes/saslScram"))
+            )
+        ));
+        components.put("messageTraits", map(
+            "envelope", map(
+                "headers", map(
+                    "type", "object",
+                    "required", List.of("correlationId"),
+                    "properties", map("correlationId", map("type", "string", "format", "uuid"))
+                ),
+                "correlationId", map("location", "$message.header#/correlationId"),
+                "bindings", map("kafka", map("key", map("type", "string"))),
+                "summary", "Enveloped message."
+            )
+        ));
+        StringBuilder out = new StringBuilder();
+        writeJson(document, out);
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param channels number of channels and operations in the document.
+     * @return the document with Kafka, AMQP, MQTT, WebSockets and NATS bindings on every channel and operation, as
+     * JSON.
+     */
+    @SuppressWarnings("unchecked")
+    static byte[] jsonWithBindings(int channels) {
+        Map<String, Object> document = tree(channels);
+        int i = 0;
+        for (Object channel : ((Map<String, Object>) document.get("channels")).values()) {
+            ((Map<String, Object>) channel).put("bindings", map(
+                "kafka", map("topic", "entity-" + i, "partitions", 12, "replicas", 3,
+                    "topicConfiguration", map("cleanup.policy", List.of("compact"), "retention.ms", 604800000),
+                    "bindingVersion", "0.5.0"),
+                "amqp", map("is", "routingKey",
+                    "exchange", map("name", "entities", "type", "topic", "durable", true, "vhost", "/"),
+                    "bindingVersion", "0.3.0"),
+                "mqtt", map("bindingVersion", "0.2.0"),
+                "ws", map("method", "GET", "query", map("type", "object",
+                    "properties", map("token", map("type", "string"))), "bindingVersion", "0.1.0"),
+                "nats", map("bindingVersion", "0.1.0")
+            ));
+            i++;
+        }
+        for (Object operation : ((Map<String, Object>) document.get("operations")).values()) {
+            ((Map<String, Object>) operation).put("bindings", map(
+                "kafka", map("groupId", map("type", "string", "enum", List.of("billing")), "bindingVersion", "0.5.0"),
+                "amqp", map("expiration", 100000, "userId", "guest", "cc", List.of("user.logs"), "priority", 10,
+                    "deliveryMode", 2, "mandatory", false, "timestamp", true, "ack", false, "bindingVersion", "0.3.0"),
+                "mqtt", map("qos", 1, "retain", false, "bindingVersion", "0.2.0"),
+                "ws", map("bindingVersion", "0.1.0"),
+                "nats", map("queue", "entities", "bindingVersion", "0.1.0")
+            ));
+        }
+        StringBuilder out = new StringBuilder();
+        writeJson(document, out);
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] yaml(int channels) {
+        StringBuilder out = new StringBuilder();
+        writeYaml(tree(channels), 0, out);
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Object> map(Object... keysAndValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    private static void writeJson(Object value, StringBuilder out) {
+        if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append('"').append(entry.getKey()).append("\":");
+                writeJson(entry.getValue(), out);
+            }
+            out.append('}');
+        } else if (value instanceof List<?> list) {
+            out.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                writeJson(list.get(i), out);
+            }
+            out.append(']');
+        } else if (value instanceof String string) {
+            out.append('"').append(string).append('"');
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static void writeYaml(Object value, int indent, StringBuilder out) {
+        if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                out.append(" ".repeat(indent)).append('\'').append(entry.getKey()).append("':");
+                writeYamlValue(entry.getValue(), indent, out);
+            }
+        } else if (value instanceof List<?> list) {
+            for (Object item : list) {
+                out.append(" ".repeat(indent)).append('-');
+                writeYamlValue(item, indent, out);
+            }
+        }
+    }
+
+    private static void writeYamlValue(Object value, int indent, StringBuilder out) {
+        if (value instanceof Map<?, ?> || value instanceof List<?>) {
+            out.append('\n');
+            writeYaml(value, indent + 2, out);
+        } else if (value instanceof String string) {
+            out.append(" '").append(string.replace("'", "''")).append("'\n");
+        } else {
+            out.append(' ').append(value).append('\n');
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import dev.alubenets.asyncapi.traits.TraitFlattener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the effective description, bindings and message content type of every operation of a document where every
+ * operation has three traits and every message two, flattening them from scratch and from a warm flattener.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraitBenchmark {
+
+    @Param({"1000", "50000"})
+    int channels;
+
+    private AsyncAPI document;
+    private ReferenceResolver resolver;
+    private TraitFlattener flattener;
+
+    @Setup
+    public void setUp() throws IOException {
+        document = AsyncApiReader.create().read(new ByteArrayInputStream(SyntheticDocuments.jsonWithTraits(channels)));
+        resolver = ReferenceResolver.of(document);
+        resolver.resolveAll();
+        flattener = TraitFlattener.of(resolver);
+        read(flattener, null);
+    }
+
+    @Benchmark
+    public void flatten(Blackhole blackhole) {
+        read(TraitFlattener.of(resolver), blackhole);
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) {
+        read(flattener, blackhole);
+    }
+
+    private void read(TraitFlattener traits, Blackhole blackhole) {
+        for (Operation operation : document.operations().values()) {
+            Operation effective = traits.effective(operation);
+            Message message = traits.effective(effective.messages().get(0));
+            if (blackhole != null) {
+                blackhole.consume(effective.description());
+                blackhole.consume(effective.bindings());
+                blackhole.consume(message.contentType());
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.validation.SchemaValidator;
+import dev.alubenets.asyncapi.validation.ValidationError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates a typical event payload: a handful of typed, bounded properties, an enum, a pattern and a nested array of
+ * objects. Throughput per core is the inverse of the reported time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private SchemaValidator validator;
+    private Map<String, Object> valid;
+    private Map<String, Object> invalid;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> item = Map.of(
+            "type", "object",
+            "required", List.of("sku", "quantity"),
+            "properties", Map.of(
+                "sku", Map.of("type", "string", "pattern", "^[A-Z]{3}-[0-9]{4}$"),
+                "quantity", Map.of("type", "integer", "minimum", 1)
+            )
+        );
+        validator = SchemaValidator.compile(Map.of(
+            "type", "object",
+            "required", List.of("id", "status", "items"),
+            "additionalProperties", false,
+            "properties", Map.of(
+                "id", Map.of("type", "integer", "minimum", 1),
+                "status", Map.of("enum", List.of("created", "paid", "shipped")),
+                "customer", Map.of("type", "string", "minLength", 1, "maxLength", 64),
+                "total", Map.of("type", "number", "minimum", 0),
+                "items", Map.of("type", "array", "minItems", 1, "items", item)
+            )
+        ));
+        valid = new LinkedHashMap<>();
+        valid.put("id", 42);
+        valid.put("status", "paid");
+        valid.put("customer", "ACME Corporation");
+        valid.put("total", 129.5);
+        valid.put("items", List.of(Map.of("sku", "ABC-0001", "quantity", 2), Map.of("sku", "XYZ-1234", "quantity", 1)));
+        invalid = new LinkedHashMap<>(valid);
+        invalid.put("status", "lost");
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(valid);
+    }
+
+    @Benchmark
+    public List<ValidationError> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public List<ValidationError> validateInvalid() {
+        return validator.validate(invalid);
+    }
+}
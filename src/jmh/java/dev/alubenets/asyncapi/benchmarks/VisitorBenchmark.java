@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.parser.DocumentVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracts the address and message names of every channel, once by reading the whole document and once by visiting
+ * only the channels and skipping the operations and components.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisitorBenchmark {
+
+    @Param({"1000", "100000"})
+    int channels;
+
+    private byte[] json;
+    private AsyncApiReader reader;
+
+    @Setup
+    public void setUp() {
+        json = SyntheticDocuments.json(channels);
+        reader = AsyncApiReader.create();
+    }
+
+    @Benchmark
+    public Map<String, String> readDocument() throws IOException {
+        Map<String, String> addresses = new HashMap<>();
+        for (Map.Entry<String, Channel> channel : reader.read(new ByteArrayInputStream(json)).channels().entrySet()) {
+            addresses.put(channel.getKey(), channel.getValue().address());
+            for (String message : channel.getValue().messages().keySet()) {
+                addresses.put(channel.getKey() + '/' + message, message);
+            }
+        }
+        return addresses;
+    }
+
+    @Benchmark
+    public Map<String, String> visitChannels() throws IOException {
+        Map<String, String> addresses = new HashMap<>();
+        reader.read(new ByteArrayInputStream(json), new DocumentVisitor() {
+            @Override
+            public boolean enter(String pointer) {
+                return pointer.equals("/channels");
+            }
+
+            @Override
+            public void onChannel(String name, Channel channel) {
+                addresses.put(name, channel.address());
+            }
+
+            @Override
+            public void onMessage(String channel, String name, Message message) {
+                addresses.put(channel + '/' + name, name);
+            }
+        });
+        return addresses;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.codecs;
+
+/**
+ * Reads and creates instances of one model type without reflection.
+ * <p>
+ * A codec of a record exposes its components in declaration order, by the name they are written with in documents
+ * and by their Java name, and creates records through the canonical constructor. A codec of a map or list type, such
+ * as {@code Channels} or {@code Tags}, has no components and creates empty instances.
+ * <p>
+ * Codecs of the types in packages annotated with {@link GenerateCodecs} are generated at compile time, the model
+ * types never touch reflection. Any other record or collection type gets a codec built through reflection the first
+ * time it is asked for. Codecs are stateless and thread-safe.
+ * <pre>{@code
+ * ModelCodec<Channel> codec = ModelCodec.of(Channel.class);
+ * for (int i = 0; i < codec.size(); i++) {
+ *     System.out.println(codec.name(i) + ": " + codec.get(channel, i));
+ * }
+ * }</pre>
+ *
+ * @param <T> the model type.
+ */
+public interface ModelCodec<T> {
+
+    /**
+     * @param type a record type, or a map or list type with a public no-argument constructor.
+     * @return the codec of the type, typed as any of its supertypes.
+     * @throws IllegalArgumentException if the type is neither a record nor an instantiable map or list.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ModelCodec<T> of(Class<? extends T> type) {
+        return (ModelCodec<T>) CodecCache.CODECS.get(type);
+    }
+
+    Class<?> type();
+
+    /**
+     * @return the number of record components, {@code 0} for map and list types.
+     */
+    int size();
+
+    /**
+     * @param index the index of a record component.
+     * @return the name the component is written with in documents, such as {@code enum} for {@code _enum}.
+     */
+    String name(int index);
+
+    /**
+     * @param index the index of a record component.
+     * @return the name of the component in Java, such as {@code _enum}.
+     */
+    String componentName(int index);
+
+    /**
+     * @param index the index of a record component.
+     * @return the declared type of the component, erased.
+     */
+    Class<?> componentType(int index);
+
+    /**
+     * @param value a record of the type.
+     * @param index the index of a record component.
+     * @return the value of the component.
+     */
+    Object get(T value, int index);
+
+    /**
+     * @param values the values of all record components in declaration order, none for map and list types.
+     * @return a new record, or a new empty map or list.
+     * @throws IllegalArgumentException if the number of values does not match {@link #size()}.
+     * @throws ClassCastException       if a value has the wrong type.
+     */
+    T create(Object... values);
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.codecs;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The codec of a type no codec was generated for, such as a record of an application passed to the writer.
+ */
+final class ReflectiveCodec implements ModelCodec<Object> {
+
+    private final Class<?> type;
+    private final String[] names;
+    private final String[] componentNames;
+    private final Class<?>[] componentTypes;
+    private final Method[] accessors;
+    private final Constructor<?> constructor;
+
+    private ReflectiveCodec(Class<?> type, String[] names, String[] componentNames, Class<?>[] componentTypes,
+                            Method[] accessors, Constructor<?> constructor) {
+        this.type = type;
+        this.names = names;
+        this.componentNames = componentNames;
+        this.componentTypes = componentTypes;
+        this.accessors = accessors;
+        this.constructor = constructor;
+    }
+
+    static ReflectiveCodec of(Class<?> type) {
+        try {
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                String[] names = new String[components.length];
+                String[] componentNames = new String[components.length];
+                Method[] accessors = new Method[components.length];
+                Class<?>[] types = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    componentNames[i] = components[i].getName();
+                    names[i] = componentNames[i].startsWith("_") ? componentNames[i].substring(1) : componentNames[i];
+                    accessors[i] = components[i].getAccessor();
+                    types[i] = components[i].getType();
+                }
+                return new ReflectiveCodec(type, names, componentNames, types, accessors,
+                    type.getDeclaredConstructor(types));
+            }
+            if ((Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type))
+                && !Modifier.isAbstract(type.getModifiers())) {
+                return new ReflectiveCodec(type, new String[0], new String[0], new Class<?>[0], new Method[0],
+                    type.getConstructor());
+            }
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("No usable constructor in " + type.getName(), e);
+        }
+        throw new IllegalArgumentException(type.getName() + " is neither a record nor an instantiable map or list");
+    }
+
+    @Override
+    public Class<?> type() {
+        return type;
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public String name(int index) {
+        return names[index];
+    }
+
+    @Override
+    public String componentName(int index) {
+        return componentNames[index];
+    }
+
+    @Override
+    public Class<?> componentType(int index) {
+        return componentTypes[index];
+    }
+
+    @Override
+    public Object get(Object value, int index) {
+        try {
+            return accessors[index].invoke(value);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot read " + accessors[index], e);
+        }
+    }
+
+    @Override
+    public Object create(Object... values) {
+        if (values.length != names.length) {
+            throw new IllegalArgumentException(type.getName() + " takes " + names.length + " values, not "
+                + values.length);
+        }
+        try {
+            return constructor.newInstance(values);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + type.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.diff;
+
+import dev.alubenets.asyncapi.codecs.ModelCodec;
+import dev.alubenets.asyncapi.hash.ContentHash;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Structural differences between two versions of a document, as JSON pointers to the values that were added, removed
+ * or modified.
+ * <p>
+ * Both documents are walked together and changes are reported as deep as they occur: a new channel is one
+ * {@link DocumentChange.Kind#ADDED} change at {@code /channels/name}, an edited address is one
+ * {@link DocumentChange.Kind#MODIFIED} change at {@code /channels/name/address}. Map entries are matched by key and
+ * list elements by position. Subtrees that are the same instance in both documents are skipped without being looked
+ * into, which makes diffing documents that share most of their objects, such as documents parsed with the same
+ * {@link dev.alubenets.asyncapi.parser.InterningPool} or patched copies of a document, cheap. Subtrees whose
+ * {@link ContentHash}es are cached from an earlier hashing of both documents are compared by hash.
+ * <pre>{@code
+ * DocumentDiff diff = DocumentDiff.compare(current, updated);
+ * for (String channel : diff.changedKeys("/channels")) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class DocumentDiff {
+
+    private static final ClassValue<Component[]> COMPONENTS = new ClassValue<>() {
+        @Override
+        protected Component[] computeValue(Class<?> type) {
+            ModelCodec<Record> codec = ModelCodec.of(type.asSubclass(Record.class));
+            Component[] result = new Component[codec.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = new Component(escape(codec.name(i)), codec, i);
+            }
+            return result;
+        }
+    };
+
+    private final List<DocumentChange> changes;
+
+    private DocumentDiff(List<DocumentChange> changes) {
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * @param before the old document.
+     * @param after  the new document.
+     * @return the changes that turn the old document into the new one.
+     */
+    public static DocumentDiff compare(AsyncAPI before, AsyncAPI after) {
+        Objects.requireNonNull(before, "before");
+        Objects.requireNonNull(after, "after");
+        Walker walker = new Walker();
+        walker.records(before, after);
+        return new DocumentDiff(walker.changes);
+    }
+
+    /**
+     * Changes are listed in the order the walk finds them: record components in the order of their declaration, the
+     * entries of a map in the iteration order of the old map followed by the added entries in that of the new one, and
+     * list elements by position. Model maps such as {@code Channels} iterate in hash order rather than in the order of
+     * the document, so neither does this list.
+     *
+     * @return the changes.
+     */
+    public List<DocumentChange> changes() {
+        return changes;
+    }
+
+    /**
+     * @return whether the documents are equal.
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * @param pointer the JSON pointer of a map, such as {@code /channels} or {@code /components/messages}.
+     * @return the keys of the map whose entries were added, removed or modified, in the order of {@link #changes()}.
+     */
+    public Set<String> changedKeys(String pointer) {
+        String prefix = pointer + "/";
+        Set<String> keys = new LinkedHashSet<>();
+        for (DocumentChange change : changes) {
+            String path = change.path();
+            if (path.equals(pointer)) {
+                // The whole map was added or removed.
+                addKeys(keys, change.before());
+                addKeys(keys, change.after());
+            } else if (path.startsWith(prefix)) {
+                int end = path.indexOf('/', prefix.length());
+                keys.add(unescape(path.substring(prefix.length(), end < 0 ? path.length() : end)));
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (DocumentChange change : changes) {
+            text.append(change.kind()).append(' ').append(change.path()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void addKeys(Set<String> keys, Object map) {
+        if (map instanceof Map<?, ?> entries) {
+            for (Object key : entries.keySet()) {
+                keys.add(String.valueOf(key));
+            }
+        }
+    }
+
+    static String escape(String token) {
+        if (token.indexOf('~') < 0 && token.indexOf('/') < 0) {
+            return token;
+        }
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+
+    static String unescape(String token) {
+        if (token.indexOf('~') < 0) {
+            return token;
+        }
+        return token.replace("~1", "/").replace("~0", "~");
+    }
+
+    private record Component(String token, ModelCodec<Record> codec, int index) {
+
+        Object get(Record record) {
+            return codec.get(record, index);
+        }
+    }
+
+    /**
+     * Walks both documents depth first. The current path is kept in one builder and only turned into a string when a
+     * change is reported.
+     */
+    private static final class Walker {
+
+        private final List<DocumentChange> changes = new ArrayList<>();
+        private final StringBuilder path = new StringBuilder();
+
+        void compare(Object before, Object after) {
+            if (before == after) {
+                return;
+            }
+            if (before == null) {
+                report(DocumentChange.Kind.ADDED, null, after);
+            } else if (after == null) {
+                report(DocumentChange.Kind.REMOVED, before, null);
+            } else if (before instanceof Record record && before.getClass() == after.getClass()) {
+                // Record equality is a tight loop over the fields, far cheaper than walking them reflectively, and
+                // most entries of a map are unchanged.
+                if (!unchanged(before, after)) {
+                    records(record, (Record) after);
+                }
+            } else if (before instanceof Map<?, ?> map && after instanceof Map<?, ?> other) {
+                maps(map, other);
+            } else if (before instanceof List<?> list && after instanceof List<?> other) {
+                lists(list, other);
+            } else if (!before.equals(after)) {
+                report(DocumentChange.Kind.MODIFIED, before, after);
+            }
+        }
+
+        /**
+         * Values whose content hashes are both cached are compared by hash, in constant time, everything else falls
+         * back to {@code equals}.
+         */
+        private static boolean unchanged(Object before, Object after) {
+            if (before == after) {
+                return true;
+            }
+            if (before == null || after == null) {
+                return false;
+            }
+            ContentHash hash = ContentHash.cached(before);
+            ContentHash other = hash == null ? null : ContentHash.cached(after);
+            return other != null ? hash.equals(other) : before.equals(after);
+        }
+
+        void records(Record before, Record after) {
+            int length = path.length();
+            for (Component component : COMPONENTS.get(before.getClass())) {
+                path.append('/').append(component.token());
+                compare(component.get(before), component.get(after));
+                path.setLength(length);
+            }
+        }
+
+        private void maps(Map<?, ?> before, Map<?, ?> after) {
+            int length = path.length();
+            int kept = 0;
+            for (Map.Entry<?, ?> entry : before.entrySet()) {
+                Object value = entry.getValue();
+                Object other = after.get(entry.getKey());
+                if (other == null && !after.containsKey(entry.getKey())) {
+                    path.append('/').append(escape(String.valueOf(entry.getKey())));
+                    report(DocumentChange.Kind.REMOVED, value, null);
+                    path.setLength(length);
+                    continue;
+                }
+                kept++;
+                // Checked before the path is extended, most entries are unchanged.
+                if (!unchanged(value, other)) {
+                    path.append('/').append(escape(String.valueOf(entry.getKey())));
+                    compare(value, other);
+                    path.setLength(length);
+                }
+            }
+            // Every key of the new map that is not among the kept ones was added.
+            if (after.size() > kept) {
+                for (Map.Entry<?, ?> entry : after.entrySet()) {
+                    if (!before.containsKey(entry.getKey())) {
+                        path.append('/').append(escape(String.valueOf(entry.getKey())));
+                        report(DocumentChange.Kind.ADDED, null, entry.getValue());
+                        path.setLength(length);
+                    }
+                }
+            }
+        }
+
+        private void lists(List<?> before, List<?> after) {
+            int length = path.length();
+            int common = Math.min(before.size(), after.size());
+            for (int i = 0; i < common; i++) {
+                Object value = before.get(i);
+                Object other = after.get(i);
+                if (!unchanged(value, other)) {
+                    path.append('/').append(i);
+                    compare(value, other);
+                    path.setLength(length);
+                }
+            }
+            for (int i = common; i < before.size(); i++) {
+                path.append('/').append(i);
+                report(DocumentChange.Kind.REMOVED, before.get(i), null);
+                path.setLength(length);
+            }
+            for (int i = common; i < after.size(); i++) {
+                path.append('/').append(i);
+                report(DocumentChange.Kind.ADDED, null, after.get(i));
+                path.setLength(length);
+            }
+        }
+
+        private void report(DocumentChange.Kind kind, Object before, Object after) {
+            changes.add(new DocumentChange(kind, path.toString(), before, after));
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.expression;
+
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.parser.DocumentFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Navigates UTF-8 encoded JSON in place. Values that are not looked into are skipped by their structure only, nothing
+ * is decoded until the target value is reached.
+ */
+final class JsonScanner {
+
+    private static final AsyncApiReader READER = AsyncApiReader.create().withFormat(DocumentFormat.JSON);
+
+    private JsonScanner() {
+    }
+
+    /**
+     * @param position the position of a {@code {}.
+     * @return the position of the value of the member with the given name, or -1 if there is none.
+     */
+    static int member(byte[] bytes, int position, int end, byte[] name, String decoded) {
+        position = skipWhitespace(bytes, position + 1, end);
+        if (at(bytes, position, end) == '}') {
+            return -1;
+        }
+        while (true) {
+            if (at(bytes, position, end) != '"') {
+                throw malformed(position);
+            }
+            int keyEnd = skipString(bytes, position, end);
+            boolean matches = keyEquals(bytes, position + 1, keyEnd - 1, name, decoded);
+            position = skipWhitespace(bytes, keyEnd, end);
+            if (at(bytes, position, end) != ':') {
+                throw malformed(position);
+            }
+            position = skipWhitespace(bytes, position + 1, end);
+            if (matches) {
+                return position;
+            }
+            position = skipWhitespace(bytes, skipValue(bytes, position, end), end);
+            byte next = at(bytes, position, end);
+            if (next == '}') {
+                return -1;
+            }
+            if (next != ',') {
+                throw malformed(position);
+            }
+            position = skipWhitespace(bytes, position + 1, end);
+        }
+    }
+
+    /**
+     * @param position the position of a {@code [}.
+     * @return the position of the element at the given index, or -1 if the array is shorter.
+     */
+    static int element(byte[] bytes, int position, int end, int index) {
+        position = skipWhitespace(bytes, position + 1, end);
+        if (at(bytes, position, end) == ']') {
+            return -1;
+        }
+        for (int i = 0; i < index; i++) {
+            position = skipWhitespace(bytes, skipValue(bytes, position, end), end);
+            byte next = at(bytes, position, end);
+            if (next == ']') {
+                return -1;
+            }
+            if (next != ',') {
+                throw malformed(position);
+            }
+            position = skipWhitespace(bytes, position + 1, end);
+        }
+        return position;
+    }
+
+    /**
+     * Decodes the value at a position the way {@link AsyncApiReader} binds generic values.
+     */
+    static Object value(byte[] bytes, int position, int end) {
+        byte first = at(bytes, position, end);
+        switch (first) {
+            case '"' -> {
+                int stringEnd = skipString(bytes, position, end);
+                return decode(bytes, position + 1, stringEnd - 1);
+            }
+            case '{', '[' -> {
+                int valueEnd = skipValue(bytes, position, end);
+                try {
+                    return READER.readTree(new ByteArrayInputStream(bytes, position, valueEnd - position));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            case 't', 'f', 'n' -> {
+                int valueEnd = skipValue(bytes, position, end);
+                String literal = new String(bytes, position, valueEnd - position, StandardCharsets.US_ASCII);
+                return switch (literal) {
+                    case "true" -> Boolean.TRUE;
+                    case "false" -> Boolean.FALSE;
+                    case "null" -> null;
+                    default -> throw malformed(position);
+                };
+            }
+            default -> {
+                if (first != '-' && (first < '0' || first > '9')) {
+                    throw malformed(position);
+                }
+                int valueEnd = skipValue(bytes, position, end);
+                try {
+                    return number(new String(bytes, position, valueEnd - position, StandardCharsets.US_ASCII));
+                } catch (NumberFormatException e) {
+                    throw malformed(position);
+                }
+            }
+        }
+    }
+
+    static int skipWhitespace(byte[] bytes, int position, int end) {
+        while (position < end) {
+            byte b = bytes[position];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * @return the position after the value that starts at the given position.
+     */
+    private static int skipValue(byte[] bytes, int position, int end) {
+        byte first = at(bytes, position, end);
+        if (first == '"') {
+            return skipString(bytes, position, end);
+        }
+        if (first == '{' || first == '[') {
+            int nested = 0;
+            while (position < end) {
+                byte b = bytes[position];
+                if (b == '"') {
+                    position = skipString(bytes, position, end);
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    nested++;
+                } else if ((b == '}' || b == ']') && --nested == 0) {
+                    return position + 1;
+                }
+                position++;
+            }
+            throw malformed(end);
+        }
+        int start = position;
+        while (position < end) {
+            byte b = bytes[position];
+            if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                break;
+            }
+            position++;
+        }
+        if (position == start) {
+            throw malformed(position);
+        }
+        return position;
+    }
+
+    /**
+     * @param position the position of the opening quote.
+     * @return the position after the closing quote.
+     */
+    private static int skipString(byte[] bytes, int position, int end) {
+        position++;
+        while (position < end) {
+            byte b = bytes[position++];
+            if (b == '"') {
+                return position;
+            }
+            if (b == '\\') {
+                position++;
+            }
+        }
+        throw malformed(end);
+    }
+
+    private static boolean keyEquals(byte[] bytes, int start, int end, byte[] name, String decoded) {
+        if (end - start == name.length) {
+            boolean escaped = false;
+            for (int i = 0; i < name.length; i++) {
+                byte b = bytes[start + i];
+                if (b == '\\') {
+                    escaped = true;
+                    break;
+                }
+                if (b != name[i]) {
+                    return false;
+                }
+            }
+            if (!escaped) {
+                return true;
+            }
+        }
+        // Escapes make the encoded key longer than the name, only those keys need decoding.
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == '\\') {
+                return decoded.equals(decode(bytes, start, end));
+            }
+        }
+        return false;
+    }
+
+    private static String decode(byte[] bytes, int start, int end) {
+        int escape = start;
+        while (escape < end && bytes[escape] != '\\') {
+            escape++;
+        }
+        if (escape == end) {
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        int position = start;
+        while (position < end) {
+            int run = position;
+            while (run < end && bytes[run] != '\\') {
+                run++;
+            }
+            builder.append(new String(bytes, position, run - position, StandardCharsets.UTF_8));
+            if (run == end) {
+                break;
+            }
+            if (run + 1 >= end) {
+                throw malformed(run);
+            }
+            byte c = bytes[run + 1];
+            position = run + 2;
+            switch (c) {
+                case '"', '\\', '/' -> builder.append((char) c);
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'u' -> {
+                    if (position + 4 > end) {
+                        throw malformed(run);
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(
+                            new String(bytes, position, 4, StandardCharsets.US_ASCII), 16));
+                    } catch (NumberFormatException e) {
+                        throw malformed(run);
+                    }
+                    position += 4;
+                }
+                default -> throw malformed(run);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Binds a number to the same type as the reader: {@link Integer}, {@link Long} or {@link BigInteger} for
+     * integers, {@link Double} or {@link BigDecimal} otherwise.
+     */
+    private static Number number(String text) {
+        boolean integral = true;
+        for (int i = 0; i < text.length() && integral; i++) {
+            char c = text.charAt(i);
+            integral = (c >= '0' && c <= '9') || (i == 0 && c == '-');
+        }
+        if (integral) {
+            if (text.length() < 10) {
+                return Integer.parseInt(text);
+            }
+            if (text.length() < 19) {
+                return Long.parseLong(text);
+            }
+            BigInteger value = new BigInteger(text);
+            return value.bitLength() < 64 ? (Number) value.longValue() : value;
+        }
+        double value = Double.parseDouble(text);
+        if (Double.isInfinite(value)) {
+            return new BigDecimal(text);
+        }
+        return value;
+    }
+
+    private static byte at(byte[] bytes, int position, int end) {
+        if (position >= end) {
+            throw malformed(end);
+        }
+        return bytes[position];
+    }
+
+    private static IllegalArgumentException malformed(int position) {
+        return new IllegalArgumentException("Malformed JSON at offset " + position);
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.expression;
+
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.OperationReply;
+import dev.alubenets.asyncapi.models.OperationReplyAddress;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A compiled runtime expression, such as {@code $message.header#/replyTo} or {@code $message.payload#/meta/id}, that
+ * locates a value in a message.
+ * <p>
+ * The JSON pointer of the expression is split into its reference tokens once. Evaluating it against decoded headers
+ * or payloads, maps, lists and scalars as produced by JSON libraries, only looks up the tokens and allocates nothing.
+ * Evaluating it against raw JSON walks the bytes in place and skips everything off the path by its structure, only
+ * the located value is decoded.
+ * <p>
+ * Instances are immutable and thread-safe.
+ * <pre>{@code
+ * RuntimeExpression replyTo = RuntimeExpression.compile("$message.header#/replyTo");
+ * Object address = replyTo.evaluate(headers, payload);
+ * }</pre>
+ *
+ * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#runtime-expression">Runtime Expression</a>
+ */
+public final class RuntimeExpression {
+
+    private static final String MESSAGE = "$message.";
+
+    /**
+     * The part of a message an expression points into.
+     */
+    public enum Source {
+        HEADER, PAYLOAD
+    }
+
+    private final String expression;
+    private final Source source;
+    private final String[] tokens;
+    private final byte[][] encodedTokens;
+    /**
+     * The array index of every token, or -1 for tokens that are not array indexes.
+     */
+    private final int[] indexes;
+
+    private RuntimeExpression(String expression, Source source, String[] tokens) {
+        this.expression = expression;
+        this.source = source;
+        this.tokens = tokens;
+        this.encodedTokens = new byte[tokens.length][];
+        this.indexes = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            encodedTokens[i] = tokens[i].getBytes(StandardCharsets.UTF_8);
+            indexes[i] = index(tokens[i]);
+        }
+    }
+
+    /**
+     * @param expression a runtime expression.
+     * @return the compiled expression.
+     * @throws IllegalArgumentException if the expression is malformed.
+     */
+    public static RuntimeExpression compile(String expression) {
+        Objects.requireNonNull(expression, "expression");
+        if (!expression.startsWith(MESSAGE)) {
+            throw new IllegalArgumentException("Not a message runtime expression: " + expression);
+        }
+        int hash = expression.indexOf('#');
+        String name = expression.substring(MESSAGE.length(), hash < 0 ? expression.length() : hash);
+        Source source = switch (name) {
+            case "header" -> Source.HEADER;
+            case "payload" -> Source.PAYLOAD;
+            default -> throw new IllegalArgumentException("Unknown source '" + name + "' in " + expression);
+        };
+        String pointer = hash < 0 ? "" : expression.substring(hash + 1);
+        return new RuntimeExpression(expression, source, tokens(pointer, expression));
+    }
+
+    /**
+     * @param reply    an operation reply, possibly a reference.
+     * @param resolver resolves the reply and its address.
+     * @return the compiled location of the reply address, or {@code null} if the reply has no address location.
+     * @throws IllegalArgumentException if the location is malformed.
+     */
+    public static RuntimeExpression forReplyAddress(OperationReply reply, ReferenceResolver resolver) {
+        reply = resolver.resolve(reply);
+        OperationReplyAddress address = reply == null ? null : resolver.resolve(reply.address());
+        return address == null || address.location() == null ? null : compile(address.location());
+    }
+
+    /**
+     * @param message  a message, possibly a reference.
+     * @param resolver resolves the message and its correlation ID.
+     * @return the compiled location of the correlation ID, or {@code null} if the message has no correlation ID.
+     * @throws IllegalArgumentException if the location is malformed.
+     */
+    public static RuntimeExpression forCorrelationId(Message message, ReferenceResolver resolver) {
+        message = resolver.resolve(message);
+        Object correlationId = message == null ? null : resolver.resolveValue(message.correlationId());
+        if (correlationId instanceof Map<?, ?> map && map.get("location") instanceof String location) {
+            return compile(location);
+        }
+        return null;
+    }
+
+    /**
+     * @return the part of the message the expression points into.
+     */
+    public Source source() {
+        return source;
+    }
+
+    /**
+     * @return the reference tokens of the JSON pointer, empty if the expression locates the whole part.
+     */
+    public List<String> tokens() {
+        return List.of(tokens);
+    }
+
+    /**
+     * @param headers the decoded headers.
+     * @param payload the decoded payload.
+     * @return the located value, or {@code null} if there is no value at the location.
+     */
+    public Object evaluate(Object headers, Object payload) {
+        return evaluate(source == Source.HEADER ? headers : payload);
+    }
+
+    /**
+     * @param value the decoded headers or payload, whichever {@link #source()} names.
+     * @return the located value, or {@code null} if there is no value at the location.
+     */
+    public Object evaluate(Object value) {
+        for (int i = 0; i < tokens.length && value != null; i++) {
+            if (value instanceof Map<?, ?> map) {
+                value = map.get(tokens[i]);
+            } else if (value instanceof List<?> list) {
+                int index = indexes[i];
+                value = index >= 0 && index < list.size() ? list.get(index) : null;
+            } else {
+                return null;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @param json the UTF-8 encoded JSON of the headers or payload, whichever {@link #source()} names.
+     * @return the located value, decoded the way the document reader decodes generic values, or {@code null} if
+     * there is no value at the location.
+     * @throws IllegalArgumentException if the JSON on the path to the value is malformed.
+     */
+    public Object evaluateJson(byte[] json) {
+        return evaluateJson(json, 0, json.length);
+    }
+
+    /**
+     * @param json   the UTF-8 encoded JSON of the headers or payload, whichever {@link #source()} names.
+     * @param offset the first byte of the JSON.
+     * @param length the number of bytes of the JSON.
+     * @return the located value, decoded the way the document reader decodes generic values, or {@code null} if
+     * there is no value at the location.
+     * @throws IllegalArgumentException if the JSON on the path to the value is malformed.
+     */
+    public Object evaluateJson(byte[] json, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, json.length);
+        int end = offset + length;
+        int position = JsonScanner.skipWhitespace(json, offset, end);
+        for (int i = 0; i < tokens.length; i++) {
+            if (position >= end) {
+                return null;
+            }
+            byte first = json[position];
+            if (first == '{') {
+                position = JsonScanner.member(json, position, end, encodedTokens[i], tokens[i]);
+            } else if (first == '[' && indexes[i] >= 0) {
+                position = JsonScanner.element(json, position, end, indexes[i]);
+            } else {
+                return null;
+            }
+            if (position < 0) {
+                return null;
+            }
+        }
+        return position < end ? JsonScanner.value(json, position, end) : null;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RuntimeExpression that && expression.equals(that.expression);
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static String[] tokens(String pointer, String expression) {
+        if (pointer.isEmpty()) {
+            return new String[0];
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("Invalid JSON pointer in " + expression);
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = 1;
+        while (true) {
+            int slash = pointer.indexOf('/', start);
+            String token = pointer.substring(start, slash < 0 ? pointer.length() : slash);
+            tokens.add(unescape(token, expression));
+            if (slash < 0) {
+                return tokens.toArray(new String[0]);
+            }
+            start = slash + 1;
+        }
+    }
+
+    private static String unescape(String token, String expression) {
+        if (token.indexOf('~') < 0) {
+            return token;
+        }
+        StringBuilder builder = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '~') {
+                char next = i + 1 < token.length() ? token.charAt(++i) : 0;
+                if (next != '0' && next != '1') {
+                    throw new IllegalArgumentException("Invalid escape in JSON pointer of " + expression);
+                }
+                builder.append(next == '0' ? '~' : '/');
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the array index a token stands for, or -1 if it is not a canonical non-negative integer.
+     */
+    private static int index(String token) {
+        if (token.isEmpty() || token.length() > 9 || token.length() > 1 && token.charAt(0) == '0') {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + c - '0';
+        }
+        return index;
+    }
+}
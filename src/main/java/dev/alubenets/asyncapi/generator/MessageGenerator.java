@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.generator;
+
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.MessageExample;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates synthetic traffic for a {@link Message}: JSON payloads and headers that are valid against its schemas and
+ * vary from message to message, for load tests.
+ * <p>
+ * The headers and payload schemas are compiled once into a template with every constant part, such as property
+ * names and enum values, encoded up front. Producers then only pick random branches and numbers and copy bytes into
+ * the caller's buffer, so a producer allocates nothing per message. The values of {@link Message#examples()} and of
+ * the {@code examples} and {@code default} of a schema are used for strings at the same place, which keeps names and
+ * identifiers realistic, and for values whose schema says nothing else. A message without schemas replays its
+ * examples.
+ * <p>
+ * Schemas are generated from {@code type}, {@code const}, {@code enum}, {@code properties}, {@code required},
+ * {@code items}, {@code uniqueItems}, the numeric bounds and {@code multipleOf}, the length bounds and the common
+ * formats, and {@code allOf}, {@code oneOf} and {@code anyOf}. Strings with a {@code pattern} are taken from matching
+ * examples. Optional properties are written with even odds and left out deep down recursive schemas. Keywords such as
+ * {@code not}, {@code if} and {@code patternProperties} are not taken into account.
+ * <pre>{@code
+ * MessageGenerator generator = MessageGenerator.compile(message, ReferenceResolver.of(api));
+ * MessageProducer producer = generator.newProducer(42);
+ * producer.writePayload(buffer);
+ * }</pre>
+ * Generators are immutable and thread-safe, producers are not and are meant to be created per thread.
+ */
+public final class MessageGenerator {
+
+    private final Node headers;
+    private final Node payload;
+
+    private MessageGenerator(Node headers, Node payload) {
+        this.headers = headers;
+        this.payload = payload;
+    }
+
+    /**
+     * @param message  the message, possibly a reference. Pass the effective message of a
+     *                 {@link dev.alubenets.asyncapi.traits.TraitFlattener} to include the headers of its traits.
+     * @param resolver resolves the message and the {@code $ref}s in its schemas.
+     * @return the generator.
+     * @throws IllegalArgumentException if the message is not JSON, a schema is invalid or no value can be generated
+     *                                  for it, or a reference cannot be resolved.
+     */
+    public static MessageGenerator compile(Message message, ReferenceResolver resolver) {
+        Message target = resolver.resolve(message);
+        String contentType = target.contentType() != null
+            ? target.contentType()
+            : resolver.document().defaultContentType();
+        if (contentType != null && !contentType.contains("json")) {
+            throw new IllegalArgumentException("Cannot generate " + contentType + " messages, only JSON");
+        }
+        List<Object> headers = new ArrayList<>();
+        List<Object> payloads = new ArrayList<>();
+        if (target.examples() != null) {
+            for (MessageExample example : target.examples()) {
+                if (example.headers() != null) {
+                    headers.add(example.headers());
+                }
+                if (example.payload() != null) {
+                    payloads.add(example.payload());
+                }
+            }
+        }
+        TemplateCompiler compiler = new TemplateCompiler(resolver);
+        return new MessageGenerator(
+            compile(compiler, target.headers(), headers),
+            compile(compiler, target.payload(), payloads)
+        );
+    }
+
+    /**
+     * @return the template of a schema, the template replaying the examples if there is no schema, or {@code null}
+     * if there are neither.
+     */
+    private static Node compile(TemplateCompiler compiler, Object schema, List<Object> examples) {
+        return schema == null ? compiler.samples(examples) : compiler.compileMessageSchema(schema, examples);
+    }
+
+    /**
+     * @param seed the seed of the random numbers of the producer.
+     * @return a new producer of messages, to be used by one thread.
+     */
+    public MessageProducer newProducer(long seed) {
+        return new MessageProducer(headers, payload, seed);
+    }
+
+    /**
+     * @return whether the messages have headers.
+     */
+    public boolean hasHeaders() {
+        return headers != null;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.generator;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Writes the messages of a {@link MessageGenerator} as JSON into byte buffers, driven by its own seeded random
+ * numbers.
+ * <p>
+ * Producers allocate nothing per message, they are meant to be kept and reused, one per thread: they are not
+ * thread-safe. Two producers created with the same seed produce the same sequence of messages.
+ * <pre>{@code
+ * MessageProducer producer = generator.newProducer(threadIndex);
+ * ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+ * while (running) {
+ *     buffer.clear();
+ *     producer.writePayload(buffer);
+ *     send(buffer.flip());
+ * }
+ * }</pre>
+ */
+public final class MessageProducer {
+
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    final SplittableRandom random;
+    private final Node headers;
+    private final Node payload;
+    /**
+     * The message being assembled, copied into the caller's buffer in one go once complete. Grows to the size of the
+     * largest message and is then reused.
+     */
+    private byte[] bytes = new byte[1024];
+    private int length;
+    private final byte[] digits = new byte[20];
+    /**
+     * The start and end offsets of the items written so far into the arrays of unique items being written, innermost
+     * array last.
+     */
+    private int[] items = new int[32];
+    private int itemOffsets;
+
+    MessageProducer(Node headers, Node payload, long seed) {
+        this.headers = headers;
+        this.payload = payload;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Writes the payload of the next message at the position of the buffer and advances it.
+     *
+     * @param buffer the buffer to write to.
+     * @return the number of bytes written, {@code 0} if the message has no payload.
+     * @throws BufferOverflowException if the payload does not fit, the buffer is left unchanged.
+     */
+    public int writePayload(ByteBuffer buffer) {
+        return write(payload, buffer);
+    }
+
+    /**
+     * Writes the application headers of the next message, a JSON object, at the position of the buffer and advances
+     * it.
+     *
+     * @param buffer the buffer to write to.
+     * @return the number of bytes written, {@code 0} if the message has no headers.
+     * @throws BufferOverflowException if the headers do not fit, the buffer is left unchanged.
+     */
+    public int writeHeaders(ByteBuffer buffer) {
+        return write(headers, buffer);
+    }
+
+    private int write(Node node, ByteBuffer buffer) {
+        if (node == null) {
+            return 0;
+        }
+        length = 0;
+        itemOffsets = 0;
+        node.write(this, 0);
+        buffer.put(bytes, 0, length);
+        return length;
+    }
+
+    /**
+     * @return the number of bytes of the message written so far.
+     */
+    int position() {
+        return length;
+    }
+
+    /**
+     * Drops the bytes written after a position.
+     */
+    void truncate(int position) {
+        length = position;
+    }
+
+    /**
+     * @return the number of items recorded by {@link #addDistinct(int, int)}, the base of an array starting now.
+     */
+    int itemBase() {
+        return itemOffsets / 2;
+    }
+
+    /**
+     * Records the item written from {@code start} to the current position, unless it repeats one of the items
+     * recorded since {@code base}. Items are compared by their encoding, which the nodes write canonically.
+     *
+     * @return whether the item differs from the others and was recorded.
+     */
+    boolean addDistinct(int base, int start) {
+        for (int i = base * 2; i < itemOffsets; i += 2) {
+            if (Arrays.equals(bytes, items[i], items[i + 1], bytes, start, length)) {
+                return false;
+            }
+        }
+        if (itemOffsets == items.length) {
+            items = Arrays.copyOf(items, itemOffsets * 2);
+        }
+        items[itemOffsets++] = start;
+        items[itemOffsets++] = length;
+        return true;
+    }
+
+    /**
+     * Forgets the items recorded since {@code base}, once their array is complete.
+     */
+    void dropItems(int base) {
+        itemOffsets = base * 2;
+    }
+
+    void put(byte b) {
+        if (length == bytes.length) {
+            bytes = Arrays.copyOf(bytes, length * 2);
+        }
+        bytes[length++] = b;
+    }
+
+    void put(byte[] run) {
+        if (length + run.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(length * 2, length + run.length));
+        }
+        System.arraycopy(run, 0, bytes, length, run.length);
+        length += run.length;
+    }
+
+    /**
+     * Appends {@code unscaled * 10^-scale} in plain notation.
+     */
+    void putDecimal(long unscaled, int scale) {
+        if (unscaled == Long.MIN_VALUE && scale == 0) {
+            put(MIN_LONG);
+            return;
+        }
+        if (unscaled < 0) {
+            put((byte) '-');
+            unscaled = -unscaled;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (byte) ('0' + unscaled % 10);
+            unscaled /= 10;
+        } while (unscaled != 0);
+        // At least one digit before the decimal point.
+        while (digits.length - position <= scale) {
+            digits[--position] = '0';
+        }
+        for (int i = position; i < digits.length; i++) {
+            if (i == digits.length - scale) {
+                put((byte) '.');
+            }
+            put(digits[i]);
+        }
+    }
+}
@@ -0,0 +1,468 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.generator;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The nodes templates are compiled into.
+ */
+final class Nodes {
+
+    /**
+     * Below this depth optional properties are left out and arrays get their minimum number of items, so recursive
+     * schemas produce finite values.
+     */
+    static final int OPTIONAL_DEPTH = 8;
+    /**
+     * The depth at which a schema that requires ever deeper values is given up on.
+     */
+    static final int MAX_DEPTH = 64;
+    /**
+     * The number of times an item of an array of unique items is drawn again before the array is cut short.
+     */
+    static final int UNIQUE_ATTEMPTS = 32;
+
+    /**
+     * 64 characters, so that every random long yields ten of them.
+     */
+    private static final byte[] ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-_"
+        .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DOMAIN = ".example".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SCHEME = "https://".getBytes(StandardCharsets.US_ASCII);
+
+    private Nodes() {
+    }
+
+    /**
+     * @return the sum of two varieties, saturating at {@link Long#MAX_VALUE}.
+     */
+    static long sum(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * @return the product of two varieties, saturating at {@link Long#MAX_VALUE}.
+     */
+    static long product(long a, long b) {
+        return a == 0 || b <= Long.MAX_VALUE / a ? a * b : Long.MAX_VALUE;
+    }
+
+    /**
+     * A fixed value, encoded once.
+     */
+    static final class Literal extends Node {
+
+        private final byte[] json;
+
+        Literal(byte[] json) {
+            this.json = json;
+        }
+
+        @Override
+        void write(MessageProducer producer, int depth) {
+            producer.put(json);
+        }
+
+        @Override
+        long variety() {
+            return 1;
+        }
+    }
+
+    /**
+     * One of several values, picked uniformly.
+     */
+    static final class Choice extends Node {
+
+        private final Node[] options;
+
+        Choice(Node[] options) {
+            this.options = options;
+        }
+
+        @Override
+        void write(MessageProducer producer, int depth) {
+            options[producer.random.nextInt(options.length)].write(producer, depth);
+        }
+
+        @Override
+        long variety() {
+            long variety = 0;
+            for (Node option : options) {
+                variety = sum(variety, option.variety());
+            }
+            return variety;
+        }
+    }
+
+    /**
+     * The node of a schema that refers to itself, set once the schema is compiled. Its variety is taken as unlimited,
+     * which also keeps {@link Node#variety()} from going round in circles.
+     */
+    static final class Deferred extends Node {
+
+        Node target;
+
+        @Override
+        void write(MessageProducer producer, int depth) {
+            target.write(producer, depth);
+        }
+    }
+
+    /**
+     * An object of known properties. The first {@code required} properties are always written, the others with even
+     * odds as long as there are fewer than {@code maxProperties}.
+     */
+    static final class Properties extends Node {
+
+        /**
+         * The encoded property names, quoted and followed by a colon.
+         */
+        private final byte[][] names;
+        private final Node[] values;
+        private final int required;
+        private final int maxProperties;
+
+        Properties(byte[][] names, Node[] values, int required, int maxProperties) {
+            this.names = names;
+            this.values = values;
+            this.required = required;
+            this.maxProperties = maxProperties;
+        }
+
+        @Override
+        void write(MessageProducer producer, int depth) {
+            if (depth > MAX_DEPTH) {
+                throw new IllegalStateException("The schema requires values nested deeper than " + MAX_DEPTH);
+            }
+            producer.put((byte) '{');
+            int count = 0;
+            for (int i = 0; i < names.length; i++) {
+                if (i >= required && (depth >= OPTIONAL_DEPTH || count >= maxProperties
+                    || !producer.random.nextBoolean())) {
+                    continue;
+                }
+                if (count++ > 0) {
+                    producer.put((byte) ',');
+                }
+                producer.put(names[i]);
+                values[i].write(producer, depth + 1);
+            }
+            producer.put((byte) '}');
+        }
+
+        @Override
+        long variety() {
+            long variety = 1;
+            for (int i = 0; i < values.length; i++) {
+                long value = values[i].variety();
+                variety = product(variety, i < required ? value : sum(value, 1));
+            }
+            return variety;
+        }
+    }
+
+    /**
+     * An array of {@code minItems} to {@code maxItems} values of one node.
+     * <p>
+     * Unique items are drawn again while they repeat an earlier item of the array. An item that still repeats after
+     * {@link #UNIQUE_ATTEMPTS} draws cuts the array short, which only fails if it has fewer than {@code minItems}
+     * items by then: the compiler makes sure the node has enough distinct values, so that takes a node that rarely
+     * writes its other values.
+     */
+    static final class Items extends Node {
+
+        private final Node item;
+        private final int minItems;
+        private final int maxItems;
+        private final boolean unique;
+
+        Items(Node item, int minItems, int maxItems, boolean unique) {
+            this.item = item;
+            this.minItems = minItems;
+            this.maxItems = maxItems;
+            this.unique = unique;
+        }
+
+        @Override
+        void write(MessageProducer producer, int depth) {
+            int count = depth >= OPTIONAL_DEPTH ? minItems : producer.random.nextInt(minItems, maxItems + 1);
+            producer.put((byte) '[');
+            if (unique) {
+                writeDistinct(producer, depth, count);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        producer.put((byte) ',');
+                    }
+                    item.write(producer, depth + 1);
+                }
+            }
+            producer.put((byte) ']');
+        }
+
+        private void writeDistinct(MessageProducer producer, int depth, int count) {
+            int base = producer.itemBase();
+            for (int i = 0; i < count; i++) {
+                int position = producer.position();
+                int attempts = 0;
+                while (true) {
+                    if (i > 0) {
+                        producer.put((byte) ',');
+                    }
+                    int start = producer.position();
+                    item.write(producer, depth + 1);
+                    if (producer.addDistinct(base, start)) {
+                        break;
+                    }
+                    producer.truncate(position);
+                    if (++attempts == UNIQUE_ATTEMPTS) {
+                        if (i < minItems) {
+                            throw new IllegalStateException("Cannot generate " + minItems + " distinct items");
+                        }
+                        producer.dropItems(base);
+                        return;
+                    }
+                }
+            }
+            producer.dropItems(base);
+        }
+    }
+
+    /**
+     * An array with a value of its own node at every position.
+     */
+    static final class Tuple extends Node {
+
+        private final Node[] items;
+
+        Tuple(Node[] items) {
+            this.items = items;
+        }
+
+        @Override
+        void write(MessageProducer producer, int depth) {
+            producer.put((byte) '[');
+            for (int i = 0; i < items.length; i++) {
+                if (i > 0) {
+                    producer.put((byte) ',');
+                }
+                items[i].write(producer, depth + 1);
+            }
+            producer.put((byte) ']');
+        }
+
+        @Override
+        long variety() {
+            long variety = 1;
+            for (Node item : items) {
+                variety = product(variety, item.variety());
+            }
+            return variety;
+        }
+    }
+
+    /**
+     * A number with a fixed number of decimals: a multiple of {@code step} units of {@code 10^-scale} between
+     * {@code low} and {@code high} units, inclusive.
+     */
+    static final class Decimal extends Node {
+
+        private final long low;
+        private final long high;
+        private final long step;
+        private final int scale;
+
+        /**
+         * @param low  the lowest multiple of the step, in steps.
+         * @param high the highest multiple of the step, in steps.
+         */
+        Decimal(long low, long high, long step, int scale) {
+            this.low = low;
+            this.high = high;
+            this.step = step;
+            this.scale = scale;
+        }
+
+        @Override
+        void write(MessageProducer producer, int depth) {
+            // The upper bound of nextLong is exclusive, which only matters for the largest long.
+            long steps = producer.random.nextLong(low, high == Long.MAX_VALUE ? high : high + 1);
+            producer.putDecimal(steps * step, scale);
+        }
+
+        @Override
+        long variety() {
+            return sum(high - low, 1);
+        }
+    }
+
+    /**
+     * A string of random letters and digits.
+     */
+    static final class Text extends Node {
+
+        private final int minLength;
+        private final int maxLength;
+
+        Text(int minLength, int maxLength) {
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        void write(MessageProducer producer, int depth) {
+            int length = producer.random.nextInt(minLength, maxLength + 1);
+            producer.put((byte) '"');
+            long bits = 0;
+            for (int i = 0; i < length; i++) {
+                if (i % 10 == 0) {
+                    bits = producer.random.nextLong();
+                }
+                producer.put(ALPHABET[(int) bits & 63]);
+                bits >>>= 6;
+            }
+            producer.put((byte) '"');
+        }
+    }
+
+    /**
+     * A string in a JSON Schema format.
+     */
+    static final class Formatted extends Node {
+
+        enum Format {
+            DATE_TIME,
+            DATE,
+            TIME,
+            UUID,
+            EMAIL,
+            URI,
+            HOSTNAME,
+            IPV4
+        }
+
+        private final Format format;
+
+        Formatted(Format format) {
+            this.format = format;
+        }
+
+        @Override
+        void write(MessageProducer producer, int depth) {
+            producer.put((byte) '"');
+            switch (format) {
+                case DATE_TIME -> {
+                    date(producer);
+                    producer.put((byte) 'T');
+                    time(producer);
+                }
+                case DATE -> date(producer);
+                case TIME -> time(producer);
+                case UUID -> uuid(producer);
+                case EMAIL -> {
+                    word(producer, 8);
+                    producer.put((byte) '@');
+                    word(producer, 8);
+                    producer.put(DOMAIN);
+                }
+                case URI -> {
+                    producer.put(SCHEME);
+                    word(producer, 8);
+                    producer.put(DOMAIN);
+                    producer.put((byte) '/');
+                    word(producer, 8);
+                }
+                case HOSTNAME -> {
+                    word(producer, 8);
+                    producer.put(DOMAIN);
+                }
+                case IPV4 -> {
+                    for (int i = 0; i < 4; i++) {
+                        if (i > 0) {
+                            producer.put((byte) '.');
+                        }
+                        producer.putDecimal(producer.random.nextInt(256), 0);
+                    }
+                }
+            }
+            producer.put((byte) '"');
+        }
+
+        private static void date(MessageProducer producer) {
+            digits(producer, 2000 + producer.random.nextInt(50), 4);
+            producer.put((byte) '-');
+            digits(producer, 1 + producer.random.nextInt(12), 2);
+            producer.put((byte) '-');
+            digits(producer, 1 + producer.random.nextInt(28), 2);
+        }
+
+        private static void time(MessageProducer producer) {
+            digits(producer, producer.random.nextInt(24), 2);
+            producer.put((byte) ':');
+            digits(producer, producer.random.nextInt(60), 2);
+            producer.put((byte) ':');
+            digits(producer, producer.random.nextInt(60), 2);
+            producer.put((byte) 'Z');
+        }
+
+        private static void uuid(MessageProducer producer) {
+            long high = producer.random.nextLong() & ~0xf000L | 0x4000L;
+            long low = producer.random.nextLong() & 0x3fffffffffffffffL | 0x8000000000000000L;
+            hex(producer, high >>> 32, 8);
+            producer.put((byte) '-');
+            hex(producer, high >>> 16, 4);
+            producer.put((byte) '-');
+            hex(producer, high, 4);
+            producer.put((byte) '-');
+            hex(producer, low >>> 48, 4);
+            producer.put((byte) '-');
+            hex(producer, low, 12);
+        }
+
+        private static void word(MessageProducer producer, int length) {
+            long bits = producer.random.nextLong();
+            for (int i = 0; i < length; i++) {
+                producer.put(ALPHABET[(int) ((bits & 0xff) * 26 >>> 8)]);
+                bits >>>= 8;
+            }
+        }
+
+        private static void digits(MessageProducer producer, int value, int width) {
+            for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+                producer.put((byte) ('0' + value / divisor % 10));
+            }
+        }
+
+        private static void hex(MessageProducer producer, long value, int digits) {
+            for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+                producer.put(HEX[(int) (value >>> shift) & 0xf]);
+            }
+        }
+    }
+}
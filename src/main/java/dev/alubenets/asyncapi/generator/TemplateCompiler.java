@@ -0,0 +1,501 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.generator;
+
+import dev.alubenets.asyncapi.resolver.ReferenceResolutionException;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import dev.alubenets.asyncapi.writer.AsyncApiWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Turns JSON Schema documents in generic form into template {@link Node}s. Values of the examples found at the same
+ * place as a schema, in the message examples or in the {@code examples} and {@code default} of the schema, are used
+ * for strings and for schemas that tell nothing else. Single use.
+ * <p>
+ * Arrays with {@code uniqueItems} are written with distinct items, drawn again while they repeat, see
+ * {@link Nodes.Items}. Their length varies like that of other arrays, up to the number of distinct values the items
+ * schema allows, and a schema that allows fewer distinct values than {@code minItems} is rejected.
+ */
+final class TemplateCompiler {
+
+    private static final int MIN_LENGTH = 4;
+    private static final int MAX_LENGTH = 16;
+    private static final int EXTRA_ITEMS = 3;
+    private static final int DECIMALS = 2;
+    private static final int MAX_SCALE = 9;
+    private static final BigDecimal RANGE = BigDecimal.valueOf(1000);
+    /**
+     * Bounds are clamped to this many units of the smallest decimal, so that every value fits a long.
+     */
+    private static final BigDecimal LIMIT = BigDecimal.ONE.movePointRight(15);
+
+    private final ReferenceResolver resolver;
+    private final AsyncApiWriter writer = AsyncApiWriter.create();
+    private final Map<Object, Nodes.Deferred> compiling = new IdentityHashMap<>();
+
+    TemplateCompiler(ReferenceResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Compiles the schema of a message, which may be a Multi Format Schema Object wrapping the actual schema.
+     */
+    Node compileMessageSchema(Object schema, List<Object> samples) {
+        if (schema instanceof Map<?, ?> map && map.containsKey("schemaFormat") && !map.containsKey("$ref")) {
+            Object format = map.get("schemaFormat");
+            if (!(format instanceof String name) || !isJsonSchema(name)) {
+                throw new IllegalArgumentException("Unsupported schema format " + format);
+            }
+            return compile(map.get("schema"), samples);
+        }
+        return compile(schema, samples);
+    }
+
+    private static boolean isJsonSchema(String format) {
+        return format.startsWith("application/vnd.aai.asyncapi")
+            || format.startsWith("application/schema+json")
+            || format.startsWith("application/schema+yaml");
+    }
+
+    /**
+     * @return a node picking one of the values, or {@code null} if there are none.
+     */
+    Node samples(List<Object> samples) {
+        Set<Object> distinct = new LinkedHashSet<>(samples);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            return null;
+        }
+        List<Node> literals = new ArrayList<>(distinct.size());
+        for (Object value : distinct) {
+            literals.add(literal(value));
+        }
+        return choice(literals);
+    }
+
+    Node compile(Object schema, List<Object> samples) {
+        schema = resolve(schema);
+        if (Boolean.TRUE.equals(schema)) {
+            schema = Map.of();
+        }
+        if (Boolean.FALSE.equals(schema)) {
+            throw new IllegalArgumentException("No value matches the schema false");
+        }
+        if (!(schema instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("Schema must be an object or a boolean, found " + schema);
+        }
+        Nodes.Deferred active = compiling.get(map);
+        if (active != null) {
+            return active;
+        }
+        Nodes.Deferred deferred = new Nodes.Deferred();
+        compiling.put(map, deferred);
+        try {
+            Node node = build(map, samples);
+            deferred.target = node;
+            return node;
+        } finally {
+            compiling.remove(map);
+        }
+    }
+
+    private Object resolve(Object schema) {
+        if (!(schema instanceof Map<?, ?> map) || !(map.get("$ref") instanceof String ref)) {
+            return schema;
+        }
+        try {
+            return resolver.resolveValue(schema);
+        } catch (ReferenceResolutionException e) {
+            throw new IllegalArgumentException("Cannot resolve schema '" + ref + "'", e);
+        }
+    }
+
+    private Node build(Map<?, ?> schema, List<Object> samples) {
+        List<Object> values = new ArrayList<>(samples);
+        if (schema.get("examples") instanceof List<?> examples) {
+            values.addAll(examples);
+        }
+        if (schema.get("default") != null) {
+            values.add(schema.get("default"));
+        }
+        if (schema.containsKey("const")) {
+            return literal(schema.get("const"));
+        }
+        if (schema.get("enum") instanceof List<?> options && !options.isEmpty()) {
+            List<Node> literals = new ArrayList<>(options.size());
+            for (Object option : new LinkedHashSet<>(options)) {
+                literals.add(literal(option));
+            }
+            return choice(literals);
+        }
+        if (schema.get("allOf") instanceof List<?> all) {
+            return build(merge(schema, all), values);
+        }
+        Object branches = schema.containsKey("oneOf") ? schema.get("oneOf") : schema.get("anyOf");
+        if (branches instanceof List<?> list && !list.isEmpty()) {
+            Map<Object, Object> base = new LinkedHashMap<>(schema);
+            base.remove("oneOf");
+            base.remove("anyOf");
+            List<Node> options = new ArrayList<>(list.size());
+            for (Object branch : list) {
+                options.add(build(merge(base, List.of(branch)), values));
+            }
+            return choice(options);
+        }
+
+        List<String> types = types(schema);
+        if (types.isEmpty()) {
+            Node node = samples(values);
+            return node != null ? node : string(schema, values);
+        }
+        List<Node> options = new ArrayList<>(types.size());
+        for (String type : types) {
+            options.add(switch (type) {
+                case "object" -> object(schema, values);
+                case "array" -> array(schema, values);
+                case "string" -> string(schema, values);
+                case "integer" -> number(schema, true);
+                case "number" -> number(schema, false);
+                case "boolean" -> choice(List.of(literal(true), literal(false)));
+                case "null" -> literal(null);
+                default -> throw new IllegalArgumentException("Unknown type " + type);
+            });
+        }
+        return choice(options);
+    }
+
+    /**
+     * @return the declared types, or the type implied by the keywords of the schema, or none if it implies none.
+     */
+    private static List<String> types(Map<?, ?> schema) {
+        Object type = schema.get("type");
+        if (type instanceof String name) {
+            return List.of(name);
+        }
+        if (type instanceof List<?> names) {
+            List<String> types = new ArrayList<>(names.size());
+            for (Object name : names) {
+                types.add(String.valueOf(name));
+            }
+            return types;
+        }
+        if (schema.containsKey("properties") || schema.containsKey("required")) {
+            return List.of("object");
+        }
+        if (schema.containsKey("items")) {
+            return List.of("array");
+        }
+        if (schema.containsKey("minimum") || schema.containsKey("maximum") || schema.containsKey("multipleOf")) {
+            return List.of("number");
+        }
+        if (schema.containsKey("pattern") || schema.containsKey("format") || schema.containsKey("minLength")) {
+            return List.of("string");
+        }
+        return List.of();
+    }
+
+    /**
+     * Folds the schemas of an {@code allOf} into one: properties and required properties add up, for other keywords
+     * the first schema that has them wins.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> merge(Map<?, ?> schema, List<?> all) {
+        Map<Object, Object> merged = new LinkedHashMap<>(schema);
+        merged.remove("allOf");
+        for (Object part : all) {
+            Object resolved = resolve(part);
+            if (!(resolved instanceof Map<?, ?> map)) {
+                continue;
+            }
+            if (map.get("allOf") instanceof List<?> nested) {
+                map = merge(map, nested);
+            }
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                Object key = entry.getKey();
+                Object value = entry.getValue();
+                Object existing = merged.get(key);
+                if ("properties".equals(key) && existing instanceof Map<?, ?> properties
+                    && value instanceof Map<?, ?> more) {
+                    Map<Object, Object> union = new LinkedHashMap<>(properties);
+                    more.forEach(union::putIfAbsent);
+                    merged.put(key, union);
+                } else if ("required".equals(key) && existing instanceof List<?> required
+                    && value instanceof List<?> more) {
+                    Set<Object> union = new LinkedHashSet<>(required);
+                    union.addAll(more);
+                    merged.put(key, new ArrayList<>(union));
+                } else {
+                    merged.putIfAbsent(key, value);
+                }
+            }
+        }
+        return merged;
+    }
+
+    private Node object(Map<?, ?> schema, List<Object> samples) {
+        Map<?, ?> properties = schema.get("properties") instanceof Map<?, ?> map ? map : Map.of();
+        Set<String> required = new LinkedHashSet<>();
+        if (schema.get("required") instanceof List<?> names) {
+            for (Object name : names) {
+                required.add(String.valueOf(name));
+            }
+        }
+        List<String> names = new ArrayList<>(required);
+        for (Object name : properties.keySet()) {
+            if (!required.contains(String.valueOf(name))) {
+                names.add(String.valueOf(name));
+            }
+        }
+        int minProperties = count(schema, "minProperties", 0);
+        int maxProperties = count(schema, "maxProperties", Integer.MAX_VALUE);
+        if (minProperties > names.size()) {
+            throw new IllegalArgumentException("Cannot generate " + minProperties + " properties from "
+                + names.size() + " declared ones");
+        }
+        Object additional = schema.get("additionalProperties");
+        byte[][] encoded = new byte[names.size()][];
+        Node[] values = new Node[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            byte[] json = encode(name);
+            encoded[i] = new byte[json.length + 1];
+            System.arraycopy(json, 0, encoded[i], 0, json.length);
+            encoded[i][json.length] = ':';
+            List<Object> propertySamples = new ArrayList<>();
+            for (Object sample : samples) {
+                if (sample instanceof Map<?, ?> map && map.get(name) != null) {
+                    propertySamples.add(map.get(name));
+                }
+            }
+            Object property = properties.containsKey(name) ? properties.get(name)
+                : additional instanceof Map<?, ?> ? additional : Boolean.TRUE;
+            values[i] = compile(property, propertySamples);
+        }
+        return new Nodes.Properties(encoded, values, Math.max(required.size(), minProperties), maxProperties);
+    }
+
+    private Node array(Map<?, ?> schema, List<Object> samples) {
+        Object items = schema.get("items");
+        if (items instanceof List<?> tuple) {
+            Node[] nodes = new Node[tuple.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                List<Object> values = new ArrayList<>();
+                for (Object sample : samples) {
+                    if (sample instanceof List<?> list && list.size() > i) {
+                        values.add(list.get(i));
+                    }
+                }
+                nodes[i] = compile(tuple.get(i), values);
+            }
+            return new Nodes.Tuple(nodes);
+        }
+        List<Object> values = new ArrayList<>();
+        for (Object sample : samples) {
+            if (sample instanceof List<?> list) {
+                values.addAll(list);
+            }
+        }
+        int minItems = count(schema, "minItems", 0);
+        int maxItems = count(schema, "maxItems", minItems + EXTRA_ITEMS);
+        if (maxItems < minItems) {
+            throw new IllegalArgumentException("maxItems is less than minItems");
+        }
+        Node item = compile(items == null ? Boolean.TRUE : items, values);
+        boolean unique = Boolean.TRUE.equals(schema.get("uniqueItems"));
+        if (unique) {
+            long variety = item.variety();
+            if (variety < minItems) {
+                throw new IllegalArgumentException("Cannot generate " + minItems + " distinct items, the items allow "
+                    + variety + " values");
+            }
+            maxItems = (int) Math.min(maxItems, variety);
+        }
+        return new Nodes.Items(item, minItems, maxItems, unique);
+    }
+
+    private Node string(Map<?, ?> schema, List<Object> samples) {
+        int minLength = count(schema, "minLength", 0);
+        int maxLength = count(schema, "maxLength", Integer.MAX_VALUE);
+        Pattern pattern = null;
+        if (schema.get("pattern") instanceof String regex) {
+            try {
+                pattern = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid pattern '" + regex + "'", e);
+            }
+        }
+        List<Object> strings = new ArrayList<>();
+        for (Object sample : samples) {
+            if (sample instanceof String string && string.length() >= minLength && string.length() <= maxLength
+                && (pattern == null || pattern.matcher(string).find())) {
+                strings.add(string);
+            }
+        }
+        Node node = samples(strings);
+        if (node != null) {
+            return node;
+        }
+        if (pattern != null) {
+            throw new IllegalArgumentException("Cannot generate strings matching '" + pattern
+                + "' without examples that match it");
+        }
+        Nodes.Formatted.Format format = schema.get("format") instanceof String name ? format(name) : null;
+        if (format != null) {
+            return new Nodes.Formatted(format);
+        }
+        int low = Math.max(minLength, Math.min(MIN_LENGTH, maxLength));
+        int high = Math.max(low, Math.min(maxLength, Math.max(MAX_LENGTH, minLength)));
+        return new Nodes.Text(low, high);
+    }
+
+    private static Nodes.Formatted.Format format(String name) {
+        return switch (name) {
+            case "date-time" -> Nodes.Formatted.Format.DATE_TIME;
+            case "date" -> Nodes.Formatted.Format.DATE;
+            case "time" -> Nodes.Formatted.Format.TIME;
+            case "uuid" -> Nodes.Formatted.Format.UUID;
+            case "email" -> Nodes.Formatted.Format.EMAIL;
+            case "uri", "url" -> Nodes.Formatted.Format.URI;
+            case "hostname" -> Nodes.Formatted.Format.HOSTNAME;
+            case "ipv4" -> Nodes.Formatted.Format.IPV4;
+            default -> null;
+        };
+    }
+
+    private static Node number(Map<?, ?> schema, boolean integer) {
+        BigDecimal step = decimal(schema, "multipleOf");
+        int scale = integer ? 0 : DECIMALS;
+        if (step != null) {
+            if (step.signum() <= 0) {
+                throw new IllegalArgumentException("multipleOf must be greater than 0");
+            }
+            int stepScale = Math.max(0, step.stripTrailingZeros().scale());
+            if (integer && stepScale > 0 || stepScale > MAX_SCALE) {
+                throw new IllegalArgumentException("Cannot generate multiples of " + step);
+            }
+            scale = Math.max(scale, stepScale);
+        }
+        BigDecimal low = bound(schema, "minimum", "exclusiveMinimum");
+        BigDecimal high = bound(schema, "maximum", "exclusiveMaximum");
+        boolean exclusiveLow = isExclusive(schema, "minimum", "exclusiveMinimum");
+        boolean exclusiveHigh = isExclusive(schema, "maximum", "exclusiveMaximum");
+        BigDecimal units = step == null ? BigDecimal.ONE.movePointLeft(scale) : step;
+        BigDecimal range = RANGE.max(units.multiply(BigDecimal.TEN));
+        if (low == null && high == null) {
+            low = BigDecimal.ZERO;
+            high = range;
+        } else if (high == null) {
+            high = low.add(range);
+        } else if (low == null) {
+            low = high.subtract(range);
+        }
+        BigDecimal limit = LIMIT.movePointLeft(scale);
+        long lowSteps = steps(low.max(limit.negate()), units, RoundingMode.CEILING, exclusiveLow);
+        long highSteps = steps(high.min(limit), units, RoundingMode.FLOOR, exclusiveHigh);
+        if (lowSteps > highSteps) {
+            throw new IllegalArgumentException("No " + (integer ? "integer" : "number") + " between " + low
+                + " and " + high);
+        }
+        return new Nodes.Decimal(lowSteps, highSteps, units.movePointRight(scale).longValueExact(), scale);
+    }
+
+    /**
+     * @return the bound in multiples of the step, rounded inwards.
+     */
+    private static long steps(BigDecimal bound, BigDecimal step, RoundingMode rounding, boolean exclusive) {
+        BigDecimal steps = bound.divide(step, 0, rounding);
+        if (exclusive && steps.multiply(step).compareTo(bound) == 0) {
+            steps = rounding == RoundingMode.CEILING ? steps.add(BigDecimal.ONE) : steps.subtract(BigDecimal.ONE);
+        }
+        return steps.longValueExact();
+    }
+
+    /**
+     * @return the lower or upper bound, draft 4 spells exclusive bounds as booleans next to the bound.
+     */
+    private static BigDecimal bound(Map<?, ?> schema, String inclusive, String exclusive) {
+        BigDecimal value = decimal(schema, exclusive);
+        return value != null ? value : decimal(schema, inclusive);
+    }
+
+    private static boolean isExclusive(Map<?, ?> schema, String inclusive, String exclusive) {
+        Object value = schema.get(exclusive);
+        return value instanceof Number || Boolean.TRUE.equals(value) && schema.get(inclusive) instanceof Number;
+    }
+
+    private static BigDecimal decimal(Map<?, ?> schema, String keyword) {
+        Object value = schema.get(keyword);
+        if (value == null || value instanceof Boolean) {
+            return null;
+        }
+        if (!(value instanceof Number number)) {
+            throw new IllegalArgumentException(keyword + " must be a number");
+        }
+        return new BigDecimal(number.toString());
+    }
+
+    private static int count(Map<?, ?> schema, String keyword, int fallback) {
+        Object value = schema.get(keyword);
+        if (value == null) {
+            return fallback;
+        }
+        if (!(value instanceof Number number) || number.doubleValue() < 0) {
+            throw new IllegalArgumentException(keyword + " must be a non-negative integer");
+        }
+        return (int) Math.min(number.longValue(), Integer.MAX_VALUE);
+    }
+
+    private static Node choice(List<Node> options) {
+        return options.size() == 1 ? options.get(0) : new Nodes.Choice(options.toArray(new Node[0]));
+    }
+
+    private Node literal(Object value) {
+        return new Nodes.Literal(encode(value));
+    }
+
+    private byte[] encode(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writer.writeValue(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,418 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.hash;
+
+import dev.alubenets.asyncapi.codecs.ModelCodec;
+import dev.alubenets.asyncapi.models.FreezableMap;
+import dev.alubenets.asyncapi.models.Tags;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares structurally identical subtrees between documents: every record, map and list that has the same content as
+ * one canonicalized before is replaced with that instance.
+ * <p>
+ * Specifications of a system repeat the same messages, parameters, security schemes, tags and schemas many times,
+ * within a document and across documents, and every occurrence is read into an object graph of its own.
+ * {@link #canonicalize(Object)} walks a document bottom-up, looks up every node by its type and {@link ContentHash}
+ * and rebuilds the nodes whose children were replaced, so a document made of known parts ends up sharing all of
+ * them. Candidates are confirmed by comparing their children by identity before they are shared, so a canonicalized
+ * document is always equal to the original one.
+ * <p>
+ * The store holds its instances weakly, entries go away once no document refers to them anymore. Shared instances
+ * are referenced from several documents and must not be modified, freezing the maps of the documents rules that out.
+ * Maps of documents read from a snapshot are loaded as they are walked. Strings are left to an
+ * {@link dev.alubenets.asyncapi.parser.InterningPool}.
+ * <pre>{@code
+ * CanonicalStore store = CanonicalStore.create();
+ * List<LoadResult> results = BatchLoader.create().withStore(store).load(paths);
+ * log.info("Shared " + store.hits() + " subtrees, saving " + store.savedBytes() + " bytes");
+ * }</pre>
+ * Instances are thread-safe.
+ */
+public final class CanonicalStore {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int ARRAY_HEADER = 16;
+    private static final int FROZEN_MAP = 48;
+    private static final int HASH_MAP = 48;
+    private static final int HASH_MAP_NODE = 32;
+    private static final int LINKED_HASH_MAP = 56;
+    private static final int LINKED_HASH_MAP_NODE = 40;
+    private static final int ARRAY_LIST = 24;
+
+    private static final ClassValue<Shape> SHAPES = new ClassValue<>() {
+        @Override
+        protected Shape computeValue(Class<?> type) {
+            if (!type.isRecord()) {
+                try {
+                    return new Shape(ModelCodec.of(type), 0);
+                } catch (IllegalArgumentException e) {
+                    // Unmodifiable collections cannot be instantiated, their copies are unmodifiable views of a
+                    // LinkedHashMap or an ArrayList.
+                    return new Shape(null, 0);
+                }
+            }
+            ModelCodec<Object> codec = ModelCodec.of(type);
+            long size = OBJECT_HEADER;
+            for (int i = 0; i < codec.size(); i++) {
+                size += fieldSize(codec.componentType(i));
+            }
+            return new Shape(codec, align(size));
+        }
+    };
+
+    private final ConcurrentMap<Key, Canonical> instances = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    private CanonicalStore() {
+    }
+
+    /**
+     * @return an empty store.
+     */
+    public static CanonicalStore create() {
+        return new CanonicalStore();
+    }
+
+    /**
+     * Replaces every subtree of a value that is equal to one canonicalized before with the stored instance, and
+     * stores the others. The value itself is not modified, nodes above replaced ones are copied.
+     *
+     * @param value a document or a part of it, may be {@code null}.
+     * @param <T>   the value type.
+     * @return the canonical instance equal to the value.
+     * @throws IllegalArgumentException if the value contains a value that has no JSON form.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T canonicalize(T value) {
+        expunge();
+        return (T) new Walker().canonical(value);
+    }
+
+    /**
+     * @return the number of records, maps and lists canonicalized so far.
+     */
+    public long nodes() {
+        return nodes.sum();
+    }
+
+    /**
+     * @return the number of records, maps and lists that were replaced with an already stored instance.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of nodes canonicalized so far for every node they are held in, {@code 1} if nothing was
+     * shared.
+     */
+    public double ratio() {
+        long total = nodes();
+        long kept = total - hits();
+        return kept == 0 ? 1 : (double) total / kept;
+    }
+
+    /**
+     * Estimates the heap no longer taken by duplicates, assuming compressed references. The estimate counts the
+     * replaced records, maps and lists themselves, their children are counted when they are replaced on their own.
+     *
+     * @return the estimated number of bytes saved so far.
+     */
+    public long savedBytes() {
+        return savedBytes.sum();
+    }
+
+    /**
+     * @return the number of distinct nodes currently stored.
+     */
+    public int size() {
+        expunge();
+        return instances.size();
+    }
+
+    private void expunge() {
+        Reference<?> reference;
+        while ((reference = collected.poll()) != null) {
+            Canonical entry = (Canonical) reference;
+            instances.remove(entry.key, entry);
+        }
+    }
+
+    private static boolean sameChildren(Object instance, Object node, Object[] children) {
+        if (instance instanceof Record record) {
+            ModelCodec<Object> codec = SHAPES.get(record.getClass()).codec;
+            for (int i = 0; i < codec.size(); i++) {
+                if (!same(codec.get(record, i), children[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (instance instanceof Map<?, ?> map) {
+            Map<?, ?> original = (Map<?, ?>) node;
+            if (map.size() != original.size()) {
+                return false;
+            }
+            int index = 0;
+            for (Object key : original.keySet()) {
+                Object value = children[index++];
+                if (!same(map.get(key), value) || value == null && !map.containsKey(key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        List<?> list = (List<?>) instance;
+        if (list.size() != children.length) {
+            return false;
+        }
+        for (int i = 0; i < children.length; i++) {
+            if (!same(list.get(i), children[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Children are canonical already, so nodes only match as the same instance and scalars by value.
+     */
+    private static boolean same(Object a, Object b) {
+        if (a == b) {
+            return true;
+        }
+        if (a instanceof Record || a instanceof Map<?, ?> || a instanceof List<?>) {
+            return false;
+        }
+        return Objects.equals(a, b);
+    }
+
+    private static boolean isNode(Object value) {
+        return value instanceof Record || value instanceof Map<?, ?> || value instanceof List<?>;
+    }
+
+    private static long fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return type == boolean.class || type == byte.class ? 1 : REFERENCE;
+    }
+
+    private static long shallowSize(Object node) {
+        if (node instanceof Record record) {
+            return SHAPES.get(record.getClass()).size;
+        }
+        if (node instanceof FreezableMap<?> map) {
+            int size = map.size();
+            if (!map.isFrozen()) {
+                return FROZEN_MAP + HASH_MAP + table(size) + (long) size * HASH_MAP_NODE;
+            }
+            int slots = Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1;
+            return FROZEN_MAP + 2 * array(size) + align(ARRAY_HEADER + (long) slots * 4);
+        }
+        if (node instanceof Map<?, ?> map) {
+            return LINKED_HASH_MAP + table(map.size()) + (long) map.size() * LINKED_HASH_MAP_NODE;
+        }
+        return ARRAY_LIST + array(((List<?>) node).size());
+    }
+
+    private static long table(int size) {
+        return size == 0 ? 0 : array(Integer.highestOneBit(Math.max(1, size * 4 / 3)) << 1);
+    }
+
+    private static long array(int length) {
+        return align(ARRAY_HEADER + (long) length * REFERENCE);
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * Canonicalizes one value bottom-up, keeping the hashes of the nodes it passed so that every node is hashed from
+     * the hashes of its children.
+     */
+    private final class Walker {
+
+        private final Map<Object, ContentHash> hashes = new IdentityHashMap<>();
+        private final Map<Object, Object> results = new IdentityHashMap<>();
+
+        Object canonical(Object node) {
+            if (!isNode(node)) {
+                return node;
+            }
+            Object done = results.get(node);
+            if (done != null) {
+                return done;
+            }
+            Object[] children = children(node);
+            boolean changed = false;
+            for (int i = 0; i < children.length; i++) {
+                Object child = children[i];
+                children[i] = canonical(child);
+                changed |= children[i] != child;
+            }
+            ContentHash hash = ContentHash.of(node, hashes);
+            nodes.increment();
+            Object result = share(new Key(node.getClass(), hash), node, children, changed);
+            hashes.put(node, hash);
+            hashes.put(result, hash);
+            results.put(node, result);
+            return result;
+        }
+
+        /**
+         * Returns the stored instance equal to a node, or stores the node, rebuilt from its canonical children if
+         * any of them were replaced.
+         */
+        private Object share(Key key, Object node, Object[] children, boolean changed) {
+            Object rebuilt = null;
+            while (true) {
+                Canonical existing = instances.get(key);
+                Object instance = existing == null ? null : existing.get();
+                if (instance == node) {
+                    return node;
+                }
+                if (rebuilt == null) {
+                    if (instance != null && sameChildren(instance, node, children)) {
+                        hits.increment();
+                        savedBytes.add(shallowSize(node));
+                        return instance;
+                    }
+                    rebuilt = changed ? rebuild(node, children) : node;
+                }
+                if (instance != null) {
+                    // Equal as JSON but not as objects, such as 1 and 1.0, the node is kept as it is.
+                    return rebuilt;
+                }
+                Canonical entry = new Canonical(key, rebuilt, collected);
+                if (existing == null ? instances.putIfAbsent(key, entry) == null
+                    : instances.replace(key, existing, entry)) {
+                    return rebuilt;
+                }
+            }
+        }
+
+        private Object[] children(Object node) {
+            if (node instanceof Record record) {
+                ModelCodec<Object> codec = SHAPES.get(record.getClass()).codec;
+                Object[] children = new Object[codec.size()];
+                for (int i = 0; i < children.length; i++) {
+                    children[i] = codec.get(record, i);
+                }
+                return children;
+            }
+            if (node instanceof Map<?, ?> map) {
+                return map.values().toArray();
+            }
+            return ((List<?>) node).toArray();
+        }
+
+        /**
+         * Copies a node with new children into an instance of its own type, so that lists such as {@code Tags} still
+         * fit the records holding them. Copies of frozen and unmodifiable nodes are read-only like them.
+         */
+        @SuppressWarnings("unchecked")
+        private Object rebuild(Object node, Object[] children) {
+            ModelCodec<Object> codec = SHAPES.get(node.getClass()).codec;
+            if (node instanceof Record) {
+                return codec.create(children);
+            }
+            if (node instanceof Map<?, ?> map) {
+                Object copy = codec == null ? new LinkedHashMap<>() : codec.create();
+                fill((Map<Object, Object>) copy, map, children);
+                if (copy instanceof FreezableMap<?> frozen && ((FreezableMap<?>) map).isFrozen()) {
+                    frozen.freeze();
+                }
+                return codec == null ? Collections.unmodifiableMap((Map<?, ?>) copy) : copy;
+            }
+            List<Object> copy = codec == null ? new ArrayList<>(children.length) : (List<Object>) codec.create();
+            copy.addAll(Arrays.asList(children));
+            if (node instanceof Tags tags && tags.isFrozen()) {
+                ((Tags) (List<?>) copy).freeze();
+            }
+            return codec == null ? Collections.unmodifiableList(copy) : copy;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <K> Map<K, Object> fill(Map<K, Object> copy, Map<?, ?> map, Object[] children) {
+            int index = 0;
+            for (Object key : map.keySet()) {
+                copy.put((K) key, children[index++]);
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Nodes of different types may have the same content, such as a record and the generic map it was read from.
+     */
+    private record Key(Class<?> type, ContentHash hash) {
+    }
+
+    /**
+     * A stored instance, removed from the store once it is collected.
+     */
+    private static final class Canonical extends WeakReference<Object> {
+
+        private final Key key;
+
+        Canonical(Key key, Object instance, ReferenceQueue<Object> queue) {
+            super(instance, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * The codec and estimated shallow size of a record type, or the codec of a model map.
+     */
+    private record Shape(ModelCodec<Object> codec, long size) {
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.hash;
+
+import dev.alubenets.asyncapi.codecs.ModelCodec;
+import dev.alubenets.asyncapi.models.FreezableMap;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Tags;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A 128-bit hash of the content of a document or any part of it, computed bottom-up like a Merkle tree.
+ * <p>
+ * Hashes are canonical: they only depend on the JSON a value stands for. Map entries are combined independently of
+ * their order, a record hashes like the object the writer produces for it, with {@code null} components left out,
+ * and numbers hash by value, so {@code 1}, {@code 1L} and {@code 1.0} agree. Hashes are stable across runs and can be
+ * persisted, but they are not cryptographic and must not be trusted for content from untrusted sources.
+ * <p>
+ * The hashes of a document, its model maps such as {@code Channels} and their entries are cached by the identity of
+ * the node, unless they take only a handful of values to hash, and held as long as the node is reachable. Hashing a
+ * document again, or a document that shares most of its nodes with one hashed before, only hashes the nodes not seen
+ * yet. Only nodes whose model maps are all {@linkplain FreezableMap#isFrozen() frozen} and whose model lists, such as
+ * {@link Tags} or the messages of an operation, are read-only are cached, as in documents read with frozen maps or from
+ * a snapshot; a node holding a mutable model map or list is hashed again every time. Generic values such as schemas
+ * are expected not to change once hashed, as everywhere else in the library.
+ * <pre>{@code
+ * ContentHash key = ContentHash.of(api);
+ * cache.computeIfAbsent(key, k -> compile(api));
+ * }</pre>
+ *
+ * @param high the upper 64 bits.
+ * @param low  the lower 64 bits.
+ */
+public record ContentHash(long high, long low) {
+
+    /**
+     * Subtrees that take fewer values than this to hash are cheaper to hash again than to look up.
+     */
+    private static final int CACHED_WORK = 8;
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final int NULL = 1;
+    private static final int FALSE = 2;
+    private static final int TRUE = 3;
+    private static final int INTEGER = 4;
+    private static final int BIG_INTEGER = 5;
+    private static final int DECIMAL = 6;
+    private static final int BIG_DECIMAL = 7;
+    private static final int STRING = 8;
+    private static final int LIST = 9;
+    private static final int MAP = 10;
+    private static final int ENTRY = 11;
+
+    private static final WeakIdentityCache<ContentHash> CACHE = new WeakIdentityCache<>();
+
+    /**
+     * The classes of the read-only lists held by model objects, those of the binder when maps are frozen included.
+     */
+    private static final Set<Class<?>> READ_ONLY_LISTS = Set.of(
+        List.of().getClass(),
+        List.of(1).getClass(),
+        Collections.emptyList().getClass(),
+        Collections.unmodifiableList(new ArrayList<>()).getClass());
+
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            ModelCodec<Record> codec = ModelCodec.of(type.asSubclass(Record.class));
+            Field[] fields = new Field[codec.size()];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = new Field(Walker.string(codec.name(i)), codec, i,
+                    List.class.isAssignableFrom(codec.componentType(i)));
+            }
+            return fields;
+        }
+    };
+
+    /**
+     * @param node a document, a part of it or a scalar.
+     * @return the content hash of the node.
+     * @throws IllegalArgumentException if the node contains a value that has no JSON form.
+     */
+    public static ContentHash of(Object node) {
+        return new Walker(node, null).hash(node, true);
+    }
+
+    /**
+     * Hashes a node whose children were hashed before, without consulting or filling the cache.
+     *
+     * @param known the hashes of nodes below the node by their identity, typically its children.
+     */
+    static ContentHash of(Object node, Map<Object, ContentHash> known) {
+        return new Walker(node, known).hash(node, false);
+    }
+
+    /**
+     * @param node a record, map or list.
+     * @return the hash cached for the node, or {@code null} if it has not been hashed yet or was too small to be
+     * cached. Never computes a hash.
+     */
+    public static ContentHash cached(Object node) {
+        return node instanceof Record || node instanceof Map<?, ?> || node instanceof List<?> ? CACHE.get(node) : null;
+    }
+
+    /**
+     * Compares two values by content hash. Identical values are equal without being hashed, hashed values are
+     * compared in constant time.
+     *
+     * @return {@code true} if both values have the same content hash.
+     * @throws IllegalArgumentException if a value contains a value that has no JSON form.
+     */
+    public static boolean contentEquals(Object a, Object b) {
+        return a == b || of(a).equals(of(b));
+    }
+
+    /**
+     * @return the hash as 32 hexadecimal digits.
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    /**
+     * A record component with the hash of its JSON name, which every record of the type shares.
+     *
+     * @param list whether the component holds a list of model objects.
+     */
+    private record Field(ContentHash name, ModelCodec<Record> codec, int index, boolean list) {
+
+        Object get(Record record) {
+            return codec.get(record, index);
+        }
+    }
+
+    /**
+     * Hashes one node, counting the values it takes so that only subtrees worth it are cached. A cached node counts as
+     * a single value.
+     * <p>
+     * The cache is only consulted for the root, the records right below it, model maps such as {@code Channels} and
+     * their entries: the granularity at which documents share and change content. Looking up every small node, most
+     * of which are never cached, would cost more than hashing them. Nodes with a mutable model map or list below them
+     * are neither looked up nor cached.
+     */
+    private static final class Walker {
+
+        private final Object root;
+        private final Map<Object, ContentHash> known;
+        private int work;
+        /**
+         * Whether the node being hashed holds a mutable model map or list, so far.
+         */
+        private boolean mutable;
+
+        Walker(Object root, Map<Object, ContentHash> known) {
+            this.root = root;
+            this.known = known;
+        }
+
+        ContentHash hash(Object node, boolean cacheable) {
+            if (!(node instanceof Record) && !(node instanceof Map<?, ?>) && !(node instanceof List<?>)) {
+                work++;
+                return scalar(node);
+            }
+            if (known != null) {
+                ContentHash hash = known.get(node);
+                if (hash != null) {
+                    work++;
+                    return hash;
+                }
+            }
+            boolean frozen = (!(node instanceof FreezableMap<?> map) || map.isFrozen())
+                && (!(node instanceof Tags tags) || tags.isFrozen());
+            cacheable = known == null && frozen && (cacheable || node instanceof FreezableMap);
+            if (cacheable) {
+                ContentHash cached = CACHE.get(node);
+                if (cached != null) {
+                    work++;
+                    return cached;
+                }
+            }
+            boolean outer = mutable;
+            mutable = !frozen;
+            int start = work;
+            ContentHash hash;
+            if (node instanceof Record record) {
+                hash = record(record);
+            } else if (node instanceof Map<?, ?> map) {
+                hash = map(map);
+            } else {
+                hash = list((List<?>) node);
+            }
+            work++;
+            if (cacheable && !mutable && work - start >= CACHED_WORK) {
+                CACHE.put(node, hash);
+            }
+            mutable |= outer;
+            return hash;
+        }
+
+        private ContentHash record(Record record) {
+            boolean top = record == root;
+            long high = 0;
+            long low = 0;
+            int size = 0;
+            for (Field field : FIELDS.get(record.getClass())) {
+                Object value = field.get(record);
+                if (value != null) {
+                    ContentHash entry = entry(field.name(), hash(value, top));
+                    high += entry.high;
+                    low += entry.low;
+                    size++;
+                    // The lists of model objects can change like their maps, unless they are read-only.
+                    if (field.list() && !(value instanceof Tags) && !READ_ONLY_LISTS.contains(value.getClass())) {
+                        mutable = true;
+                    }
+                }
+            }
+            return object(high, low, size);
+        }
+
+        private ContentHash map(Map<?, ?> map) {
+            boolean model = map instanceof FreezableMap;
+            long high = 0;
+            long low = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                ContentHash hash = entry(string(String.valueOf(entry.getKey())), hash(entry.getValue(), model));
+                high += hash.high;
+                low += hash.low;
+            }
+            return object(high, low, map.size());
+        }
+
+        private ContentHash list(List<?> list) {
+            Hasher hasher = new Hasher(LIST);
+            for (Object element : list) {
+                hasher.add(hash(element, false));
+            }
+            return hasher.finish(list.size());
+        }
+
+        /**
+         * Entries are summed, which does not depend on their order, and the sum is mixed once more.
+         */
+        private static ContentHash object(long high, long low, int size) {
+            Hasher hasher = new Hasher(MAP);
+            hasher.add(high);
+            hasher.add(low);
+            return hasher.finish(size);
+        }
+
+        private static ContentHash entry(ContentHash key, ContentHash value) {
+            Hasher hasher = new Hasher(ENTRY);
+            hasher.add(key);
+            hasher.add(value);
+            return hasher.finish(0);
+        }
+
+        private static ContentHash scalar(Object value) {
+            if (value == null) {
+                return new Hasher(NULL).finish(0);
+            }
+            if (value instanceof Boolean bool) {
+                return new Hasher(bool ? TRUE : FALSE).finish(0);
+            }
+            if (value instanceof String string) {
+                return string(string);
+            }
+            if (value instanceof Operation.Action action) {
+                return string(action.value());
+            }
+            if (value instanceof Number number) {
+                return number(number);
+            }
+            throw new IllegalArgumentException("Cannot hash " + value.getClass().getName());
+        }
+
+        static ContentHash string(String string) {
+            Hasher hasher = new Hasher(STRING);
+            hasher.add(string);
+            return hasher.finish(string.length());
+        }
+
+        private static ContentHash number(Number number) {
+            if (number instanceof Integer || number instanceof Long || number instanceof Short
+                || number instanceof Byte) {
+                return integer(number.longValue());
+            }
+            if (number instanceof BigInteger big) {
+                return big.bitLength() < 64 ? integer(big.longValue()) : bigInteger(big);
+            }
+            if (number instanceof Double || number instanceof Float) {
+                double value = number.doubleValue();
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    throw new IllegalArgumentException("Cannot hash " + value);
+                }
+                if (value == Math.rint(value) && Math.abs(value) < 0x1p63) {
+                    return integer((long) value);
+                }
+                Hasher hasher = new Hasher(DECIMAL);
+                hasher.add(Double.doubleToLongBits(value));
+                return hasher.finish(0);
+            }
+            if (number instanceof BigDecimal decimal) {
+                BigDecimal stripped = decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+                if (stripped.scale() <= 0) {
+                    return number(stripped.toBigIntegerExact());
+                }
+                double value = stripped.doubleValue();
+                if (!Double.isInfinite(value) && new BigDecimal(value).compareTo(stripped) == 0) {
+                    return number(value);
+                }
+                Hasher hasher = new Hasher(BIG_DECIMAL);
+                hasher.add(stripped.scale());
+                hasher.add(stripped.unscaledValue().toString());
+                return hasher.finish(0);
+            }
+            throw new IllegalArgumentException("Cannot hash " + number.getClass().getName());
+        }
+
+        private static ContentHash integer(long value) {
+            Hasher hasher = new Hasher(INTEGER);
+            hasher.add(value);
+            return hasher.finish(0);
+        }
+
+        private static ContentHash bigInteger(BigInteger value) {
+            Hasher hasher = new Hasher(BIG_INTEGER);
+            hasher.add(value.toString());
+            return hasher.finish(0);
+        }
+    }
+
+    /**
+     * Two lanes of 64-bit mixing, the block and finalization steps of MurmurHash3 x64 128.
+     */
+    private static final class Hasher {
+
+        private long h1;
+        private long h2;
+        private int blocks;
+
+        Hasher(int tag) {
+            h1 = tag * C1;
+            h2 = tag * C2;
+        }
+
+        void add(long value) {
+            long k1 = Long.rotateLeft(value * C1, 31) * C2;
+            h1 ^= k1;
+            h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52dce729;
+            long k2 = Long.rotateLeft(value * C2, 33) * C1;
+            h2 ^= k2;
+            h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495ab5;
+            blocks++;
+        }
+
+        void add(ContentHash hash) {
+            add(hash.high);
+            add(hash.low);
+        }
+
+        void add(String string) {
+            int length = string.length();
+            int i = 0;
+            for (; i + 4 <= length; i += 4) {
+                add((long) string.charAt(i) | (long) string.charAt(i + 1) << 16 | (long) string.charAt(i + 2) << 32
+                    | (long) string.charAt(i + 3) << 48);
+            }
+            long tail = 0;
+            for (int shift = 0; i < length; i++, shift += 16) {
+                tail |= (long) string.charAt(i) << shift;
+            }
+            add(tail);
+        }
+
+        ContentHash finish(int length) {
+            long a = h1 ^ blocks ^ (long) length << 32;
+            long b = h2 ^ blocks ^ (long) length << 32;
+            a += b;
+            b += a;
+            a = mix(a);
+            b = mix(b);
+            a += b;
+            b += a;
+            return new ContentHash(a, b);
+        }
+
+        private static long mix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
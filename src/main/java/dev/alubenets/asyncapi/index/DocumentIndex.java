@@ -0,0 +1,549 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.index;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Server;
+import dev.alubenets.asyncapi.models.Tag;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted indexes over the operations and channels of a document, built once and queried without scanning the
+ * document.
+ * <p>
+ * Operations and channels are numbered in the order of {@link AsyncAPI#operations()} and {@link AsyncAPI#channels()},
+ * and every query returns an {@link IdSet} of those numbers, so queries combine with cheap bitset operations:
+ * <pre>{@code
+ * DocumentIndex index = DocumentIndex.build(api);
+ * IdSet received = index.operationsWithAction(Operation.Action.RECEIVE).and(index.operationsOnChannel("orders"));
+ * List<String> names = index.operationNames(received);
+ * }</pre>
+ * References are resolved while building the index. Servers are identified by their key in
+ * {@link AsyncAPI#servers()}, channels by their key in {@link AsyncAPI#channels()}, and messages by their key in the
+ * messages of the components or, for messages defined inline, of their channel. A server or message held under several
+ * keys, for example through references between them, is indexed under each of them. A channel without servers is
+ * available on all servers, as the specification defines.
+ * <p>
+ * The index reflects the document at the time it was built. Instances are immutable and thread-safe.
+ */
+public final class DocumentIndex {
+
+    private final String[] operationNames;
+    private final Operation[] operations;
+    private final String[] channelNames;
+    private final Channel[] channels;
+    private final Map<String, Integer> operationIds;
+    private final Map<String, Integer> channelIds;
+
+    private final Map<Operation.Action, IdSet> operationsByAction;
+    private final Map<String, IdSet> operationsByChannel;
+    private final Map<String, IdSet> operationsByTag;
+    private final Map<String, IdSet> operationsByServer;
+    private final Map<String, IdSet> operationsByMessage;
+    private final Map<String, IdSet> channelsByTag;
+    private final Map<String, IdSet> channelsByServer;
+    private final Map<String, IdSet> channelsByMessage;
+
+    /**
+     * What an update needs to tell whether the document kept its shape, and to index operations on unchanged
+     * channels: the keys of the servers and component messages, and per channel id the servers and messages it was
+     * indexed under.
+     */
+    private final List<String> serverKeys;
+    private final List<String> messageKeys;
+    private final List<List<String>> channelServers;
+    private final List<List<String>> channelMessages;
+
+    private DocumentIndex(Builder builder) {
+        this.operationNames = builder.operationNames.toArray(new String[0]);
+        this.operations = builder.operations.toArray(new Operation[0]);
+        this.channelNames = builder.channelNames.toArray(new String[0]);
+        this.channels = builder.channels.toArray(new Channel[0]);
+        this.operationIds = ids(operationNames);
+        this.channelIds = ids(channelNames);
+        this.operationsByAction = new EnumMap<>(Operation.Action.class);
+        builder.operationsByAction.forEach((action, ids) -> operationsByAction.put(action, ids.build()));
+        this.operationsByChannel = build(builder.operationsByChannel);
+        this.operationsByTag = build(builder.operationsByTag);
+        this.operationsByServer = build(builder.operationsByServer);
+        this.operationsByMessage = build(builder.operationsByMessage);
+        this.channelsByTag = build(builder.channelsByTag);
+        this.channelsByServer = build(builder.channelsByServer);
+        this.channelsByMessage = build(builder.channelsByMessage);
+        this.serverKeys = builder.serverKeys;
+        this.messageKeys = builder.messageKeys;
+        this.channelServers = builder.channelServers;
+        this.channelMessages = builder.channelMessages;
+    }
+
+    /**
+     * Applies the postings of the re-indexed channels and operations of an update to the postings of an index.
+     */
+    private DocumentIndex(DocumentIndex previous, Builder builder, IdSet channels, IdSet operations) {
+        this.operationNames = previous.operationNames;
+        this.operations = builder.operations.toArray(new Operation[0]);
+        this.channelNames = previous.channelNames;
+        this.channels = builder.channels.toArray(new Channel[0]);
+        this.operationIds = previous.operationIds;
+        this.channelIds = previous.channelIds;
+        this.operationsByAction = new EnumMap<>(Operation.Action.class);
+        this.operationsByAction.putAll(merge(previous.operationsByAction, builder.operationsByAction, operations));
+        this.operationsByChannel = merge(previous.operationsByChannel, builder.operationsByChannel, operations);
+        this.operationsByTag = merge(previous.operationsByTag, builder.operationsByTag, operations);
+        this.operationsByServer = merge(previous.operationsByServer, builder.operationsByServer, operations);
+        this.operationsByMessage = merge(previous.operationsByMessage, builder.operationsByMessage, operations);
+        this.channelsByTag = merge(previous.channelsByTag, builder.channelsByTag, channels);
+        this.channelsByServer = merge(previous.channelsByServer, builder.channelsByServer, channels);
+        this.channelsByMessage = merge(previous.channelsByMessage, builder.channelsByMessage, channels);
+        this.serverKeys = previous.serverKeys;
+        this.messageKeys = previous.messageKeys;
+        this.channelServers = builder.channelServers;
+        this.channelMessages = builder.channelMessages;
+    }
+
+    /**
+     * @param document the document, local references are resolved within it.
+     * @return the index.
+     * @throws dev.alubenets.asyncapi.resolver.ReferenceResolutionException if a reference cannot be resolved.
+     */
+    public static DocumentIndex build(AsyncAPI document) {
+        return build(document, ReferenceResolver.of(document));
+    }
+
+    /**
+     * @param document the document.
+     * @param resolver the resolver for the references of the document.
+     * @return the index.
+     * @throws dev.alubenets.asyncapi.resolver.ReferenceResolutionException if a reference cannot be resolved.
+     */
+    public static DocumentIndex build(AsyncAPI document, ReferenceResolver resolver) {
+        return new DocumentIndex(new Builder(document, resolver).index());
+    }
+
+    /**
+     * Indexes a changed version of the document, re-indexing only the channels and operations that changed and the
+     * operations on changed channels; the postings of everything else are carried over. Ids stay the same, so id sets
+     * of this index remain meaningful. If channels or operations were added, removed or reordered, or servers or
+     * component messages were added or removed, the index is built anew.
+     *
+     * @param document   the changed document.
+     * @param resolver   the resolver for the references of the changed document.
+     * @param channels   the keys of the channels whose content changed, including through references.
+     * @param operations the keys of the operations whose content changed, including through references.
+     * @return the index of the changed document, or this index if nothing changed.
+     * @throws dev.alubenets.asyncapi.resolver.ReferenceResolutionException if a reference cannot be resolved.
+     */
+    public DocumentIndex update(AsyncAPI document, ReferenceResolver resolver, Set<String> channels,
+                                Set<String> operations) {
+        if (!Arrays.asList(channelNames).equals(keys(document.channels()))
+            || !Arrays.asList(operationNames).equals(keys(document.operations()))
+            || !serverKeys.equals(keys(document.servers()))
+            || !messageKeys.equals(keys(document.components() == null ? null : document.components().messages()))) {
+            return build(document, resolver);
+        }
+        if (channels.isEmpty() && operations.isEmpty()) {
+            return this;
+        }
+        IdSet.Builder changedChannels = new IdSet.Builder();
+        for (String channel : channels) {
+            Integer id = channelIds.get(channel);
+            if (id != null) {
+                changedChannels.add(id);
+            }
+        }
+        IdSet channelSet = changedChannels.build();
+        IdSet.Builder changedOperations = new IdSet.Builder();
+        for (String operation : operations) {
+            Integer id = operationIds.get(operation);
+            if (id != null) {
+                changedOperations.add(id);
+            }
+        }
+        // Operations on a changed channel inherit its servers and messages.
+        channelSet.forEach(id -> operationsOnChannel(channelNames[id]).forEach(changedOperations::add));
+        IdSet operationSet = changedOperations.build();
+        Builder builder = new Builder(document, resolver).update(this, channelSet, operationSet);
+        return new DocumentIndex(this, builder, channelSet, operationSet);
+    }
+
+    /**
+     * @return the number of operations, operation ids range from 0 to this number exclusive.
+     */
+    public int operationCount() {
+        return operations.length;
+    }
+
+    /**
+     * @return the number of channels, channel ids range from 0 to this number exclusive.
+     */
+    public int channelCount() {
+        return channels.length;
+    }
+
+    /**
+     * @return the id of the operation with the key, or -1 if there is none.
+     */
+    public int operationId(String name) {
+        Integer id = operationIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return the id of the channel with the key, or -1 if there is none.
+     */
+    public int channelId(String name) {
+        Integer id = channelIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public String operationName(int id) {
+        return operationNames[id];
+    }
+
+    public Operation operation(int id) {
+        return operations[id];
+    }
+
+    public String channelName(int id) {
+        return channelNames[id];
+    }
+
+    public Channel channel(int id) {
+        return channels[id];
+    }
+
+    /**
+     * @return the keys of the operations in the set, in id order.
+     */
+    public List<String> operationNames(IdSet ids) {
+        List<String> names = new ArrayList<>(ids.size());
+        ids.forEach(id -> names.add(operationNames[id]));
+        return names;
+    }
+
+    /**
+     * @return the keys of the channels in the set, in id order.
+     */
+    public List<String> channelNames(IdSet ids) {
+        List<String> names = new ArrayList<>(ids.size());
+        ids.forEach(id -> names.add(channelNames[id]));
+        return names;
+    }
+
+    public IdSet allOperations() {
+        return IdSet.range(operations.length);
+    }
+
+    public IdSet allChannels() {
+        return IdSet.range(channels.length);
+    }
+
+    public IdSet operationsWithAction(Operation.Action action) {
+        return operationsByAction.getOrDefault(action, IdSet.EMPTY);
+    }
+
+    public IdSet operationsOnChannel(String channel) {
+        return operationsByChannel.getOrDefault(channel, IdSet.EMPTY);
+    }
+
+    public IdSet operationsTagged(String tag) {
+        return operationsByTag.getOrDefault(tag, IdSet.EMPTY);
+    }
+
+    /**
+     * @return the operations whose channel is available on the server.
+     */
+    public IdSet operationsOnServer(String server) {
+        return operationsByServer.getOrDefault(server, IdSet.EMPTY);
+    }
+
+    /**
+     * @return the operations that list the message, or all messages of their channel if they list none.
+     */
+    public IdSet operationsWithMessage(String message) {
+        return operationsByMessage.getOrDefault(message, IdSet.EMPTY);
+    }
+
+    public IdSet channelsTagged(String tag) {
+        return channelsByTag.getOrDefault(tag, IdSet.EMPTY);
+    }
+
+    public IdSet channelsOnServer(String server) {
+        return channelsByServer.getOrDefault(server, IdSet.EMPTY);
+    }
+
+    public IdSet channelsWithMessage(String message) {
+        return channelsByMessage.getOrDefault(message, IdSet.EMPTY);
+    }
+
+    private static Map<String, Integer> ids(String[] names) {
+        Map<String, Integer> ids = new HashMap<>(names.length * 4 / 3 + 1);
+        for (int i = 0; i < names.length; i++) {
+            ids.put(names[i], i);
+        }
+        return ids;
+    }
+
+    private static List<String> keys(Map<String, ?> map) {
+        return map == null ? List.of() : new ArrayList<>(map.keySet());
+    }
+
+    /**
+     * @return the postings without the re-indexed ids, plus their new postings.
+     */
+    private static <K> Map<K, IdSet> merge(Map<K, IdSet> postings, Map<K, IdSet.Builder> added, IdSet reindexed) {
+        Map<K, IdSet> merged = new HashMap<>(postings.size() * 4 / 3 + 1);
+        postings.forEach((key, ids) -> {
+            IdSet kept = intersects(ids, reindexed) ? ids.andNot(reindexed) : ids;
+            if (!kept.isEmpty()) {
+                merged.put(key, kept);
+            }
+        });
+        added.forEach((key, ids) -> merged.merge(key, ids.build(), IdSet::or));
+        return merged;
+    }
+
+    private static boolean intersects(IdSet ids, IdSet reindexed) {
+        for (int id = reindexed.next(0); id >= 0; id = reindexed.next(id + 1)) {
+            if (ids.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, IdSet> build(Map<String, IdSet.Builder> builders) {
+        Map<String, IdSet> sets = new HashMap<>(builders.size() * 4 / 3 + 1);
+        builders.forEach((key, builder) -> sets.put(key, builder.build()));
+        return sets;
+    }
+
+    /**
+     * Walks the document once, resolving references and collecting postings.
+     */
+    private static final class Builder {
+
+        private final AsyncAPI document;
+        private final ReferenceResolver resolver;
+
+        private final List<String> operationNames = new ArrayList<>();
+        private final List<Operation> operations = new ArrayList<>();
+        private final List<String> channelNames = new ArrayList<>();
+        private final List<Channel> channels = new ArrayList<>();
+
+        private final Map<Operation.Action, IdSet.Builder> operationsByAction = new EnumMap<>(Operation.Action.class);
+        private final Map<String, IdSet.Builder> operationsByChannel = new HashMap<>();
+        private final Map<String, IdSet.Builder> operationsByTag = new HashMap<>();
+        private final Map<String, IdSet.Builder> operationsByServer = new HashMap<>();
+        private final Map<String, IdSet.Builder> operationsByMessage = new HashMap<>();
+        private final Map<String, IdSet.Builder> channelsByTag = new HashMap<>();
+        private final Map<String, IdSet.Builder> channelsByServer = new HashMap<>();
+        private final Map<String, IdSet.Builder> channelsByMessage = new HashMap<>();
+
+        /**
+         * Resolved model objects to their keys in the document.
+         */
+        private final Map<Channel, Integer> channelIds = new IdentityHashMap<>();
+        private final Map<Server, List<String>> serverNames = new IdentityHashMap<>();
+        private final Map<Message, List<String>> messageNames = new IdentityHashMap<>();
+
+        /**
+         * Per channel id, the servers and messages it was indexed under.
+         */
+        private final List<List<String>> channelServers = new ArrayList<>();
+        private final List<List<String>> channelMessages = new ArrayList<>();
+
+        private List<String> serverKeys;
+        private List<String> messageKeys;
+
+        Builder(AsyncAPI document, ReferenceResolver resolver) {
+            this.document = document;
+            this.resolver = resolver;
+        }
+
+        Builder index() {
+            names();
+            if (document.channels() != null) {
+                document.channels().forEach((name, channel) -> channel(channels.size(), name, channel));
+            }
+            if (document.operations() != null) {
+                document.operations().forEach((name, operation) -> operation(operations.size(), name, operation));
+            }
+            return this;
+        }
+
+        /**
+         * Starts from the channels and operations of an index of the same shape and re-indexes the given ones.
+         */
+        Builder update(DocumentIndex previous, IdSet changedChannels, IdSet changedOperations) {
+            names();
+            channelNames.addAll(Arrays.asList(previous.channelNames));
+            channels.addAll(Arrays.asList(previous.channels));
+            operationNames.addAll(Arrays.asList(previous.operationNames));
+            operations.addAll(Arrays.asList(previous.operations));
+            channelServers.addAll(previous.channelServers);
+            channelMessages.addAll(previous.channelMessages);
+            int id = 0;
+            for (Channel reference : document.channels().values()) {
+                Channel channel = resolver.resolve(reference);
+                channelIds.putIfAbsent(channel, id);
+                if (reference != channel) {
+                    channelIds.putIfAbsent(reference, id);
+                }
+                // Operations of unchanged channels may list the inline messages of any channel.
+                if (channel.messages() != null) {
+                    channel.messages().forEach((key, message) ->
+                        messageNames.computeIfAbsent(resolver.resolve(message), ignored -> List.of(key)));
+                }
+                id++;
+            }
+            changedChannels.forEach(channel -> channel(channel, channelNames.get(channel),
+                document.channels().get(channelNames.get(channel))));
+            changedOperations.forEach(operation -> operation(operation, operationNames.get(operation),
+                document.operations().get(operationNames.get(operation))));
+            return this;
+        }
+
+        private void names() {
+            serverKeys = keys(document.servers());
+            messageKeys = keys(document.components() == null ? null : document.components().messages());
+            if (document.servers() != null) {
+                document.servers().forEach((name, server) -> serverNames
+                    .computeIfAbsent(resolver.resolve(server), ignored -> new ArrayList<>(1)).add(name));
+            }
+            if (document.components() != null && document.components().messages() != null) {
+                document.components().messages().forEach((name, message) -> messageNames
+                    .computeIfAbsent(resolver.resolve(message), ignored -> new ArrayList<>(1)).add(name));
+            }
+        }
+
+        private void channel(int id, String name, Channel reference) {
+            Channel channel = resolver.resolve(reference);
+            put(channelNames, id, name);
+            put(channels, id, channel);
+            channelIds.putIfAbsent(channel, id);
+            if (reference != channel) {
+                channelIds.putIfAbsent(reference, id);
+            }
+
+            tags(channel.tags(), channelsByTag, id);
+
+            List<String> servers = new ArrayList<>();
+            if (channel.servers() == null || channel.servers().isEmpty()) {
+                servers.addAll(serverKeys);
+            } else {
+                for (Server server : channel.servers()) {
+                    servers.addAll(serverNames.getOrDefault(resolver.resolve(server), List.of()));
+                }
+            }
+            for (String server : servers) {
+                add(channelsByServer, server, id);
+            }
+            put(channelServers, id, servers);
+
+            List<String> messages = new ArrayList<>();
+            if (channel.messages() != null) {
+                channel.messages().forEach((key, message) -> {
+                    Message target = resolver.resolve(message);
+                    for (String messageName : messageNames.computeIfAbsent(target, ignored -> List.of(key))) {
+                        messages.add(messageName);
+                        add(channelsByMessage, messageName, id);
+                    }
+                });
+            }
+            put(channelMessages, id, messages);
+        }
+
+        private void operation(int id, String name, Operation reference) {
+            Operation operation = resolver.resolve(reference);
+            put(operationNames, id, name);
+            put(operations, id, operation);
+
+            if (operation.action() != null) {
+                operationsByAction.computeIfAbsent(operation.action(), ignored -> new IdSet.Builder()).add(id);
+            }
+            tags(operation.tags(), operationsByTag, id);
+
+            Integer channel = operation.channel() instanceof Channel target
+                ? channelIds.get(resolver.resolve(target))
+                : null;
+            if (channel != null) {
+                add(operationsByChannel, channelNames.get(channel), id);
+                for (String server : channelServers.get(channel)) {
+                    add(operationsByServer, server, id);
+                }
+            }
+
+            if (operation.messages() == null || operation.messages().isEmpty()) {
+                // Without a list, an operation covers all messages of its channel.
+                if (channel != null) {
+                    for (String message : channelMessages.get(channel)) {
+                        add(operationsByMessage, message, id);
+                    }
+                }
+            } else {
+                for (Message message : operation.messages()) {
+                    for (String messageName : messageNames.getOrDefault(resolver.resolve(message), List.of())) {
+                        add(operationsByMessage, messageName, id);
+                    }
+                }
+            }
+        }
+
+        private void tags(List<Tag> tags, Map<String, IdSet.Builder> postings, int id) {
+            if (tags != null) {
+                for (Tag tag : tags) {
+                    if (tag != null && tag.name() != null) {
+                        add(postings, tag.name(), id);
+                    }
+                }
+            }
+        }
+
+        private static void add(Map<String, IdSet.Builder> postings, String key, int id) {
+            postings.computeIfAbsent(key, ignored -> new IdSet.Builder()).add(id);
+        }
+
+        private static <T> void put(List<T> list, int id, T value) {
+            if (id == list.size()) {
+                list.add(value);
+            } else {
+                list.set(id, value);
+            }
+        }
+    }
+}
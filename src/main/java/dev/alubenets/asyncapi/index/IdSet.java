@@ -0,0 +1,378 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable set of small non-negative ids.
+ * <p>
+ * Sets are stored in whichever of two forms is smaller: a bitset, which set operations process 64 ids at a time, or a
+ * sorted array of ids for sparse sets, such as the few operations on one channel of a large document. Operations
+ * between a sparse and a dense set only visit the ids of the sparse one. The form only depends on the content, so
+ * equal sets have equal forms.
+ */
+public final class IdSet {
+
+    public static final IdSet EMPTY = new IdSet(null, new int[0]);
+
+    /**
+     * The bitset without trailing empty words, or {@code null} for a sparse set.
+     */
+    private final long[] words;
+    /**
+     * The ids in ascending order, or {@code null} for a dense set.
+     */
+    private final int[] ids;
+
+    private IdSet(long[] words, int[] ids) {
+        this.words = words;
+        this.ids = ids;
+    }
+
+    /**
+     * @param ids the ids, in any order and possibly repeated.
+     * @return the set.
+     */
+    public static IdSet of(int... ids) {
+        Builder builder = new Builder();
+        for (int id : ids) {
+            builder.add(id);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param size the number of ids.
+     * @return the set of all ids from 0 to {@code size - 1}.
+     */
+    public static IdSet range(int size) {
+        long[] words = new long[(size + 63) >>> 6];
+        Arrays.fill(words, -1L);
+        if ((size & 63) != 0) {
+            words[words.length - 1] = (1L << size) - 1;
+        }
+        return fromWords(words);
+    }
+
+    public boolean contains(int id) {
+        if (words == null) {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+        int word = id >>> 6;
+        return id >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return words == null && ids.length == 0;
+    }
+
+    public int size() {
+        if (words == null) {
+            return ids.length;
+        }
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * @return the ids in both sets.
+     */
+    public IdSet and(IdSet other) {
+        if (words == null || other.words == null) {
+            IdSet sparse = words == null ? this : other;
+            IdSet rest = sparse == this ? other : this;
+            int[] result = new int[sparse.ids.length];
+            int length = 0;
+            for (int id : sparse.ids) {
+                if (rest.contains(id)) {
+                    result[length++] = id;
+                }
+            }
+            return fromIds(result, length);
+        }
+        int length = Math.min(words.length, other.words.length);
+        long[] result = new long[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return fromWords(result);
+    }
+
+    /**
+     * @return the ids in either set.
+     */
+    public IdSet or(IdSet other) {
+        if (words == null && other.words == null) {
+            int[] result = new int[ids.length + other.ids.length];
+            int i = 0;
+            int j = 0;
+            int length = 0;
+            while (i < ids.length || j < other.ids.length) {
+                if (j == other.ids.length || i < ids.length && ids[i] < other.ids[j]) {
+                    result[length++] = ids[i++];
+                } else if (i == ids.length || other.ids[j] < ids[i]) {
+                    result[length++] = other.ids[j++];
+                } else {
+                    result[length++] = ids[i++];
+                    j++;
+                }
+            }
+            return fromIds(result, length);
+        }
+        long[] result = Arrays.copyOf(bits(), Math.max(wordCount(), other.wordCount()));
+        other.orInto(result);
+        return fromWords(result);
+    }
+
+    /**
+     * @return the ids in this set but not in the other one.
+     */
+    public IdSet andNot(IdSet other) {
+        if (words == null) {
+            int[] result = new int[ids.length];
+            int length = 0;
+            for (int id : ids) {
+                if (!other.contains(id)) {
+                    result[length++] = id;
+                }
+            }
+            return fromIds(result, length);
+        }
+        long[] result = words.clone();
+        if (other.words == null) {
+            for (int id : other.ids) {
+                if (id >>> 6 < result.length) {
+                    result[id >>> 6] &= ~(1L << id);
+                }
+            }
+        } else {
+            int length = Math.min(result.length, other.words.length);
+            for (int i = 0; i < length; i++) {
+                result[i] &= ~other.words[i];
+            }
+        }
+        return fromWords(result);
+    }
+
+    /**
+     * @param from the id to start at.
+     * @return the smallest id in the set that is at least {@code from}, or -1 if there is none.
+     */
+    public int next(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        if (words == null) {
+            int index = Arrays.binarySearch(ids, from);
+            index = index < 0 ? -index - 1 : index;
+            return index < ids.length ? ids[index] : -1;
+        }
+        int word = from >>> 6;
+        if (word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+
+    /**
+     * @param action called with every id, in ascending order.
+     */
+    public void forEach(IntConsumer action) {
+        if (words == null) {
+            for (int id : ids) {
+                action.accept(id);
+            }
+            return;
+        }
+        for (int i = 0; i < words.length; i++) {
+            long bits = words[i];
+            while (bits != 0) {
+                action.accept((i << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * @return the ids in ascending order.
+     */
+    public int[] toArray() {
+        if (words == null) {
+            return ids.clone();
+        }
+        int[] result = new int[size()];
+        int[] position = {0};
+        forEach(id -> result[position[0]++] = id);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof IdSet set && Arrays.equals(words, set.words) && Arrays.equals(ids, set.ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return words == null ? Arrays.hashCode(ids) : Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private int wordCount() {
+        return words != null ? words.length : ids.length == 0 ? 0 : (ids[ids.length - 1] >>> 6) + 1;
+    }
+
+    private long[] bits() {
+        if (words != null) {
+            return words;
+        }
+        long[] result = new long[wordCount()];
+        orInto(result);
+        return result;
+    }
+
+    private void orInto(long[] target) {
+        if (words == null) {
+            for (int id : ids) {
+                target[id >>> 6] |= 1L << id;
+            }
+        } else {
+            for (int i = 0; i < words.length; i++) {
+                target[i] |= words[i];
+            }
+        }
+    }
+
+    /**
+     * A bitset costs 8 bytes per 64 ids of range, an array 4 bytes per id.
+     */
+    private static boolean isDense(int size, int wordCount) {
+        return size > 2 * wordCount;
+    }
+
+    private static IdSet fromWords(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            size += Long.bitCount(words[i]);
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        if (isDense(size, length)) {
+            return new IdSet(length == words.length ? words : Arrays.copyOf(words, length), null);
+        }
+        int[] ids = new int[size];
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            long bits = words[i];
+            while (bits != 0) {
+                ids[position++] = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return new IdSet(null, ids);
+    }
+
+    /**
+     * @param ids    ascending ids without duplicates, the first {@code length} are used.
+     * @param length the number of ids.
+     */
+    private static IdSet fromIds(int[] ids, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        int wordCount = (ids[length - 1] >>> 6) + 1;
+        if (isDense(length, wordCount)) {
+            long[] words = new long[wordCount];
+            for (int i = 0; i < length; i++) {
+                words[ids[i] >>> 6] |= 1L << ids[i];
+            }
+            return new IdSet(words, null);
+        }
+        return new IdSet(null, length == ids.length ? ids : Arrays.copyOf(ids, length));
+    }
+
+    /**
+     * Collects ids for a set, not thread-safe.
+     */
+    static final class Builder {
+
+        private int[] ids = new int[4];
+        private int length;
+        private boolean sorted = true;
+
+        void add(int id) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Negative id " + id);
+            }
+            if (length > 0 && id <= ids[length - 1]) {
+                if (id == ids[length - 1]) {
+                    return;
+                }
+                sorted = false;
+            }
+            if (length == ids.length) {
+                ids = Arrays.copyOf(ids, length * 2);
+            }
+            ids[length++] = id;
+        }
+
+        IdSet build() {
+            int[] result = Arrays.copyOf(ids, length);
+            int unique = length;
+            if (!sorted) {
+                Arrays.sort(result);
+                unique = 0;
+                for (int i = 0; i < result.length; i++) {
+                    if (unique == 0 || result[i] != result[unique - 1]) {
+                        result[unique++] = result[i];
+                    }
+                }
+            }
+            return fromIds(result, unique);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.loader;
+
+import dev.alubenets.asyncapi.hash.CanonicalStore;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.DocumentSource;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Loads many documents concurrently, such as the specifications of all services of a system at startup.
+ * <p>
+ * Every document is read and, unless disabled, has all of its references resolved on a {@link ForkJoinPool}. The
+ * documents of a batch share one {@link DocumentSource#caching(DocumentSource) caching source}, so a shared component
+ * file is read once per batch and the components bound from it are the same instances in every document referring to
+ * them. With a {@link CanonicalStore}, every document is canonicalized before its references are resolved, so
+ * identical messages, schemas and other parts are shared across documents and batches as well. Failures do not stop
+ * the batch, they are reported per document.
+ * <p>
+ * Since documents share these instances, the default reader {@linkplain AsyncApiReader#withFrozenMaps(boolean)
+ * freezes} the model maps and lists, so a document cannot change what the others see. Generic values such as schemas
+ * are shared as read and must not be modified, and neither must anything shared by documents read with a reader that
+ * does not freeze maps.
+ * <pre>{@code
+ * for (LoadResult result : BatchLoader.create().load(paths)) {
+ *     if (!result.isSuccess()) {
+ *         log.error("Cannot load " + result.path(), result.error());
+ *     }
+ * }
+ * }</pre>
+ * Instances are immutable and thread-safe.
+ */
+public final class BatchLoader {
+
+    private final AsyncApiReader reader;
+    private final DocumentSource source;
+    private final ForkJoinPool pool;
+    private final boolean resolve;
+    private final CanonicalStore store;
+
+    private BatchLoader(AsyncApiReader reader, DocumentSource source, ForkJoinPool pool, boolean resolve,
+                        CanonicalStore store) {
+        this.reader = reader;
+        this.source = source;
+        this.pool = pool;
+        this.resolve = resolve;
+        this.store = store;
+    }
+
+    /**
+     * @return a loader reading files with frozen maps on the common pool and resolving all references.
+     */
+    public static BatchLoader create() {
+        return new BatchLoader(AsyncApiReader.create().withFrozenMaps(true), null, ForkJoinPool.commonPool(), true,
+            null);
+    }
+
+    /**
+     * @param reader the reader for the documents and the components bound from the files they reference, for example
+     *               one with interning. Referenced files are parsed with it too unless a source is set. Components
+     *               bound with a reader that does not freeze maps are shared as mutable objects.
+     * @return a loader using the reader.
+     */
+    public BatchLoader withReader(AsyncApiReader reader) {
+        return new BatchLoader(Objects.requireNonNull(reader, "reader"), source, pool, resolve, store);
+    }
+
+    /**
+     * @param source loads the documents referenced from the documents of a batch, by default they are read from the
+     *               file system with the reader of the loader.
+     * @return a loader using the source.
+     */
+    public BatchLoader withSource(DocumentSource source) {
+        return new BatchLoader(reader, Objects.requireNonNull(source, "source"), pool, resolve, store);
+    }
+
+    /**
+     * @param pool the pool to load documents on, its parallelism bounds the number of documents loaded at once.
+     * @return a loader using the pool.
+     */
+    public BatchLoader withPool(ForkJoinPool pool) {
+        return new BatchLoader(reader, source, Objects.requireNonNull(pool, "pool"), resolve, store);
+    }
+
+    /**
+     * @param resolve whether to resolve all references of every document while loading it.
+     * @return a loader with the setting.
+     */
+    public BatchLoader withResolution(boolean resolve) {
+        return new BatchLoader(reader, source, pool, resolve, store);
+    }
+
+    /**
+     * @param store the store to share identical subtrees of the documents through, it can be shared by loaders.
+     * @return a loader canonicalizing every document through the store.
+     */
+    public BatchLoader withStore(CanonicalStore store) {
+        return new BatchLoader(reader, source, pool, resolve, Objects.requireNonNull(store, "store"));
+    }
+
+    /**
+     * Loads documents and waits for all of them.
+     *
+     * @param paths the document files.
+     * @return a result per path, in the order of the paths.
+     */
+    public List<LoadResult> load(Collection<Path> paths) {
+        DocumentSource shared = DocumentSource.caching(source != null ? source : DocumentSource.files(reader));
+        List<ForkJoinTask<LoadResult>> tasks = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            tasks.add(pool.submit(() -> load(path, shared)));
+        }
+        List<LoadResult> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<LoadResult> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    private LoadResult load(Path path, DocumentSource shared) {
+        try {
+            AsyncAPI document;
+            try (InputStream in = Files.newInputStream(path)) {
+                document = reader.read(in);
+            }
+            if (store != null) {
+                document = store.canonicalize(document);
+            }
+            ReferenceResolver resolver = ReferenceResolver.of(document, path.toAbsolutePath().toUri(), shared, reader);
+            if (resolve) {
+                resolver.resolveAll();
+            }
+            return new LoadResult(path, document, resolver, null);
+        } catch (IOException | RuntimeException e) {
+            return new LoadResult(path, null, null, e);
+        }
+    }
+}
@@ -24,12 +24,40 @@
 
 package dev.alubenets.asyncapi.models;
 
+import dev.alubenets.asyncapi.models.bindings.AmqpChannelBinding;
+import dev.alubenets.asyncapi.models.bindings.KafkaChannelBinding;
+import dev.alubenets.asyncapi.models.bindings.WebSocketsChannelBinding;
+
 /**
  * Map describing protocol-specific definitions for a channel.
+ * @see ProtocolBindings
  * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#channel-bindings-object">Channel Bindings Object</a>
  */
-public record ChannelBindings(
-    String $ref
-) implements Reference {
-    //TODO: implement me
+public class ChannelBindings extends ProtocolBindings {
+
+    private static final int SLOTS = 3;
+
+    /**
+     * @return the Kafka binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public KafkaChannelBinding kafka() {
+        return decode(0, SLOTS, "kafka", KafkaChannelBinding::from);
+    }
+
+    /**
+     * @return the AMQP 0-9-1 binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public AmqpChannelBinding amqp() {
+        return decode(1, SLOTS, "amqp", AmqpChannelBinding::from);
+    }
+
+    /**
+     * @return the WebSockets binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public WebSocketsChannelBinding ws() {
+        return decode(2, SLOTS, "ws", WebSocketsChannelBinding::from);
+    }
 }
@@ -24,12 +24,10 @@
 
 package dev.alubenets.asyncapi.models;
 
-import java.util.HashMap;
-
 /**
  * An object containing all the {@link Channel}s Object definitions the Application MUST use during runtime.
  *
  * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#channels-object">Channels Object</a>
  */
-public class Channels extends HashMap<String, Channel> {
+public class Channels extends FreezableMap<Channel> {
 }
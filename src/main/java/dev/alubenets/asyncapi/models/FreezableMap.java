@@ -0,0 +1,325 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * A map keyed by names, such as {@link Channels} or {@link Servers}, that is mutable while a document is assembled and
+ * can then be frozen into a compact read-only layout.
+ * <p>
+ * Until {@link #freeze()} entries are held in a {@link HashMap}. Freezing moves them into two dense arrays of keys and
+ * values, in the iteration order of the mutable map, and an {@code int} open addressing table of indexes into them.
+ * This drops the node object every {@link HashMap} entry carries, which is most of the heap taken by large documents,
+ * and keeps lookups to a single probe sequence over a primitive array. A frozen map rejects modifications with
+ * {@link UnsupportedOperationException}.
+ * <p>
+ * Readers that materialize documents on demand freeze maps with {@link #freezeLazily(String[], IntFunction)}, whose
+ * values are only computed when they are first accessed.
+ * <p>
+ * Subclasses that derive state from the entries are told about every modification of a mutable map through
+ * {@link #modified()}, including those made through its views, their iterators and {@link Map.Entry#setValue}.
+ * <p>
+ * Before 0.1.0 the model maps extended {@link HashMap}. They are still {@link Map}s, but no longer {@link HashMap}s,
+ * {@link java.io.Serializable} or {@link Cloneable}.
+ *
+ * @param <V> the value type.
+ */
+public abstract class FreezableMap<V> extends AbstractMap<String, V> {
+
+    private static final Object UNLOADED = new Object();
+    /**
+     * Values computed on first access are published with release writes and read with acquire reads, so a reader
+     * that sees a value outside of {@link #load(int)} also sees the object fully constructed.
+     */
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private Map<String, V> entries = new HashMap<>();
+    private String[] keys;
+    private Object[] values;
+    private int[] slots;
+    private int mask;
+    private IntFunction<? extends V> loader;
+
+    protected FreezableMap() {
+    }
+
+    /**
+     * Switches the map to the compact read-only layout, subsequent calls have no effect.
+     */
+    public final void freeze() {
+        if (entries == null) {
+            return;
+        }
+        int size = entries.size();
+        String[] frozenKeys = new String[size];
+        Object[] frozenValues = new Object[size];
+        int index = 0;
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            frozenKeys[index] = entry.getKey();
+            frozenValues[index] = entry.getValue();
+            index++;
+        }
+        index(frozenKeys, frozenValues);
+    }
+
+    /**
+     * Freezes an empty map with values that are computed on first access. Every value is computed at most once, also
+     * when accessed concurrently.
+     *
+     * @param keys   the distinct keys, in iteration order.
+     * @param values computes the value of the key at the given index.
+     * @throws IllegalStateException if the map is frozen or not empty.
+     */
+    public final void freezeLazily(String[] keys, IntFunction<? extends V> values) {
+        if (entries == null || !entries.isEmpty()) {
+            throw new IllegalStateException("Only an empty mutable map can be frozen lazily");
+        }
+        Object[] unloaded = new Object[keys.length];
+        Arrays.fill(unloaded, UNLOADED);
+        loader = values;
+        index(keys.clone(), unloaded);
+    }
+
+    /**
+     * @return {@code true} if the map was frozen and can no longer be modified.
+     */
+    public final boolean isFrozen() {
+        return entries == null;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (entries != null) {
+            return entries.get(key);
+        }
+        int index = indexOf(key);
+        return index < 0 ? null : value(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return entries != null ? entries.containsKey(key) : indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return entries != null ? entries.size() : keys.length;
+    }
+
+    @Override
+    public V put(String key, V value) {
+        V previous = mutable().put(key, value);
+        modified();
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        V previous = mutable().remove(key);
+        modified();
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        mutable().clear();
+        modified();
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        return entries != null ? new MutableEntries() : new FrozenEntries();
+    }
+
+    /**
+     * Called after every modification of the mutable map. Does nothing by default.
+     */
+    protected void modified() {
+    }
+
+    private Map<String, V> mutable() {
+        if (entries == null) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " is frozen");
+        }
+        return entries;
+    }
+
+    private void index(String[] frozenKeys, Object[] frozenValues) {
+        int capacity = Integer.highestOneBit(Math.max(2, frozenKeys.length * 2 - 1)) << 1;
+        int[] table = new int[capacity];
+        int tableMask = capacity - 1;
+        for (int index = 0; index < frozenKeys.length; index++) {
+            int slot = hash(frozenKeys[index]) & tableMask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & tableMask;
+            }
+            table[slot] = index + 1;
+        }
+        keys = frozenKeys;
+        values = frozenValues;
+        slots = table;
+        mask = tableMask;
+        entries = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int index) {
+        Object value = VALUES.getAcquire(values, index);
+        return value != UNLOADED ? (V) value : load(index);
+    }
+
+    private synchronized V load(int index) {
+        @SuppressWarnings("unchecked")
+        V value = (V) values[index];
+        if (value == UNLOADED) {
+            value = loader.apply(index);
+            VALUES.setRelease(values, index, value);
+        }
+        return value;
+    }
+
+    private int indexOf(Object key) {
+        if (key != null && !(key instanceof String)) {
+            return -1;
+        }
+        int[] table = slots;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int index = table[slot] - 1;
+            if (index < 0) {
+                return -1;
+            }
+            if (Objects.equals(keys[index], key)) {
+                return index;
+            }
+        }
+    }
+
+    private static int hash(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * The entries of the mutable map, reporting removals and replaced values to {@link #modified()}.
+     */
+    private final class MutableEntries extends AbstractSet<Map.Entry<String, V>> {
+
+        @Override
+        public Iterator<Map.Entry<String, V>> iterator() {
+            Iterator<Map.Entry<String, V>> iterator = entries.entrySet().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, V> next() {
+                    Map.Entry<String, V> entry = iterator.next();
+                    return new SimpleEntry<>(entry) {
+                        @Override
+                        public V setValue(V value) {
+                            super.setValue(value);
+                            V previous = entry.setValue(value);
+                            modified();
+                            return previous;
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    modified();
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return entries.entrySet().contains(o);
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public void clear() {
+            FreezableMap.this.clear();
+        }
+    }
+
+    private final class FrozenEntries extends AbstractSet<Map.Entry<String, V>> {
+
+        @Override
+        public Iterator<Map.Entry<String, V>> iterator() {
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < keys.length;
+                }
+
+                @Override
+                public Map.Entry<String, V> next() {
+                    if (next >= keys.length) {
+                        throw new NoSuchElementException();
+                    }
+                    int index = next++;
+                    return new SimpleImmutableEntry<>(keys[index], value(index));
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+            int index = indexOf(entry.getKey());
+            return index >= 0 && Objects.equals(value(index), entry.getValue());
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+    }
+}
@@ -56,8 +56,8 @@ public record Message(
     String description,
     Tags tags,
     ExternalDocumentation externalDocs,
-    Object bindings,
+    MessageBindings bindings,
     List<MessageExample> examples,
-    List<Object> traits
+    List<MessageTrait> traits
 ) implements Reference {
 }
@@ -24,13 +24,40 @@
 
 package dev.alubenets.asyncapi.models;
 
+import dev.alubenets.asyncapi.models.bindings.AmqpMessageBinding;
+import dev.alubenets.asyncapi.models.bindings.KafkaMessageBinding;
+import dev.alubenets.asyncapi.models.bindings.MqttMessageBinding;
+
 /**
  * Map describing protocol-specific definitions for a message.
- *
+ * @see ProtocolBindings
  * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#message-bindings-object">Message Bindings Object</a>
  */
-public record MessageBindings(
-    String $ref
-) implements Reference {
-    //TODO: implement me
+public class MessageBindings extends ProtocolBindings {
+
+    private static final int SLOTS = 3;
+
+    /**
+     * @return the Kafka binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public KafkaMessageBinding kafka() {
+        return decode(0, SLOTS, "kafka", KafkaMessageBinding::from);
+    }
+
+    /**
+     * @return the AMQP 0-9-1 binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public AmqpMessageBinding amqp() {
+        return decode(1, SLOTS, "amqp", AmqpMessageBinding::from);
+    }
+
+    /**
+     * @return the MQTT binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public MqttMessageBinding mqtt() {
+        return decode(2, SLOTS, "mqtt", MqttMessageBinding::from);
+    }
 }
@@ -24,11 +24,9 @@
 
 package dev.alubenets.asyncapi.models;
 
-import java.util.HashMap;
-
 /**
  * Describes a map of messages included in a channel.
  * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#messages-object">Messages Object</a>
  */
-public class Messages extends HashMap<String, Message> {
+public class Messages extends FreezableMap<Message> {
 }
@@ -58,7 +58,7 @@ public record Operation(
     OperationReply reply
 ) implements Reference {
 
-    enum Action {
+    public enum Action {
         SEND("send"), RECEIVE("receive");
 
         private final String value;
@@ -71,6 +71,21 @@ public record Operation(
             return value;
         }
 
+        /**
+         * Looks up the action by its specification value.
+         *
+         * @param value either "send" or "receive".
+         * @return the matching action, or {@code null} if the value is not a known action.
+         */
+        public static Action fromValue(String value) {
+            for (Action action : values()) {
+                if (action.value.equals(value)) {
+                    return action;
+                }
+            }
+            return null;
+        }
+
         @Override
         public String toString() {
             return value();
@@ -24,12 +24,40 @@
 
 package dev.alubenets.asyncapi.models;
 
+import dev.alubenets.asyncapi.models.bindings.AmqpOperationBinding;
+import dev.alubenets.asyncapi.models.bindings.KafkaOperationBinding;
+import dev.alubenets.asyncapi.models.bindings.MqttOperationBinding;
+
 /**
  * Map describing protocol-specific definitions for an operation.
+ * @see ProtocolBindings
  * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#operation-bindings-object">Operation Bindings Object</a>
  */
-public record OperationBindings(
-    String $ref
-) implements Reference {
-    //TODO: implement me
+public class OperationBindings extends ProtocolBindings {
+
+    private static final int SLOTS = 3;
+
+    /**
+     * @return the Kafka binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public KafkaOperationBinding kafka() {
+        return decode(0, SLOTS, "kafka", KafkaOperationBinding::from);
+    }
+
+    /**
+     * @return the AMQP 0-9-1 binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public AmqpOperationBinding amqp() {
+        return decode(1, SLOTS, "amqp", AmqpOperationBinding::from);
+    }
+
+    /**
+     * @return the MQTT binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public MqttOperationBinding mqtt() {
+        return decode(2, SLOTS, "mqtt", MqttOperationBinding::from);
+    }
 }
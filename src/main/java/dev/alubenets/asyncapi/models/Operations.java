@@ -24,11 +24,9 @@
 
 package dev.alubenets.asyncapi.models;
 
-import java.util.HashMap;
-
 /**
  * Holds a dictionary with all the {@link Operation}s this application MUST implement.
  * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#operations-object">Operations Object</a>
  */
-public class Operations extends HashMap<String, Operation> {
+public class Operations extends FreezableMap<Operation> {
 }
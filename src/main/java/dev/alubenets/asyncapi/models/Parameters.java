@@ -24,13 +24,11 @@
 
 package dev.alubenets.asyncapi.models;
 
-import java.util.HashMap;
-
 /**
  * Describes a map of parameters included in a channel address.
  * This map MUST contain all the parameters used in the parent channel address.
  *
  * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#parameters-object">Parameters Object</a>
  */
-public class Parameters extends HashMap<String, Parameter> {
+public class Parameters extends FreezableMap<Parameter> {
 }
@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bindings object, such as {@link ServerBindings} or {@link MessageBindings}: a map from protocol names to the
+ * protocol-specific definitions of an object, or a {@code $ref} to a reusable bindings object.
+ * <p>
+ * The binding of every protocol is kept as it was read, in generic form, and its typed model is only decoded when it
+ * is first requested through an accessor such as {@link MessageBindings#kafka()}. Decoded bindings are cached until
+ * the map is modified, so a reader that only asks for one protocol never decodes the others. Documents read from a
+ * snapshot go further and keep the unused bindings as undecoded bytes.
+ */
+public abstract class ProtocolBindings extends FreezableMap<Object> implements Reference {
+
+    private static final String REF = "$ref";
+
+    /**
+     * The decoded bindings by their slot in the typed accessors of the subclass, created on first use.
+     */
+    private volatile Object[] decoded;
+
+    protected ProtocolBindings() {
+    }
+
+    @Override
+    public String $ref() {
+        return get(REF) instanceof String ref ? ref : null;
+    }
+
+    /**
+     * @param protocol a protocol name, such as {@code kafka}.
+     * @return the binding of the protocol in generic form, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding of the protocol is not an object.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> binding(String protocol) {
+        Object binding = get(protocol);
+        if (binding != null && !(binding instanceof Map<?, ?>)) {
+            throw new IllegalArgumentException("The " + protocol + " binding is not an object");
+        }
+        return (Map<String, Object>) binding;
+    }
+
+    @Override
+    protected void modified() {
+        decoded = null;
+    }
+
+    /**
+     * Decodes the binding of a protocol into its typed model, once.
+     *
+     * @param slot     the index of the protocol among the typed accessors, below {@code slots}.
+     * @param slots    the number of typed accessors of the subclass.
+     * @param protocol the protocol name.
+     * @param decoder  decodes the generic binding.
+     * @param <T>      the typed model.
+     * @return the decoded binding, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match the typed model.
+     */
+    @SuppressWarnings("unchecked")
+    protected final <T> T decode(int slot, int slots, String protocol, Function<Map<String, Object>, T> decoder) {
+        Object[] cache = decoded;
+        if (cache != null && cache[slot] != null) {
+            return (T) cache[slot];
+        }
+        Map<String, Object> binding = binding(protocol);
+        if (binding == null) {
+            return null;
+        }
+        T value;
+        try {
+            value = decoder.apply(binding);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + protocol + " binding: " + e.getMessage(), e);
+        }
+        if (cache == null) {
+            cache = new Object[slots];
+            decoded = cache;
+        }
+        // Racing decoders store equal values, whichever one is kept does not matter.
+        cache[slot] = value;
+        return value;
+    }
+}
@@ -24,12 +24,31 @@
 
 package dev.alubenets.asyncapi.models;
 
+import dev.alubenets.asyncapi.models.bindings.KafkaServerBinding;
+import dev.alubenets.asyncapi.models.bindings.MqttServerBinding;
+
 /**
  * Map describing protocol-specific definitions for a server.
+ * @see ProtocolBindings
  * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#server-bindings-object">Server Bindings Object</a>
  */
-public record ServerBindings(
-    String $ref
-) implements Reference {
-    //TODO: implement me
+public class ServerBindings extends ProtocolBindings {
+
+    private static final int SLOTS = 2;
+
+    /**
+     * @return the Kafka binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public KafkaServerBinding kafka() {
+        return decode(0, SLOTS, "kafka", KafkaServerBinding::from);
+    }
+
+    /**
+     * @return the MQTT binding, decoded on first access, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the binding does not match its model.
+     */
+    public MqttServerBinding mqtt() {
+        return decode(1, SLOTS, "mqtt", MqttServerBinding::from);
+    }
 }
@@ -24,11 +24,9 @@
 
 package dev.alubenets.asyncapi.models;
 
-import java.util.HashMap;
-
 /**
  * The Servers Object is a map of {@link Server}s Objects.
  * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#servers-object">Servers Object</a>
  */
-public class Servers extends HashMap<String, Server> {
+public class Servers extends FreezableMap<Server> {
 }
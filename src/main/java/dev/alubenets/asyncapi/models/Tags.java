@@ -22,12 +22,135 @@
  * SOFTWARE.
  */
 
+
 package dev.alubenets.asyncapi.models;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * A Tags object is a list of {@link Tag} Objects. A Tag Object in a list can be referenced by Reference Object.
+ * <p>
+ * Like the {@link FreezableMap model maps}, a list of tags can be {@linkplain #freeze() frozen} once a document is
+ * assembled, after which it rejects modifications with {@link UnsupportedOperationException}.
  * @see <a href="https://github.com/asyncapi/spec/blob/master/spec/asyncapi.md#tags-object">Tags Object</a>
  */
-public class Tags extends ArrayList<Tag> {}
+public class Tags extends ArrayList<Tag> {
+
+    private boolean frozen;
+
+    /**
+     * Makes the list read-only, subsequent calls have no effect.
+     */
+    public final void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * @return {@code true} if the list was {@linkplain #freeze() frozen}.
+     */
+    public final boolean isFrozen() {
+        return frozen;
+    }
+
+    @Override
+    public boolean add(Tag tag) {
+        mutable();
+        return super.add(tag);
+    }
+
+    @Override
+    public void add(int index, Tag tag) {
+        mutable();
+        super.add(index, tag);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Tag> tags) {
+        mutable();
+        return super.addAll(tags);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends Tag> tags) {
+        mutable();
+        return super.addAll(index, tags);
+    }
+
+    @Override
+    public Tag set(int index, Tag tag) {
+        mutable();
+        return super.set(index, tag);
+    }
+
+    @Override
+    public Tag remove(int index) {
+        mutable();
+        return super.remove(index);
+    }
+
+    @Override
+    public boolean remove(Object tag) {
+        mutable();
+        return super.remove(tag);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> tags) {
+        mutable();
+        return super.removeAll(tags);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> tags) {
+        mutable();
+        return super.retainAll(tags);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Tag> filter) {
+        mutable();
+        return super.removeIf(filter);
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<Tag> operator) {
+        mutable();
+        super.replaceAll(operator);
+    }
+
+    @Override
+    public void sort(Comparator<? super Tag> comparator) {
+        mutable();
+        super.sort(comparator);
+    }
+
+    @Override
+    public void clear() {
+        mutable();
+        super.clear();
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        mutable();
+        super.removeRange(fromIndex, toIndex);
+    }
+
+    @Override
+    public List<Tag> subList(int fromIndex, int toIndex) {
+        List<Tag> view = super.subList(fromIndex, toIndex);
+        return frozen ? Collections.unmodifiableList(view) : view;
+    }
+
+    private void mutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Tags is frozen");
+        }
+    }
+}
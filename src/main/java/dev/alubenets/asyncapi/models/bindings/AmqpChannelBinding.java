@@ -0,0 +1,59 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models.bindings;
+
+import java.util.Map;
+
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.object;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.string;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.version;
+
+/**
+ * Protocol-specific information for an AMQP 0-9-1 channel.
+ * @param is Defines what type of channel is it. Can be either queue or routingKey (default).
+ * @param exchange When {@code is=routingKey}, this object defines the exchange properties.
+ * @param queue When {@code is=queue}, this object defines the queue properties.
+ * @param bindingVersion The version of this binding.
+ * @see <a href="https://github.com/asyncapi/bindings/blob/master/amqp/README.md#channel-binding-object">AMQP Channel Binding Object</a>
+ */
+public record AmqpChannelBinding(
+    String is,
+    AmqpExchange exchange,
+    AmqpQueue queue,
+    String bindingVersion
+) {
+
+    /**
+     * @param binding the binding in generic form.
+     * @return the typed binding.
+     * @throws IllegalArgumentException if a field has the wrong type.
+     */
+    public static AmqpChannelBinding from(Map<String, ?> binding) {
+        Map<String, Object> exchange = object(binding, "exchange");
+        Map<String, Object> queue = object(binding, "queue");
+        return new AmqpChannelBinding(string(binding, "is"), exchange == null ? null : AmqpExchange.from(exchange),
+            queue == null ? null : AmqpQueue.from(queue), version(binding));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models.bindings;
+
+import java.util.Map;
+
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.bool;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.string;
+
+/**
+ * The exchange an AMQP 0-9-1 channel routes through.
+ * @param name The name of the exchange. It MUST NOT exceed 255 characters long.
+ * @param type The type of the exchange. Can be either topic, direct, fanout, default or headers.
+ * @param durable Whether the exchange should survive broker restarts or not.
+ * @param autoDelete Whether the exchange should be deleted when the last queue is unbound from it.
+ * @param vhost The virtual host of the exchange. Defaults to {@code /}.
+ */
+public record AmqpExchange(
+    String name,
+    String type,
+    Boolean durable,
+    Boolean autoDelete,
+    String vhost
+) {
+
+    /**
+     * @param exchange the exchange in generic form.
+     * @return the typed exchange.
+     * @throws IllegalArgumentException if a field has the wrong type.
+     */
+    public static AmqpExchange from(Map<String, ?> exchange) {
+        return new AmqpExchange(string(exchange, "name"), string(exchange, "type"), bool(exchange, "durable"),
+            bool(exchange, "autoDelete"), string(exchange, "vhost"));
+    }
+}
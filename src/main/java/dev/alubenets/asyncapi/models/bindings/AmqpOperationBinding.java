@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models.bindings;
+
+import java.util.List;
+import java.util.Map;
+
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.bool;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.integer;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.longValue;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.string;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.strings;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.version;
+
+/**
+ * Protocol-specific information for an AMQP 0-9-1 operation.
+ * @param expiration TTL (Time-To-Live) for the message. It MUST be greater than or equal to zero.
+ * @param userId Identifies the user who has sent the message.
+ * @param cc The routing keys the message should be routed to at the time of publishing.
+ * @param priority A priority for the message.
+ * @param deliveryMode Delivery mode of the message. Its value MUST be either 1 (transient) or 2 (persistent).
+ * @param mandatory Whether the message is mandatory or not.
+ * @param bcc Like cc but consumers will not receive this information.
+ * @param timestamp Whether the message should include a timestamp or not.
+ * @param ack Whether the consumer should ack the message or not.
+ * @param bindingVersion The version of this binding.
+ * @see <a href="https://github.com/asyncapi/bindings/blob/master/amqp/README.md#operation-binding-object">AMQP Operation Binding Object</a>
+ */
+public record AmqpOperationBinding(
+    Long expiration,
+    String userId,
+    List<String> cc,
+    Integer priority,
+    Integer deliveryMode,
+    Boolean mandatory,
+    List<String> bcc,
+    Boolean timestamp,
+    Boolean ack,
+    String bindingVersion
+) {
+
+    /**
+     * @param binding the binding in generic form.
+     * @return the typed binding.
+     * @throws IllegalArgumentException if a field has the wrong type.
+     */
+    public static AmqpOperationBinding from(Map<String, ?> binding) {
+        return new AmqpOperationBinding(
+            longValue(binding, "expiration"),
+            string(binding, "userId"),
+            strings(binding, "cc"),
+            integer(binding, "priority"),
+            integer(binding, "deliveryMode"),
+            bool(binding, "mandatory"),
+            strings(binding, "bcc"),
+            bool(binding, "timestamp"),
+            bool(binding, "ack"),
+            version(binding)
+        );
+    }
+}
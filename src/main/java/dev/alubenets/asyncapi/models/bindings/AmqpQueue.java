@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models.bindings;
+
+import java.util.Map;
+
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.bool;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.string;
+
+/**
+ * The queue an AMQP 0-9-1 channel stands for.
+ * @param name The name of the queue. It MUST NOT exceed 255 characters long.
+ * @param durable Whether the queue should survive broker restarts or not.
+ * @param exclusive Whether the queue should be used only by one connection or not.
+ * @param autoDelete Whether the queue should be deleted when the last consumer unsubscribes.
+ * @param vhost The virtual host of the queue. Defaults to {@code /}.
+ */
+public record AmqpQueue(
+    String name,
+    Boolean durable,
+    Boolean exclusive,
+    Boolean autoDelete,
+    String vhost
+) {
+
+    /**
+     * @param queue the queue in generic form.
+     * @return the typed queue.
+     * @throws IllegalArgumentException if a field has the wrong type.
+     */
+    public static AmqpQueue from(Map<String, ?> queue) {
+        return new AmqpQueue(string(queue, "name"), bool(queue, "durable"), bool(queue, "exclusive"),
+            bool(queue, "autoDelete"), string(queue, "vhost"));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models.bindings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the fields of a binding in generic form, as bound by the document reader, with the types of its model.
+ */
+final class BindingValues {
+
+    private BindingValues() {
+    }
+
+    static String string(Map<String, ?> binding, String field) {
+        Object value = binding.get(field);
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        throw mismatch(field, "a string", value);
+    }
+
+    static Integer integer(Map<String, ?> binding, String field) {
+        Object value = binding.get(field);
+        if (value == null || value instanceof Integer) {
+            return (Integer) value;
+        }
+        throw mismatch(field, "an integer", value);
+    }
+
+    static Long longValue(Map<String, ?> binding, String field) {
+        Object value = binding.get(field);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Integer || value instanceof Long) {
+            return ((Number) value).longValue();
+        }
+        throw mismatch(field, "an integer", value);
+    }
+
+    static Boolean bool(Map<String, ?> binding, String field) {
+        Object value = binding.get(field);
+        if (value == null || value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        throw mismatch(field, "a boolean", value);
+    }
+
+    static List<String> strings(Map<String, ?> binding, String field) {
+        Object value = binding.get(field);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof List<?> list) {
+            List<String> strings = new ArrayList<>(list.size());
+            for (Object element : list) {
+                if (!(element instanceof String string)) {
+                    throw mismatch(field, "an array of strings", value);
+                }
+                strings.add(string);
+            }
+            return Collections.unmodifiableList(strings);
+        }
+        throw mismatch(field, "an array of strings", value);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> object(Map<String, ?> binding, String field) {
+        Object value = binding.get(field);
+        if (value == null || value instanceof Map<?, ?>) {
+            return (Map<String, Object>) value;
+        }
+        throw mismatch(field, "an object", value);
+    }
+
+    /**
+     * Binding versions are strings, but an unquoted {@code 0.1} in YAML reads as a number.
+     */
+    static String version(Map<String, ?> binding) {
+        Object value = binding.get("bindingVersion");
+        return value instanceof Number number ? number.toString() : string(binding, "bindingVersion");
+    }
+
+    private static IllegalArgumentException mismatch(String field, String expected, Object value) {
+        return new IllegalArgumentException("'" + field + "' is not " + expected + ": " + value);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models.bindings;
+
+import java.util.Map;
+
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.integer;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.object;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.string;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.version;
+
+/**
+ * Protocol-specific information for a Kafka channel.
+ * @param topic Kafka topic name if different from channel name.
+ * @param partitions Number of partitions configured on this topic (useful to know how many parallel consumers you may run).
+ * @param replicas Number of replicas configured on this topic.
+ * @param topicConfiguration Topic configuration properties that are relevant for the API.
+ * @param bindingVersion The version of this binding.
+ * @see <a href="https://github.com/asyncapi/bindings/blob/master/kafka/README.md#channel-binding-object">Kafka Channel Binding Object</a>
+ */
+public record KafkaChannelBinding(
+    String topic,
+    Integer partitions,
+    Integer replicas,
+    KafkaTopicConfiguration topicConfiguration,
+    String bindingVersion
+) {
+
+    /**
+     * @param binding the binding in generic form.
+     * @return the typed binding.
+     * @throws IllegalArgumentException if a field has the wrong type.
+     */
+    public static KafkaChannelBinding from(Map<String, ?> binding) {
+        Map<String, Object> configuration = object(binding, "topicConfiguration");
+        return new KafkaChannelBinding(string(binding, "topic"), integer(binding, "partitions"),
+            integer(binding, "replicas"), configuration == null ? null : KafkaTopicConfiguration.from(configuration),
+            version(binding));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models.bindings;
+
+import java.util.Map;
+
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.string;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.version;
+
+/**
+ * Protocol-specific information for a Kafka message.
+ * @param key The message key, a schema or a reference to one.
+ * @param schemaIdLocation If a Schema Registry is used when performing this operation, tells where the id of schema is stored (e.g. header or payload).
+ * @param schemaIdPayloadEncoding Number of bytes or vendor specific values when schema id is encoded in payload (e.g confluent/ apicurio-legacy / apicurio-new).
+ * @param schemaLookupStrategy Freeform string for any naming strategy class to use. Clients should default to the vendor default if not supplied.
+ * @param bindingVersion The version of this binding.
+ * @see <a href="https://github.com/asyncapi/bindings/blob/master/kafka/README.md#message-binding-object">Kafka Message Binding Object</a>
+ */
+public record KafkaMessageBinding(
+    Object key,
+    String schemaIdLocation,
+    String schemaIdPayloadEncoding,
+    String schemaLookupStrategy,
+    String bindingVersion
+) {
+
+    /**
+     * @param binding the binding in generic form.
+     * @return the typed binding.
+     * @throws IllegalArgumentException if a field has the wrong type.
+     */
+    public static KafkaMessageBinding from(Map<String, ?> binding) {
+        return new KafkaMessageBinding(binding.get("key"), string(binding, "schemaIdLocation"),
+            string(binding, "schemaIdPayloadEncoding"), string(binding, "schemaLookupStrategy"), version(binding));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models.bindings;
+
+import java.util.List;
+import java.util.Map;
+
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.bool;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.integer;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.longValue;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.string;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.strings;
+
+/**
+ * The topic configuration properties of a Kafka channel that are relevant for the API.
+ * @param cleanupPolicy The {@code cleanup.policy} configuration option.
+ * @param retentionMs The {@code retention.ms} configuration option.
+ * @param retentionBytes The {@code retention.bytes} configuration option.
+ * @param deleteRetentionMs The {@code delete.retention.ms} configuration option.
+ * @param maxMessageBytes The {@code max.message.bytes} configuration option.
+ * @param confluentKeySchemaValidation The {@code confluent.key.schema.validation} configuration option.
+ * @param confluentKeySubjectNameStrategy The {@code confluent.key.subject.name.strategy} configuration option.
+ * @param confluentValueSchemaValidation The {@code confluent.value.schema.validation} configuration option.
+ * @param confluentValueSubjectNameStrategy The {@code confluent.value.subject.name.strategy} configuration option.
+ * @see <a href="https://github.com/asyncapi/bindings/blob/master/kafka/README.md#topicconfiguration-object">TopicConfiguration Object</a>
+ */
+public record KafkaTopicConfiguration(
+    List<String> cleanupPolicy,
+    Long retentionMs,
+    Long retentionBytes,
+    Long deleteRetentionMs,
+    Integer maxMessageBytes,
+    Boolean confluentKeySchemaValidation,
+    String confluentKeySubjectNameStrategy,
+    Boolean confluentValueSchemaValidation,
+    String confluentValueSubjectNameStrategy
+) {
+
+    /**
+     * @param configuration the configuration in generic form.
+     * @return the typed configuration.
+     * @throws IllegalArgumentException if a field has the wrong type.
+     */
+    public static KafkaTopicConfiguration from(Map<String, ?> configuration) {
+        return new KafkaTopicConfiguration(
+            strings(configuration, "cleanup.policy"),
+            longValue(configuration, "retention.ms"),
+            longValue(configuration, "retention.bytes"),
+            longValue(configuration, "delete.retention.ms"),
+            integer(configuration, "max.message.bytes"),
+            bool(configuration, "confluent.key.schema.validation"),
+            string(configuration, "confluent.key.subject.name.strategy"),
+            bool(configuration, "confluent.value.schema.validation"),
+            string(configuration, "confluent.value.subject.name.strategy")
+        );
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models.bindings;
+
+import java.util.Map;
+
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.bool;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.integer;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.string;
+
+/**
+ * The Last Will and Testament an MQTT broker publishes when a client disconnects ungracefully.
+ * @param topic The topic where the Last Will and Testament message will be sent.
+ * @param qos Defines how hard the broker/client will try to ensure that the Last Will and Testament message is received. Its value MUST be either 0, 1 or 2.
+ * @param message Last Will message.
+ * @param retain Whether the broker should retain the Last Will and Testament message or not.
+ */
+public record MqttLastWill(
+    String topic,
+    Integer qos,
+    String message,
+    Boolean retain
+) {
+
+    /**
+     * @param lastWill the Last Will and Testament in generic form.
+     * @return the typed Last Will and Testament.
+     * @throws IllegalArgumentException if a field has the wrong type.
+     */
+    public static MqttLastWill from(Map<String, ?> lastWill) {
+        return new MqttLastWill(string(lastWill, "topic"), integer(lastWill, "qos"), string(lastWill, "message"),
+            bool(lastWill, "retain"));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models.bindings;
+
+import java.util.Map;
+
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.bool;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.integer;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.object;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.string;
+import static dev.alubenets.asyncapi.models.bindings.BindingValues.version;
+
+/**
+ * Protocol-specific information for an MQTT server.
+ * @param clientId The client identifier.
+ * @param cleanSession Whether to create a persistent connection or not.
+ * @param lastWill Last Will and Testament configuration.
+ * @param keepAlive Interval in seconds of the longest period of time the broker and the client can endure without sending a message.
+ * @param sessionExpiryInterval Interval in seconds or a schema containing the definition of the interval, after which the session expires.
+ * @param maximumPacketSize Number of bytes or a schema containing the definition of the maximum packet size the client is willing to accept.
+ * @param bindingVersion The version of this binding.
+ * @see <a href="https://github.com/asyncapi/bindings/blob/master/mqtt/README.md#server-binding-object">MQTT Server Binding Object</a>
+ */
+public record MqttServerBinding(
+    String clientId,
+    Boolean cleanSession,
+    MqttLastWill lastWill,
+    Integer keepAlive,
+    Object sessionExpiryInterval,
+    Object maximumPacketSize,
+    String bindingVersion
+) {
+
+    /**
+     * @param binding the binding in generic form.
+     * @return the typed binding.
+     * @throws IllegalArgumentException if a field has the wrong type.
+     */
+    public static MqttServerBinding from(Map<String, ?> binding) {
+        Map<String, Object> lastWill = object(binding, "lastWill");
+        return new MqttServerBinding(string(binding, "clientId"), bool(binding, "cleanSession"),
+            lastWill == null ? null : MqttLastWill.from(lastWill), integer(binding, "keepAlive"),
+            binding.get("sessionExpiryInterval"), binding.get("maximumPacketSize"), version(binding));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import java.io.IOException;
+
+/**
+ * Signals a document that is not well-formed JSON or YAML, or that does not match the shape of the AsyncAPI models.
+ */
+public class AsyncApiParseException extends IOException {
+
+    private final int line;
+    private final int column;
+
+    public AsyncApiParseException(String message, int line, int column) {
+        super(line > 0 ? message + " at line " + line + ", column " + column : message);
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * @return 1-based line the problem was detected at, or {@code 0} if unknown.
+     */
+    public int line() {
+        return line;
+    }
+
+    /**
+     * @return 1-based column the problem was detected at, or {@code 0} if unknown.
+     */
+    public int column() {
+        return column;
+    }
+}
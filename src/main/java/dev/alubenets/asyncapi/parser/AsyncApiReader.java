@@ -0,0 +1,308 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads AsyncAPI documents from JSON or YAML.
+ * <p>
+ * The document is bound into the models while it is being tokenized, so no intermediate tree of the whole document
+ * is ever built. Only values the models keep untyped, such as schemas and examples, are materialized as
+ * {@link java.util.Map}s and {@link java.util.List}s.
+ * <p>
+ * Instances are immutable and thread-safe; every {@code with*} method returns a reconfigured copy.
+ * <pre>{@code
+ * AsyncAPI api = AsyncApiReader.create().read(Files.newInputStream(path));
+ * }</pre>
+ */
+public final class AsyncApiReader {
+
+    private static final int DETECTION_LIMIT = 8 * 1024;
+
+    private final DocumentFormat format;
+    private final boolean frozen;
+    private final InterningPool pool;
+
+    private AsyncApiReader(DocumentFormat format, boolean frozen, InterningPool pool) {
+        this.format = format;
+        this.frozen = frozen;
+        this.pool = pool;
+    }
+
+    /**
+     * @return a reader that detects the format of every document it reads.
+     */
+    public static AsyncApiReader create() {
+        return new AsyncApiReader(null, false, null);
+    }
+
+    /**
+     * @param format the format of the documents, or {@code null} to detect it from the content.
+     * @return a copy of this reader that uses the given format.
+     */
+    public AsyncApiReader withFormat(DocumentFormat format) {
+        return new AsyncApiReader(format, frozen, pool);
+    }
+
+    /**
+     * @param frozen whether to {@link dev.alubenets.asyncapi.models.FreezableMap#freeze() freeze} the channels,
+     *               operations, servers, messages and parameters maps of the documents once they are bound, along
+     *               with the tags and the other lists held by model objects.
+     * @return a copy of this reader that freezes the maps as requested.
+     */
+    public AsyncApiReader withFrozenMaps(boolean frozen) {
+        return new AsyncApiReader(format, frozen, pool);
+    }
+
+    /**
+     * @param pool the pool to deduplicate repeated strings, tags, licenses and external documentation objects with,
+     *             or {@code null} to keep every value as read. Readers sharing a pool share the canonical instances.
+     * @return a copy of this reader that interns values into the given pool.
+     */
+    public AsyncApiReader withInterning(InterningPool pool) {
+        return new AsyncApiReader(format, frozen, pool);
+    }
+
+    /**
+     * Reads a document and closes the stream.
+     *
+     * @param in UTF-8 encoded JSON or YAML.
+     * @return the document.
+     * @throws AsyncApiParseException if the document is malformed.
+     * @throws IOException            if the stream cannot be read.
+     */
+    public AsyncAPI read(InputStream in) throws IOException {
+        try (TokenReader tokens = tokens(in)) {
+            return read(tokens);
+        }
+    }
+
+    /**
+     * Reads a document from the remaining bytes of the buffer. Heap buffers are tokenized in place; the buffer's
+     * position is not changed.
+     *
+     * @param buffer UTF-8 encoded JSON or YAML.
+     * @return the document.
+     * @throws AsyncApiParseException if the document is malformed.
+     */
+    public AsyncAPI read(ByteBuffer buffer) throws IOException {
+        try (TokenReader tokens = tokens(buffer)) {
+            return read(tokens);
+        }
+    }
+
+    /**
+     * Binds a document from a token stream. The reader must be positioned before the document.
+     *
+     * @param tokens the token stream, it is not closed.
+     * @return the document.
+     * @throws AsyncApiParseException if the document is malformed.
+     */
+    public AsyncAPI read(TokenReader tokens) throws IOException {
+        if (tokens.nextToken() == null) {
+            throw new AsyncApiParseException("Empty document", tokens.line(), tokens.column());
+        }
+        AsyncAPI api = new ModelBinder(tokens, frozen, pool).asyncApi();
+        if (tokens.nextToken() != null) {
+            throw new AsyncApiParseException("Unexpected content after the end of the document", tokens.line(),
+                tokens.column());
+        }
+        return api;
+    }
+
+    /**
+     * Streams over a document without materializing it and closes the stream, see {@link DocumentVisitor}.
+     *
+     * @param in      UTF-8 encoded JSON or YAML.
+     * @param visitor receives the parts of the document.
+     * @throws AsyncApiParseException if the document is malformed.
+     * @throws IOException            if the stream cannot be read.
+     */
+    public void read(InputStream in, DocumentVisitor visitor) throws IOException {
+        try (TokenReader tokens = tokens(in)) {
+            read(tokens, visitor);
+        }
+    }
+
+    /**
+     * Streams over a document in the remaining bytes of the buffer without materializing it, see
+     * {@link DocumentVisitor}. The buffer's position is not changed.
+     *
+     * @param buffer  UTF-8 encoded JSON or YAML.
+     * @param visitor receives the parts of the document.
+     * @throws AsyncApiParseException if the document is malformed.
+     */
+    public void read(ByteBuffer buffer, DocumentVisitor visitor) throws IOException {
+        try (TokenReader tokens = tokens(buffer)) {
+            read(tokens, visitor);
+        }
+    }
+
+    /**
+     * Streams over a document from a token stream without materializing it, see {@link DocumentVisitor}. The reader
+     * must be positioned before the document.
+     *
+     * @param tokens  the token stream, it is not closed.
+     * @param visitor receives the parts of the document.
+     * @throws AsyncApiParseException if the document is malformed.
+     */
+    public void read(TokenReader tokens, DocumentVisitor visitor) throws IOException {
+        if (tokens.nextToken() == null) {
+            throw new AsyncApiParseException("Empty document", tokens.line(), tokens.column());
+        }
+        new ModelBinder(tokens, frozen, pool).visit(visitor);
+        if (tokens.nextToken() != null) {
+            throw new AsyncApiParseException("Unexpected content after the end of the document", tokens.line(),
+                tokens.column());
+        }
+    }
+
+    /**
+     * Binds a single model object, for example a {@link dev.alubenets.asyncapi.models.Message} kept in a separate
+     * file. The reader must be positioned before the value.
+     *
+     * @param tokens the token stream, it is not closed.
+     * @param type   a model type, or {@link Object} for a generic tree.
+     * @param <T>    the model type.
+     * @return the bound value, {@code null} for an explicit {@code null}.
+     * @throws AsyncApiParseException   if the value is malformed.
+     * @throws IllegalArgumentException if the type is not part of the models.
+     */
+    public <T> T read(TokenReader tokens, Class<T> type) throws IOException {
+        if (tokens.nextToken() == null) {
+            throw new AsyncApiParseException("Empty document", tokens.line(), tokens.column());
+        }
+        return type.cast(new ModelBinder(tokens, frozen, pool).bind(type));
+    }
+
+    /**
+     * Reads a document into a generic tree of {@link java.util.Map}s, {@link java.util.List}s and scalars and closes
+     * the stream. Useful for fragments that are not complete AsyncAPI documents.
+     *
+     * @param in UTF-8 encoded JSON or YAML.
+     * @return the root value.
+     * @throws AsyncApiParseException if the document is malformed.
+     */
+    public Object readTree(InputStream in) throws IOException {
+        try (TokenReader tokens = tokens(in)) {
+            if (tokens.nextToken() == null) {
+                return null;
+            }
+            return new ModelBinder(tokens, false, null).value();
+        }
+    }
+
+    /**
+     * Opens a token stream over the given input.
+     *
+     * @param in UTF-8 encoded JSON or YAML, closed together with the returned reader.
+     * @return the token stream.
+     * @throws IOException if the format has to be detected and the stream cannot be read.
+     */
+    public TokenReader tokens(InputStream in) throws IOException {
+        DocumentFormat actual = format;
+        if (actual == null) {
+            if (!in.markSupported()) {
+                in = new BufferedInputStream(in, DETECTION_LIMIT);
+            }
+            in.mark(DETECTION_LIMIT);
+            int first;
+            int read = 0;
+            do {
+                first = in.read();
+                read++;
+            } while (isInsignificant(first) && read < DETECTION_LIMIT);
+            in.reset();
+            actual = DocumentFormat.detect(first);
+        }
+        return actual == DocumentFormat.JSON ? new JsonTokenReader(in) : new YamlTokenReader(in);
+    }
+
+    /**
+     * Opens a token stream over the remaining bytes of the buffer.
+     *
+     * @param buffer UTF-8 encoded JSON or YAML.
+     * @return the token stream.
+     */
+    public TokenReader tokens(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        DocumentFormat actual = format;
+        if (actual == null) {
+            int first = -1;
+            for (int i = view.position(); i < view.limit(); i++) {
+                int b = view.get(i) & 0xFF;
+                if (!isInsignificant(b)) {
+                    first = b;
+                    break;
+                }
+            }
+            actual = DocumentFormat.detect(first);
+        }
+        if (actual == DocumentFormat.JSON && view.hasArray()) {
+            return new JsonTokenReader(view.array(), view.arrayOffset() + view.position(), view.remaining());
+        }
+        InputStream in = new ByteBufferInputStream(view);
+        return actual == DocumentFormat.JSON ? new JsonTokenReader(in) : new YamlTokenReader(in);
+    }
+
+    private static boolean isInsignificant(int b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == 0xEF || b == 0xBB || b == 0xBF;
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
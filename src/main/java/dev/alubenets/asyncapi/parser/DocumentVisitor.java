@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Info;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Server;
+
+/**
+ * Receives the parts of a document while {@link AsyncApiReader#read(java.io.InputStream, DocumentVisitor)} streams
+ * over it, without the document ever being materialized as a whole.
+ * <p>
+ * Every server, channel, operation and component is bound on its own, handed to the visitor and then dropped, so the
+ * memory a visit takes is bounded by the largest single entry rather than by the size of the document. Callbacks
+ * arrive in document order. References are not resolved: a referenced object arrives as a model holding only its
+ * {@code $ref}, and its target arrives through {@link #onComponent(String, String, Object)} wherever the components
+ * appear in the document.
+ * <p>
+ * Before a section is bound, {@link #enter(String)} decides whether the visitor needs it; sections it declines are
+ * skipped without being decoded. All callbacks do nothing by default.
+ * <pre>{@code
+ * reader.read(in, new DocumentVisitor() {
+ *     public boolean enter(String pointer) {
+ *         return pointer.equals("/channels");
+ *     }
+ *
+ *     public void onChannel(String name, Channel channel) {
+ *         addresses.put(name, channel.address());
+ *     }
+ * });
+ * }</pre>
+ */
+public interface DocumentVisitor {
+
+    /**
+     * Called before a section of the document is bound: {@code /info}, {@code /servers}, {@code /channels},
+     * {@code /operations}, {@code /components} and, within the components, every group such as
+     * {@code /components/schemas}.
+     *
+     * @param pointer the JSON pointer of the section.
+     * @return {@code false} to skip the section without decoding it.
+     */
+    default boolean enter(String pointer) {
+        return true;
+    }
+
+    /**
+     * @param name  the name of a scalar root property: {@code asyncapi}, {@code id} or {@code defaultContentType}.
+     * @param value its value.
+     */
+    default void onProperty(String name, String value) {
+    }
+
+    default void onInfo(Info info) {
+    }
+
+    default void onServer(String name, Server server) {
+    }
+
+    /**
+     * Called for every channel, before {@link #onMessage(String, String, Message)} is called for its messages.
+     */
+    default void onChannel(String name, Channel channel) {
+    }
+
+    /**
+     * @param channel the name of the channel the message belongs to.
+     * @param name    the name of the message within the channel.
+     * @param message the message, possibly a reference.
+     */
+    default void onMessage(String channel, String name, Message message) {
+    }
+
+    default void onOperation(String name, Operation operation) {
+    }
+
+    /**
+     * @param type      the group of the component, such as {@code schemas} or {@code messages}.
+     * @param name      the name of the component.
+     * @param component the component, bound into the model type of its group, such as
+     *                  {@link dev.alubenets.asyncapi.models.SecurityScheme}, or into generic form for schemas and
+     *                  correlation IDs.
+     */
+    default void onComponent(String type, String name, Object component) {
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import dev.alubenets.asyncapi.models.ExternalDocumentation;
+import dev.alubenets.asyncapi.models.License;
+import dev.alubenets.asyncapi.models.Tag;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates strings and small value records, such as {@link Tag}s, across the documents read by an
+ * {@link AsyncApiReader} configured with {@link AsyncApiReader#withInterning(InterningPool)}.
+ * <p>
+ * Specifications repeat the same content types, protocols, tags and names many times, within a document and across
+ * documents. The pool hands out one canonical instance per distinct value. It holds its instances weakly, so values
+ * no longer referenced by any document are collected together with the pool entries. Unlike {@link String#intern()},
+ * the pool is scoped to the readers it is given to.
+ * <p>
+ * The pool keeps an estimate of the heap it saved, see {@link #savedBytes()}. Instances are thread-safe, readers
+ * interning into one pool concurrently do not wait for each other.
+ */
+public final class InterningPool {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int STRING_SHALLOW = 24;
+    private static final int ARRAY_HEADER = 16;
+
+    private final Map<Key, Key> canonical = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
+
+    private InterningPool() {
+    }
+
+    /**
+     * @return an empty pool.
+     */
+    public static InterningPool create() {
+        return new InterningPool();
+    }
+
+    /**
+     * @param value a string, may be {@code null}.
+     * @return the canonical instance equal to the value.
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = canonical(value);
+        if (canonical != value) {
+            saved(value);
+        }
+        return canonical;
+    }
+
+    /**
+     * Interns a property name. Tokenizers already share one instance per distinct name within a document, so the
+     * caller reports the replaced instances with {@link #saved(String)} once per instance rather than per occurrence.
+     */
+    String internName(String name) {
+        return canonical(name);
+    }
+
+    void saved(String replaced) {
+        savedBytes.add(stringSize(replaced));
+    }
+
+    /**
+     * @param tag a tag, may be {@code null}.
+     * @return the canonical instance equal to the tag.
+     */
+    public Tag intern(Tag tag) {
+        return tag == null ? null : record(tag, 2);
+    }
+
+    /**
+     * @param license a license, may be {@code null}.
+     * @return the canonical instance equal to the license.
+     */
+    public License intern(License license) {
+        return license == null ? null : record(license, 2);
+    }
+
+    /**
+     * @param docs an external documentation object, may be {@code null}.
+     * @return the canonical instance equal to the object.
+     */
+    public ExternalDocumentation intern(ExternalDocumentation docs) {
+        return docs == null ? null : record(docs, 3);
+    }
+
+    /**
+     * @return the number of values that were replaced with an already pooled instance.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Estimates the heap no longer taken by duplicates, assuming compressed references and compact strings. The
+     * estimate only counts the replaced instances themselves, strings held by a replaced record are counted when they
+     * are interned on their own.
+     *
+     * @return the estimated number of bytes saved so far.
+     */
+    public long savedBytes() {
+        return savedBytes.sum();
+    }
+
+    /**
+     * @return the number of distinct values currently pooled.
+     */
+    public int size() {
+        expunge();
+        return canonical.size();
+    }
+
+    private <T extends Record> T record(T value, int fields) {
+        T canonical = canonical(value);
+        if (canonical != value) {
+            savedBytes.add(align(OBJECT_HEADER + (long) fields * REFERENCE));
+        }
+        return canonical;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T canonical(T value) {
+        expunge();
+        Key lookup = new Key(value, null);
+        while (true) {
+            Key key = canonical.get(lookup);
+            if (key == null) {
+                Key added = new Key(value, collected);
+                key = canonical.putIfAbsent(added, added);
+                if (key == null) {
+                    return value;
+                }
+            }
+            Object existing = key.get();
+            if (existing != null) {
+                if (existing != value) {
+                    hits.increment();
+                }
+                return (T) existing;
+            }
+            // Collected since it was found, the entry is stale.
+            canonical.remove(key, key);
+        }
+    }
+
+    private void expunge() {
+        Reference<?> reference;
+        while ((reference = collected.poll()) != null) {
+            canonical.remove(reference);
+        }
+    }
+
+    private static long stringSize(String value) {
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+        return STRING_SHALLOW + align(ARRAY_HEADER + (long) value.length() * (latin1 ? 1 : 2));
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * A weak reference that is equal to every other key referring to an equal value. Keys whose referent was
+     * collected are only equal to themselves, which is what removing them from the map takes.
+     */
+    private static final class Key extends WeakReference<Object> {
+
+        private final int hash;
+
+        Key(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = referent.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            Object referent = get();
+            return referent != null && other instanceof Key key && referent.equals(key.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
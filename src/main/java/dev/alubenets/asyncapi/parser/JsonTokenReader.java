@@ -0,0 +1,633 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * {@link TokenReader} over UTF-8 encoded JSON.
+ * <p>
+ * The reader works directly on bytes: strings without escapes are decoded straight from the input buffer, field names
+ * are deduplicated through a small table so that repeated keys do not allocate, and {@link #skipChildren()} jumps over
+ * nested values without decoding them.
+ */
+public final class JsonTokenReader implements TokenReader {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final byte OBJECT_START = 0;
+    private static final byte OBJECT_VALUE = 1;
+    private static final byte OBJECT_NEXT = 2;
+    private static final byte ARRAY_START = 3;
+    private static final byte ARRAY_NEXT = 4;
+
+    private final InputStream in;
+    private byte[] buffer;
+    private int pos;
+    private int end;
+
+    private int line = 1;
+    private int lineStart;
+    private int tokenLine;
+    private int tokenColumn;
+
+    private byte[] states = new byte[32];
+    private int depth;
+    private boolean rootDone;
+
+    private JsonToken current;
+    private String text;
+    private byte[] scratch = new byte[64];
+    private final NameTable names = new NameTable();
+
+    /**
+     * Creates a reader that pulls bytes from the given stream on demand.
+     *
+     * @param in UTF-8 encoded JSON.
+     */
+    public JsonTokenReader(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Creates a reader over an in-memory document. The array is read in place and must not change while reading.
+     *
+     * @param bytes  UTF-8 encoded JSON.
+     * @param offset first byte of the document.
+     * @param length number of bytes in the document.
+     */
+    public JsonTokenReader(byte[] bytes, int offset, int length) {
+        this.in = null;
+        this.buffer = bytes;
+        this.pos = offset;
+        this.end = offset + length;
+        this.lineStart = offset;
+    }
+
+    /**
+     * Restarts an in-memory reader on another document, keeping the field names seen so far. Documents sharing a
+     * vocabulary, such as the payloads of a message, are read by one reader this way without a new name table each.
+     *
+     * @param bytes  UTF-8 encoded JSON.
+     * @param offset first byte of the document.
+     * @param length number of bytes in the document.
+     * @throws IllegalStateException if the reader pulls bytes from a stream.
+     */
+    public void reset(byte[] bytes, int offset, int length) {
+        if (in != null) {
+            throw new IllegalStateException("A reader of a stream cannot be reset");
+        }
+        this.buffer = bytes;
+        this.pos = offset;
+        this.end = offset + length;
+        this.line = 1;
+        this.lineStart = offset;
+        this.tokenLine = 0;
+        this.tokenColumn = 0;
+        this.depth = 0;
+        this.rootDone = false;
+        this.current = null;
+        this.text = null;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        text = null;
+        int c = nextNonWhitespace();
+        markToken();
+        if (depth == 0) {
+            if (rootDone || c == -1) {
+                if (c != -1) {
+                    throw error("Unexpected content after the end of the document");
+                }
+                return current = null;
+            }
+            rootDone = true;
+            return current = value(c);
+        }
+        switch (states[depth - 1]) {
+            case OBJECT_START:
+                if (c == '}') {
+                    return current = pop(JsonToken.END_OBJECT);
+                }
+                return current = fieldName(c);
+            case OBJECT_NEXT:
+                if (c == '}') {
+                    return current = pop(JsonToken.END_OBJECT);
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+                c = nextNonWhitespace();
+                markToken();
+                return current = fieldName(c);
+            case OBJECT_VALUE:
+                states[depth - 1] = OBJECT_NEXT;
+                return current = value(c);
+            case ARRAY_START:
+                if (c == ']') {
+                    return current = pop(JsonToken.END_ARRAY);
+                }
+                states[depth - 1] = ARRAY_NEXT;
+                return current = value(c);
+            default:
+                if (c == ']') {
+                    return current = pop(JsonToken.END_ARRAY);
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or ']'");
+                }
+                c = nextNonWhitespace();
+                markToken();
+                return current = value(c);
+        }
+    }
+
+    @Override
+    public JsonToken currentToken() {
+        return current;
+    }
+
+    @Override
+    public String text() {
+        return text;
+    }
+
+    @Override
+    public void skipChildren() throws IOException {
+        if (current != JsonToken.START_OBJECT && current != JsonToken.START_ARRAY) {
+            return;
+        }
+        int nested = 1;
+        while (true) {
+            if (pos >= end && !fill()) {
+                throw error("Unexpected end of document");
+            }
+            byte b = buffer[pos++];
+            switch (b) {
+                case '"' -> skipString();
+                case '{', '[' -> nested++;
+                case '}', ']' -> {
+                    if (--nested == 0) {
+                        current = pop(b == '}' ? JsonToken.END_OBJECT : JsonToken.END_ARRAY);
+                        text = null;
+                        return;
+                    }
+                }
+                case '\n' -> {
+                    line++;
+                    lineStart = pos;
+                }
+                default -> {
+                    // everything else is irrelevant while skipping
+                }
+            }
+        }
+    }
+
+    @Override
+    public int line() {
+        return tokenLine;
+    }
+
+    @Override
+    public int column() {
+        return tokenColumn;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    private JsonToken value(int c) throws IOException {
+        switch (c) {
+            case '{':
+                push(OBJECT_START);
+                return JsonToken.START_OBJECT;
+            case '[':
+                push(ARRAY_START);
+                return JsonToken.START_ARRAY;
+            case '"':
+                text = string();
+                return JsonToken.STRING;
+            case 't':
+                literal("true");
+                return JsonToken.TRUE;
+            case 'f':
+                literal("false");
+                return JsonToken.FALSE;
+            case 'n':
+                literal("null");
+                return JsonToken.NULL;
+            case -1:
+                throw error("Unexpected end of document");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    text = number();
+                    return JsonToken.NUMBER;
+                }
+                throw error("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private JsonToken fieldName(int c) throws IOException {
+        if (c != '"') {
+            throw error(c == -1 ? "Unexpected end of document" : "Expected a field name");
+        }
+        text = name();
+        if (nextNonWhitespace() != ':') {
+            throw error("Expected ':' after field name");
+        }
+        states[depth - 1] = OBJECT_VALUE;
+        return JsonToken.FIELD_NAME;
+    }
+
+    private void push(byte state) {
+        if (depth == states.length) {
+            states = Arrays.copyOf(states, depth * 2);
+        }
+        states[depth++] = state;
+    }
+
+    private JsonToken pop(JsonToken token) {
+        depth--;
+        return token;
+    }
+
+    /**
+     * Consumes whitespace and returns the first significant byte, which is consumed as well.
+     */
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            if (pos >= end && !fill()) {
+                return -1;
+            }
+            byte b = buffer[pos++];
+            switch (b) {
+                case ' ', '\t', '\r' -> {
+                    // insignificant
+                }
+                case '\n' -> {
+                    line++;
+                    lineStart = pos;
+                }
+                default -> {
+                    if (b == (byte) 0xEF && line == 1 && pos - lineStart == 1) {
+                        skipByteOrderMark();
+                        continue;
+                    }
+                    return b & 0xFF;
+                }
+            }
+        }
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        for (int expected : new int[]{0xBB, 0xBF}) {
+            if (pos >= end && !fill()) {
+                throw error("Truncated byte order mark");
+            }
+            if ((buffer[pos++] & 0xFF) != expected) {
+                throw error("Malformed byte order mark");
+            }
+        }
+        lineStart = pos;
+    }
+
+    private void markToken() {
+        tokenLine = line;
+        tokenColumn = pos - lineStart;
+    }
+
+    private void literal(String expected) throws IOException {
+        for (int i = 1; i < expected.length(); i++) {
+            if (pos >= end && !fill()) {
+                throw error("Unexpected end of document");
+            }
+            if (buffer[pos++] != expected.charAt(i)) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+        text = expected;
+    }
+
+    private String number() throws IOException {
+        int start = pos - 1;
+        int state = buffer[start] == '-' ? 0 : buffer[start] == '0' ? 7 : 1;
+        // 0: after sign, 1: integer digits, 2: after '.', 3: fraction digits, 4: after 'e', 5: after exponent sign,
+        // 6: exponent digits, 7: an integer part of a single zero, which no digit may follow
+        while (true) {
+            if (pos >= end) {
+                start -= compact(start);
+                if (!load()) {
+                    break;
+                }
+            }
+            byte b = buffer[pos];
+            boolean digit = b >= '0' && b <= '9';
+            if (digit) {
+                state = switch (state) {
+                    case 0 -> b == '0' ? 7 : 1;
+                    case 1 -> 1;
+                    case 2, 3 -> 3;
+                    case 7 -> throw error("Leading zeros are not allowed in numbers");
+                    default -> 6;
+                };
+            } else if (b == '.' && (state == 1 || state == 7)) {
+                state = 2;
+            } else if ((b == 'e' || b == 'E') && (state == 1 || state == 3 || state == 7)) {
+                state = 4;
+            } else if ((b == '+' || b == '-') && state == 4) {
+                state = 5;
+            } else {
+                break;
+            }
+            pos++;
+        }
+        if (state != 1 && state != 3 && state != 6 && state != 7) {
+            throw error("Malformed number");
+        }
+        return new String(buffer, start, pos - start, StandardCharsets.ISO_8859_1);
+    }
+
+    private String name() throws IOException {
+        int start = pos;
+        int hash = 0;
+        while (true) {
+            if (pos >= end) {
+                start -= compact(start);
+                if (!load()) {
+                    throw error("Unterminated string");
+                }
+            }
+            byte b = buffer[pos++];
+            if (b == '"') {
+                return names.lookup(buffer, start, pos - 1 - start, hash);
+            }
+            if (b == '\\') {
+                pos = start;
+                return escapedString();
+            }
+            if (b >= 0 && b < 0x20) {
+                throw error("Unescaped control character in string");
+            }
+            hash = 31 * hash + b;
+        }
+    }
+
+    private String string() throws IOException {
+        int start = pos;
+        while (true) {
+            if (pos >= end) {
+                start -= compact(start);
+                if (!load()) {
+                    throw error("Unterminated string");
+                }
+            }
+            byte b = buffer[pos++];
+            if (b == '"') {
+                return new String(buffer, start, pos - 1 - start, StandardCharsets.UTF_8);
+            }
+            if (b == '\\') {
+                pos = start;
+                return escapedString();
+            }
+            if (b >= 0 && b < 0x20) {
+                throw error("Unescaped control character in string");
+            }
+        }
+    }
+
+    private String escapedString() throws IOException {
+        int length = 0;
+        while (true) {
+            int b = read();
+            if (b == '"') {
+                return new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            if (b == '\\') {
+                int escape = read();
+                int decoded = switch (escape) {
+                    case '"', '\\', '/' -> escape;
+                    case 'b' -> '\b';
+                    case 'f' -> '\f';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    case 't' -> '\t';
+                    case 'u' -> -1;
+                    default -> throw error("Illegal escape sequence");
+                };
+                if (decoded >= 0) {
+                    length = append(length, decoded);
+                } else {
+                    length = appendCodePoint(length, unicodeEscape());
+                }
+            } else if (b < 0x20) {
+                throw error("Unescaped control character in string");
+            } else {
+                length = append(length, b);
+            }
+        }
+    }
+
+    private int unicodeEscape() throws IOException {
+        int unit = hex();
+        if (Character.isHighSurrogate((char) unit)) {
+            while (end - pos < 2 && fill()) {
+                // make sure a following escape is buffered completely
+            }
+            if (pos + 1 < end && buffer[pos] == '\\' && buffer[pos + 1] == 'u') {
+                pos += 2;
+                int low = hex();
+                if (Character.isLowSurrogate((char) low)) {
+                    return Character.toCodePoint((char) unit, (char) low);
+                }
+                throw error("Unpaired surrogate in unicode escape");
+            }
+        }
+        if (Character.isSurrogate((char) unit)) {
+            throw error("Unpaired surrogate in unicode escape");
+        }
+        return unit;
+    }
+
+    private int hex() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw error("Malformed unicode escape");
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private int appendCodePoint(int length, int codePoint) {
+        if (codePoint < 0x80) {
+            return append(length, codePoint);
+        }
+        if (codePoint < 0x800) {
+            length = append(length, 0xC0 | (codePoint >> 6));
+        } else if (codePoint < 0x10000) {
+            length = append(length, 0xE0 | (codePoint >> 12));
+            length = append(length, 0x80 | ((codePoint >> 6) & 0x3F));
+        } else {
+            length = append(length, 0xF0 | (codePoint >> 18));
+            length = append(length, 0x80 | ((codePoint >> 12) & 0x3F));
+            length = append(length, 0x80 | ((codePoint >> 6) & 0x3F));
+        }
+        return append(length, 0x80 | (codePoint & 0x3F));
+    }
+
+    private int append(int length, int b) {
+        if (length == scratch.length) {
+            scratch = Arrays.copyOf(scratch, length * 2);
+        }
+        scratch[length] = (byte) b;
+        return length + 1;
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            if (pos >= end && !fill()) {
+                throw error("Unterminated string");
+            }
+            byte b = buffer[pos++];
+            if (b == '"') {
+                return;
+            }
+            if (b >= 0 && b < 0x20) {
+                throw error("Unescaped control character in string");
+            }
+            if (b == '\\') {
+                if (pos >= end && !fill()) {
+                    throw error("Unterminated string");
+                }
+                pos++;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos >= end && !fill()) {
+            throw error("Unexpected end of document");
+        }
+        return buffer[pos++] & 0xFF;
+    }
+
+    /**
+     * Moves the bytes from {@code keep} onwards to the start of the buffer so a token spanning a refill stays
+     * contiguous.
+     *
+     * @return the number of positions the content was shifted by.
+     */
+    private int compact(int keep) {
+        if (in == null || keep == 0) {
+            return 0;
+        }
+        int remaining = end - keep;
+        System.arraycopy(buffer, keep, buffer, 0, remaining);
+        pos -= keep;
+        end = remaining;
+        lineStart -= keep;
+        return keep;
+    }
+
+    /**
+     * Discards consumed bytes and reads more input.
+     *
+     * @return {@code false} if the input is exhausted.
+     */
+    private boolean fill() throws IOException {
+        compact(pos);
+        return load();
+    }
+
+    /**
+     * Appends more input after the buffered bytes, growing the buffer if it is full.
+     *
+     * @return {@code false} if the input is exhausted.
+     */
+    private boolean load() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        if (end == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = in.read(buffer, end, buffer.length - end);
+        if (read <= 0) {
+            return false;
+        }
+        end += read;
+        return true;
+    }
+
+    private AsyncApiParseException error(String message) {
+        return new AsyncApiParseException(message, line, pos - lineStart);
+    }
+
+    /**
+     * Deduplicates field names. Documents use a small vocabulary of keys, so resolving them against previously seen
+     * byte sequences avoids allocating a new string for every key.
+     */
+    private static final class NameTable {
+
+        private static final int CAPACITY = 1024;
+
+        private final byte[][] keys = new byte[CAPACITY][];
+        private final String[] values = new String[CAPACITY];
+        private int size;
+
+        String lookup(byte[] buffer, int offset, int length, int hash) {
+            int mask = CAPACITY - 1;
+            int index = (hash ^ (hash >>> 16)) & mask;
+            while (true) {
+                byte[] key = keys[index];
+                if (key == null) {
+                    String name = new String(buffer, offset, length, StandardCharsets.UTF_8);
+                    if (size < CAPACITY / 2) {
+                        keys[index] = Arrays.copyOfRange(buffer, offset, offset + length);
+                        values[index] = name;
+                        size++;
+                    }
+                    return name;
+                }
+                if (Arrays.equals(key, 0, key.length, buffer, offset, offset + length)) {
+                    return values[index];
+                }
+                index = (index + 1) & mask;
+            }
+        }
+    }
+}
@@ -0,0 +1,1112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.ChannelBindings;
+import dev.alubenets.asyncapi.models.Channels;
+import dev.alubenets.asyncapi.models.Components;
+import dev.alubenets.asyncapi.models.Contact;
+import dev.alubenets.asyncapi.models.ExternalDocumentation;
+import dev.alubenets.asyncapi.models.FreezableMap;
+import dev.alubenets.asyncapi.models.Info;
+import dev.alubenets.asyncapi.models.License;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.MessageBindings;
+import dev.alubenets.asyncapi.models.MessageExample;
+import dev.alubenets.asyncapi.models.MessageTrait;
+import dev.alubenets.asyncapi.models.Messages;
+import dev.alubenets.asyncapi.models.OAuthFlow;
+import dev.alubenets.asyncapi.models.OAuthFlows;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.OperationBindings;
+import dev.alubenets.asyncapi.models.OperationReply;
+import dev.alubenets.asyncapi.models.OperationReplyAddress;
+import dev.alubenets.asyncapi.models.OperationTrait;
+import dev.alubenets.asyncapi.models.Operations;
+import dev.alubenets.asyncapi.models.Parameter;
+import dev.alubenets.asyncapi.models.Parameters;
+import dev.alubenets.asyncapi.models.SecurityScheme;
+import dev.alubenets.asyncapi.models.Server;
+import dev.alubenets.asyncapi.models.ServerBindings;
+import dev.alubenets.asyncapi.models.ServerVariable;
+import dev.alubenets.asyncapi.models.Servers;
+import dev.alubenets.asyncapi.models.Tag;
+import dev.alubenets.asyncapi.models.Tags;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Builds the AsyncAPI models straight from a {@link TokenReader}.
+ * <p>
+ * Every method expects the reader to be positioned on the first token of the value it binds and leaves it on the last
+ * token of that value. Unknown properties are skipped without being decoded.
+ */
+final class ModelBinder {
+
+    private final TokenReader tokens;
+    private final boolean freeze;
+    private final InterningPool pool;
+    private Map<String, Boolean> replacedNames;
+
+    ModelBinder(TokenReader tokens, boolean freeze, InterningPool pool) {
+        this.tokens = tokens;
+        this.freeze = freeze;
+        this.pool = pool;
+    }
+
+    /**
+     * Binds a value of the given model type, {@link Object} binds a generic value.
+     */
+    Object bind(Class<?> type) throws IOException {
+        if (type == Object.class) {
+            return value();
+        }
+        if (type == AsyncAPI.class) {
+            return asyncApi();
+        }
+        if (type == Info.class) {
+            return info();
+        }
+        if (type == Contact.class) {
+            return contact();
+        }
+        if (type == License.class) {
+            return license();
+        }
+        if (type == Server.class) {
+            return server();
+        }
+        if (type == ServerVariable.class) {
+            return serverVariable();
+        }
+        if (type == SecurityScheme.class) {
+            return securityScheme();
+        }
+        if (type == OAuthFlows.class) {
+            return oauthFlows();
+        }
+        if (type == OAuthFlow.class) {
+            return oauthFlow();
+        }
+        if (type == Tag.class) {
+            return tag();
+        }
+        if (type == Tags.class) {
+            return tags();
+        }
+        if (type == ExternalDocumentation.class) {
+            return externalDocs();
+        }
+        if (type == ServerBindings.class) {
+            return serverBindings();
+        }
+        if (type == ChannelBindings.class) {
+            return channelBindings();
+        }
+        if (type == OperationBindings.class) {
+            return operationBindings();
+        }
+        if (type == MessageBindings.class) {
+            return messageBindings();
+        }
+        if (type == Channel.class) {
+            return channel();
+        }
+        if (type == Channels.class) {
+            return map(Channels::new, this::channel);
+        }
+        if (type == Message.class) {
+            return message();
+        }
+        if (type == Messages.class) {
+            return map(Messages::new, this::message);
+        }
+        if (type == MessageExample.class) {
+            return messageExample();
+        }
+        if (type == MessageTrait.class) {
+            return messageTrait();
+        }
+        if (type == Parameter.class) {
+            return parameter();
+        }
+        if (type == Parameters.class) {
+            return map(Parameters::new, this::parameter);
+        }
+        if (type == Operation.class) {
+            return operation();
+        }
+        if (type == Operations.class) {
+            return map(Operations::new, this::operation);
+        }
+        if (type == OperationTrait.class) {
+            return operationTrait();
+        }
+        if (type == OperationReply.class) {
+            return operationReply();
+        }
+        if (type == OperationReplyAddress.class) {
+            return operationReplyAddress();
+        }
+        if (type == Servers.class) {
+            return map(Servers::new, this::server);
+        }
+        if (type == Components.class) {
+            return components();
+        }
+        throw new IllegalArgumentException("Unsupported model type " + type.getName());
+    }
+
+    AsyncAPI asyncApi() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        Info info = null;
+        String id = null;
+        Servers servers = null;
+        String defaultContentType = null;
+        Channels channels = null;
+        Operations operations = null;
+        Components components = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "info" -> info = info();
+                case "id" -> id = string();
+                case "servers" -> servers = map(Servers::new, this::server);
+                case "defaultContentType" -> defaultContentType = string();
+                case "channels" -> channels = map(Channels::new, this::channel);
+                case "operations" -> operations = map(Operations::new, this::operation);
+                case "components" -> components = components();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new AsyncAPI(info, id, servers, defaultContentType, channels, operations, components);
+    }
+
+    /**
+     * Streams over a document, binding one entry of a section at a time and skipping the sections the visitor
+     * declines.
+     */
+    void visit(DocumentVisitor visitor) throws IOException {
+        if (isNull()) {
+            return;
+        }
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "asyncapi", "id", "defaultContentType" -> {
+                    String value = string();
+                    if (value != null) {
+                        visitor.onProperty(field, value);
+                    }
+                }
+                case "info" -> {
+                    if (visitor.enter("/info")) {
+                        Info info = info();
+                        if (info != null) {
+                            visitor.onInfo(info);
+                        }
+                    } else {
+                        tokens.skipChildren();
+                    }
+                }
+                case "servers" -> entries("/servers", visitor, this::server, visitor::onServer);
+                case "channels" -> entries("/channels", visitor, this::channel, (name, channel) -> {
+                    visitor.onChannel(name, channel);
+                    if (channel.messages() != null) {
+                        channel.messages().forEach((message, value) -> {
+                            if (value != null) {
+                                visitor.onMessage(name, message, value);
+                            }
+                        });
+                    }
+                });
+                case "operations" -> entries("/operations", visitor, this::operation, visitor::onOperation);
+                case "components" -> {
+                    if (visitor.enter("/components") && !isNull()) {
+                        visitComponents(visitor);
+                    } else {
+                        tokens.skipChildren();
+                    }
+                }
+                default -> tokens.skipChildren();
+            }
+        }
+    }
+
+    private void visitComponents(DocumentVisitor visitor) throws IOException {
+        String field;
+        while ((field = nextField()) != null) {
+            String type = field;
+            ValueBinder<?> values = switch (type) {
+                case "schemas", "correlationIds" -> this::value;
+                case "servers" -> this::server;
+                case "channels" -> this::channel;
+                case "operations" -> this::operation;
+                case "messages" -> this::message;
+                case "securitySchemes" -> this::securityScheme;
+                case "serverVariables" -> this::serverVariable;
+                case "parameters" -> this::parameter;
+                case "replies" -> this::operationReply;
+                case "replyAddresses" -> this::operationReplyAddress;
+                case "externalDocs" -> this::externalDocs;
+                case "tags" -> this::tag;
+                case "operationTraits" -> this::operationTrait;
+                case "messageTraits" -> this::messageTrait;
+                case "serverBindings" -> this::serverBindings;
+                case "channelBindings" -> this::channelBindings;
+                case "operationBindings" -> this::operationBindings;
+                case "messageBindings" -> this::messageBindings;
+                default -> null;
+            };
+            if (values == null) {
+                tokens.skipChildren();
+            } else {
+                entries("/components/" + type, visitor, values,
+                    (name, value) -> visitor.onComponent(type, name, value));
+            }
+        }
+    }
+
+    /**
+     * Binds the entries of a map one by one and hands each to the consumer, or skips the map if the visitor declines
+     * it. {@code null} entries are skipped.
+     */
+    private <V> void entries(String pointer, DocumentVisitor visitor, ValueBinder<V> values,
+                             BiConsumer<String, V> consumer) throws IOException {
+        if (!visitor.enter(pointer) || isNull()) {
+            tokens.skipChildren();
+            return;
+        }
+        String field;
+        while ((field = nextField()) != null) {
+            String name = pool == null ? field : name(field);
+            V value = values.bind();
+            if (value != null) {
+                consumer.accept(name, value);
+            }
+        }
+    }
+
+    Info info() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String title = null;
+        String version = null;
+        String description = null;
+        String termsOfService = null;
+        Contact contact = null;
+        License license = null;
+        Tags tags = null;
+        ExternalDocumentation externalDocs = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "title" -> title = string();
+                case "version" -> version = string();
+                case "description" -> description = string();
+                case "termsOfService" -> termsOfService = string();
+                case "contact" -> contact = contact();
+                case "license" -> license = license();
+                case "tags" -> tags = tags();
+                case "externalDocs" -> externalDocs = externalDocs();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new Info(title, version, description, termsOfService, contact, license, tags, externalDocs);
+    }
+
+    Contact contact() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String name = null;
+        String url = null;
+        String email = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "name" -> name = string();
+                case "url" -> url = string();
+                case "email" -> email = string();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new Contact(name, url, email);
+    }
+
+    License license() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String name = null;
+        String url = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "name" -> name = interned();
+                case "url" -> url = interned();
+                default -> tokens.skipChildren();
+            }
+        }
+        License license = new License(name, url);
+        return pool == null ? license : pool.intern(license);
+    }
+
+    Server server() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        String host = null;
+        String protocol = null;
+        String protocolVersion = null;
+        String pathname = null;
+        String description = null;
+        String title = null;
+        String summary = null;
+        Map<String, ServerVariable> variables = null;
+        List<SecurityScheme> security = null;
+        Tags tags = null;
+        ExternalDocumentation externalDocs = null;
+        ServerBindings bindings = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "host" -> host = string();
+                case "protocol" -> protocol = interned();
+                case "protocolVersion" -> protocolVersion = interned();
+                case "pathname" -> pathname = string();
+                case "description" -> description = string();
+                case "title" -> title = string();
+                case "summary" -> summary = string();
+                case "variables" -> variables = map(LinkedHashMap::new, this::serverVariable);
+                case "security" -> security = modelList(this::securityScheme);
+                case "tags" -> tags = tags();
+                case "externalDocs" -> externalDocs = externalDocs();
+                case "bindings" -> bindings = serverBindings();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new Server($ref, host, protocol, protocolVersion, pathname, description, title, summary, variables,
+            security, tags, externalDocs, bindings);
+    }
+
+    ServerVariable serverVariable() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        List<String> _enum = null;
+        String _default = null;
+        String description = null;
+        List<String> examples = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "enum" -> _enum = modelList(this::string);
+                case "default" -> _default = string();
+                case "description" -> description = string();
+                case "examples" -> examples = modelList(this::string);
+                default -> tokens.skipChildren();
+            }
+        }
+        return new ServerVariable($ref, _enum, _default, description, examples);
+    }
+
+    SecurityScheme securityScheme() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        String _type = null;
+        String description = null;
+        String name = null;
+        String in = null;
+        String scheme = null;
+        String bearerFormat = null;
+        OAuthFlows flows = null;
+        String openIdConnectUrl = null;
+        List<String> scopes = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "type" -> _type = interned();
+                case "description" -> description = string();
+                case "name" -> name = string();
+                case "in" -> in = string();
+                case "scheme" -> scheme = string();
+                case "bearerFormat" -> bearerFormat = string();
+                case "flows" -> flows = oauthFlows();
+                case "openIdConnectUrl" -> openIdConnectUrl = string();
+                case "scopes" -> scopes = modelList(this::string);
+                default -> tokens.skipChildren();
+            }
+        }
+        return new SecurityScheme($ref, _type, description, name, in, scheme, bearerFormat, flows, openIdConnectUrl,
+            scopes);
+    }
+
+    OAuthFlows oauthFlows() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        OAuthFlow implicit = null;
+        OAuthFlow password = null;
+        OAuthFlow clientCredentials = null;
+        OAuthFlow authorizationCode = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "implicit" -> implicit = oauthFlow();
+                case "password" -> password = oauthFlow();
+                case "clientCredentials" -> clientCredentials = oauthFlow();
+                case "authorizationCode" -> authorizationCode = oauthFlow();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new OAuthFlows(implicit, password, clientCredentials, authorizationCode);
+    }
+
+    OAuthFlow oauthFlow() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String authorizationUrl = null;
+        String tokenUrl = null;
+        String refreshUrl = null;
+        Map<String, String> availableScopes = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "authorizationUrl" -> authorizationUrl = string();
+                case "tokenUrl" -> tokenUrl = string();
+                case "refreshUrl" -> refreshUrl = string();
+                case "availableScopes" -> availableScopes = map(LinkedHashMap::new, this::string);
+                default -> tokens.skipChildren();
+            }
+        }
+        return new OAuthFlow(authorizationUrl, tokenUrl, refreshUrl, availableScopes);
+    }
+
+    Tags tags() throws IOException {
+        Tags tags = list(Tags::new, this::tag);
+        if (freeze && tags != null) {
+            tags.freeze();
+        }
+        return tags;
+    }
+
+    Tag tag() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String name = null;
+        String description = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "name" -> name = interned();
+                case "description" -> description = interned();
+                default -> tokens.skipChildren();
+            }
+        }
+        Tag tag = new Tag(name, description);
+        return pool == null ? tag : pool.intern(tag);
+    }
+
+    ExternalDocumentation externalDocs() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        String description = null;
+        String url = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = interned();
+                case "description" -> description = interned();
+                case "url" -> url = interned();
+                default -> tokens.skipChildren();
+            }
+        }
+        ExternalDocumentation docs = new ExternalDocumentation($ref, description, url);
+        return pool == null ? docs : pool.intern(docs);
+    }
+
+    ServerBindings serverBindings() throws IOException {
+        return map(ServerBindings::new, this::value);
+    }
+
+    ChannelBindings channelBindings() throws IOException {
+        return map(ChannelBindings::new, this::value);
+    }
+
+    OperationBindings operationBindings() throws IOException {
+        return map(OperationBindings::new, this::value);
+    }
+
+    MessageBindings messageBindings() throws IOException {
+        return map(MessageBindings::new, this::value);
+    }
+
+    Channel channel() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        String address = null;
+        Messages messages = null;
+        String title = null;
+        String summary = null;
+        String description = null;
+        List<Server> servers = null;
+        Parameters parameters = null;
+        Tags tags = null;
+        ExternalDocumentation externalDocs = null;
+        ChannelBindings bindings = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "address" -> address = string();
+                case "messages" -> messages = map(Messages::new, this::message);
+                case "title" -> title = string();
+                case "summary" -> summary = string();
+                case "description" -> description = string();
+                case "servers" -> servers = modelList(this::server);
+                case "parameters" -> parameters = map(Parameters::new, this::parameter);
+                case "tags" -> tags = tags();
+                case "externalDocs" -> externalDocs = externalDocs();
+                case "bindings" -> bindings = channelBindings();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new Channel($ref, address, messages, title, summary, description, servers, parameters, tags,
+            externalDocs, bindings);
+    }
+
+    Message message() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        Object headers = null;
+        Object payload = null;
+        Object correlationId = null;
+        String contentType = null;
+        String name = null;
+        String title = null;
+        String summary = null;
+        String description = null;
+        Tags tags = null;
+        ExternalDocumentation externalDocs = null;
+        MessageBindings bindings = null;
+        List<MessageExample> examples = null;
+        List<MessageTrait> traits = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "headers" -> headers = value();
+                case "payload" -> payload = value();
+                case "correlationId" -> correlationId = value();
+                case "contentType" -> contentType = interned();
+                case "name" -> name = string();
+                case "title" -> title = string();
+                case "summary" -> summary = string();
+                case "description" -> description = string();
+                case "tags" -> tags = tags();
+                case "externalDocs" -> externalDocs = externalDocs();
+                case "bindings" -> bindings = messageBindings();
+                case "examples" -> examples = modelList(this::messageExample);
+                case "traits" -> traits = modelList(this::messageTrait);
+                default -> tokens.skipChildren();
+            }
+        }
+        return new Message($ref, headers, payload, correlationId, contentType, name, title, summary, description, tags,
+            externalDocs, bindings, examples, traits);
+    }
+
+    MessageTrait messageTrait() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        Object headers = null;
+        Object correlationId = null;
+        String contentType = null;
+        String name = null;
+        String title = null;
+        String summary = null;
+        String description = null;
+        Tags tags = null;
+        ExternalDocumentation externalDocs = null;
+        MessageBindings bindings = null;
+        List<MessageExample> examples = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "headers" -> headers = value();
+                case "correlationId" -> correlationId = value();
+                case "contentType" -> contentType = interned();
+                case "name" -> name = string();
+                case "title" -> title = string();
+                case "summary" -> summary = string();
+                case "description" -> description = string();
+                case "tags" -> tags = tags();
+                case "externalDocs" -> externalDocs = externalDocs();
+                case "bindings" -> bindings = messageBindings();
+                case "examples" -> examples = modelList(this::messageExample);
+                default -> tokens.skipChildren();
+            }
+        }
+        return new MessageTrait($ref, headers, correlationId, contentType, name, title, summary, description, tags,
+            externalDocs, bindings, examples);
+    }
+
+    MessageExample messageExample() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        Map<String, Object> headers = null;
+        Map<String, Object> payload = null;
+        String name = null;
+        String summary = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "headers" -> headers = object();
+                case "payload" -> payload = object();
+                case "name" -> name = string();
+                case "summary" -> summary = string();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new MessageExample(headers, payload, name, summary);
+    }
+
+    Parameter parameter() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        List<String> _enum = null;
+        String _default = null;
+        String description = null;
+        List<String> examples = null;
+        String location = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "enum" -> _enum = modelList(this::string);
+                case "default" -> _default = string();
+                case "description" -> description = string();
+                case "examples" -> examples = modelList(this::string);
+                case "location" -> location = string();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new Parameter($ref, _enum, _default, description, examples, location);
+    }
+
+    Operation operation() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        Operation.Action action = null;
+        Channel channel = null;
+        String title = null;
+        String summary = null;
+        String description = null;
+        List<SecurityScheme> security = null;
+        Tags tags = null;
+        ExternalDocumentation externalDocs = null;
+        OperationBindings bindings = null;
+        List<OperationTrait> traits = null;
+        List<Message> messages = null;
+        OperationReply reply = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "action" -> action = action();
+                case "channel" -> channel = channel();
+                case "title" -> title = string();
+                case "summary" -> summary = string();
+                case "description" -> description = string();
+                case "security" -> security = modelList(this::securityScheme);
+                case "tags" -> tags = tags();
+                case "externalDocs" -> externalDocs = externalDocs();
+                case "bindings" -> bindings = operationBindings();
+                case "traits" -> traits = modelList(this::operationTrait);
+                case "messages" -> messages = modelList(this::message);
+                case "reply" -> reply = operationReply();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new Operation($ref, action, channel, title, summary, description, security, tags, externalDocs,
+            bindings, traits, messages, reply);
+    }
+
+    private Operation.Action action() throws IOException {
+        String value = string();
+        if (value == null) {
+            return null;
+        }
+        Operation.Action action = Operation.Action.fromValue(value);
+        if (action == null) {
+            throw error("Unknown operation action '" + value + "'");
+        }
+        return action;
+    }
+
+    OperationTrait operationTrait() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        String title = null;
+        String summary = null;
+        String description = null;
+        List<SecurityScheme> security = null;
+        Tags tags = null;
+        ExternalDocumentation externalDocs = null;
+        OperationBindings bindings = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "title" -> title = string();
+                case "summary" -> summary = string();
+                case "description" -> description = string();
+                case "security" -> security = modelList(this::securityScheme);
+                case "tags" -> tags = tags();
+                case "externalDocs" -> externalDocs = externalDocs();
+                case "bindings" -> bindings = operationBindings();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new OperationTrait($ref, title, summary, description, security, tags, externalDocs, bindings);
+    }
+
+    OperationReply operationReply() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        OperationReplyAddress address = null;
+        Channel channel = null;
+        List<Message> messages = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "address" -> address = operationReplyAddress();
+                case "channel" -> channel = channel();
+                case "messages" -> messages = modelList(this::message);
+                default -> tokens.skipChildren();
+            }
+        }
+        return new OperationReply($ref, address, channel, messages);
+    }
+
+    OperationReplyAddress operationReplyAddress() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        String $ref = null;
+        String description = null;
+        String location = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "$ref" -> $ref = string();
+                case "description" -> description = string();
+                case "location" -> location = string();
+                default -> tokens.skipChildren();
+            }
+        }
+        return new OperationReplyAddress($ref, description, location);
+    }
+
+    Components components() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        Map<String, Object> schemas = null;
+        Map<String, Server> servers = null;
+        Map<String, Channel> channels = null;
+        Map<String, Operation> operations = null;
+        Map<String, Message> messages = null;
+        Map<String, SecurityScheme> securitySchemes = null;
+        Map<String, ServerVariable> serverVariables = null;
+        Map<String, Object> parameters = null;
+        Map<String, Object> correlationIds = null;
+        Map<String, Object> replies = null;
+        Map<String, Object> replyAddresses = null;
+        Map<String, ExternalDocumentation> externalDocs = null;
+        Map<String, Tag> tags = null;
+        Map<String, Object> operationTraits = null;
+        Map<String, Object> messageTraits = null;
+        Map<String, Object> serverBindings = null;
+        Map<String, Object> channelBindings = null;
+        Map<String, Object> operationBindings = null;
+        Map<String, Object> messageBindings = null;
+        String field;
+        while ((field = nextField()) != null) {
+            switch (field) {
+                case "schemas" -> schemas = map(LinkedHashMap::new, this::value);
+                case "servers" -> servers = map(Servers::new, this::server);
+                case "channels" -> channels = map(Channels::new, this::channel);
+                case "operations" -> operations = map(Operations::new, this::operation);
+                case "messages" -> messages = map(Messages::new, this::message);
+                case "securitySchemes" -> securitySchemes = map(HashMap::new, this::securityScheme);
+                case "serverVariables" -> serverVariables = map(HashMap::new, this::serverVariable);
+                case "parameters" -> parameters = map(HashMap::new, this::parameter);
+                case "correlationIds" -> correlationIds = map(HashMap::new, this::value);
+                case "replies" -> replies = map(HashMap::new, this::operationReply);
+                case "replyAddresses" -> replyAddresses = map(HashMap::new, this::operationReplyAddress);
+                case "externalDocs" -> externalDocs = map(HashMap::new, this::externalDocs);
+                case "tags" -> tags = map(HashMap::new, this::tag);
+                case "operationTraits" -> operationTraits = map(HashMap::new, this::operationTrait);
+                case "messageTraits" -> messageTraits = map(HashMap::new, this::messageTrait);
+                case "serverBindings" -> serverBindings = map(HashMap::new, this::serverBindings);
+                case "channelBindings" -> channelBindings = map(HashMap::new, this::channelBindings);
+                case "operationBindings" -> operationBindings = map(HashMap::new, this::operationBindings);
+                case "messageBindings" -> messageBindings = map(HashMap::new, this::messageBindings);
+                default -> tokens.skipChildren();
+            }
+        }
+        return new Components(schemas, servers, channels, operations, messages, securitySchemes, serverVariables,
+            parameters, correlationIds, replies, replyAddresses, externalDocs, tags, operationTraits, messageTraits,
+            serverBindings, channelBindings, operationBindings, messageBindings);
+    }
+
+    /**
+     * Binds a value without a dedicated model, such as a schema, into {@link Map}s, {@link List}s and scalars.
+     */
+    Object value() throws IOException {
+        JsonToken token = tokens.currentToken();
+        if (token == null) {
+            throw error("Unexpected end of document");
+        }
+        return switch (token) {
+            case START_OBJECT -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                String field;
+                while ((field = nextField()) != null) {
+                    map.put(pool == null ? field : name(field), value());
+                }
+                yield map;
+            }
+            case START_ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                while (tokens.nextToken() != JsonToken.END_ARRAY) {
+                    list.add(value());
+                }
+                yield list;
+            }
+            case STRING -> tokens.text();
+            case NUMBER -> number(tokens.text());
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case NULL -> null;
+            default -> throw error("Unexpected " + token);
+        };
+    }
+
+    private Map<String, Object> object() throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        String field;
+        while ((field = nextField()) != null) {
+            map.put(pool == null ? field : name(field), value());
+        }
+        return map;
+    }
+
+    private <V, M extends Map<String, V>> M map(Supplier<M> factory, ValueBinder<V> values) throws IOException {
+        if (isNull()) {
+            return null;
+        }
+        M map = factory.get();
+        String field;
+        while ((field = nextField()) != null) {
+            map.put(pool == null ? field : name(field), values.bind());
+        }
+        if (freeze && map instanceof FreezableMap<?> freezable) {
+            freezable.freeze();
+        }
+        return map;
+    }
+
+    /**
+     * Binds a list of model objects, which is read-only when the maps are frozen.
+     */
+    private <V> List<V> modelList(ValueBinder<V> values) throws IOException {
+        List<V> list = list(ArrayList::new, values);
+        return freeze && list != null ? Collections.unmodifiableList(list) : list;
+    }
+
+    private <V, L extends List<V>> L list(Supplier<L> factory, ValueBinder<V> values) throws IOException {
+        JsonToken token = tokens.currentToken();
+        if (token == JsonToken.NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw error("Expected an array but found " + token);
+        }
+        L list = factory.get();
+        while (tokens.nextToken() != JsonToken.END_ARRAY) {
+            if (tokens.currentToken() == null) {
+                throw error("Unexpected end of document");
+            }
+            list.add(values.bind());
+        }
+        return list;
+    }
+
+    private String name(String field) {
+        String canonical = pool.internName(field);
+        if (canonical != field) {
+            if (replacedNames == null) {
+                replacedNames = new IdentityHashMap<>();
+            }
+            if (replacedNames.put(field, Boolean.TRUE) == null) {
+                pool.saved(field);
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Binds a string that specifications tend to repeat, through the interning pool if there is one.
+     */
+    private String interned() throws IOException {
+        return pool == null ? string() : pool.intern(string());
+    }
+
+    String string() throws IOException {
+        JsonToken token = tokens.currentToken();
+        if (token == JsonToken.NULL) {
+            return null;
+        }
+        if (token == null || !token.isScalar()) {
+            throw error("Expected a scalar but found " + token);
+        }
+        return tokens.text();
+    }
+
+    /**
+     * Checks for an explicit {@code null} and otherwise requires the start of an object.
+     */
+    private boolean isNull() throws IOException {
+        JsonToken token = tokens.currentToken();
+        if (token == JsonToken.NULL) {
+            return true;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw error("Expected an object but found " + token);
+        }
+        return false;
+    }
+
+    /**
+     * Advances past the next field name onto its value.
+     *
+     * @return the field name, or {@code null} when the end of the object is reached.
+     */
+    private String nextField() throws IOException {
+        JsonToken token = tokens.nextToken();
+        if (token == JsonToken.END_OBJECT) {
+            return null;
+        }
+        if (token != JsonToken.FIELD_NAME) {
+            throw error("Expected a field name but found " + token);
+        }
+        String name = tokens.text();
+        if (tokens.nextToken() == null) {
+            throw error("Unexpected end of document");
+        }
+        return name;
+    }
+
+    static Number number(String text) {
+        boolean integral = true;
+        for (int i = 0; i < text.length() && integral; i++) {
+            char c = text.charAt(i);
+            integral = (c >= '0' && c <= '9') || (i == 0 && c == '-');
+        }
+        if (integral) {
+            if (text.length() < 10) {
+                return Integer.parseInt(text);
+            }
+            if (text.length() < 19) {
+                return Long.parseLong(text);
+            }
+            BigInteger value = new BigInteger(text);
+            return value.bitLength() < 64 ? (Number) value.longValue() : value;
+        }
+        double value = Double.parseDouble(text);
+        if (Double.isInfinite(value) && !text.contains("Infinity")) {
+            return new BigDecimal(text);
+        }
+        return value;
+    }
+
+    private AsyncApiParseException error(String message) {
+        return new AsyncApiParseException(message, tokens.line(), tokens.column());
+    }
+
+    @FunctionalInterface
+    private interface ValueBinder<T> {
+        T bind() throws IOException;
+    }
+}
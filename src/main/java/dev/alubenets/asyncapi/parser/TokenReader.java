@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A pull-style reader over the structure of a JSON or YAML document.
+ * <p>
+ * Implementations never build an intermediate tree: every call to {@link #nextToken()} advances the underlying input
+ * just far enough to produce a single token.
+ */
+public interface TokenReader extends Closeable {
+
+    /**
+     * Advances to the next token.
+     *
+     * @return the next token, or {@code null} once the end of the document is reached.
+     * @throws IOException if the input cannot be read or is malformed.
+     */
+    JsonToken nextToken() throws IOException;
+
+    /**
+     * @return the token the reader is positioned at, or {@code null} before the first and after the last token.
+     */
+    JsonToken currentToken();
+
+    /**
+     * @return the field name for {@link JsonToken#FIELD_NAME}, the literal text for scalar tokens and {@code null}
+     * for structural tokens.
+     */
+    String text();
+
+    /**
+     * Skips the value the reader is positioned at. For {@link JsonToken#START_OBJECT} and {@link JsonToken#START_ARRAY}
+     * the reader ends up on the matching end token, scalars are left as they are.
+     *
+     * @throws IOException if the input cannot be read or is malformed.
+     */
+    default void skipChildren() throws IOException {
+        JsonToken token = currentToken();
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            token = nextToken();
+            if (token == null) {
+                throw new AsyncApiParseException("Unexpected end of document", line(), column());
+            }
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> depth++;
+                case END_OBJECT, END_ARRAY -> depth--;
+                default -> {
+                    // scalars and field names do not change the depth
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 1-based line of the current token, or {@code 0} if the source has no notion of lines.
+     */
+    int line();
+
+    /**
+     * @return 1-based column of the current token, or {@code 0} if the source has no notion of columns.
+     */
+    int column();
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TokenReader} over an already materialized tree of {@link Map}s, {@link List}s and scalars, as produced by
+ * {@link AsyncApiReader#readTree(java.io.InputStream)}. It lets the model binding run on values that were kept in
+ * generic form, such as raw binding maps or fragments of external files.
+ */
+public final class TreeTokenReader implements TokenReader {
+
+    private final Object root;
+    private Iterator<?>[] iterators = new Iterator<?>[16];
+    private boolean[] objects = new boolean[16];
+    private int depth;
+    private boolean started;
+    private Object pendingValue;
+    private boolean hasPendingValue;
+
+    private JsonToken current;
+    private String text;
+
+    /**
+     * @param root a {@link Map}, {@link List}, {@link String}, {@link Number}, {@link Boolean} or {@code null}.
+     */
+    public TreeTokenReader(Object root) {
+        this.root = root;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        text = null;
+        if (!started) {
+            started = true;
+            return current = value(root);
+        }
+        if (hasPendingValue) {
+            hasPendingValue = false;
+            Object value = pendingValue;
+            pendingValue = null;
+            return current = value(value);
+        }
+        if (depth == 0) {
+            return current = null;
+        }
+        Iterator<?> iterator = iterators[depth - 1];
+        if (!iterator.hasNext()) {
+            iterators[depth - 1] = null;
+            depth--;
+            return current = objects[depth] ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+        }
+        if (objects[depth - 1]) {
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) iterator.next();
+            text = String.valueOf(entry.getKey());
+            pendingValue = entry.getValue();
+            hasPendingValue = true;
+            return current = JsonToken.FIELD_NAME;
+        }
+        return current = value(iterator.next());
+    }
+
+    @Override
+    public JsonToken currentToken() {
+        return current;
+    }
+
+    @Override
+    public String text() {
+        return text;
+    }
+
+    @Override
+    public void skipChildren() {
+        if (current == JsonToken.START_OBJECT || current == JsonToken.START_ARRAY) {
+            depth--;
+            iterators[depth] = null;
+            current = objects[depth] ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+            text = null;
+        }
+    }
+
+    @Override
+    public int line() {
+        return 0;
+    }
+
+    @Override
+    public int column() {
+        return 0;
+    }
+
+    private JsonToken value(Object value) throws IOException {
+        if (value == null) {
+            text = "null";
+            return JsonToken.NULL;
+        }
+        if (value instanceof Map<?, ?> map) {
+            push(map.entrySet().iterator(), true);
+            return JsonToken.START_OBJECT;
+        }
+        if (value instanceof List<?> list) {
+            push(list.iterator(), false);
+            return JsonToken.START_ARRAY;
+        }
+        if (value instanceof String string) {
+            text = string;
+            return JsonToken.STRING;
+        }
+        if (value instanceof Number number) {
+            text = number.toString();
+            return JsonToken.NUMBER;
+        }
+        if (value instanceof Boolean bool) {
+            text = bool.toString();
+            return bool ? JsonToken.TRUE : JsonToken.FALSE;
+        }
+        throw new AsyncApiParseException("Unsupported tree value of " + value.getClass(), 0, 0);
+    }
+
+    private void push(Iterator<?> iterator, boolean object) {
+        if (depth == iterators.length) {
+            iterators = Arrays.copyOf(iterators, depth * 2);
+            objects = Arrays.copyOf(objects, depth * 2);
+        }
+        iterators[depth] = iterator;
+        objects[depth] = object;
+        depth++;
+    }
+}
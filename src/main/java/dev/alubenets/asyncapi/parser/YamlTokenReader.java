@@ -0,0 +1,951 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * {@link TokenReader} over YAML documents.
+ * <p>
+ * The reader processes the input line by line and translates block mappings, block sequences, flow collections and
+ * scalars into the same token stream {@link JsonTokenReader} produces. Plain scalars are resolved with the YAML 1.2
+ * core schema, so {@code true}, {@code 42} and {@code ~} come out as {@link JsonToken#TRUE}, {@link JsonToken#NUMBER}
+ * and {@link JsonToken#NULL}.
+ * <p>
+ * Only the first document of a stream is read. Anchors, aliases and complex mapping keys are not supported, as they do
+ * not occur in AsyncAPI documents in practice.
+ */
+public final class YamlTokenReader implements TokenReader {
+
+    private final BufferedReader reader;
+    private final Deque<Line> pushedBack = new ArrayDeque<>();
+    private int lineNumber;
+
+    private int[] indents = new int[16];
+    private boolean[] sequences = new boolean[16];
+    private int depth;
+
+    private boolean pending;
+    private int pendingIndent;
+    private boolean pendingInMapping;
+
+    private boolean started;
+    private boolean finished;
+
+    private JsonToken[] queuedTokens = new JsonToken[16];
+    private String[] queuedTexts = new String[16];
+    private int[] queuedLines = new int[16];
+    private int[] queuedColumns = new int[16];
+    private int head;
+    private int tail;
+
+    private Line line;
+    private JsonToken current;
+    private String text;
+    private int tokenLine;
+    private int tokenColumn;
+
+    /**
+     * @param in UTF-8 encoded YAML.
+     */
+    public YamlTokenReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param reader YAML text.
+     */
+    public YamlTokenReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        while (head == tail) {
+            if (finished) {
+                text = null;
+                return current = null;
+            }
+            head = 0;
+            tail = 0;
+            advance();
+        }
+        current = queuedTokens[head];
+        text = queuedTexts[head];
+        tokenLine = queuedLines[head];
+        tokenColumn = queuedColumns[head];
+        queuedTexts[head] = null;
+        head++;
+        return current;
+    }
+
+    @Override
+    public JsonToken currentToken() {
+        return current;
+    }
+
+    @Override
+    public String text() {
+        return text;
+    }
+
+    @Override
+    public int line() {
+        return tokenLine;
+    }
+
+    @Override
+    public int column() {
+        return tokenColumn;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void advance() throws IOException {
+        line = nextContentLine();
+        if (line == null) {
+            finish();
+            return;
+        }
+        String s = line.text;
+        int indent = line.indent;
+        if (pending) {
+            pending = false;
+            if (indent > pendingIndent || (indent == pendingIndent && pendingInMapping && isSequenceItem(s, indent))) {
+                node(s, indent, pendingIndent, pendingInMapping);
+                return;
+            }
+            emit(JsonToken.NULL, "null", indent);
+        }
+        while (depth > 0 && (indents[depth - 1] > indent
+            || (indents[depth - 1] == indent && sequences[depth - 1] && !isSequenceItem(s, indent)))) {
+            close(indent);
+        }
+        if (depth == 0) {
+            if (started) {
+                throw error("Unexpected content after the end of the document", indent);
+            }
+            started = true;
+            node(s, indent, -1, false);
+            return;
+        }
+        if (indents[depth - 1] != indent) {
+            throw error("Bad indentation", indent);
+        }
+        if (sequences[depth - 1]) {
+            sequenceItem(s, indent);
+        } else {
+            mappingEntry(s, indent);
+        }
+    }
+
+    private void finish() {
+        if (pending) {
+            pending = false;
+            emit(JsonToken.NULL, "null", 0);
+        }
+        while (depth > 0) {
+            close(0);
+        }
+        finished = true;
+    }
+
+    /**
+     * Parses the node that starts at {@code column} of the given line.
+     *
+     * @param owner     indentation of the entry owning the node, continuation lines must be indented deeper.
+     * @param inMapping whether the node is the value of a mapping entry.
+     */
+    private void node(String s, int column, int owner, boolean inMapping) throws IOException {
+        if (isSequenceItem(s, column)) {
+            open(column, true);
+            sequenceItem(s, column);
+        } else if (keyEnd(s, column) >= 0) {
+            open(column, false);
+            mappingEntry(s, column);
+        } else {
+            value(s, column, owner, inMapping);
+        }
+    }
+
+    private void sequenceItem(String s, int column) throws IOException {
+        if (!isSequenceItem(s, column)) {
+            throw error("Expected a sequence item", column);
+        }
+        int start = skipSpaces(s, column + 1);
+        if (isEndOfContent(s, start)) {
+            pending = true;
+            pendingIndent = column;
+            pendingInMapping = false;
+        } else {
+            node(s, start, column, false);
+        }
+    }
+
+    private void mappingEntry(String s, int column) throws IOException {
+        int colon = keyEnd(s, column);
+        if (colon < 0) {
+            throw error("Expected a mapping key", column);
+        }
+        String key;
+        char first = s.charAt(column);
+        if (first == '"' || first == '\'') {
+            StringBuilder builder = new StringBuilder();
+            quotedOnLine(s, column, builder);
+            key = builder.toString();
+        } else {
+            key = s.substring(column, colon).stripTrailing();
+        }
+        emit(JsonToken.FIELD_NAME, key, column);
+        int start = skipSpaces(s, colon + 1);
+        if (isEndOfContent(s, start)) {
+            pending = true;
+            pendingIndent = column;
+            pendingInMapping = true;
+        } else {
+            value(s, start, column, true);
+        }
+    }
+
+    private void value(String s, int column, int owner, boolean inMapping) throws IOException {
+        char c = s.charAt(column);
+        switch (c) {
+            case '!' -> {
+                int start = column;
+                while (start < s.length() && !isSpace(s.charAt(start))) {
+                    start++;
+                }
+                boolean string = start == column + 5 && s.startsWith("!!str", column);
+                start = skipSpaces(s, start);
+                if (isEndOfContent(s, start)) {
+                    pending = true;
+                    pendingIndent = owner;
+                    pendingInMapping = inMapping;
+                } else if (string && "|>[{\"'".indexOf(s.charAt(start)) < 0) {
+                    emit(JsonToken.STRING, s.substring(start, endOfPlain(s, start)).stripTrailing(), start);
+                } else {
+                    value(s, start, owner, inMapping);
+                }
+            }
+            case '&', '*' -> throw error("Anchors and aliases are not supported", column);
+            case '|', '>' -> blockScalar(s, column, owner);
+            case '[', '{' -> flow(s, column);
+            case '"', '\'' -> emit(JsonToken.STRING, quoted(s, column), column);
+            default -> plain(s, column, owner);
+        }
+    }
+
+    private void plain(String s, int column, int owner) throws IOException {
+        String first = s.substring(column, endOfPlain(s, column)).stripTrailing();
+        StringBuilder builder = null;
+        int breaks = 0;
+        while (true) {
+            Line next = nextRawLine();
+            if (next == null) {
+                break;
+            }
+            if (next.isBlank()) {
+                breaks++;
+                continue;
+            }
+            if (next.indent <= owner || next.text.charAt(next.indent) == '#') {
+                pushedBack.push(next);
+                break;
+            }
+            if (builder == null) {
+                builder = new StringBuilder(first);
+            }
+            if (breaks > 0) {
+                builder.append("\n".repeat(breaks));
+                breaks = 0;
+            } else {
+                builder.append(' ');
+            }
+            builder.append(next.text, next.indent, endOfPlain(next.text, next.indent));
+            int length = builder.length();
+            while (isSpace(builder.charAt(length - 1))) {
+                length--;
+            }
+            builder.setLength(length);
+        }
+        if (builder == null) {
+            scalar(first, column);
+        } else {
+            emit(JsonToken.STRING, builder.toString(), column);
+        }
+    }
+
+    private void blockScalar(String s, int column, int owner) throws IOException {
+        boolean folded = s.charAt(column) == '>';
+        char chomping = 'c';
+        int explicitIndent = 0;
+        int i = column + 1;
+        for (; i < s.length() && !isSpace(s.charAt(i)); i++) {
+            char c = s.charAt(i);
+            if (c == '-' || c == '+') {
+                chomping = c;
+            } else if (c >= '1' && c <= '9') {
+                explicitIndent = c - '0';
+            } else {
+                throw error("Malformed block scalar header", i);
+            }
+        }
+        if (!isEndOfContent(s, skipSpaces(s, i))) {
+            throw error("Unexpected content after block scalar header", i);
+        }
+        int base = Math.max(owner, 0);
+        int contentIndent = explicitIndent > 0 ? base + explicitIndent : -1;
+        StringBuilder builder = new StringBuilder();
+        boolean first = true;
+        boolean previousNormal = false;
+        int breaks = 0;
+        while (true) {
+            Line next = nextRawLine();
+            if (next == null) {
+                break;
+            }
+            if (next.isBlank()) {
+                breaks++;
+                continue;
+            }
+            if (contentIndent < 0) {
+                if (next.indent <= owner) {
+                    pushedBack.push(next);
+                    break;
+                }
+                contentIndent = next.indent;
+            }
+            if (next.indent < contentIndent) {
+                pushedBack.push(next);
+                break;
+            }
+            boolean normal = next.indent == contentIndent;
+            flushBreaks(builder, first, previousNormal && normal, folded, breaks);
+            builder.append(next.text, contentIndent, next.text.length());
+            breaks = 0;
+            first = false;
+            previousNormal = normal;
+        }
+        if (!first) {
+            if (chomping == 'c') {
+                builder.append('\n');
+            } else if (chomping == '+') {
+                builder.append("\n".repeat(breaks + 1));
+            }
+        } else if (chomping == '+') {
+            builder.append("\n".repeat(breaks));
+        }
+        emit(JsonToken.STRING, builder.toString(), column);
+    }
+
+    private static void flushBreaks(StringBuilder builder, boolean first, boolean join, boolean folded, int breaks) {
+        if (first) {
+            builder.append("\n".repeat(breaks));
+        } else if (folded && join) {
+            builder.append(breaks == 0 ? " " : "\n".repeat(breaks));
+        } else {
+            builder.append("\n".repeat(breaks + 1));
+        }
+    }
+
+    private void flow(String s, int column) throws IOException {
+        StringBuilder builder = new StringBuilder(s.length() - column);
+        builder.append(s, column, s.length());
+        int nested = 0;
+        int i = 0;
+        char quote = 0;
+        while (true) {
+            for (; i < builder.length(); i++) {
+                char c = builder.charAt(i);
+                if (quote != 0) {
+                    if (c == '\\' && quote == '"') {
+                        i++;
+                    } else if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '[' || c == '{') {
+                    nested++;
+                } else if (c == ']' || c == '}') {
+                    nested--;
+                } else if (c == '#' && i > 0 && isSpace(builder.charAt(i - 1))) {
+                    builder.setLength(i);
+                    break;
+                }
+                if (nested == 0) {
+                    break;
+                }
+            }
+            if (nested == 0) {
+                break;
+            }
+            Line next = nextRawLine();
+            if (next == null) {
+                throw error("Unterminated flow collection", column);
+            }
+            builder.append(' ').append(next.text.strip());
+        }
+        if (!isEndOfContent(builder, skipSpaces(builder, i + 1))) {
+            throw error("Unexpected content after flow collection", column);
+        }
+        new FlowParser(builder.toString(), column).node();
+    }
+
+    private String quoted(String s, int column) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        int end = quotedOnLine(s, column, builder);
+        char quote = s.charAt(column);
+        String current = s;
+        while (end < 0) {
+            Line next = nextRawLine();
+            if (next == null) {
+                throw error("Unterminated quoted scalar", column);
+            }
+            current = next.text;
+            int length = builder.length();
+            if (length > 0 && builder.charAt(length - 1) == '\\' && quote == '"') {
+                builder.setLength(length - 1);
+            } else if (next.isBlank()) {
+                builder.append('\n');
+                continue;
+            } else if (length == 0 || builder.charAt(length - 1) != '\n') {
+                builder.append(' ');
+            }
+            end = scanQuoted(current, next.indent, quote, builder);
+        }
+        if (!isEndOfContent(current, skipSpaces(current, end))) {
+            throw error("Unexpected content after quoted scalar", end);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Decodes a quoted scalar starting at {@code column}.
+     *
+     * @return index right after the closing quote, or {@code -1} if the scalar continues on the next line.
+     */
+    private int quotedOnLine(String s, int column, StringBuilder builder) throws IOException {
+        return scanQuoted(s, column + 1, s.charAt(column), builder);
+    }
+
+    private int scanQuoted(String s, int from, char quote, StringBuilder builder) throws IOException {
+        int i = from;
+        while (i < s.length()) {
+            char c = s.charAt(i++);
+            if (c == quote) {
+                if (quote == '\'' && i < s.length() && s.charAt(i) == '\'') {
+                    builder.append('\'');
+                    i++;
+                    continue;
+                }
+                return i;
+            }
+            if (c == '\\' && quote == '"') {
+                if (i == s.length()) {
+                    builder.append('\\');
+                    return -1;
+                }
+                i = escape(s, i, builder);
+            } else {
+                builder.append(c);
+            }
+        }
+        int length = builder.length();
+        while (length > 0 && isSpace(builder.charAt(length - 1))) {
+            length--;
+        }
+        builder.setLength(length);
+        return -1;
+    }
+
+    private int escape(String s, int i, StringBuilder builder) throws IOException {
+        char c = s.charAt(i++);
+        switch (c) {
+            case '0' -> builder.append('\0');
+            case 'a' -> builder.append('\u0007');
+            case 'b' -> builder.append('\b');
+            case 't', '\t' -> builder.append('\t');
+            case 'n' -> builder.append('\n');
+            case 'v' -> builder.append('\u000B');
+            case 'f' -> builder.append('\f');
+            case 'r' -> builder.append('\r');
+            case 'e' -> builder.append('\u001B');
+            case ' ', '"', '/', '\\' -> builder.append(c);
+            case 'N' -> builder.append('\u0085');
+            case '_' -> builder.append('\u00A0');
+            case 'L' -> builder.append('\u2028');
+            case 'P' -> builder.append('\u2029');
+            case 'x' -> i = hex(s, i, 2, builder);
+            case 'u' -> i = hex(s, i, 4, builder);
+            case 'U' -> i = hex(s, i, 8, builder);
+            default -> throw error("Illegal escape sequence", i);
+        }
+        return i;
+    }
+
+    private int hex(String s, int i, int digits, StringBuilder builder) throws IOException {
+        if (i + digits > s.length()) {
+            throw error("Malformed escape sequence", i);
+        }
+        try {
+            builder.appendCodePoint(Integer.parseInt(s, i, i + digits, 16));
+        } catch (IllegalArgumentException e) {
+            throw error("Malformed escape sequence", i);
+        }
+        return i + digits;
+    }
+
+    private void scalar(String value, int column) {
+        emit(resolve(value), normalize(value), column);
+    }
+
+    private static JsonToken resolve(String value) {
+        switch (value) {
+            case "", "~", "null", "Null", "NULL":
+                return JsonToken.NULL;
+            case "true", "True", "TRUE":
+                return JsonToken.TRUE;
+            case "false", "False", "FALSE":
+                return JsonToken.FALSE;
+            case ".inf", ".Inf", ".INF", "+.inf", "+.Inf", "+.INF", "-.inf", "-.Inf", "-.INF", ".nan", ".NaN", ".NAN":
+                return JsonToken.NUMBER;
+            default:
+                return isNumber(value) || isRadixInteger(value) ? JsonToken.NUMBER : JsonToken.STRING;
+        }
+    }
+
+    private static String normalize(String value) {
+        switch (resolve(value)) {
+            case NULL:
+                return "null";
+            case TRUE:
+                return "true";
+            case FALSE:
+                return "false";
+            case NUMBER:
+                String lower = value.toLowerCase();
+                if (lower.endsWith(".inf")) {
+                    return lower.startsWith("-") ? "-Infinity" : "Infinity";
+                }
+                if (lower.equals(".nan")) {
+                    return "NaN";
+                }
+                if (isRadixInteger(value)) {
+                    return new BigInteger(value.substring(2), value.charAt(1) == 'x' ? 16 : 8).toString();
+                }
+                return value.charAt(0) == '+' ? value.substring(1) : value;
+            default:
+                return value;
+        }
+    }
+
+    private static boolean isNumber(String value) {
+        int i = 0;
+        int length = value.length();
+        if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && Character.isDigit(value.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && value.charAt(i) == '.') {
+            i++;
+            while (i < length && Character.isDigit(value.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                i++;
+            }
+            int exponent = i;
+            while (i < length && Character.isDigit(value.charAt(i))) {
+                i++;
+            }
+            if (exponent == i) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static boolean isRadixInteger(String value) {
+        if (value.length() < 3 || value.charAt(0) != '0' || (value.charAt(1) != 'x' && value.charAt(1) != 'o')) {
+            return false;
+        }
+        int radix = value.charAt(1) == 'x' ? 16 : 8;
+        for (int i = 2; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), radix) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void open(int indent, boolean sequence) {
+        if (depth == indents.length) {
+            indents = Arrays.copyOf(indents, depth * 2);
+            sequences = Arrays.copyOf(sequences, depth * 2);
+        }
+        indents[depth] = indent;
+        sequences[depth] = sequence;
+        depth++;
+        emit(sequence ? JsonToken.START_ARRAY : JsonToken.START_OBJECT, null, indent);
+    }
+
+    private void close(int column) {
+        depth--;
+        emit(sequences[depth] ? JsonToken.END_ARRAY : JsonToken.END_OBJECT, null, column);
+    }
+
+    private void emit(JsonToken token, String value, int column) {
+        if (tail == queuedTokens.length) {
+            int capacity = tail * 2;
+            queuedTokens = Arrays.copyOf(queuedTokens, capacity);
+            queuedTexts = Arrays.copyOf(queuedTexts, capacity);
+            queuedLines = Arrays.copyOf(queuedLines, capacity);
+            queuedColumns = Arrays.copyOf(queuedColumns, capacity);
+        }
+        queuedTokens[tail] = token;
+        queuedTexts[tail] = value;
+        queuedLines[tail] = line != null ? line.number : lineNumber;
+        queuedColumns[tail] = column + 1;
+        tail++;
+    }
+
+    private static boolean isSequenceItem(CharSequence s, int column) {
+        return column < s.length() && s.charAt(column) == '-'
+            && (column + 1 == s.length() || isSpace(s.charAt(column + 1)));
+    }
+
+    /**
+     * Finds the colon that terminates a block mapping key starting at {@code column}.
+     *
+     * @return the index of the colon, or {@code -1} if the content is not a mapping entry.
+     */
+    private int keyEnd(String s, int column) throws IOException {
+        char first = s.charAt(column);
+        int i = column;
+        if (first == '"' || first == '\'') {
+            int end = quotedOnLine(s, column, new StringBuilder());
+            if (end < 0) {
+                return -1;
+            }
+            i = skipSpaces(s, end);
+            return i < s.length() && s.charAt(i) == ':' && (i + 1 == s.length() || isSpace(s.charAt(i + 1))) ? i : -1;
+        }
+        if (first == '[' || first == '{' || first == '|' || first == '>' || first == '#') {
+            return -1;
+        }
+        if (first == '?' && (column + 1 == s.length() || isSpace(s.charAt(column + 1)))) {
+            throw error("Complex mapping keys are not supported", column);
+        }
+        for (; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '#' && isSpace(s.charAt(i - 1))) {
+                return -1;
+            }
+            if (c == ':' && (i + 1 == s.length() || isSpace(s.charAt(i + 1)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int endOfPlain(String s, int column) {
+        for (int i = column; i < s.length(); i++) {
+            if (s.charAt(i) == '#' && i > column && isSpace(s.charAt(i - 1))) {
+                return i;
+            }
+        }
+        return s.length();
+    }
+
+    /**
+     * Skips the whitespace separating tokens on a line, which unlike indentation may contain tabs.
+     */
+    private static int skipSpaces(CharSequence s, int i) {
+        while (i < s.length() && isSpace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static boolean isEndOfContent(CharSequence s, int i) {
+        return i >= s.length() || s.charAt(i) == '#';
+    }
+
+    private Line nextContentLine() throws IOException {
+        while (true) {
+            Line next = nextRawLine();
+            if (next == null) {
+                return null;
+            }
+            if (next.isBlank() || next.text.charAt(next.indent) == '#') {
+                continue;
+            }
+            if (next.indent == 0) {
+                String s = next.text;
+                if (s.startsWith("---") && (s.length() == 3 || isSpace(s.charAt(3)))) {
+                    if (started || pending) {
+                        return null;
+                    }
+                    String rest = s.length() == 3 ? "   " : "    " + s.substring(4);
+                    Line stripped = new Line(rest, next.number);
+                    if (stripped.isBlank() || rest.charAt(stripped.indent) == '#') {
+                        continue;
+                    }
+                    return stripped;
+                }
+                if (s.startsWith("...") && (s.length() == 3 || isSpace(s.charAt(3)))) {
+                    return null;
+                }
+                if (s.charAt(0) == '%' && !started) {
+                    continue;
+                }
+            }
+            return next;
+        }
+    }
+
+    private Line nextRawLine() throws IOException {
+        if (!pushedBack.isEmpty()) {
+            return pushedBack.pop();
+        }
+        String s = reader.readLine();
+        if (s == null) {
+            return null;
+        }
+        lineNumber++;
+        if (lineNumber == 1 && !s.isEmpty() && s.charAt(0) == '\uFEFF') {
+            s = s.substring(1);
+        }
+        Line next = new Line(s, lineNumber);
+        if (next.indent < s.length() && s.charAt(next.indent) == '\t') {
+            throw new AsyncApiParseException("Tabs are not allowed for indentation", lineNumber, next.indent + 1);
+        }
+        return next;
+    }
+
+    private AsyncApiParseException error(String message, int column) {
+        return new AsyncApiParseException(message, line != null ? line.number : lineNumber, column + 1);
+    }
+
+    private static final class Line {
+
+        final String text;
+        final int number;
+        final int indent;
+
+        Line(String text, int number) {
+            int length = text.length();
+            while (length > 0 && (text.charAt(length - 1) == ' ' || text.charAt(length - 1) == '\r'
+                || text.charAt(length - 1) == '\t')) {
+                length--;
+            }
+            this.text = length == text.length() ? text : text.substring(0, length);
+            this.number = number;
+            int indent = 0;
+            while (indent < length && this.text.charAt(indent) == ' ') {
+                indent++;
+            }
+            this.indent = indent;
+        }
+
+        boolean isBlank() {
+            return indent == text.length();
+        }
+    }
+
+    /**
+     * Recursive descent parser for flow collections such as {@code [a, b]} and {@code {key: value}}.
+     */
+    private final class FlowParser {
+
+        private final String s;
+        private final int offset;
+        private int i;
+
+        FlowParser(String s, int offset) {
+            this.s = s;
+            this.offset = offset;
+        }
+
+        void node() throws IOException {
+            i = skipSpaces(s, i);
+            if (i >= s.length()) {
+                throw error("Unexpected end of flow collection", offset + i);
+            }
+            char c = s.charAt(i);
+            if (c == '[') {
+                sequence();
+            } else if (c == '{') {
+                mapping();
+            } else {
+                String value = scalar(false);
+                if (value != null) {
+                    emit(JsonToken.STRING, value, offset + i);
+                }
+            }
+        }
+
+        private void sequence() throws IOException {
+            emit(JsonToken.START_ARRAY, null, offset + i);
+            i++;
+            i = skipSpaces(s, i);
+            if (i < s.length() && s.charAt(i) == ']') {
+                i++;
+                emit(JsonToken.END_ARRAY, null, offset + i);
+                return;
+            }
+            while (true) {
+                node();
+                i = skipSpaces(s, i);
+                if (i >= s.length()) {
+                    throw error("Unterminated flow sequence", offset + i);
+                }
+                char c = s.charAt(i++);
+                if (c == ']') {
+                    emit(JsonToken.END_ARRAY, null, offset + i);
+                    return;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or ']'", offset + i);
+                }
+                i = skipSpaces(s, i);
+                if (i < s.length() && s.charAt(i) == ']') {
+                    i++;
+                    emit(JsonToken.END_ARRAY, null, offset + i);
+                    return;
+                }
+            }
+        }
+
+        private void mapping() throws IOException {
+            emit(JsonToken.START_OBJECT, null, offset + i);
+            i++;
+            while (true) {
+                i = skipSpaces(s, i);
+                if (i >= s.length()) {
+                    throw error("Unterminated flow mapping", offset + i);
+                }
+                if (s.charAt(i) == '}') {
+                    i++;
+                    emit(JsonToken.END_OBJECT, null, offset + i);
+                    return;
+                }
+                int keyColumn = offset + i;
+                char first = s.charAt(i);
+                String key = first == '"' || first == '\'' ? quotedKey() : scalar(true);
+                emit(JsonToken.FIELD_NAME, key, keyColumn);
+                i = skipSpaces(s, i);
+                if (i < s.length() && s.charAt(i) == ':') {
+                    i = skipSpaces(s, i + 1);
+                    if (i < s.length() && (s.charAt(i) == ',' || s.charAt(i) == '}')) {
+                        emit(JsonToken.NULL, "null", offset + i);
+                    } else {
+                        node();
+                    }
+                } else {
+                    emit(JsonToken.NULL, "null", offset + i);
+                }
+                i = skipSpaces(s, i);
+                if (i >= s.length()) {
+                    throw error("Unterminated flow mapping", offset + i);
+                }
+                char c = s.charAt(i++);
+                if (c == '}') {
+                    emit(JsonToken.END_OBJECT, null, offset + i);
+                    return;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}'", offset + i);
+                }
+            }
+        }
+
+        private String quotedKey() throws IOException {
+            StringBuilder builder = new StringBuilder();
+            int end = scanQuoted(s, i + 1, s.charAt(i), builder);
+            if (end < 0) {
+                throw error("Unterminated quoted scalar", offset + i);
+            }
+            i = end;
+            return builder.toString();
+        }
+
+        /**
+         * Reads a scalar, emitting it right away unless it is a mapping key.
+         *
+         * @return the raw text of a key or a quoted scalar, {@code null} if the scalar was already emitted.
+         */
+        private String scalar(boolean key) throws IOException {
+            char first = s.charAt(i);
+            if (first == '"' || first == '\'') {
+                return quotedKey();
+            }
+            int start = i;
+            for (; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == ',' || c == ']' || c == '}' || c == '[' || c == '{') {
+                    break;
+                }
+                if (c == ':' && (i + 1 == s.length() || " \t,]}".indexOf(s.charAt(i + 1)) >= 0)) {
+                    break;
+                }
+            }
+            String value = s.substring(start, i).strip();
+            if (key) {
+                return value;
+            }
+            YamlTokenReader.this.scalar(value, offset + start);
+            return null;
+        }
+    }
+}
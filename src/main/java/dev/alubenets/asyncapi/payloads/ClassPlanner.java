@@ -0,0 +1,294 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.payloads;
+
+import dev.alubenets.asyncapi.resolver.ReferenceResolutionException;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps schemas to Java types and plans a record for every object schema with properties.
+ * <p>
+ * Schemas are planned once by identity, so a schema referenced from several places, or from itself, becomes one
+ * record. Component schemas are named after their key, inline object schemas after the record and property they
+ * belong to.
+ */
+final class ClassPlanner {
+
+    private static final Set<String> KEYWORDS = Set.of(
+        "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const", "continue",
+        "default", "do", "double", "else", "enum", "extends", "final", "finally", "float", "for", "goto", "if",
+        "implements", "import", "instanceof", "int", "interface", "long", "native", "new", "package", "private",
+        "protected", "public", "return", "short", "static", "strictfp", "super", "switch", "synchronized", "this",
+        "throw", "throws", "transient", "try", "void", "volatile", "while", "true", "false", "null", "_", "record",
+        "var", "yield", "sealed", "permits"
+    );
+
+    /**
+     * Methods every generated record has, which a component must not override.
+     */
+    private static final Set<String> METHODS = Set.of(
+        "decode", "encode", "fromJson", "toJson", "equals", "hashCode", "toString", "getClass", "notify", "notifyAll",
+        "wait", "clone", "finalize"
+    );
+
+    private final ReferenceResolver resolver;
+    private final Map<Object, String> names = new IdentityHashMap<>();
+    private final Map<Object, RecordPlan> planned = new IdentityHashMap<>();
+    private final List<RecordPlan> plans = new ArrayList<>();
+    private final Set<String> classNames = new HashSet<>();
+
+    ClassPlanner(ReferenceResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Reserves a class name for a component schema before any schema is planned, so that the record of the schema
+     * is named after the component wherever it is first referenced.
+     */
+    void name(String key, Object schema) {
+        if (resolve(schema) instanceof Map<?, ?> map && !names.containsKey(map)) {
+            names.put(map, unique(className(key)));
+        }
+    }
+
+    /**
+     * @param hint   the name of the record if the schema is an object schema without a reserved name.
+     * @param origin where the schema comes from, for the documentation of the record.
+     * @return the type of the schema.
+     */
+    PayloadType plan(Object schema, String hint, String origin) {
+        Object target = resolve(schema);
+        if (!(target instanceof Map<?, ?> map)) {
+            return PayloadType.ANY;
+        }
+        RecordPlan existing = planned.get(map);
+        if (existing != null) {
+            return PayloadType.record(existing.name());
+        }
+        Map<?, ?> merged = map.get("allOf") instanceof List<?> all ? merge(map, all) : map;
+        if (merged.containsKey("oneOf") || merged.containsKey("anyOf")) {
+            return PayloadType.ANY;
+        }
+        String type = type(merged);
+        if (type == null) {
+            return PayloadType.ANY;
+        }
+        return switch (type) {
+            case "string" -> PayloadType.STRING;
+            case "integer" -> PayloadType.INTEGER;
+            case "number" -> PayloadType.NUMBER;
+            case "boolean" -> PayloadType.BOOLEAN;
+            case "array" -> merged.get("items") instanceof Map<?, ?> items
+                ? PayloadType.list(plan(items, singular(hint), "the items of " + origin))
+                : PayloadType.ANY;
+            case "object" -> merged.get("properties") instanceof Map<?, ?> properties && !properties.isEmpty()
+                ? record(map, merged, properties, hint, origin)
+                : PayloadType.ANY;
+            default -> PayloadType.ANY;
+        };
+    }
+
+    /**
+     * @return the planned records in the order they were first met.
+     */
+    List<RecordPlan> plans() {
+        return plans;
+    }
+
+    static boolean isKeyword(String name) {
+        return KEYWORDS.contains(name);
+    }
+
+    /**
+     * @return an identifier starting with an upper case letter made of the letters and digits of the text.
+     */
+    static String className(String text) {
+        StringBuilder name = new StringBuilder();
+        boolean upper = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80 && Character.isLetterOrDigit(c)) {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            } else {
+                upper = true;
+            }
+        }
+        if (name.isEmpty()) {
+            return "Payload";
+        }
+        return Character.isDigit(name.charAt(0)) ? "_" + name : name.toString();
+    }
+
+    private PayloadType record(Map<?, ?> schema, Map<?, ?> merged, Map<?, ?> properties, String hint, String origin) {
+        String name = names.containsKey(schema) ? names.get(schema) : unique(hint);
+        RecordPlan plan = new RecordPlan(name, origin, new ArrayList<>());
+        planned.put(schema, plan);
+        plans.add(plan);
+        Set<Object> required = merged.get("required") instanceof List<?> list ? new HashSet<>(list) : Set.of();
+        Set<String> fields = new HashSet<>();
+        for (Map.Entry<?, ?> entry : properties.entrySet()) {
+            String json = String.valueOf(entry.getKey());
+            String field = fieldName(json);
+            for (int i = 2; !fields.add(field); i++) {
+                field = fieldName(json) + i;
+            }
+            PayloadType type = plan(entry.getValue(), name + className(json),
+                "the property '" + json + "' of " + name);
+            boolean primitive = type.isPrimitive() && required.contains(json) && !isNullable(entry.getValue());
+            plan.properties().add(new Property(json, field, type, primitive));
+        }
+        return PayloadType.record(name);
+    }
+
+    /**
+     * @return the only type of the schema besides {@code null}, or {@code null} if there is none or more than one.
+     */
+    private static String type(Map<?, ?> schema) {
+        Object type = schema.get("type");
+        if (type instanceof String name) {
+            return name;
+        }
+        if (type instanceof List<?> names) {
+            List<Object> types = new ArrayList<>(names);
+            types.remove("null");
+            return types.size() == 1 ? String.valueOf(types.get(0)) : null;
+        }
+        if (schema.containsKey("properties")) {
+            return "object";
+        }
+        return schema.containsKey("items") ? "array" : null;
+    }
+
+    private boolean isNullable(Object schema) {
+        return resolve(schema) instanceof Map<?, ?> map && map.get("type") instanceof List<?> types
+            && types.contains("null");
+    }
+
+    /**
+     * Folds the schemas of an {@code allOf} into one: properties and required properties add up, for other keywords
+     * the first schema that has them wins.
+     */
+    private Map<Object, Object> merge(Map<?, ?> schema, List<?> all) {
+        Map<Object, Object> merged = new LinkedHashMap<>(schema);
+        merged.remove("allOf");
+        for (Object part : all) {
+            Object resolved = resolve(part);
+            if (!(resolved instanceof Map<?, ?> map)) {
+                continue;
+            }
+            if (map.get("allOf") instanceof List<?> nested) {
+                map = merge(map, nested);
+            }
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                Object key = entry.getKey();
+                Object value = entry.getValue();
+                Object existing = merged.get(key);
+                if ("properties".equals(key) && existing instanceof Map<?, ?> properties
+                    && value instanceof Map<?, ?> more) {
+                    Map<Object, Object> union = new LinkedHashMap<>(properties);
+                    more.forEach(union::putIfAbsent);
+                    merged.put(key, union);
+                } else if ("required".equals(key) && existing instanceof List<?> required
+                    && value instanceof List<?> more) {
+                    Set<Object> union = new LinkedHashSet<>(required);
+                    union.addAll(more);
+                    merged.put(key, new ArrayList<>(union));
+                } else {
+                    merged.putIfAbsent(key, value);
+                }
+            }
+        }
+        return merged;
+    }
+
+    private Object resolve(Object schema) {
+        if (!(schema instanceof Map<?, ?> map) || !(map.get("$ref") instanceof String ref)) {
+            return schema;
+        }
+        try {
+            return resolver.resolveValue(schema);
+        } catch (ReferenceResolutionException e) {
+            throw new IllegalArgumentException("Cannot resolve schema '" + ref + "'", e);
+        }
+    }
+
+    /**
+     * @return the class name, made unique among the planned classes regardless of case.
+     */
+    private String unique(String name) {
+        String unique = name;
+        for (int i = 2; !classNames.add(unique.toLowerCase(Locale.ROOT)); i++) {
+            unique = name + i;
+        }
+        return unique;
+    }
+
+    /**
+     * Names a component after a property: invalid characters are dropped and the words around them joined in camel
+     * case. A name that is a keyword, or a method of the record, gets a leading underscore the way {@code _enum}
+     * does in the models.
+     */
+    private static String fieldName(String json) {
+        String name = className(json);
+        if (!json.isEmpty() && !Character.isUpperCase(json.charAt(0)) && !name.startsWith("_")) {
+            name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+        }
+        return KEYWORDS.contains(name) || METHODS.contains(name) ? "_" + name : name;
+    }
+
+    private static String singular(String name) {
+        return name.endsWith("s") && !name.endsWith("ss") ? name.substring(0, name.length() - 1) : name + "Item";
+    }
+
+    /**
+     * A record to generate.
+     *
+     * @param name       the simple class name.
+     * @param origin     where the schema of the record comes from.
+     * @param properties the components of the record in the order of the properties of the schema.
+     */
+    record RecordPlan(String name, String origin, List<Property> properties) {
+    }
+
+    /**
+     * @param json      the property name.
+     * @param field     the record component name.
+     * @param type      the type of the property.
+     * @param primitive whether the property is required and not nullable, and has the primitive form of its type.
+     */
+    record Property(String json, String field, PayloadType type, boolean primitive) {
+    }
+}
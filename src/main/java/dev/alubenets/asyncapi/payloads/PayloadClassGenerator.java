@@ -0,0 +1,208 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.payloads;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Components;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Generates Java records for the payloads of the messages of a document, with streaming decoders and encoders that
+ * read and write JSON without going through a generic {@code Map<String, Object>}.
+ * <p>
+ * A record is generated for every object schema with properties among {@code components.schemas} and the payloads
+ * of the messages of the components and channels, and for the object schemas nested in them. Records of component
+ * schemas are named after their key, payload records after their message, such as {@code LightMeasuredPayload},
+ * nested records after the record and property they belong to. Properties map to components of the same name, made
+ * a valid identifier: strings to {@code String}, integers to {@code long}, numbers to {@code double}, booleans to
+ * {@code boolean}, arrays to {@code List}s or primitive arrays. Properties that are required and not nullable use
+ * primitive types, other properties their boxed form, which is {@code null} when the property is absent. Schemas
+ * without a single shape, such as {@code oneOf} unions and maps without declared properties, stay {@code Object}s in
+ * generic form. {@code allOf} schemas are merged, {@code $ref}s are followed.
+ * <p>
+ * Every record gets {@code fromJson(byte[])}, {@code decode(PayloadInput)}, {@code toJson()} and
+ * {@code encode(PayloadOutput)}. Decoders skip unknown fields and check that values have the JSON type of their
+ * component and that required primitive components are present; they do not validate the schemas, which is what
+ * {@link dev.alubenets.asyncapi.validation.MessageValidator} is for. Payloads of other schema formats, such as Avro,
+ * and payloads that are not objects are skipped.
+ * <pre>{@code
+ * PayloadClassGenerator.create()
+ *     .withPackage("com.example.streetlights")
+ *     .write(ReferenceResolver.of(api), Path.of("build/generated/sources/payloads"));
+ * }</pre>
+ * The generator also runs from the command line with the document, the package and the output directory as
+ * arguments. Generators are immutable and thread-safe.
+ */
+public final class PayloadClassGenerator {
+
+    private final String packageName;
+
+    private PayloadClassGenerator(String packageName) {
+        this.packageName = packageName;
+    }
+
+    /**
+     * @return a generator writing records into the package {@code payloads}.
+     */
+    public static PayloadClassGenerator create() {
+        return new PayloadClassGenerator("payloads");
+    }
+
+    /**
+     * @param packageName the package of the generated records.
+     * @return a copy of this generator.
+     * @throws IllegalArgumentException if the name is not a valid package name.
+     */
+    public PayloadClassGenerator withPackage(String packageName) {
+        Objects.requireNonNull(packageName, "packageName");
+        if (!isPackageName(packageName)) {
+            throw new IllegalArgumentException("Invalid package name '" + packageName + "'");
+        }
+        return new PayloadClassGenerator(packageName);
+    }
+
+    /**
+     * @param resolver the resolver of the document, which resolves the messages and the {@code $ref}s in the schemas.
+     * @return the source of every record by its qualified class name, in the order the schemas were met.
+     * @throws IllegalArgumentException if a reference in a schema cannot be resolved.
+     */
+    public Map<String, String> generate(ReferenceResolver resolver) {
+        AsyncAPI document = resolver.document();
+        ClassPlanner planner = new ClassPlanner(resolver);
+        Components components = document.components();
+        if (components != null && components.schemas() != null) {
+            components.schemas().forEach(planner::name);
+            components.schemas().forEach((key, schema) ->
+                planner.plan(schema, ClassPlanner.className(key), "the schema '" + key + "' of the components"));
+        }
+        if (components != null && components.messages() != null) {
+            components.messages().forEach((key, message) -> payload(planner, resolver, key, message));
+        }
+        if (document.channels() != null) {
+            for (Channel channel : document.channels().values()) {
+                Channel target = resolver.resolve(channel);
+                if (target.messages() != null) {
+                    target.messages().forEach((key, message) -> payload(planner, resolver, key, message));
+                }
+            }
+        }
+        SourceEmitter emitter = new SourceEmitter(packageName);
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (ClassPlanner.RecordPlan plan : planner.plans()) {
+            sources.put(packageName + "." + plan.name(), emitter.emit(plan));
+        }
+        return sources;
+    }
+
+    /**
+     * Generates the records and writes them below a source root, replacing files of the same name.
+     *
+     * @param directory the source root, the directories of the package are created in it.
+     * @return the files written.
+     * @throws IllegalArgumentException if a reference in a schema cannot be resolved.
+     * @throws IOException              if a file cannot be written.
+     */
+    public List<Path> write(ReferenceResolver resolver, Path directory) throws IOException {
+        Path target = directory.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(target);
+        List<Path> files = new ArrayList<>();
+        for (Map.Entry<String, String> source : generate(resolver).entrySet()) {
+            String name = source.getKey().substring(source.getKey().lastIndexOf('.') + 1);
+            files.add(Files.writeString(target.resolve(name + ".java"), source.getValue()));
+        }
+        return files;
+    }
+
+    /**
+     * Generates the records of a document file.
+     *
+     * @param args the document, the package and the output directory.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: PayloadClassGenerator <document> <package> <output directory>");
+            System.exit(2);
+        }
+        Path document = Path.of(args[0]).toAbsolutePath();
+        AsyncAPI api;
+        try (InputStream in = Files.newInputStream(document)) {
+            api = AsyncApiReader.create().read(in);
+        }
+        List<Path> files = create().withPackage(args[1]).write(ReferenceResolver.of(api, document.toUri()),
+            Path.of(args[2]));
+        System.out.println("Generated " + files.size() + " payload classes in " + Path.of(args[2]));
+    }
+
+    private static void payload(ClassPlanner planner, ReferenceResolver resolver, String key, Message message) {
+        Message target = resolver.resolve(message);
+        String contentType = target.contentType() != null
+            ? target.contentType()
+            : resolver.document().defaultContentType();
+        Object schema = target.payload();
+        if (schema == null || contentType != null && !contentType.contains("json")) {
+            return;
+        }
+        if (schema instanceof Map<?, ?> map && map.containsKey("schemaFormat") && !map.containsKey("$ref")) {
+            if (!(map.get("schemaFormat") instanceof String format) || !isJsonSchema(format)) {
+                return;
+            }
+            schema = map.get("schema");
+        }
+        planner.plan(schema, ClassPlanner.className(key) + "Payload", "the payload of the message '" + key + "'");
+    }
+
+    private static boolean isPackageName(String name) {
+        for (String part : name.split("\\.", -1)) {
+            if (part.isEmpty() || !Character.isJavaIdentifierStart(part.charAt(0)) || ClassPlanner.isKeyword(part)) {
+                return false;
+            }
+            for (int i = 1; i < part.length(); i++) {
+                if (!Character.isJavaIdentifierPart(part.charAt(i))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isJsonSchema(String format) {
+        return format.startsWith("application/vnd.aai.asyncapi")
+            || format.startsWith("application/schema+json")
+            || format.startsWith("application/schema+yaml");
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.payloads;
+
+import dev.alubenets.asyncapi.parser.AsyncApiParseException;
+import dev.alubenets.asyncapi.parser.JsonToken;
+import dev.alubenets.asyncapi.parser.JsonTokenReader;
+import dev.alubenets.asyncapi.parser.TokenReader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The input of the decoders of generated payload classes: a {@link TokenReader} with typed reads.
+ * <p>
+ * Every read advances to the value it reads, so a decoder reads a field name and then the value of the field without
+ * looking at tokens itself. Values of the wrong type are reported as {@link AsyncApiParseException}s with the
+ * position they were found at.
+ * <pre>{@code
+ * PayloadInput in = PayloadInput.of(bytes);
+ * if (in.beginObject()) {
+ *     while (in.nextField()) {
+ *         switch (in.field()) {
+ *             case "lumens" -> lumens = in.readLong();
+ *             default -> in.skipValue();
+ *         }
+ *     }
+ * }
+ * }</pre>
+ * An input over bytes is reused for the next message with {@link #reset(byte[])}, which keeps the field names it has
+ * seen. Inputs are not thread-safe.
+ */
+public final class PayloadInput {
+
+    private final TokenReader tokens;
+    /**
+     * Whether the current token was read ahead to find the end of an array and is the next value.
+     */
+    private boolean pending;
+
+    private PayloadInput(TokenReader tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * @param json a UTF-8 encoded JSON value.
+     * @return the input.
+     */
+    public static PayloadInput of(byte[] json) {
+        return of(json, 0, json.length);
+    }
+
+    /**
+     * @param json   UTF-8 encoded JSON.
+     * @param offset the index of the first byte of the value.
+     * @param length the number of bytes of the value.
+     * @return the input.
+     */
+    public static PayloadInput of(byte[] json, int offset, int length) {
+        return new PayloadInput(new JsonTokenReader(json, offset, length));
+    }
+
+    /**
+     * @param tokens the tokens of a JSON or YAML value, positioned before the value.
+     * @return the input.
+     */
+    public static PayloadInput of(TokenReader tokens) {
+        return new PayloadInput(tokens);
+    }
+
+    /**
+     * Restarts the input on another value.
+     *
+     * @param json a UTF-8 encoded JSON value.
+     * @throws IllegalStateException if the input was not created over bytes.
+     */
+    public void reset(byte[] json) {
+        reset(json, 0, json.length);
+    }
+
+    /**
+     * Restarts the input on another value.
+     *
+     * @param json   UTF-8 encoded JSON.
+     * @param offset the index of the first byte of the value.
+     * @param length the number of bytes of the value.
+     * @throws IllegalStateException if the input was not created over bytes.
+     */
+    public void reset(byte[] json, int offset, int length) {
+        if (!(tokens instanceof JsonTokenReader reader)) {
+            throw new IllegalStateException("Only an input over bytes can be reset");
+        }
+        reader.reset(json, offset, length);
+        pending = false;
+    }
+
+    /**
+     * Advances to the start of an object.
+     *
+     * @return {@code false} if the value is {@code null}.
+     * @throws AsyncApiParseException if the value is neither an object nor {@code null}.
+     */
+    public boolean beginObject() throws IOException {
+        return begin(JsonToken.START_OBJECT, "an object");
+    }
+
+    /**
+     * Advances to the next field name of the current object.
+     *
+     * @return {@code false} at the end of the object.
+     */
+    public boolean nextField() throws IOException {
+        return advance() == JsonToken.FIELD_NAME;
+    }
+
+    /**
+     * @return the name of the field {@link #nextField()} advanced to.
+     */
+    public String field() {
+        return tokens.text();
+    }
+
+    /**
+     * Advances to the start of an array.
+     *
+     * @return {@code false} if the value is {@code null}.
+     * @throws AsyncApiParseException if the value is neither an array nor {@code null}.
+     */
+    public boolean beginArray() throws IOException {
+        return begin(JsonToken.START_ARRAY, "an array");
+    }
+
+    /**
+     * Looks for the next element of the current array, which the next read then reads.
+     *
+     * @return {@code false} at the end of the array.
+     */
+    public boolean nextElement() throws IOException {
+        if (advance() == JsonToken.END_ARRAY) {
+            return false;
+        }
+        pending = true;
+        return true;
+    }
+
+    /**
+     * @return the string, or {@code null}.
+     */
+    public String readString() throws IOException {
+        JsonToken token = advance();
+        if (token == JsonToken.NULL) {
+            return null;
+        }
+        if (token != JsonToken.STRING) {
+            throw unexpected("a string");
+        }
+        return tokens.text();
+    }
+
+    public long readLong() throws IOException {
+        if (advance() != JsonToken.NUMBER) {
+            throw unexpected("an integer");
+        }
+        return integer();
+    }
+
+    /**
+     * @return the integer, or {@code null}.
+     */
+    public Long readLongOrNull() throws IOException {
+        JsonToken token = advance();
+        if (token == JsonToken.NULL) {
+            return null;
+        }
+        if (token != JsonToken.NUMBER) {
+            throw unexpected("an integer");
+        }
+        return integer();
+    }
+
+    public double readDouble() throws IOException {
+        if (advance() != JsonToken.NUMBER) {
+            throw unexpected("a number");
+        }
+        return Double.parseDouble(tokens.text());
+    }
+
+    /**
+     * @return the number, or {@code null}.
+     */
+    public Double readDoubleOrNull() throws IOException {
+        JsonToken token = advance();
+        if (token == JsonToken.NULL) {
+            return null;
+        }
+        if (token != JsonToken.NUMBER) {
+            throw unexpected("a number");
+        }
+        return Double.parseDouble(tokens.text());
+    }
+
+    public boolean readBoolean() throws IOException {
+        JsonToken token = advance();
+        if (token != JsonToken.TRUE && token != JsonToken.FALSE) {
+            throw unexpected("a boolean");
+        }
+        return token == JsonToken.TRUE;
+    }
+
+    /**
+     * @return the boolean, or {@code null}.
+     */
+    public Boolean readBooleanOrNull() throws IOException {
+        JsonToken token = advance();
+        if (token == JsonToken.NULL) {
+            return null;
+        }
+        if (token != JsonToken.TRUE && token != JsonToken.FALSE) {
+            throw unexpected("a boolean");
+        }
+        return token == JsonToken.TRUE;
+    }
+
+    /**
+     * @return the integers of an array, or {@code null}.
+     */
+    public long[] readLongArray() throws IOException {
+        if (!beginArray()) {
+            return null;
+        }
+        long[] values = new long[8];
+        int size = 0;
+        while (nextElement()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = readLong();
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * @return the numbers of an array, or {@code null}.
+     */
+    public double[] readDoubleArray() throws IOException {
+        if (!beginArray()) {
+            return null;
+        }
+        double[] values = new double[8];
+        int size = 0;
+        while (nextElement()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = readDouble();
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * @return the booleans of an array, or {@code null}.
+     */
+    public boolean[] readBooleanArray() throws IOException {
+        if (!beginArray()) {
+            return null;
+        }
+        boolean[] values = new boolean[8];
+        int size = 0;
+        while (nextElement()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = readBoolean();
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * @param element reads one element.
+     * @return the elements of an array, or {@code null}.
+     */
+    public <T> List<T> readList(Reader<T> element) throws IOException {
+        if (!beginArray()) {
+            return null;
+        }
+        List<T> values = new ArrayList<>();
+        while (nextElement()) {
+            values.add(element.read(this));
+        }
+        return values;
+    }
+
+    /**
+     * Reads a value of any type in generic form, the way {@link dev.alubenets.asyncapi.parser.AsyncApiReader#readTree}
+     * does: objects as {@link LinkedHashMap}s, arrays as {@link ArrayList}s, integers as the smallest of
+     * {@link Integer}, {@link Long} and {@link BigInteger} that fits them, other numbers as {@link Double}s.
+     *
+     * @return the value, or {@code null}.
+     */
+    public Object readValue() throws IOException {
+        JsonToken token = advance();
+        if (token == null) {
+            throw unexpected("a value");
+        }
+        return switch (token) {
+            case START_OBJECT -> {
+                Map<String, Object> map = new LinkedHashMap<>();
+                while (nextField()) {
+                    map.put(field(), readValue());
+                }
+                yield map;
+            }
+            case START_ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                while (nextElement()) {
+                    list.add(readValue());
+                }
+                yield list;
+            }
+            case STRING -> tokens.text();
+            case NUMBER -> number(tokens.text());
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case NULL -> null;
+            default -> throw unexpected("a value");
+        };
+    }
+
+    /**
+     * Skips the value of a field the decoder does not know.
+     */
+    public void skipValue() throws IOException {
+        advance();
+        tokens.skipChildren();
+    }
+
+    /**
+     * @param field the name of a required field that is missing.
+     * @return the exception to throw.
+     */
+    public AsyncApiParseException missing(String field) {
+        return new AsyncApiParseException("Missing required field '" + field + "'", tokens.line(), tokens.column());
+    }
+
+    private boolean begin(JsonToken start, String expected) throws IOException {
+        JsonToken token = advance();
+        if (token == JsonToken.NULL) {
+            return false;
+        }
+        if (token != start) {
+            throw unexpected(expected);
+        }
+        return true;
+    }
+
+    private JsonToken advance() throws IOException {
+        if (pending) {
+            pending = false;
+            return tokens.currentToken();
+        }
+        return tokens.nextToken();
+    }
+
+    private long integer() throws IOException {
+        String text = tokens.text();
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw unexpected("an integer");
+        }
+    }
+
+    private AsyncApiParseException unexpected(String expected) {
+        JsonToken token = tokens.currentToken();
+        String found = token == null ? "the end of the input"
+            : token.isScalar() ? tokens.text() == null ? "null" : "'" + tokens.text() + "'"
+            : token.name();
+        return new AsyncApiParseException("Expected " + expected + ", found " + found, tokens.line(),
+            tokens.column());
+    }
+
+    private static Number number(String text) {
+        boolean integral = true;
+        for (int i = 0; i < text.length() && integral; i++) {
+            char c = text.charAt(i);
+            integral = (c >= '0' && c <= '9') || (i == 0 && c == '-');
+        }
+        if (integral) {
+            if (text.length() < 10) {
+                return Integer.parseInt(text);
+            }
+            if (text.length() < 19) {
+                return Long.parseLong(text);
+            }
+            BigInteger value = new BigInteger(text);
+            return value.bitLength() < 64 ? (Number) value.longValue() : value;
+        }
+        double value = Double.parseDouble(text);
+        if (Double.isInfinite(value) && !text.contains("Infinity")) {
+            return new BigDecimal(text);
+        }
+        return value;
+    }
+
+    /**
+     * Reads one value from an input, such as an element of an array.
+     *
+     * @param <T> the type of the value.
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+
+        T read(PayloadInput in) throws IOException;
+    }
+}
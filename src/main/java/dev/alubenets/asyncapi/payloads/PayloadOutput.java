@@ -0,0 +1,396 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.payloads;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The output of the encoders of generated payload classes: compact UTF-8 JSON in a growable buffer.
+ * <p>
+ * Separators are written as needed, an encoder only marks where fields and array elements start. Field names are
+ * encoded once with {@link #name(String)}. An output is reused across messages with {@link #reset()}, encoding then
+ * allocates nothing but the buffer growing to the largest message. Outputs are not thread-safe.
+ * <pre>{@code
+ * out.beginObject();
+ * out.field(LUMENS);
+ * out.number(lumens);
+ * out.endObject();
+ * }</pre>
+ */
+public final class PayloadOutput {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] bytes = new byte[256];
+    private int position;
+    /**
+     * Whether the last thing written was a complete value, which the next field or element is separated from.
+     */
+    private boolean afterValue;
+
+    private PayloadOutput() {
+    }
+
+    public static PayloadOutput create() {
+        return new PayloadOutput();
+    }
+
+    /**
+     * @param field a field name.
+     * @return the name encoded for {@link #field(byte[])}.
+     */
+    public static byte[] name(String field) {
+        PayloadOutput out = new PayloadOutput();
+        out.string(field);
+        out.put((byte) ':');
+        return out.toByteArray();
+    }
+
+    public void beginObject() {
+        put((byte) '{');
+        afterValue = false;
+    }
+
+    public void endObject() {
+        put((byte) '}');
+        afterValue = true;
+    }
+
+    public void beginArray() {
+        put((byte) '[');
+        afterValue = false;
+    }
+
+    public void endArray() {
+        put((byte) ']');
+        afterValue = true;
+    }
+
+    /**
+     * Starts a field of the current object, its value is written next.
+     *
+     * @param name the field name encoded with {@link #name(String)}.
+     */
+    public void field(byte[] name) {
+        separate();
+        put(name);
+        afterValue = false;
+    }
+
+    /**
+     * Starts an element of the current array, its value is written next.
+     */
+    public void element() {
+        separate();
+        afterValue = false;
+    }
+
+    /**
+     * @param value a string, or {@code null}.
+     */
+    public void string(String value) {
+        if (value == null) {
+            nul();
+            return;
+        }
+        ensure(value.length() * 3 + 2);
+        bytes[position++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                bytes[position++] = (byte) c;
+            } else {
+                i = encode(value, i);
+            }
+        }
+        bytes[position++] = '"';
+        afterValue = true;
+    }
+
+    public void number(long value) {
+        if (value == Long.MIN_VALUE) {
+            put(MIN_LONG);
+            afterValue = true;
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            bytes[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+        afterValue = true;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not finite.
+     */
+    public void number(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Cannot write " + value + " as a JSON number");
+        }
+        if (value == (long) value && Math.abs(value) < 1e15) {
+            number((long) value);
+            return;
+        }
+        ascii(Double.toString(value));
+    }
+
+    public void bool(boolean value) {
+        put(value ? TRUE : FALSE);
+        afterValue = true;
+    }
+
+    public void nul() {
+        put(NULL);
+        afterValue = true;
+    }
+
+    /**
+     * @param values integers written as an array, or {@code null}.
+     */
+    public void numbers(long[] values) {
+        if (values == null) {
+            nul();
+            return;
+        }
+        beginArray();
+        for (long value : values) {
+            element();
+            number(value);
+        }
+        endArray();
+    }
+
+    /**
+     * @param values numbers written as an array, or {@code null}.
+     * @throws IllegalArgumentException if a value is not finite.
+     */
+    public void numbers(double[] values) {
+        if (values == null) {
+            nul();
+            return;
+        }
+        beginArray();
+        for (double value : values) {
+            element();
+            number(value);
+        }
+        endArray();
+    }
+
+    /**
+     * @param values booleans written as an array, or {@code null}.
+     */
+    public void booleans(boolean[] values) {
+        if (values == null) {
+            nul();
+            return;
+        }
+        beginArray();
+        for (boolean value : values) {
+            element();
+            bool(value);
+        }
+        endArray();
+    }
+
+    /**
+     * Writes a value in generic form: maps with string keys, collections, strings, numbers, booleans and
+     * {@code null}.
+     *
+     * @throws IllegalArgumentException if the value contains anything else or a number that is not finite.
+     */
+    public void value(Object value) {
+        if (value == null) {
+            nul();
+        } else if (value instanceof String string) {
+            string(string);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+            || value instanceof Byte) {
+            number(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            number(((Number) value).doubleValue());
+        } else if (value instanceof BigInteger || value instanceof BigDecimal) {
+            ascii(value.toString());
+        } else if (value instanceof Boolean bool) {
+            bool(bool);
+        } else if (value instanceof Map<?, ?> map) {
+            beginObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String key)) {
+                    throw new IllegalArgumentException("Cannot write the key " + entry.getKey() + " as a JSON name");
+                }
+                separate();
+                string(key);
+                put((byte) ':');
+                value(entry.getValue());
+            }
+            endObject();
+        } else if (value instanceof Collection<?> collection) {
+            beginArray();
+            for (Object element : collection) {
+                element();
+                value(element);
+            }
+            endArray();
+        } else {
+            throw new IllegalArgumentException("Cannot write " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * @return the number of bytes written since the output was created or reset.
+     */
+    public int size() {
+        return position;
+    }
+
+    /**
+     * Discards what was written, keeping the buffer.
+     */
+    public void reset() {
+        position = 0;
+        afterValue = false;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, position);
+    }
+
+    /**
+     * @param buffer receives the bytes written.
+     * @throws java.nio.BufferOverflowException if the buffer has not enough room.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(bytes, 0, position);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, position);
+    }
+
+    private void separate() {
+        if (afterValue) {
+            put((byte) ',');
+        }
+    }
+
+    private void ascii(String text) {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            bytes[position++] = (byte) text.charAt(i);
+        }
+        afterValue = true;
+    }
+
+    /**
+     * Encodes the character at {@code i}, and the low surrogate after it, into at most six bytes.
+     *
+     * @return the index of the last character consumed.
+     */
+    private int encode(String value, int i) {
+        ensure(6 + (value.length() - i) * 3);
+        char c = value.charAt(i);
+        if (c == '"' || c == '\\') {
+            bytes[position++] = '\\';
+            bytes[position++] = (byte) c;
+        } else if (c < 0x20) {
+            bytes[position++] = '\\';
+            switch (c) {
+                case '\n' -> bytes[position++] = 'n';
+                case '\r' -> bytes[position++] = 'r';
+                case '\t' -> bytes[position++] = 't';
+                case '\b' -> bytes[position++] = 'b';
+                case '\f' -> bytes[position++] = 'f';
+                default -> escape(c);
+            }
+        } else if (c < 0x800) {
+            bytes[position++] = (byte) (0xC0 | c >> 6);
+            bytes[position++] = (byte) (0x80 | c & 0x3F);
+        } else if (!Character.isSurrogate(c)) {
+            bytes[position++] = (byte) (0xE0 | c >> 12);
+            bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+            bytes[position++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(++i));
+            bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+            bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+            bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+        } else {
+            // An unpaired surrogate cannot be encoded in UTF-8, the escape keeps it.
+            bytes[position++] = '\\';
+            escape(c);
+        }
+        return i;
+    }
+
+    private void escape(char c) {
+        bytes[position++] = 'u';
+        bytes[position++] = HEX[c >> 12];
+        bytes[position++] = HEX[c >> 8 & 0xF];
+        bytes[position++] = HEX[c >> 4 & 0xF];
+        bytes[position++] = HEX[c & 0xF];
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        bytes[position++] = b;
+    }
+
+    private void put(byte[] encoded) {
+        ensure(encoded.length);
+        System.arraycopy(encoded, 0, bytes, position, encoded.length);
+        position += encoded.length;
+    }
+
+    private void ensure(int length) {
+        if (position + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + length));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.payloads;
+
+/**
+ * The Java type a schema maps to.
+ *
+ * @param kind    what the schema describes.
+ * @param name    the simple name of the generated record for {@link Kind#RECORD}.
+ * @param element the type of the elements for {@link Kind#LIST}.
+ */
+record PayloadType(Kind kind, String name, PayloadType element) {
+
+    static final PayloadType STRING = new PayloadType(Kind.STRING, null, null);
+    static final PayloadType INTEGER = new PayloadType(Kind.INTEGER, null, null);
+    static final PayloadType NUMBER = new PayloadType(Kind.NUMBER, null, null);
+    static final PayloadType BOOLEAN = new PayloadType(Kind.BOOLEAN, null, null);
+    static final PayloadType ANY = new PayloadType(Kind.ANY, null, null);
+
+    static PayloadType record(String name) {
+        return new PayloadType(Kind.RECORD, name, null);
+    }
+
+    static PayloadType list(PayloadType element) {
+        return new PayloadType(Kind.LIST, null, element);
+    }
+
+    /**
+     * @return whether the type has a primitive form, which required properties use.
+     */
+    boolean isPrimitive() {
+        return kind == Kind.INTEGER || kind == Kind.NUMBER || kind == Kind.BOOLEAN;
+    }
+
+    /**
+     * @return whether the type is a list of a type with a primitive form, which maps to a primitive array.
+     */
+    boolean isPrimitiveArray() {
+        return kind == Kind.LIST && element.isPrimitive();
+    }
+
+    /**
+     * @param primitive whether to use the primitive form.
+     * @return the Java type in source form.
+     */
+    String java(boolean primitive) {
+        return switch (kind) {
+            case STRING -> "String";
+            case INTEGER -> primitive ? "long" : "Long";
+            case NUMBER -> primitive ? "double" : "Double";
+            case BOOLEAN -> primitive ? "boolean" : "Boolean";
+            case RECORD -> name;
+            case LIST -> element.isPrimitive() ? element.java(true) + "[]" : "List<" + element.java(false) + ">";
+            case ANY -> "Object";
+        };
+    }
+
+    enum Kind {
+        STRING,
+        INTEGER,
+        NUMBER,
+        BOOLEAN,
+        RECORD,
+        LIST,
+        /**
+         * Anything without a single shape, such as unions and free-form maps, decoded in generic form.
+         */
+        ANY
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.payloads;
+
+import dev.alubenets.asyncapi.payloads.ClassPlanner.Property;
+import dev.alubenets.asyncapi.payloads.ClassPlanner.RecordPlan;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Writes the source of a generated record: its components, a streaming decoder and an encoder.
+ */
+final class SourceEmitter {
+
+    /**
+     * Names the decoder and encoder use themselves, decoder locals for components of these names are renamed.
+     */
+    private static final Set<String> LOCALS = Set.of("in", "out", "json");
+    /**
+     * Names of the flags of required components and the parameters of nested list readers.
+     */
+    private static final Pattern NUMBERED = Pattern.compile("(seen|in)[0-9]+");
+
+    private final String packageName;
+    private final StringBuilder out = new StringBuilder();
+
+    SourceEmitter(String packageName) {
+        this.packageName = packageName;
+    }
+
+    String emit(RecordPlan plan) {
+        out.setLength(0);
+        List<Property> properties = plan.properties();
+        String[] constants = constants(properties);
+        boolean lists = properties.stream().anyMatch(p -> usesList(p.type()));
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("import dev.alubenets.asyncapi.payloads.PayloadInput;\n");
+        out.append("import dev.alubenets.asyncapi.payloads.PayloadOutput;\n\n");
+        out.append("import java.io.IOException;\n");
+        if (lists) {
+            out.append("import java.util.List;\n");
+        }
+        out.append("\n/**\n * Generated from ").append(comment(plan.origin())).append(".\n");
+        if (properties.stream().anyMatch(p -> p.type().isPrimitiveArray())) {
+            out.append(" * <p>\n");
+            out.append(" * Arrays of numbers and booleans are primitive arrays, which records compare by identity.\n");
+        }
+        out.append(" */\n");
+        out.append("@javax.annotation.processing.Generated(\"").append(PayloadClassGenerator.class.getName())
+            .append("\")\n");
+        out.append("public record ").append(plan.name()).append("(\n");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            out.append("    ").append(property.type().java(property.primitive())).append(' ').append(property.field())
+                .append(i + 1 < properties.size() ? ",\n" : "\n");
+        }
+        out.append(") {\n\n");
+        for (int i = 0; i < properties.size(); i++) {
+            out.append("    private static final byte[] ").append(constants[i]).append(" = PayloadOutput.name(")
+                .append(literal(properties.get(i).json())).append(");\n");
+        }
+        out.append('\n');
+        fromJson(plan);
+        decode(plan);
+        toJson();
+        encode(plan, constants);
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private void fromJson(RecordPlan plan) {
+        out.append("    /**\n     * @param json a UTF-8 encoded JSON object.\n");
+        out.append("     * @return the decoded payload, or {@code null} if the JSON is {@code null}.\n     */\n");
+        out.append("    public static ").append(plan.name()).append(" fromJson(byte[] json) throws IOException {\n");
+        out.append("        return decode(PayloadInput.of(json));\n");
+        out.append("    }\n\n");
+    }
+
+    private void decode(RecordPlan plan) {
+        List<Property> properties = plan.properties();
+        out.append("    /**\n     * Decodes the next value of the input, unknown fields are skipped.\n     *\n");
+        out.append("     * @return the decoded payload, or {@code null} if the value is {@code null}.\n     */\n");
+        out.append("    public static ").append(plan.name()).append(" decode(PayloadInput in) throws IOException {\n");
+        out.append("        if (!in.beginObject()) {\n            return null;\n        }\n");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            String type = property.type().java(property.primitive());
+            out.append("        ").append(type).append(' ').append(local(property)).append(" = ")
+                .append(property.primitive() ? property.type().kind() == PayloadType.Kind.BOOLEAN ? "false" : "0"
+                    : "null")
+                .append(";\n");
+            if (property.primitive()) {
+                out.append("        boolean seen").append(i).append(" = false;\n");
+            }
+        }
+        out.append("        while (in.nextField()) {\n");
+        out.append("            switch (in.field()) {\n");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            out.append("                case ").append(literal(property.json())).append(" -> ");
+            String read = local(property) + " = " + read(property.type(), property.primitive()) + ";";
+            if (property.primitive()) {
+                out.append("{\n                    ").append(read).append("\n                    seen").append(i)
+                    .append(" = true;\n                }\n");
+            } else {
+                out.append(read).append('\n');
+            }
+        }
+        out.append("                default -> in.skipValue();\n");
+        out.append("            }\n        }\n");
+        for (int i = 0; i < properties.size(); i++) {
+            if (properties.get(i).primitive()) {
+                out.append("        if (!seen").append(i).append(") {\n            throw in.missing(")
+                    .append(literal(properties.get(i).json())).append(");\n        }\n");
+            }
+        }
+        out.append("        return new ").append(plan.name()).append('(');
+        for (int i = 0; i < properties.size(); i++) {
+            out.append(i > 0 ? ", " : "").append(local(properties.get(i)));
+        }
+        out.append(");\n    }\n\n");
+    }
+
+    private void toJson() {
+        out.append("    /**\n     * @return the payload as UTF-8 encoded JSON.\n     */\n");
+        out.append("    public byte[] toJson() {\n");
+        out.append("        PayloadOutput out = PayloadOutput.create();\n");
+        out.append("        encode(out);\n");
+        out.append("        return out.toByteArray();\n");
+        out.append("    }\n\n");
+    }
+
+    private void encode(RecordPlan plan, String[] constants) {
+        List<Property> properties = plan.properties();
+        out.append("    /**\n");
+        out.append("     * Writes the payload as a JSON object, leaving out components that are {@code null}.\n");
+        out.append("     */\n");
+        out.append("    public void encode(PayloadOutput out) {\n");
+        out.append("        out.beginObject();\n");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            String value = "this." + property.field();
+            String indent = "        ";
+            if (!property.primitive()) {
+                out.append(indent).append("if (").append(value).append(" != null) {\n");
+                indent += "    ";
+            }
+            out.append(indent).append("out.field(").append(constants[i]).append(");\n");
+            write(property.type(), value, indent, 0);
+            if (!property.primitive()) {
+                out.append("        }\n");
+            }
+        }
+        out.append("        out.endObject();\n");
+        out.append("    }\n");
+    }
+
+    /**
+     * @return an expression reading a value of the type from {@code in}.
+     */
+    private static String read(PayloadType type, boolean primitive) {
+        return switch (type.kind()) {
+            case STRING -> "in.readString()";
+            case INTEGER -> primitive ? "in.readLong()" : "in.readLongOrNull()";
+            case NUMBER -> primitive ? "in.readDouble()" : "in.readDoubleOrNull()";
+            case BOOLEAN -> primitive ? "in.readBoolean()" : "in.readBooleanOrNull()";
+            case RECORD -> type.name() + ".decode(in)";
+            case LIST -> switch (type.element().kind()) {
+                case INTEGER -> "in.readLongArray()";
+                case NUMBER -> "in.readDoubleArray()";
+                case BOOLEAN -> "in.readBooleanArray()";
+                default -> "in.readList(" + reader(type.element(), 1) + ")";
+            };
+            case ANY -> "in.readValue()";
+        };
+    }
+
+    /**
+     * @return a {@link PayloadInput.Reader} of the type in source form.
+     */
+    private static String reader(PayloadType type, int depth) {
+        return switch (type.kind()) {
+            case STRING -> "PayloadInput::readString";
+            case INTEGER -> "PayloadInput::readLongOrNull";
+            case NUMBER -> "PayloadInput::readDoubleOrNull";
+            case BOOLEAN -> "PayloadInput::readBooleanOrNull";
+            case RECORD -> type.name() + "::decode";
+            case LIST -> switch (type.element().kind()) {
+                case INTEGER -> "PayloadInput::readLongArray";
+                case NUMBER -> "PayloadInput::readDoubleArray";
+                case BOOLEAN -> "PayloadInput::readBooleanArray";
+                default -> "in" + depth + " -> in" + depth + ".readList(" + reader(type.element(), depth + 1) + ")";
+            };
+            case ANY -> "PayloadInput::readValue";
+        };
+    }
+
+    /**
+     * Writes statements encoding the value of an expression that is not {@code null}. Strings, primitive arrays and
+     * generic values may be {@code null} inside lists, the output writes them as {@code null} itself.
+     */
+    private void write(PayloadType type, String value, String indent, int depth) {
+        out.append(indent);
+        switch (type.kind()) {
+            case STRING -> out.append("out.string(").append(value).append(");\n");
+            case INTEGER, NUMBER -> out.append("out.number(").append(value).append(");\n");
+            case BOOLEAN -> out.append("out.bool(").append(value).append(");\n");
+            case RECORD -> out.append(value).append(".encode(out);\n");
+            case ANY -> out.append("out.value(").append(value).append(");\n");
+            case LIST -> {
+                PayloadType element = type.element();
+                if (element.kind() == PayloadType.Kind.BOOLEAN) {
+                    out.append("out.booleans(").append(value).append(");\n");
+                    return;
+                }
+                if (element.isPrimitive()) {
+                    out.append("out.numbers(").append(value).append(");\n");
+                    return;
+                }
+                String variable = depth == 0 ? "element" : "element" + depth;
+                out.append("out.beginArray();\n");
+                out.append(indent).append("for (").append(element.java(false)).append(' ').append(variable)
+                    .append(" : ").append(value).append(") {\n");
+                out.append(indent).append("    out.element();\n");
+                if (element.kind() == PayloadType.Kind.RECORD || element.kind() == PayloadType.Kind.LIST
+                    && !element.isPrimitiveArray()) {
+                    out.append(indent).append("    if (").append(variable).append(" == null) {\n");
+                    out.append(indent).append("        out.nul();\n");
+                    out.append(indent).append("    } else {\n");
+                    write(element, variable, indent + "        ", depth + 1);
+                    out.append(indent).append("    }\n");
+                } else {
+                    write(element, variable, indent + "    ", depth + 1);
+                }
+                out.append(indent).append("}\n");
+                out.append(indent).append("out.endArray();\n");
+            }
+        }
+    }
+
+    private static boolean usesList(PayloadType type) {
+        return type.kind() == PayloadType.Kind.LIST && (!type.isPrimitiveArray() || usesList(type.element()));
+    }
+
+    private static String local(Property property) {
+        String field = property.field();
+        return LOCALS.contains(field) || NUMBERED.matcher(field).matches() ? field + "Value" : field;
+    }
+
+    /**
+     * @return the names of the constants holding the encoded property names, such as {@code SENT_AT} for
+     * {@code sentAt}.
+     */
+    private static String[] constants(List<Property> properties) {
+        String[] constants = new String[properties.size()];
+        Set<String> used = new HashSet<>();
+        for (Property property : properties) {
+            used.add(property.field());
+        }
+        for (int i = 0; i < constants.length; i++) {
+            String field = properties.get(i).field();
+            StringBuilder name = new StringBuilder();
+            for (int j = 0; j < field.length(); j++) {
+                char c = field.charAt(j);
+                if (Character.isUpperCase(c) && j > 0 && !Character.isUpperCase(field.charAt(j - 1))) {
+                    name.append('_');
+                }
+                name.append(Character.toUpperCase(c));
+            }
+            String constant = name.toString().toUpperCase(Locale.ROOT);
+            String unique = constant;
+            for (int n = 2; !used.add(unique); n++) {
+                unique = constant + "_" + n;
+            }
+            constants[i] = unique;
+        }
+        return constants;
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        // A unicode escape of a line break would end the literal, octal escapes are not translated.
+                        literal.append(String.format("\\%03o", (int) c));
+                    } else if (c >= 0x7F) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    /**
+     * @return the text with everything that could end or break a comment escaped.
+     */
+    private static String comment(String text) {
+        String literal = literal(text);
+        return literal.substring(1, literal.length() - 1).replace("*/", "*&#47;").replace("@", "&#64;")
+            .replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.registry;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves the versions of many documents to many readers while new versions are published, keyed by
+ * {@link AsyncAPI#id()} and {@link dev.alubenets.asyncapi.models.Info#version()}.
+ * <p>
+ * The registry holds one immutable {@link RegistrySnapshot} in an atomic reference. Readers take the current snapshot
+ * with a single volatile read and never wait, not even for writers. Writers copy the snapshot with their change and
+ * swap it in with a compare-and-set, retrying if another writer was faster, so they never block readers and a failed
+ * build of a new version never shows. The index and router of a version are built before it is published, outside
+ * the swap. A change copies the table of documents, which suits registries of thousands of documents updated several
+ * times a minute rather than per message.
+ * <p>
+ * The version published last is the latest one, whatever the version strings say, and only the latest versions up to
+ * the retention are kept per document.
+ * <p>
+ * Documents are published as frozen copies, see {@link RegisteredDocument}, so a publisher changing a document after
+ * publishing it changes neither the published version nor what an update is compared with.
+ * <pre>{@code
+ * DocumentRegistry registry = DocumentRegistry.create();
+ * registry.publish(api);
+ * Channel channel = registry.latest("urn:example:streetlights").router().route(address);
+ * }</pre>
+ * Instances are thread-safe.
+ */
+public final class DocumentRegistry {
+
+    private static final int DEFAULT_RETENTION = 5;
+
+    private final int retention;
+    private final AtomicReference<RegistrySnapshot> current = new AtomicReference<>(RegistrySnapshot.EMPTY);
+
+    private DocumentRegistry(int retention) {
+        this.retention = retention;
+    }
+
+    /**
+     * @return an empty registry keeping the last five versions of every document.
+     */
+    public static DocumentRegistry create() {
+        return new DocumentRegistry(DEFAULT_RETENTION);
+    }
+
+    /**
+     * @param retention the number of versions to keep per document.
+     * @return an empty registry.
+     * @throws IllegalArgumentException if the retention is less than one.
+     */
+    public static DocumentRegistry create(int retention) {
+        if (retention < 1) {
+            throw new IllegalArgumentException("The retention must be positive: " + retention);
+        }
+        return new DocumentRegistry(retention);
+    }
+
+    /**
+     * @return the current content of the registry, consistent however long it is used.
+     */
+    public RegistrySnapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * @return the version of the document published last, or {@code null} if there is no document with the id.
+     */
+    public RegisteredDocument latest(String id) {
+        return current.get().latest(id);
+    }
+
+    /**
+     * @return the version of the document, or {@code null} if it was not published or is no longer retained.
+     */
+    public RegisteredDocument get(String id, String version) {
+        return current.get().get(id, version);
+    }
+
+    /**
+     * Builds the index and router of a frozen copy of a document and publishes it as the latest version.
+     *
+     * @param document the document, local references are resolved within it.
+     * @return the published version.
+     * @throws IllegalArgumentException if the document has no id or version, or an address is not a valid template.
+     * @throws dev.alubenets.asyncapi.resolver.ReferenceResolutionException if a reference cannot be resolved.
+     */
+    public RegisteredDocument publish(AsyncAPI document) {
+        return publish(RegisteredDocument.of(document));
+    }
+
+    /**
+     * Builds the index and router of a frozen copy of a document and publishes it as the latest version.
+     *
+     * @param document the document.
+     * @param resolver the resolver for the references of the document.
+     * @return the published version.
+     * @throws IllegalArgumentException if the document has no id or version, or an address is not a valid template.
+     * @throws dev.alubenets.asyncapi.resolver.ReferenceResolutionException if a reference cannot be resolved.
+     */
+    public RegisteredDocument publish(AsyncAPI document, ReferenceResolver resolver) {
+        return publish(RegisteredDocument.of(document, resolver));
+    }
+
+    /**
+     * Publishes a version as the latest one of its document. A version of the same name is replaced, and the oldest
+     * versions beyond the retention are dropped.
+     *
+     * @param document the version.
+     * @return the version.
+     */
+    public RegisteredDocument publish(RegisteredDocument document) {
+        Objects.requireNonNull(document, "document");
+        current.updateAndGet(snapshot -> snapshot.publish(document, retention));
+        return document;
+    }
+
+    /**
+     * Publishes versions as {@link #publish(RegisteredDocument)} does one after the other, in one change: readers see
+     * either none or all of them, and the table of documents is copied once for the batch.
+     *
+     * @param documents the versions.
+     */
+    public void publishAll(Collection<RegisteredDocument> documents) {
+        List<RegisteredDocument> batch = List.copyOf(documents);
+        current.updateAndGet(snapshot -> snapshot.publish(batch, retention));
+    }
+
+    /**
+     * Removes all versions of a document.
+     *
+     * @return whether there was a document with the id.
+     */
+    public boolean remove(String id) {
+        return drop(id, null);
+    }
+
+    /**
+     * Removes a version of a document, the previous version becomes the latest one.
+     *
+     * @return whether the version was retained.
+     */
+    public boolean remove(String id, String version) {
+        return drop(id, Objects.requireNonNull(version, "version"));
+    }
+
+    private boolean drop(String id, String version) {
+        while (true) {
+            RegistrySnapshot snapshot = current.get();
+            RegistrySnapshot updated = snapshot.remove(id, version);
+            if (updated == snapshot) {
+                return false;
+            }
+            if (current.compareAndSet(snapshot, updated)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.registry;
+
+import dev.alubenets.asyncapi.codecs.ModelCodec;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.FreezableMap;
+import dev.alubenets.asyncapi.models.Tag;
+import dev.alubenets.asyncapi.models.Tags;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies a document into a form no one else can change: model maps such as {@code Channels} and {@link Tags} are
+ * frozen, generic maps and lists such as schemas are unmodifiable, and records are rebuilt around the copies.
+ * <p>
+ * Records whose components need no copy, such as a {@code Tag}, are kept, and so are instances shared by several
+ * parents, so interned values stay shared.
+ */
+final class FrozenCopy {
+
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+    private FrozenCopy() {
+    }
+
+    static AsyncAPI of(AsyncAPI document) {
+        return (AsyncAPI) new FrozenCopy().copy(document);
+    }
+
+    private Object copy(Object node) {
+        if (!(node instanceof Record || node instanceof Map || node instanceof List)) {
+            return node;
+        }
+        Object copy = copies.get(node);
+        if (copy == null) {
+            copy = copyOf(node);
+            copies.put(node, copy);
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object copyOf(Object node) {
+        if (node instanceof Record record) {
+            ModelCodec<Record> codec = ModelCodec.of(record.getClass());
+            Object[] values = new Object[codec.size()];
+            boolean changed = false;
+            for (int i = 0; i < values.length; i++) {
+                Object value = codec.get(record, i);
+                values[i] = copy(value);
+                changed |= values[i] != value;
+            }
+            return changed ? codec.create(values) : record;
+        }
+        if (node instanceof FreezableMap<?> map) {
+            FreezableMap<Object> copy = (FreezableMap<Object>) ModelCodec.of(map.getClass()).create();
+            map.forEach((key, value) -> copy.put(key, copy(value)));
+            copy.freeze();
+            return copy;
+        }
+        if (node instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+            map.forEach((key, value) -> copy.put(key, copy(value)));
+            return Collections.unmodifiableMap(copy);
+        }
+        if (node instanceof Tags tags) {
+            if (tags.isFrozen()) {
+                return tags;
+            }
+            Tags copy = new Tags();
+            tags.forEach(tag -> copy.add((Tag) copy(tag)));
+            copy.freeze();
+            return copy;
+        }
+        List<?> list = (List<?>) node;
+        List<Object> copy = new ArrayList<>(list.size());
+        for (Object item : list) {
+            copy.add(copy(item));
+        }
+        return Collections.unmodifiableList(copy);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.registry;
+
+import dev.alubenets.asyncapi.diff.DocumentDiff;
+import dev.alubenets.asyncapi.hash.ContentHash;
+import dev.alubenets.asyncapi.index.DocumentIndex;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Channels;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Parameter;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import dev.alubenets.asyncapi.routing.ChannelRouter;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A version of a document in a {@link DocumentRegistry}, together with the structures derived from it. Everything is
+ * built before the version is published, so readers never build anything on the lookup path.
+ * <p>
+ * {@link #of(AsyncAPI)} and {@link #update(AsyncAPI, ReferenceResolver)} hold a copy of the given document in which
+ * the model maps are frozen and generic maps and lists, such as schemas, are unmodifiable. Changing the given document
+ * afterwards does not change the version, and readers cannot change what they share. The resolver is bound to the
+ * copy with {@link ReferenceResolver#withDocument(AsyncAPI)}.
+ *
+ * @param id       the {@link AsyncAPI#id()} of the document.
+ * @param version  the {@link dev.alubenets.asyncapi.models.Info#version()} of the document.
+ * @param document the document, frozen when built by {@link #of(AsyncAPI)} or {@link #update}.
+ * @param resolver the resolver for the references of the document.
+ * @param index    the index of the operations and channels of the document.
+ * @param router   the router for the addresses of the channels of the document.
+ */
+public record RegisteredDocument(
+    String id,
+    String version,
+    AsyncAPI document,
+    ReferenceResolver resolver,
+    DocumentIndex index,
+    ChannelRouter router
+) {
+
+    /**
+     * @param document the document, local references are resolved within it.
+     * @return a frozen copy of the document with its derived structures.
+     * @throws IllegalArgumentException if the document has no id or version, or an address is not a valid template.
+     * @throws dev.alubenets.asyncapi.resolver.ReferenceResolutionException if a reference cannot be resolved.
+     */
+    public static RegisteredDocument of(AsyncAPI document) {
+        Objects.requireNonNull(document, "document");
+        return of(document, ReferenceResolver.of(document));
+    }
+
+    /**
+     * @param document the document.
+     * @param resolver the resolver for the references of the document.
+     * @return a frozen copy of the document with its derived structures.
+     * @throws IllegalArgumentException if the document has no id or version, or an address is not a valid template.
+     * @throws dev.alubenets.asyncapi.resolver.ReferenceResolutionException if a reference cannot be resolved.
+     */
+    public static RegisteredDocument of(AsyncAPI document, ReferenceResolver resolver) {
+        Objects.requireNonNull(document, "document");
+        Objects.requireNonNull(resolver, "resolver");
+        check(document);
+        AsyncAPI frozen = FrozenCopy.of(document);
+        ReferenceResolver bound = resolver.withDocument(frozen);
+        return new RegisteredDocument(frozen.id(), frozen.info().version(), frozen, bound,
+            DocumentIndex.build(frozen, bound), ChannelRouter.compile(channels(frozen), bound));
+    }
+
+    /**
+     * Derives the structures of a changed version of the document from these ones. Only the channels and operations
+     * that changed, in the document or in what their references resolve to, are indexed and routed again; the rest
+     * is shared with this version, which stays usable.
+     *
+     * @param document the changed document, typically with the same id.
+     * @param resolver the resolver for the references of the changed document.
+     * @return a frozen copy of the changed document with its derived structures.
+     * @throws IllegalArgumentException if the document has no id or version, or an address is not a valid template.
+     * @throws dev.alubenets.asyncapi.resolver.ReferenceResolutionException if a reference cannot be resolved.
+     */
+    public RegisteredDocument update(AsyncAPI document, ReferenceResolver resolver) {
+        Objects.requireNonNull(document, "document");
+        Objects.requireNonNull(resolver, "resolver");
+        check(document);
+        AsyncAPI frozen = FrozenCopy.of(document);
+        return updated(frozen, resolver.withDocument(frozen));
+    }
+
+    private RegisteredDocument updated(AsyncAPI document, ReferenceResolver resolver) {
+        DocumentDiff diff = DocumentDiff.compare(this.document, document);
+        Set<String> channels = new LinkedHashSet<>(diff.changedKeys("/channels"));
+        Set<String> operations = new LinkedHashSet<>(diff.changedKeys("/operations"));
+        // An entry that did not change itself may still reference a component or a file that did.
+        Channels before = channels(this.document);
+        channels(document).forEach((key, channel) -> {
+            if (!channels.contains(key) && before.containsKey(key)
+                && !sameChannel(before.get(key), channel, resolver)) {
+                channels.add(key);
+            }
+        });
+        if (this.document.operations() != null && document.operations() != null) {
+            document.operations().forEach((key, operation) -> {
+                Operation previous = this.document.operations().get(key);
+                if (!operations.contains(key) && previous != null
+                    && !same(this.resolver.resolve(previous), resolver.resolve(operation))) {
+                    operations.add(key);
+                }
+            });
+        }
+        return new RegisteredDocument(document.id(), document.info().version(), document, resolver,
+            index.update(document, resolver, channels, operations),
+            router.update(channels(document), channels, resolver));
+    }
+
+    private boolean sameChannel(Channel before, Channel after, ReferenceResolver resolver) {
+        Channel previous = this.resolver.resolve(before);
+        Channel next = resolver.resolve(after);
+        if (!same(previous, next)) {
+            return false;
+        }
+        if (next.parameters() != null) {
+            for (Map.Entry<String, Parameter> parameter : next.parameters().entrySet()) {
+                if (!same(this.resolver.resolve(previous.parameters().get(parameter.getKey())),
+                    resolver.resolve(parameter.getValue()))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean same(Object a, Object b) {
+        return a == b || a != null && b != null && ContentHash.contentEquals(a, b);
+    }
+
+    private static void check(AsyncAPI document) {
+        if (document.id() == null) {
+            throw new IllegalArgumentException("The document has no id");
+        }
+        if (document.info() == null || document.info().version() == null) {
+            throw new IllegalArgumentException("The document '" + document.id() + "' has no version");
+        }
+    }
+
+    private static Channels channels(AsyncAPI document) {
+        return document.channels() == null ? new Channels() : document.channels();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.registry;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The content of a {@link DocumentRegistry} at one point in time: the retained versions of every document, oldest
+ * first.
+ * <p>
+ * Snapshots are never modified, a registry replaces its snapshot with a new one on every change. A reader that takes
+ * a snapshot once sees every document consistently, however many versions are published meanwhile. Instances are
+ * immutable and thread-safe.
+ */
+public final class RegistrySnapshot {
+
+    static final RegistrySnapshot EMPTY = new RegistrySnapshot(0, Map.of());
+
+    private final long generation;
+    private final Map<String, RegisteredDocument[]> documents;
+
+    private RegistrySnapshot(long generation, Map<String, RegisteredDocument[]> documents) {
+        this.generation = generation;
+        this.documents = documents;
+    }
+
+    /**
+     * @return the number of changes made to the registry before this snapshot, which tells snapshots apart cheaply.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * @return the ids of the documents.
+     */
+    public Set<String> ids() {
+        return Collections.unmodifiableSet(documents.keySet());
+    }
+
+    /**
+     * @return the number of documents, not counting their versions.
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * @return the version of the document published last, or {@code null} if there is no document with the id.
+     */
+    public RegisteredDocument latest(String id) {
+        RegisteredDocument[] versions = documents.get(id);
+        return versions == null ? null : versions[versions.length - 1];
+    }
+
+    /**
+     * @return the version of the document, or {@code null} if it was not published or is no longer retained.
+     */
+    public RegisteredDocument get(String id, String version) {
+        RegisteredDocument[] versions = documents.get(id);
+        if (versions != null) {
+            for (int i = versions.length - 1; i >= 0; i--) {
+                if (versions[i].version().equals(version)) {
+                    return versions[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the retained versions of the document in the order they were published, empty if there is none.
+     */
+    public List<RegisteredDocument> versions(String id) {
+        RegisteredDocument[] versions = documents.get(id);
+        return versions == null ? List.of() : List.of(versions);
+    }
+
+    /**
+     * Adds a version as the latest of its document, replacing a version of the same name and dropping the oldest
+     * versions beyond the retention.
+     */
+    RegistrySnapshot publish(RegisteredDocument document, int retention) {
+        return with(document.id(), versions(documents.get(document.id()), document, retention));
+    }
+
+    /**
+     * Adds versions as {@link #publish(RegisteredDocument, int)} does one after the other, copying the table once.
+     */
+    RegistrySnapshot publish(Collection<RegisteredDocument> documents, int retention) {
+        if (documents.isEmpty()) {
+            return this;
+        }
+        Map<String, RegisteredDocument[]> copy = new HashMap<>(this.documents);
+        for (RegisteredDocument document : documents) {
+            copy.put(document.id(), versions(copy.get(document.id()), document, retention));
+        }
+        return new RegistrySnapshot(generation + 1, copy);
+    }
+
+    /**
+     * @param version the version to remove, or {@code null} to remove all versions.
+     * @return the snapshot without the version, or this snapshot if there is no such version.
+     */
+    RegistrySnapshot remove(String id, String version) {
+        RegisteredDocument[] versions = documents.get(id);
+        if (versions == null) {
+            return this;
+        }
+        if (version == null) {
+            return with(id, null);
+        }
+        RegisteredDocument[] kept = Arrays.stream(versions)
+            .filter(document -> !document.version().equals(version))
+            .toArray(RegisteredDocument[]::new);
+        if (kept.length == versions.length) {
+            return this;
+        }
+        return with(id, kept.length == 0 ? null : kept);
+    }
+
+    private static RegisteredDocument[] versions(RegisteredDocument[] versions, RegisteredDocument document,
+                                                 int retention) {
+        if (versions == null) {
+            versions = new RegisteredDocument[0];
+        }
+        RegisteredDocument[] kept = new RegisteredDocument[versions.length + 1];
+        int size = 0;
+        for (RegisteredDocument version : versions) {
+            if (!version.version().equals(document.version())) {
+                kept[size++] = version;
+            }
+        }
+        kept[size++] = document;
+        int from = Math.max(0, size - retention);
+        return Arrays.copyOfRange(kept, from, size);
+    }
+
+    private RegistrySnapshot with(String id, RegisteredDocument[] versions) {
+        Map<String, RegisteredDocument[]> copy = new HashMap<>(documents);
+        if (versions == null) {
+            copy.remove(id);
+        } else {
+            copy.put(id, versions);
+        }
+        return new RegistrySnapshot(generation + 1, copy);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.reload;
+
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.registry.DocumentRegistry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Keeps the documents of a {@link DocumentRegistry} in step with their files, such as in a development server or a
+ * gateway that picks up specification changes without a restart.
+ * <p>
+ * The files of the documents, and the files they reference, are watched with a {@link java.nio.file.WatchService}.
+ * Changes are collected until the files are quiet for the debounce period, so that an editor saving a file in
+ * several steps causes one reload. A reload reads only the changed files: other referenced files are kept parsed,
+ * and documents that did not change themselves are re-resolved against the changed files they depend on. The
+ * affected documents are resolved in parallel, updated incrementally with
+ * {@link dev.alubenets.asyncapi.registry.RegisteredDocument#update} and published in one change of the registry.
+ * <pre>{@code
+ * WatchedDocuments documents = HotReloader.create().open(registry);
+ * documents.add(paths);
+ * documents.start(result -> {
+ *     result.errors().forEach((path, error) -> log.warn("Cannot reload " + path, error));
+ * });
+ * }</pre>
+ * Instances are immutable and thread-safe.
+ */
+public final class HotReloader {
+
+    private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(100);
+
+    private final AsyncApiReader reader;
+    private final ForkJoinPool pool;
+    private final Duration debounce;
+
+    private HotReloader(AsyncApiReader reader, ForkJoinPool pool, Duration debounce) {
+        this.reader = reader;
+        this.pool = pool;
+        this.debounce = debounce;
+    }
+
+    /**
+     * @return a reloader with default settings on the common pool, waiting 100 milliseconds for files to be quiet.
+     */
+    public static HotReloader create() {
+        return new HotReloader(AsyncApiReader.create(), ForkJoinPool.commonPool(), DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * @param reader the reader for the documents and the files they reference.
+     * @return a reloader using the reader.
+     */
+    public HotReloader withReader(AsyncApiReader reader) {
+        return new HotReloader(Objects.requireNonNull(reader, "reader"), pool, debounce);
+    }
+
+    /**
+     * @param pool the pool to resolve the affected documents of a reload on.
+     * @return a reloader using the pool.
+     */
+    public HotReloader withPool(ForkJoinPool pool) {
+        return new HotReloader(reader, Objects.requireNonNull(pool, "pool"), debounce);
+    }
+
+    /**
+     * @param debounce how long the files must be quiet before changes are reloaded.
+     * @return a reloader with the setting.
+     * @throws IllegalArgumentException if the period is negative.
+     */
+    public HotReloader withDebounce(Duration debounce) {
+        Objects.requireNonNull(debounce, "debounce");
+        if (debounce.isNegative()) {
+            throw new IllegalArgumentException("The debounce period must not be negative: " + debounce);
+        }
+        return new HotReloader(reader, pool, debounce);
+    }
+
+    /**
+     * @param registry the registry to publish the documents in.
+     * @return an empty set of documents to add files to.
+     */
+    public WatchedDocuments open(DocumentRegistry registry) {
+        return new WatchedDocuments(reader, pool, debounce, Objects.requireNonNull(registry, "registry"));
+    }
+}
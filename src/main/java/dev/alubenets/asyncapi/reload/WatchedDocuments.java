@@ -0,0 +1,389 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.reload;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.registry.DocumentRegistry;
+import dev.alubenets.asyncapi.registry.RegisteredDocument;
+import dev.alubenets.asyncapi.resolver.DocumentSource;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Document files published in a {@link DocumentRegistry} and reloaded when they or the files they reference change.
+ * Created by {@link HotReloader#open(DocumentRegistry)}.
+ * <p>
+ * Every document is published under its own id and version; a document whose version changed is published as a new
+ * version, one whose id changed replaces the version published under the old id. A document that cannot be read or
+ * resolved keeps its last good version published and is retried when it or one of the files it referenced last
+ * changes. Reloads, whether triggered by the watcher or by {@link #reload(Collection)}, run one at a time. Instances
+ * are thread-safe.
+ */
+public final class WatchedDocuments implements Closeable {
+
+    private static final WatchEvent.Kind<?>[] EVENTS = {
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY,
+        StandardWatchEventKinds.ENTRY_DELETE
+    };
+
+    private final AsyncApiReader reader;
+    private final ForkJoinPool pool;
+    private final Duration debounce;
+    private final DocumentRegistry registry;
+    /**
+     * The referenced files parsed so far, dropped when they change.
+     */
+    private final ConcurrentMap<Path, Object> trees = new ConcurrentHashMap<>();
+    private final Map<Path, Watched> documents = new LinkedHashMap<>();
+    /**
+     * The documents depending on every referenced file.
+     */
+    private final Map<Path, Set<Path>> dependents = new HashMap<>();
+    private final Set<Path> directories = new HashSet<>();
+    private WatchService service;
+    private boolean closed;
+
+    WatchedDocuments(AsyncApiReader reader, ForkJoinPool pool, Duration debounce, DocumentRegistry registry) {
+        this.reader = reader;
+        this.pool = pool;
+        this.debounce = debounce;
+        this.registry = registry;
+    }
+
+    /**
+     * Loads and publishes documents, and watches them and the files they reference once watching has started.
+     * Documents that are watched already are reloaded.
+     *
+     * @param paths the document files.
+     * @return the outcome of loading the documents.
+     * @throws IOException if watching has started and the directory of a file cannot be watched.
+     */
+    public synchronized ReloadResult add(Collection<Path> paths) throws IOException {
+        ensureOpen();
+        long start = System.nanoTime();
+        Set<Path> files = new LinkedHashSet<>();
+        for (Path path : paths) {
+            Path file = normalize(path);
+            files.add(file);
+            documents.putIfAbsent(file, Watched.NONE);
+        }
+        return apply(files, files, files, start);
+    }
+
+    /**
+     * Reloads after files changed, which the watcher does by itself after {@link #start(Consumer)}.
+     *
+     * @param files the changed files; files that are neither documents nor referenced by one are ignored.
+     * @return the outcome of the reload.
+     * @throws IOException if watching has started and the directory of a newly referenced file cannot be watched.
+     */
+    public synchronized ReloadResult reload(Collection<Path> files) throws IOException {
+        ensureOpen();
+        long start = System.nanoTime();
+        Set<Path> changed = new LinkedHashSet<>();
+        Set<Path> reread = new HashSet<>();
+        Set<Path> affected = new LinkedHashSet<>();
+        for (Path path : files) {
+            Path file = normalize(path);
+            if (documents.containsKey(file)) {
+                changed.add(file);
+                reread.add(file);
+                affected.add(file);
+            }
+            Set<Path> roots = dependents.get(file);
+            if (roots != null) {
+                changed.add(file);
+                trees.remove(file);
+                affected.addAll(roots);
+            }
+        }
+        return apply(changed, affected, reread, start);
+    }
+
+    /**
+     * Starts watching the directories of the documents and of the files they reference on a daemon thread.
+     *
+     * @param listener receives the outcome of every reload triggered by the watcher, on the watcher thread. Exceptions
+     *                 it throws go to the uncaught exception handler of the thread, and watching goes on.
+     * @throws IOException           if a directory cannot be watched.
+     * @throws IllegalStateException if watching has started already or the documents are closed.
+     */
+    public synchronized void start(Consumer<ReloadResult> listener) throws IOException {
+        Objects.requireNonNull(listener, "listener");
+        ensureOpen();
+        if (service != null) {
+            throw new IllegalStateException("Watching has started already");
+        }
+        service = documents.keySet().stream().findFirst()
+            .map(Path::getFileSystem)
+            .orElse(Path.of("").getFileSystem())
+            .newWatchService();
+        register(documents.keySet());
+        register(dependents.keySet());
+        WatchService watching = service;
+        Thread thread = new Thread(() -> watch(watching, listener), "asyncapi-reload");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return the watched document files.
+     */
+    public synchronized Set<Path> files() {
+        return Set.copyOf(documents.keySet());
+    }
+
+    /**
+     * @return the files the watched documents reference, as of their last reload.
+     */
+    public synchronized Set<Path> dependencies() {
+        return Set.copyOf(dependents.keySet());
+    }
+
+    /**
+     * Stops watching. The published documents stay in the registry.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    private ReloadResult apply(Set<Path> changed, Set<Path> affected, Set<Path> reread, long start)
+        throws IOException {
+        DocumentSource source = DocumentSource.caching(this::tree);
+        List<ForkJoinTask<Object>> tasks = new ArrayList<>(affected.size());
+        for (Path path : affected) {
+            Watched previous = documents.get(path);
+            boolean read = reread.contains(path) || previous.document() == null;
+            tasks.add(pool.submit(() -> load(path, previous, read, source)));
+        }
+        List<RegisteredDocument> published = new ArrayList<>();
+        List<RegisteredDocument> replaced = new ArrayList<>();
+        Map<Path, Exception> errors = new LinkedHashMap<>();
+        Set<Path> referenced = new HashSet<>();
+        int i = 0;
+        for (Path path : affected) {
+            Object outcome = tasks.get(i++).join();
+            if (outcome instanceof Exception error) {
+                errors.put(path, error);
+                continue;
+            }
+            Watched loaded = (Watched) outcome;
+            Watched previous = documents.put(path, loaded);
+            RegisteredDocument before = previous.document();
+            if (before != null && !before.id().equals(loaded.document().id())) {
+                replaced.add(before);
+            }
+            for (Path dependency : previous.dependencies()) {
+                Set<Path> roots = dependents.get(dependency);
+                roots.remove(path);
+                if (roots.isEmpty()) {
+                    dependents.remove(dependency);
+                    trees.remove(dependency);
+                }
+            }
+            for (Path dependency : loaded.dependencies()) {
+                dependents.computeIfAbsent(dependency, key -> new HashSet<>()).add(path);
+            }
+            referenced.addAll(loaded.dependencies());
+            published.add(loaded.document());
+        }
+        registry.publishAll(published);
+        for (RegisteredDocument document : replaced) {
+            registry.remove(document.id(), document.version());
+        }
+        if (service != null) {
+            register(affected);
+            register(referenced);
+        }
+        return new ReloadResult(List.copyOf(changed), Collections.unmodifiableList(published),
+            Collections.unmodifiableMap(errors), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * @return the loaded document, or the exception it failed with.
+     */
+    private Object load(Path path, Watched previous, boolean read, DocumentSource source) {
+        try {
+            AsyncAPI document;
+            if (read) {
+                try (InputStream in = Files.newInputStream(path)) {
+                    document = reader.read(in);
+                }
+            } else {
+                document = previous.document().document();
+            }
+            ReferenceResolver resolver = ReferenceResolver.of(document, path.toUri(), source, reader);
+            resolver.resolveAll();
+            RegisteredDocument registered = previous.document() == null
+                ? RegisteredDocument.of(document, resolver)
+                : previous.document().update(document, resolver);
+            Set<Path> dependencies = new HashSet<>();
+            for (URI uri : resolver.externalDocuments()) {
+                if ("file".equalsIgnoreCase(uri.getScheme())) {
+                    dependencies.add(Path.of(uri).normalize());
+                }
+            }
+            return new Watched(registered, Set.copyOf(dependencies));
+        } catch (IOException | RuntimeException e) {
+            return e;
+        }
+    }
+
+    private Object tree(URI uri) throws IOException {
+        if (!"file".equalsIgnoreCase(uri.getScheme())) {
+            throw new IOException("Unsupported document location " + uri);
+        }
+        Path path = Path.of(uri).normalize();
+        Object tree = trees.get(path);
+        if (tree == null) {
+            try (InputStream in = Files.newInputStream(path)) {
+                tree = reader.readTree(in);
+            }
+            Object previous = trees.putIfAbsent(path, tree);
+            if (previous != null) {
+                tree = previous;
+            }
+        }
+        return tree;
+    }
+
+    private void watch(WatchService service, Consumer<ReloadResult> listener) {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(service.take(), changed);
+                WatchKey key = service.poll(debounce.toNanos(), TimeUnit.NANOSECONDS);
+                while (key != null) {
+                    collect(key, changed);
+                    key = service.poll(debounce.toNanos(), TimeUnit.NANOSECONDS);
+                }
+                ReloadResult result = reload(changed);
+                if (result.files().isEmpty()) {
+                    continue;
+                }
+                try {
+                    listener.accept(result);
+                } catch (RuntimeException e) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        } catch (InterruptedException | IllegalStateException e) {
+            // Closed, which ends watching with a ClosedWatchServiceException or fails the reload in progress.
+        } catch (IOException e) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.addAll(filesIn(directory));
+            } else {
+                changed.add(directory.resolve((Path) event.context()));
+            }
+        }
+        key.reset();
+    }
+
+    private synchronized Set<Path> filesIn(Path directory) {
+        Set<Path> files = new HashSet<>();
+        for (Path file : documents.keySet()) {
+            if (directory.equals(file.getParent())) {
+                files.add(file);
+            }
+        }
+        for (Path file : dependents.keySet()) {
+            if (directory.equals(file.getParent())) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private void register(Set<Path> files) throws IOException {
+        for (Path file : files) {
+            Path directory = file.getParent();
+            if (directory != null && Files.isDirectory(directory) && directories.add(directory)) {
+                directory.register(service, EVENTS);
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The documents are closed");
+        }
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * @param document     the last good version of the document, or {@code null} if it has never been loaded.
+     * @param dependencies the files the document referenced when it was loaded.
+     */
+    private record Watched(RegisteredDocument document, Set<Path> dependencies) {
+
+        static final Watched NONE = new Watched(null, Set.of());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.resolver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * See {@link DocumentSource#caching(DocumentSource)}.
+ */
+final class CachingDocumentSource implements DocumentSource {
+
+    private final DocumentSource source;
+    private final ConcurrentMap<URI, CompletableFuture<Object>> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Model objects bound from the loaded documents, shared by all resolvers using this source.
+     */
+    final ConcurrentMap<String, Object> bound = new ConcurrentHashMap<>();
+
+    CachingDocumentSource(DocumentSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public Object load(URI uri) throws IOException {
+        CompletableFuture<Object> document = documents.get(uri);
+        if (document == null) {
+            CompletableFuture<Object> loading = new CompletableFuture<>();
+            document = documents.putIfAbsent(uri, loading);
+            if (document == null) {
+                document = loading;
+                // Loaded outside of the map, so loads of other documents are not blocked meanwhile.
+                try {
+                    loading.complete(unmodifiable(source.load(uri)));
+                } catch (IOException | RuntimeException | Error e) {
+                    loading.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return document.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw new IOException(cause.getMessage(), cause);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        }
+    }
+
+    private static Object unmodifiable(Object node) {
+        if (node instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(entry.getKey(), unmodifiable(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(copy);
+        }
+        if (node instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(unmodifiable(item));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.resolver;
+
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Loads documents referenced from other documents, such as shared component files.
+ */
+@FunctionalInterface
+public interface DocumentSource {
+
+    /**
+     * @param uri absolute location of the document, without a fragment.
+     * @return the document as a generic tree of {@link java.util.Map}s, {@link java.util.List}s and scalars.
+     * @throws IOException if the document cannot be read or parsed.
+     */
+    Object load(URI uri) throws IOException;
+
+    /**
+     * @return a source that reads {@code file:} URIs from the local file system.
+     */
+    static DocumentSource files() {
+        return files(AsyncApiReader.create());
+    }
+
+    /**
+     * @param reader the reader to parse the files with, for example one with interning.
+     * @return a source that reads {@code file:} URIs from the local file system.
+     */
+    static DocumentSource files(AsyncApiReader reader) {
+        Objects.requireNonNull(reader, "reader");
+        return uri -> {
+            if (!"file".equalsIgnoreCase(uri.getScheme())) {
+                throw new IOException("Unsupported document location " + uri);
+            }
+            try (InputStream in = Files.newInputStream(Path.of(uri))) {
+                return reader.readTree(in);
+            }
+        };
+    }
+
+    /**
+     * Wraps a source so that every document is loaded once, however many documents and threads refer to it. All
+     * callers share one unmodifiable tree; concurrent callers wait for the first load instead of repeating it, and a
+     * failed load fails the same way for every caller. {@link ReferenceResolver}s using the same caching source also
+     * share the model objects bound from these documents.
+     *
+     * @param source the source to load documents with.
+     * @return the caching source, safe to share between resolvers and threads.
+     */
+    static DocumentSource caching(DocumentSource source) {
+        return new CachingDocumentSource(source);
+    }
+}
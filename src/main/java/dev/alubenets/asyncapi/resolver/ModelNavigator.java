@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.resolver;
+
+import dev.alubenets.asyncapi.codecs.ModelCodec;
+import dev.alubenets.asyncapi.models.Operation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Steps through the models by specification property names, so a JSON pointer can be evaluated against a bound
+ * document exactly like against its source text. Records are looked up through their {@link ModelCodec}, by the
+ * names their components are written with.
+ */
+final class ModelNavigator {
+
+    private static final ClassValue<Properties> PROPERTIES = new ClassValue<>() {
+        @Override
+        protected Properties computeValue(Class<?> type) {
+            ModelCodec<Record> codec = ModelCodec.of(type.asSubclass(Record.class));
+            Map<String, Integer> indexes = new HashMap<>(codec.size() * 4 / 3 + 1);
+            for (int i = 0; i < codec.size(); i++) {
+                indexes.put(codec.name(i), i);
+            }
+            return new Properties(codec, indexes);
+        }
+    };
+
+    private ModelNavigator() {
+    }
+
+    /**
+     * @param node  a model object, map or list.
+     * @param token a reference token of a JSON pointer.
+     * @return the child, or {@code null} if there is none.
+     */
+    static Object child(Object node, String token) {
+        if (node instanceof Map<?, ?> map) {
+            return map.get(token);
+        }
+        if (node instanceof List<?> list) {
+            return element(list, token);
+        }
+        if (node instanceof Record record) {
+            Properties properties = PROPERTIES.get(record.getClass());
+            Integer index = properties.indexes.get(token);
+            if (index == null) {
+                return null;
+            }
+            Object value = properties.codec.get(record, index);
+            return value instanceof Operation.Action action ? action.value() : value;
+        }
+        return null;
+    }
+
+    private static Object element(List<?> list, String token) {
+        try {
+            int index = Integer.parseInt(token);
+            return index >= 0 && index < list.size() ? list.get(index) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The codec of a record type and the indexes of its components by the names they are written with.
+     */
+    private record Properties(ModelCodec<Record> codec, Map<String, Integer> indexes) {
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.resolver;
+
+import dev.alubenets.asyncapi.parser.JsonToken;
+import dev.alubenets.asyncapi.parser.TokenReader;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Rewrites every {@code $ref} of the underlying stream into an absolute reference, so objects bound from an external
+ * document keep pointing at the right targets once they are detached from that document.
+ */
+final class RebasingTokenReader implements TokenReader {
+
+    private final TokenReader delegate;
+    private final URI document;
+    private boolean refValue;
+    private String text;
+
+    RebasingTokenReader(TokenReader delegate, URI document) {
+        this.delegate = delegate;
+        this.document = document;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        JsonToken token = delegate.nextToken();
+        text = delegate.text();
+        if (refValue && token == JsonToken.STRING) {
+            text = rebase(document, text);
+        }
+        refValue = token == JsonToken.FIELD_NAME && "$ref".equals(text);
+        return token;
+    }
+
+    @Override
+    public JsonToken currentToken() {
+        return delegate.currentToken();
+    }
+
+    @Override
+    public String text() {
+        return text;
+    }
+
+    @Override
+    public void skipChildren() throws IOException {
+        delegate.skipChildren();
+        refValue = false;
+        text = delegate.text();
+    }
+
+    @Override
+    public int line() {
+        return delegate.line();
+    }
+
+    @Override
+    public int column() {
+        return delegate.column();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    /**
+     * @param document the document the reference appears in.
+     * @param ref      a relative or absolute reference.
+     * @return the reference made absolute, the fragment is kept verbatim.
+     */
+    static String rebase(URI document, String ref) {
+        int hash = ref.indexOf('#');
+        String location = hash < 0 ? ref : ref.substring(0, hash);
+        String fragment = hash < 0 ? "" : ref.substring(hash);
+        URI target = location.isEmpty() ? document : document.resolve(location).normalize();
+        return target + fragment;
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.resolver;
+
+import dev.alubenets.asyncapi.codecs.ModelCodec;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.ProtocolBindings;
+import dev.alubenets.asyncapi.models.Reference;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.parser.TreeTokenReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves {@link Reference}s of a single AsyncAPI document on first access.
+ * <p>
+ * Local pointers such as {@code #/components/messages/lightMeasured} are evaluated against the bound document, so
+ * every reference to the same target yields the very instance held by the document. Pointers into other files, such
+ * as {@code common.yaml#/components/messages/lightMeasured}, are resolved against the document's base URI; each file
+ * is loaded once and each target in it is bound once. References inside such targets, including generic values like
+ * schemas, are made absolute, so they keep resolving against the file they were written in. Results are memoized per
+ * reference, repeated lookups cost a single hash lookup.
+ * <p>
+ * Chains of references are followed until a non-reference target is reached. A chain that returns to a reference it
+ * has already passed is reported as a {@link ReferenceResolutionException}.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class ReferenceResolver {
+
+    private final AsyncAPI document;
+    private final URI base;
+    private final DocumentSource source;
+    private final AsyncApiReader reader;
+
+    private final ConcurrentMap<String, Object> resolved = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Object> bound = new ConcurrentHashMap<>();
+    private final ConcurrentMap<URI, Object> external = new ConcurrentHashMap<>();
+
+    private ReferenceResolver(AsyncAPI document, URI base, DocumentSource source, AsyncApiReader reader) {
+        this.document = document;
+        this.base = base == null ? null : canonical(base);
+        this.source = source;
+        this.reader = reader;
+    }
+
+    /**
+     * @param document the document to resolve local references in.
+     * @return a resolver that only supports local references and absolute references to files.
+     */
+    public static ReferenceResolver of(AsyncAPI document) {
+        return of(document, null);
+    }
+
+    /**
+     * @param document the document to resolve references in.
+     * @param base     the location of the document, relative file references are resolved against it.
+     * @return a resolver reading referenced files from the file system.
+     */
+    public static ReferenceResolver of(AsyncAPI document, URI base) {
+        return of(document, base, DocumentSource.files());
+    }
+
+    /**
+     * @param document the document to resolve references in.
+     * @param base     the location of the document, relative file references are resolved against it.
+     * @param source   loads referenced documents.
+     * @return a resolver.
+     */
+    public static ReferenceResolver of(AsyncAPI document, URI base, DocumentSource source) {
+        return of(document, base, source, AsyncApiReader.create());
+    }
+
+    /**
+     * @param document the document to resolve references in.
+     * @param base     the location of the document, relative file references are resolved against it.
+     * @param source   loads referenced documents.
+     * @param reader   binds targets that are not model objects yet, such as those in referenced documents, to the
+     *                 model, for example with interning or frozen maps.
+     * @return a resolver.
+     */
+    public static ReferenceResolver of(AsyncAPI document, URI base, DocumentSource source, AsyncApiReader reader) {
+        return new ReferenceResolver(document, base, source, Objects.requireNonNull(reader, "reader"));
+    }
+
+    /**
+     * @param document another version or a copy of the document.
+     * @return a resolver of the document at the same location, loading referenced documents the same way. Nothing
+     * resolved by this resolver is kept.
+     */
+    public ReferenceResolver withDocument(AsyncAPI document) {
+        return new ReferenceResolver(Objects.requireNonNull(document, "document"), base, source, reader);
+    }
+
+    /**
+     * @return the document references are resolved in.
+     */
+    public AsyncAPI document() {
+        return document;
+    }
+
+    /**
+     * @return the location of the document, or {@code null} if unknown.
+     */
+    public URI base() {
+        return base;
+    }
+
+    /**
+     * @return the locations of the other documents loaded so far to resolve references. After {@link #resolveAll()}
+     * these are all the documents the document depends on.
+     */
+    public Set<URI> externalDocuments() {
+        return Set.copyOf(external.keySet());
+    }
+
+    /**
+     * Resolves a reference to its target.
+     *
+     * @param reference a model object, possibly a reference.
+     * @param <T>       the model type.
+     * @return the target of the reference, or the object itself if it is not a reference.
+     * @throws ReferenceResolutionException if the reference cannot be resolved.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Reference> T resolve(T reference) {
+        if (reference == null || !reference.isRef()) {
+            return reference;
+        }
+        Class<?> type = reference instanceof Record || reference instanceof ProtocolBindings
+            ? reference.getClass()
+            : Object.class;
+        return (T) resolve(reference.$ref(), type);
+    }
+
+    /**
+     * Resolves a reference string to a target of the given type.
+     *
+     * @param ref  a local pointer such as {@code #/components/messages/userSignedUp} or a file reference.
+     * @param type the expected model type, targets kept in generic form are bound into it.
+     * @param <T>  the model type.
+     * @return the target.
+     * @throws ReferenceResolutionException if the reference cannot be resolved.
+     */
+    public <T> T resolve(String ref, Class<T> type) {
+        Object cached = resolved.get(ref);
+        if (type.isInstance(cached)) {
+            return type.cast(cached);
+        }
+        T target = bind(locate(ref, base, new ArrayList<>()), type);
+        Object previous = resolved.putIfAbsent(ref, target);
+        return type.isInstance(previous) ? type.cast(previous) : target;
+    }
+
+    /**
+     * Resolves a generic value such as a schema, which is a reference if it is a map with a {@code $ref} entry.
+     *
+     * @param value a generic value.
+     * @return the target of the reference, or the value itself if it is not a reference.
+     * @throws ReferenceResolutionException if the reference cannot be resolved.
+     */
+    public Object resolveValue(Object value) {
+        String ref = refOf(value);
+        return ref == null ? value : resolve(ref, Object.class);
+    }
+
+    /**
+     * Resolves every reference reachable from the document, including references inside reference targets and inside
+     * generic values such as schemas. Missing targets and unreadable files are reported at once instead of on first
+     * access, and later lookups are served from the memoized results.
+     *
+     * @return the number of references that were resolved.
+     * @throws ReferenceResolutionException for the first reference that cannot be resolved.
+     */
+    public int resolveAll() {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(document);
+        int references = 0;
+        while (!pending.isEmpty()) {
+            Object node = pending.pop();
+            if (!visited.add(node)) {
+                continue;
+            }
+            if (node instanceof Reference reference && reference.isRef()) {
+                references++;
+                push(pending, resolve(reference));
+            } else if (node instanceof Record record) {
+                ModelCodec<Record> codec = ModelCodec.of(record.getClass());
+                for (int i = 0; i < codec.size(); i++) {
+                    push(pending, codec.get(record, i));
+                }
+            } else if (refOf(node) != null) {
+                references++;
+                push(pending, resolveValue(node));
+            } else if (node instanceof Map<?, ?> map) {
+                for (Object value : map.values()) {
+                    push(pending, value);
+                }
+            } else if (node instanceof List<?> list) {
+                for (Object value : list) {
+                    push(pending, value);
+                }
+            }
+        }
+        return references;
+    }
+
+    private static void push(Deque<Object> pending, Object value) {
+        if (value instanceof Record || value instanceof Map<?, ?> || value instanceof List<?>) {
+            pending.push(value);
+        }
+    }
+
+    private Target locate(String ref, URI context, List<String> chain) {
+        int hash = ref.indexOf('#');
+        String location = hash < 0 ? ref : ref.substring(0, hash);
+        String pointer = hash < 0 ? "" : ref.substring(hash + 1);
+        URI target = location.isEmpty() ? context : absolute(context, location, ref);
+        String key = (target == null ? "" : target.toString()) + '#' + pointer;
+        if (chain.contains(key)) {
+            chain.add(key);
+            throw new ReferenceResolutionException("Circular reference: " + String.join(" -> ", chain));
+        }
+        chain.add(key);
+        Object node = isRoot(target) ? document : load(target);
+        URI nodeDocument = target;
+        String nodePointer = "";
+        for (String token : JsonPointer.parse(pointer)) {
+            Target current = follow(new Target(node, nodeDocument, nodePointer), chain);
+            node = ModelNavigator.child(current.node, token);
+            nodeDocument = current.document;
+            nodePointer = current.pointer + '/' + token.replace("~", "~0").replace("/", "~1");
+            if (node == null) {
+                throw new ReferenceResolutionException("Unresolvable reference '" + ref + "'");
+            }
+        }
+        Target result = follow(new Target(node, nodeDocument, nodePointer), chain);
+        chain.remove(chain.size() - 1);
+        return result;
+    }
+
+    /**
+     * Follows a target that is itself a reference until a non-reference target is reached.
+     */
+    private Target follow(Target target, List<String> chain) {
+        String ref = target.node instanceof Reference reference && reference.isRef()
+            ? reference.$ref()
+            : refOf(target.node);
+        return ref == null ? target : locate(ref, isRoot(target.document) ? base : target.document, chain);
+    }
+
+    private <T> T bind(Target target, Class<T> type) {
+        boolean generic = target.node instanceof Map<?, ?> || target.node instanceof List<?>;
+        // Generic values of other documents are copied with their references made absolute, the references inside
+        // them are relative to their own document and would otherwise be resolved against this one.
+        if (type.isInstance(target.node) && (!generic || isRoot(target.document))) {
+            return type.cast(target.node);
+        }
+        if (!generic) {
+            throw new ReferenceResolutionException("Reference target " + target + " is not a " + type.getSimpleName());
+        }
+        String key = target + "@" + type.getName();
+        // Targets in other documents do not depend on the referring document, a caching source shares them.
+        ConcurrentMap<String, Object> bound = !isRoot(target.document)
+            && source instanceof CachingDocumentSource caching
+            ? caching.bound
+            : this.bound;
+        Object cached = bound.get(key);
+        if (type.isInstance(cached)) {
+            return type.cast(cached);
+        }
+        T value;
+        try {
+            TreeTokenReader tokens = new TreeTokenReader(target.node);
+            Class<?> as = type.isInstance(target.node) ? Object.class : type;
+            value = type.cast(reader.read(target.document == null ? tokens : new RebasingTokenReader(tokens,
+                target.document), as));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ReferenceResolutionException("Reference target " + target + " is not a "
+                + type.getSimpleName(), e);
+        }
+        Object previous = bound.putIfAbsent(key, value);
+        return type.isInstance(previous) ? type.cast(previous) : value;
+    }
+
+    private boolean isRoot(URI location) {
+        return location == null || location.equals(base);
+    }
+
+    private Object load(URI location) {
+        Object tree = external.get(location);
+        if (tree != null) {
+            return tree;
+        }
+        try {
+            tree = source.load(location);
+        } catch (IOException e) {
+            throw new ReferenceResolutionException("Cannot load referenced document " + location, e);
+        }
+        if (tree == null) {
+            throw new ReferenceResolutionException("Referenced document " + location + " is empty");
+        }
+        Object previous = external.putIfAbsent(location, tree);
+        return previous != null ? previous : tree;
+    }
+
+    private static URI absolute(URI context, String location, String ref) {
+        try {
+            URI uri = context == null ? new URI(location) : context.resolve(location);
+            if (!uri.isAbsolute()) {
+                throw new ReferenceResolutionException("Cannot resolve '" + ref + "' without the document location");
+            }
+            return canonical(uri);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new ReferenceResolutionException("Malformed reference '" + ref + "'", e);
+        }
+    }
+
+    /**
+     * Drops the empty authority of URIs such as {@code file:///a.yaml}, which {@link URI#resolve(String)} drops as
+     * well, so both spellings of one document are equal.
+     */
+    private static URI canonical(URI uri) {
+        URI normalized = uri.normalize();
+        if (normalized.getRawAuthority() != null || normalized.getRawPath() == null || normalized.isOpaque()) {
+            return normalized;
+        }
+        return URI.create(normalized.getScheme() + ':' + normalized.getRawPath()
+            + (normalized.getRawQuery() == null ? "" : '?' + normalized.getRawQuery()));
+    }
+
+    private static String refOf(Object value) {
+        if (value instanceof Map<?, ?> map && map.get("$ref") instanceof String ref && !ref.isBlank()) {
+            return ref;
+        }
+        return null;
+    }
+
+    private record Target(Object node, URI document, String pointer) {
+
+        @Override
+        public String toString() {
+            return (document == null ? "" : document.toString()) + '#' + pointer;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.routing;
+
+import dev.alubenets.asyncapi.models.Channel;
+
+/**
+ * Reusable result of {@link ChannelRouter#match(String, ChannelMatch)}: the matched channel and the parameter values,
+ * kept as offsets into the matched address until they are asked for as strings.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class ChannelMatch {
+
+    final int[] starts;
+    final int[] ends;
+    String address;
+    ChannelRouter.Route route;
+
+    ChannelMatch(int parameters) {
+        starts = new int[parameters];
+        ends = new int[parameters];
+    }
+
+    /**
+     * @return the key of the matched channel in the channels map, or {@code null} if nothing matched.
+     */
+    public String channelName() {
+        return route == null ? null : route.name;
+    }
+
+    /**
+     * @return the matched channel, or {@code null} if nothing matched.
+     */
+    public Channel channel() {
+        return route == null ? null : route.channel;
+    }
+
+    /**
+     * @return the number of parameters in the address of the matched channel.
+     */
+    public int parameterCount() {
+        return route == null ? 0 : route.names.length;
+    }
+
+    /**
+     * @param index the position of the parameter in the address, starting with 0.
+     * @return the parameter name.
+     */
+    public String parameterName(int index) {
+        return route().names[check(index)];
+    }
+
+    /**
+     * @param index the position of the parameter in the address, starting with 0.
+     * @return the offset of the first character of the value in the address.
+     */
+    public int parameterStart(int index) {
+        return starts[check(index)];
+    }
+
+    /**
+     * @param index the position of the parameter in the address, starting with 0.
+     * @return the offset after the last character of the value in the address.
+     */
+    public int parameterEnd(int index) {
+        return ends[check(index)];
+    }
+
+    /**
+     * @param index the position of the parameter in the address, starting with 0.
+     * @return the parameter value, allocated on each call.
+     */
+    public String parameterValue(int index) {
+        check(index);
+        return address.substring(starts[index], ends[index]);
+    }
+
+    /**
+     * @param name a parameter name.
+     * @return the parameter value, or {@code null} if the matched channel has no such parameter.
+     */
+    public String parameter(String name) {
+        String[] names = route().names;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return parameterValue(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compares a parameter value without extracting it.
+     *
+     * @param index the position of the parameter in the address, starting with 0.
+     * @param value the expected value.
+     * @return {@code true} if the parameter has the given value.
+     */
+    public boolean parameterEquals(int index, String value) {
+        check(index);
+        int length = ends[index] - starts[index];
+        return value.length() == length && address.regionMatches(starts[index], value, 0, length);
+    }
+
+    void clear() {
+        address = null;
+        route = null;
+    }
+
+    private ChannelRouter.Route route() {
+        if (route == null) {
+            throw new IllegalStateException("Nothing matched");
+        }
+        return route;
+    }
+
+    private int check(int index) {
+        if (index < 0 || index >= route().names.length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        if (route == null) {
+            return "ChannelMatch[none]";
+        }
+        StringBuilder result = new StringBuilder("ChannelMatch[").append(route.name);
+        for (int i = 0; i < route.names.length; i++) {
+            result.append(i == 0 ? ", " : " ").append(route.names[i]).append('=').append(parameterValue(i));
+        }
+        return result.append(']').toString();
+    }
+}
@@ -0,0 +1,625 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.routing;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Channels;
+import dev.alubenets.asyncapi.models.Parameter;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Matches concrete addresses, such as topic names or routing keys, against the templated addresses of
+ * {@link Channels}, e.g. {@code user/42/signedup} against {@code user/{userId}/signedup}.
+ * <p>
+ * The addresses are compiled into a radix trie of literal runs and parameter placeholders, so matching walks the
+ * address once, without regular expressions and without allocating. Extracted parameter values are recorded as offsets
+ * into the address in a reusable {@link ChannelMatch}, and are checked against the {@link Parameter#_enum()} of the
+ * channel.
+ * <p>
+ * A parameter value is a non-empty run of characters up to the character that follows the placeholder in the
+ * template, or up to the end of the address for a trailing placeholder; it never contains a {@code /}. Literal
+ * characters take precedence over placeholders, so {@code user/admin/signedup} wins over
+ * {@code user/{userId}/signedup}. Channels without an address are not routable and are skipped.
+ * <p>
+ * Instances are immutable and thread-safe, {@link ChannelMatch} holders are not and are meant to be reused per
+ * thread.
+ */
+public final class ChannelRouter {
+
+    private static final int END = -1;
+
+    private final Node root;
+    private final int maxParameters;
+    /**
+     * The routes by channel key, to find the path of a channel that is updated.
+     */
+    private final Map<String, Route> routes;
+
+    private ChannelRouter(Node root, int maxParameters, Map<String, Route> routes) {
+        this.root = root;
+        this.maxParameters = maxParameters;
+        this.routes = routes;
+    }
+
+    /**
+     * Compiles the root channels of a document, resolving referenced channels and parameters within it.
+     *
+     * @param document the document.
+     * @return the router.
+     * @throws IllegalArgumentException if an address is not a valid template.
+     */
+    public static ChannelRouter compile(AsyncAPI document) {
+        Channels channels = document.channels() == null ? new Channels() : document.channels();
+        return compile(channels, ReferenceResolver.of(document));
+    }
+
+    /**
+     * @param channels the channels to route to.
+     * @param resolver resolves referenced channels and parameters.
+     * @return the router.
+     * @throws IllegalArgumentException if an address is not a valid template.
+     */
+    public static ChannelRouter compile(Channels channels, ReferenceResolver resolver) {
+        Builder root = new Builder();
+        int maxParameters = 0;
+        Map<String, Route> routes = new HashMap<>();
+        for (Map.Entry<String, Channel> entry : new TreeMap<>(channels).entrySet()) {
+            Channel channel = resolver.resolve(entry.getValue());
+            if (channel == null || channel.address() == null) {
+                continue;
+            }
+            Route route = insert(root, entry.getKey(), channel, resolver);
+            maxParameters = Math.max(maxParameters, route.names.length);
+            routes.put(route.name, route);
+        }
+        return new ChannelRouter(root.build(), maxParameters, routes);
+    }
+
+    /**
+     * Returns a router with some channels replaced, added or removed. Only the paths of the trie leading to these
+     * channels are copied, the rest is shared with this router, so an update costs about as much as the changed
+     * channels and not the whole set. Holders of this router stay usable unless a changed channel has more
+     * parameters than any before.
+     *
+     * @param channels the channels after the change.
+     * @param changed  the keys of the channels that changed; keys missing from {@code channels}, and channels without
+     *                 an address, are removed.
+     * @param resolver resolves referenced channels and parameters.
+     * @return the updated router, or this router if nothing changed.
+     * @throws IllegalArgumentException if an address is not a valid template.
+     */
+    public ChannelRouter update(Channels channels, Set<String> changed, ReferenceResolver resolver) {
+        if (changed.isEmpty()) {
+            return this;
+        }
+        Node root = this.root;
+        int maxParameters = this.maxParameters;
+        Map<String, Route> routes = new HashMap<>(this.routes);
+        for (String name : changed) {
+            Route previous = routes.remove(name);
+            if (previous != null) {
+                Node removed = remove(root, steps(name, previous.channel.address(), new ArrayList<>()), 0, 0, name);
+                root = removed == null ? Node.EMPTY : removed;
+            }
+            Channel reference = channels == null ? null : channels.get(name);
+            Channel channel = reference == null ? null : resolver.resolve(reference);
+            if (channel == null || channel.address() == null) {
+                continue;
+            }
+            List<String> names = new ArrayList<>();
+            Object[] steps = steps(name, channel.address(), names);
+            Route route = new Route(name, channel, names.toArray(new String[0]), allowed(channel, names, resolver));
+            root = insert(root, steps, 0, 0, route);
+            maxParameters = Math.max(maxParameters, route.names.length);
+            routes.put(name, route);
+        }
+        return new ChannelRouter(root, maxParameters, routes);
+    }
+
+    /**
+     * @return a holder sized for the parameters of this router.
+     */
+    public ChannelMatch newMatch() {
+        return new ChannelMatch(maxParameters);
+    }
+
+    /**
+     * @return the number of routable channels.
+     */
+    public int size() {
+        return routes.size();
+    }
+
+    /**
+     * Matches an address without allocating.
+     *
+     * @param address a concrete address.
+     * @param match   the holder to record the matched channel and parameters in, see {@link #newMatch()}.
+     * @return {@code true} if a channel matches, {@code match} is cleared otherwise.
+     */
+    public boolean match(String address, ChannelMatch match) {
+        if (match.starts.length < maxParameters) {
+            throw new IllegalArgumentException("The match holder was not created by this router");
+        }
+        match.address = address;
+        if (match(root, address, 0, 0, match)) {
+            return true;
+        }
+        match.clear();
+        return false;
+    }
+
+    /**
+     * @param address a concrete address.
+     * @return the matching channel, or {@code null} if none matches.
+     */
+    public Channel route(String address) {
+        ChannelMatch match = newMatch();
+        return match(address, match) ? match.channel() : null;
+    }
+
+    private static boolean match(Node node, String address, int position, int slot, ChannelMatch match) {
+        int length = address.length();
+        if (position == length && node.routes != null) {
+            for (Route route : node.routes) {
+                if (route.accepts(address, match.starts, match.ends)) {
+                    match.route = route;
+                    return true;
+                }
+            }
+        }
+        if (position < length) {
+            int index = Arrays.binarySearch(node.firsts, address.charAt(position));
+            if (index >= 0) {
+                String label = node.labels[index];
+                if (address.startsWith(label, position)
+                    && match(node.literals[index], address, position + label.length(), slot, match)) {
+                    return true;
+                }
+            }
+        }
+        for (int i = 0; i < node.terminators.length; i++) {
+            int end = valueEnd(address, position, node.terminators[i]);
+            if (end <= position) {
+                continue;
+            }
+            match.starts[slot] = position;
+            match.ends[slot] = end;
+            if (match(node.parameters[i], address, end, slot + 1, match)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int valueEnd(String address, int position, int terminator) {
+        int slash = address.indexOf('/', position);
+        if (terminator == END) {
+            return slash < 0 ? address.length() : -1;
+        }
+        int end = address.indexOf(terminator, position);
+        return slash >= 0 && slash < end ? -1 : end;
+    }
+
+    private static Route insert(Builder root, String name, Channel channel, ReferenceResolver resolver) {
+        List<String> names = new ArrayList<>();
+        Object[] steps = steps(name, channel.address(), names);
+        Builder node = root;
+        for (Object step : steps) {
+            node = step instanceof String literal ? node.literal(literal) : node.parameter((Integer) step);
+        }
+        Route route = new Route(name, channel, names.toArray(new String[0]), allowed(channel, names, resolver));
+        node.routes.add(route);
+        return route;
+    }
+
+    /**
+     * Splits an address into the path through the trie: literal runs as strings and placeholders as the terminators
+     * of their values.
+     *
+     * @param names receives the names of the parameters.
+     */
+    private static Object[] steps(String name, String address, List<String> names) {
+        List<Object> steps = new ArrayList<>();
+        int position = 0;
+        while (position < address.length()) {
+            int open = address.indexOf('{', position);
+            if (open < 0) {
+                steps.add(address.substring(position));
+                break;
+            }
+            if (open > position) {
+                steps.add(address.substring(position, open));
+            }
+            int close = address.indexOf('}', open);
+            int nested = address.indexOf('{', open + 1);
+            if (close < 0 || close == open + 1 || nested >= 0 && nested < close) {
+                throw new IllegalArgumentException("Invalid address of channel '" + name + "': " + address);
+            }
+            names.add(address.substring(open + 1, close));
+            position = close + 1;
+            if (position == address.length()) {
+                steps.add(END);
+            } else if (address.charAt(position) == '{') {
+                throw new IllegalArgumentException("Adjacent parameters in address of channel '" + name + "': "
+                    + address);
+            } else {
+                steps.add((int) address.charAt(position));
+            }
+        }
+        return steps.toArray();
+    }
+
+    private static AllowedValues[] allowed(Channel channel, List<String> names, ReferenceResolver resolver) {
+        AllowedValues[] allowed = new AllowedValues[names.size()];
+        for (int i = 0; i < allowed.length; i++) {
+            Parameter parameter = channel.parameters() == null
+                ? null
+                : resolver.resolve(channel.parameters().get(names.get(i)));
+            if (parameter != null && parameter._enum() != null && !parameter._enum().isEmpty()) {
+                allowed[i] = new AllowedValues(parameter._enum());
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * Adds a route to a copy of the path from the node along the steps, starting at {@code position} of the literal
+     * step {@code step}.
+     */
+    private static Node insert(Node node, Object[] steps, int step, int position, Route route) {
+        if (step == steps.length) {
+            return node.withRoute(route);
+        }
+        if (!(steps[step] instanceof String text)) {
+            int terminator = (Integer) steps[step];
+            int index = Arrays.binarySearch(node.terminators, terminator);
+            Node child = index >= 0 ? node.parameters[index] : Node.EMPTY;
+            return node.withParameter(terminator, insert(child, steps, step + 1, 0, route));
+        }
+        if (position == text.length()) {
+            return insert(node, steps, step + 1, 0, route);
+        }
+        char first = text.charAt(position);
+        int index = Arrays.binarySearch(node.firsts, first);
+        if (index < 0) {
+            return node.withLiteral(first, text.substring(position), insert(Node.EMPTY, steps, step + 1, 0, route));
+        }
+        String label = node.labels[index];
+        int common = 0;
+        int limit = Math.min(label.length(), text.length() - position);
+        while (common < limit && label.charAt(common) == text.charAt(position + common)) {
+            common++;
+        }
+        Node child = node.literals[index];
+        if (common < label.length()) {
+            String rest = label.substring(common);
+            child = Node.EMPTY.withLiteral(rest.charAt(0), rest, child);
+            label = label.substring(0, common);
+        }
+        return node.withLiteral(first, label, insert(child, steps, step, position + common, route));
+    }
+
+    /**
+     * Removes a route from a copy of the path from the node along the steps, dropping nodes that end up empty.
+     *
+     * @return the copy, or {@code null} if it is empty.
+     */
+    private static Node remove(Node node, Object[] steps, int step, int position, String name) {
+        Node removed = node;
+        if (step == steps.length) {
+            removed = node.withoutRoute(name);
+        } else if (!(steps[step] instanceof String text)) {
+            int terminator = (Integer) steps[step];
+            int index = Arrays.binarySearch(node.terminators, terminator);
+            if (index >= 0) {
+                removed = node.withParameter(terminator, remove(node.parameters[index], steps, step + 1, 0, name));
+            }
+        } else if (position == text.length()) {
+            return remove(node, steps, step + 1, 0, name);
+        } else {
+            char first = text.charAt(position);
+            int index = Arrays.binarySearch(node.firsts, first);
+            if (index >= 0 && text.startsWith(node.labels[index], position)) {
+                String label = node.labels[index];
+                removed = node.withLiteral(first, label,
+                    remove(node.literals[index], steps, step, position + label.length(), name));
+            }
+        }
+        return removed.isEmpty() ? null : removed;
+    }
+
+    /**
+     * A channel reachable at the end of a path through the trie.
+     */
+    static final class Route {
+
+        final String name;
+        final Channel channel;
+        final String[] names;
+        final AllowedValues[] allowed;
+
+        Route(String name, Channel channel, String[] names, AllowedValues[] allowed) {
+            this.name = name;
+            this.channel = channel;
+            this.names = names;
+            this.allowed = allowed;
+        }
+
+        boolean accepts(String address, int[] starts, int[] ends) {
+            for (int i = 0; i < allowed.length; i++) {
+                if (allowed[i] != null && !allowed[i].contains(address, starts[i], ends[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Open addressing set of enumerated values, probed with a region of the address instead of a substring.
+     */
+    static final class AllowedValues {
+
+        private final String[] table;
+        private final int[] hashes;
+        private final int mask;
+
+        AllowedValues(List<String> values) {
+            int capacity = Integer.highestOneBit(Math.max(2, values.size() * 2 - 1)) << 1;
+            table = new String[capacity];
+            hashes = new int[capacity];
+            mask = capacity - 1;
+            for (String value : values) {
+                int hash = value.hashCode();
+                int index = hash & mask;
+                while (table[index] != null && !table[index].equals(value)) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+                hashes[index] = hash;
+            }
+        }
+
+        boolean contains(String address, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + address.charAt(i);
+            }
+            int length = end - start;
+            for (int index = hash & mask; table[index] != null; index = (index + 1) & mask) {
+                String value = table[index];
+                if (hashes[index] == hash && value.length() == length
+                    && address.regionMatches(start, value, 0, length)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Node {
+
+        static final Node EMPTY = new Node(new char[0], new String[0], new Node[0], new int[0], new Node[0], null);
+
+        final char[] firsts;
+        final String[] labels;
+        final Node[] literals;
+        final int[] terminators;
+        final Node[] parameters;
+        final Route[] routes;
+
+        Node(char[] firsts, String[] labels, Node[] literals, int[] terminators, Node[] parameters, Route[] routes) {
+            this.firsts = firsts;
+            this.labels = labels;
+            this.literals = literals;
+            this.terminators = terminators;
+            this.parameters = parameters;
+            this.routes = routes;
+        }
+
+        boolean isEmpty() {
+            return firsts.length == 0 && terminators.length == 0 && routes == null;
+        }
+
+        /**
+         * @return a copy with the route, replacing a route of the same channel, routes kept in the order of their keys.
+         */
+        Node withRoute(Route route) {
+            List<Route> list = new ArrayList<>(routes == null ? List.of() : Arrays.asList(routes));
+            list.removeIf(existing -> existing.name.equals(route.name));
+            int index = 0;
+            while (index < list.size() && list.get(index).name.compareTo(route.name) < 0) {
+                index++;
+            }
+            list.add(index, route);
+            return new Node(firsts, labels, literals, terminators, parameters, list.toArray(new Route[0]));
+        }
+
+        Node withoutRoute(String name) {
+            if (routes == null) {
+                return this;
+            }
+            Route[] kept = Arrays.stream(routes).filter(route -> !route.name.equals(name)).toArray(Route[]::new);
+            return new Node(firsts, labels, literals, terminators, parameters, kept.length == 0 ? null : kept);
+        }
+
+        /**
+         * @param child the node at the end of the edge, or {@code null} to remove the edge.
+         */
+        Node withLiteral(char first, String label, Node child) {
+            int index = Arrays.binarySearch(firsts, first);
+            if (index >= 0 && child != null) {
+                String[] newLabels = labels.clone();
+                Node[] newLiterals = literals.clone();
+                newLabels[index] = label;
+                newLiterals[index] = child;
+                return new Node(firsts, newLabels, newLiterals, terminators, parameters, routes);
+            }
+            if (index >= 0) {
+                return new Node(remove(firsts, index), remove(labels, index), remove(literals, index), terminators,
+                    parameters, routes);
+            }
+            if (child == null) {
+                return this;
+            }
+            int at = -index - 1;
+            char[] newFirsts = new char[firsts.length + 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, at);
+            newFirsts[at] = first;
+            System.arraycopy(firsts, at, newFirsts, at + 1, firsts.length - at);
+            return new Node(newFirsts, insert(labels, at, label), insert(literals, at, child), terminators, parameters,
+                routes);
+        }
+
+        /**
+         * @param child the node after the placeholder, or {@code null} to remove the placeholder.
+         */
+        Node withParameter(int terminator, Node child) {
+            int index = Arrays.binarySearch(terminators, terminator);
+            if (index >= 0 && child != null) {
+                Node[] newParameters = parameters.clone();
+                newParameters[index] = child;
+                return new Node(firsts, labels, literals, terminators, newParameters, routes);
+            }
+            if (index >= 0) {
+                int[] newTerminators = new int[terminators.length - 1];
+                System.arraycopy(terminators, 0, newTerminators, 0, index);
+                System.arraycopy(terminators, index + 1, newTerminators, index, newTerminators.length - index);
+                return new Node(firsts, labels, literals, newTerminators, remove(parameters, index), routes);
+            }
+            if (child == null) {
+                return this;
+            }
+            int at = -index - 1;
+            int[] newTerminators = new int[terminators.length + 1];
+            System.arraycopy(terminators, 0, newTerminators, 0, at);
+            newTerminators[at] = terminator;
+            System.arraycopy(terminators, at, newTerminators, at + 1, terminators.length - at);
+            return new Node(firsts, labels, literals, newTerminators, insert(parameters, at, child), routes);
+        }
+
+        private static char[] remove(char[] array, int index) {
+            char[] copy = new char[array.length - 1];
+            System.arraycopy(array, 0, copy, 0, index);
+            System.arraycopy(array, index + 1, copy, index, copy.length - index);
+            return copy;
+        }
+
+        private static <T> T[] remove(T[] array, int index) {
+            T[] copy = Arrays.copyOf(array, array.length - 1);
+            System.arraycopy(array, index + 1, copy, index, copy.length - index);
+            return copy;
+        }
+
+        private static <T> T[] insert(T[] array, int index, T element) {
+            T[] copy = Arrays.copyOf(array, array.length + 1);
+            System.arraycopy(array, index, copy, index + 1, array.length - index);
+            copy[index] = element;
+            return copy;
+        }
+    }
+
+    /**
+     * Mutable trie node used while compiling. Literal edges are split on insertion so that the edges of a node
+     * start with distinct characters.
+     */
+    private static final class Builder {
+
+        final TreeMap<Character, String> labels = new TreeMap<>();
+        final TreeMap<Character, Builder> literals = new TreeMap<>();
+        final TreeMap<Integer, Builder> parameters = new TreeMap<>();
+        final List<Route> routes = new ArrayList<>();
+
+        Builder literal(String text) {
+            Builder node = this;
+            int position = 0;
+            while (position < text.length()) {
+                char first = text.charAt(position);
+                String label = node.labels.get(first);
+                if (label == null) {
+                    Builder child = new Builder();
+                    node.labels.put(first, text.substring(position));
+                    node.literals.put(first, child);
+                    return child;
+                }
+                int common = 0;
+                int limit = Math.min(label.length(), text.length() - position);
+                while (common < limit && label.charAt(common) == text.charAt(position + common)) {
+                    common++;
+                }
+                Builder child = node.literals.get(first);
+                if (common < label.length()) {
+                    Builder split = new Builder();
+                    String rest = label.substring(common);
+                    split.labels.put(rest.charAt(0), rest);
+                    split.literals.put(rest.charAt(0), child);
+                    node.labels.put(first, label.substring(0, common));
+                    node.literals.put(first, split);
+                    child = split;
+                }
+                node = child;
+                position += common;
+            }
+            return node;
+        }
+
+        Builder parameter(int terminator) {
+            return parameters.computeIfAbsent(terminator, key -> new Builder());
+        }
+
+        Node build() {
+            char[] firsts = new char[labels.size()];
+            String[] edgeLabels = new String[labels.size()];
+            Node[] literalNodes = new Node[labels.size()];
+            int i = 0;
+            for (Map.Entry<Character, String> entry : labels.entrySet()) {
+                firsts[i] = entry.getKey();
+                edgeLabels[i] = entry.getValue();
+                literalNodes[i] = literals.get(entry.getKey()).build();
+                i++;
+            }
+            int[] terminators = new int[parameters.size()];
+            Node[] parameterNodes = new Node[parameters.size()];
+            i = 0;
+            for (Map.Entry<Integer, Builder> entry : parameters.entrySet()) {
+                terminators[i] = entry.getKey();
+                parameterNodes[i] = entry.getValue().build();
+                i++;
+            }
+            return new Node(firsts, edgeLabels, literalNodes, terminators, parameterNodes,
+                routes.isEmpty() ? null : routes.toArray(new Route[0]));
+        }
+    }
+}
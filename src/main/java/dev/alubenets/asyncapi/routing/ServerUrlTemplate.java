@@ -0,0 +1,335 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.routing;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Server;
+import dev.alubenets.asyncapi.models.ServerVariable;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * The connection URL of a {@link Server}, {@code protocol://host/pathname}, with the {@code {variable}} placeholders
+ * of its host and pathname compiled into literal runs and variable slots.
+ * <p>
+ * Expanding a template concatenates the literals with the variable values, without scanning the template again.
+ * Values are checked against the {@link ServerVariable#_enum()} of their variable and missing values fall back to
+ * its {@link ServerVariable#_default()}. A placeholder without a variable definition takes any value but has no
+ * default.
+ * <p>
+ * Instances are immutable and thread-safe.
+ * <pre>{@code
+ * ServerUrlTemplate template = ServerUrlTemplate.compile(server, resolver);
+ * String url = template.expand(Map.of("tenant", "acme")); // amqp://acme.broker.example.com:5672/production
+ * }</pre>
+ */
+public final class ServerUrlTemplate {
+
+    private final String[] variables;
+    /**
+     * The literal runs around the placeholders, one more than there are slots.
+     */
+    private final String[] literals;
+    /**
+     * The index into {@link #variables} of every placeholder.
+     */
+    private final int[] slots;
+    private final String[] defaults;
+    /**
+     * The enum of every variable, {@code null} for variables without one.
+     */
+    private final List<List<String>> enums;
+    private final ChannelRouter.AllowedValues[] allowed;
+    private final int literalLength;
+
+    private ServerUrlTemplate(String[] variables, String[] literals, int[] slots, String[] defaults,
+                              List<List<String>> enums) {
+        this.variables = variables;
+        this.literals = literals;
+        this.slots = slots;
+        this.defaults = defaults;
+        this.enums = enums;
+        this.allowed = new ChannelRouter.AllowedValues[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            if (enums.get(i) != null) {
+                allowed[i] = new ChannelRouter.AllowedValues(enums.get(i));
+            }
+        }
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compiles the root servers of a document, resolving referenced servers and variables within it.
+     *
+     * @param document the document.
+     * @return the templates by server name, in name order.
+     * @throws IllegalArgumentException if a host or pathname is not a valid template.
+     */
+    public static Map<String, ServerUrlTemplate> compile(AsyncAPI document) {
+        if (document.servers() == null) {
+            return Map.of();
+        }
+        ReferenceResolver resolver = ReferenceResolver.of(document);
+        Map<String, ServerUrlTemplate> templates = new LinkedHashMap<>();
+        for (Map.Entry<String, Server> entry : new TreeMap<>(document.servers()).entrySet()) {
+            templates.put(entry.getKey(), compile(entry.getValue(), resolver));
+        }
+        return Collections.unmodifiableMap(templates);
+    }
+
+    /**
+     * @param server   the server, possibly a reference.
+     * @param resolver resolves a referenced server and referenced variables.
+     * @return the template of the server URL.
+     * @throws IllegalArgumentException if the host or pathname is not a valid template.
+     */
+    public static ServerUrlTemplate compile(Server server, ReferenceResolver resolver) {
+        server = resolver.resolve(server);
+        StringBuilder literal = new StringBuilder();
+        if (server.protocol() != null) {
+            literal.append(server.protocol()).append("://");
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        if (server.host() != null) {
+            parse(server.host(), literal, literals, names, slots);
+        }
+        String pathname = server.pathname();
+        if (pathname != null && !pathname.isEmpty()) {
+            if (pathname.charAt(0) != '/') {
+                literal.append('/');
+            }
+            parse(pathname, literal, literals, names, slots);
+        }
+        literals.add(literal.toString());
+
+        String[] defaults = new String[names.size()];
+        List<List<String>> enums = new ArrayList<>(names.size());
+        for (int i = 0; i < defaults.length; i++) {
+            ServerVariable variable = server.variables() == null
+                ? null
+                : resolver.resolve(server.variables().get(names.get(i)));
+            boolean enumerated = variable != null && variable._enum() != null && !variable._enum().isEmpty();
+            enums.add(enumerated ? List.copyOf(variable._enum()) : null);
+            defaults[i] = variable == null ? null : variable._default();
+        }
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new ServerUrlTemplate(names.toArray(new String[0]), literals.toArray(new String[0]), slotArray,
+            defaults, enums);
+    }
+
+    private static void parse(String template, StringBuilder literal, List<String> literals, List<String> names,
+                              List<Integer> slots) {
+        int position = 0;
+        while (position < template.length()) {
+            int open = template.indexOf('{', position);
+            if (open < 0) {
+                literal.append(template, position, template.length());
+                return;
+            }
+            int close = template.indexOf('}', open);
+            int nested = template.indexOf('{', open + 1);
+            if (close < 0 || close == open + 1 || nested >= 0 && nested < close) {
+                throw new IllegalArgumentException("Invalid server URL template: " + template);
+            }
+            literal.append(template, position, open);
+            literals.add(literal.toString());
+            literal.setLength(0);
+            String name = template.substring(open + 1, close);
+            int index = names.indexOf(name);
+            if (index < 0) {
+                index = names.size();
+                names.add(name);
+            }
+            slots.add(index);
+            position = close + 1;
+        }
+    }
+
+    /**
+     * @return the names of the variables in the order they first appear in, which is the order of the values of
+     * {@link #expand(String...)}.
+     */
+    public List<String> variables() {
+        return List.of(variables);
+    }
+
+    /**
+     * @param values the value of every variable, missing variables take their default.
+     * @return the URL.
+     * @throws IllegalArgumentException if a value is not allowed by the enum of its variable, or if a variable has
+     *                                  neither a value nor a default.
+     */
+    public String expand(Map<String, String> values) {
+        String[] resolved = new String[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            resolved[i] = value(i, values.get(variables[i]));
+        }
+        return concat(resolved);
+    }
+
+    /**
+     * @param values the values in the order of {@link #variables()}, {@code null} elements or missing trailing values
+     *               take the default of their variable.
+     * @return the URL.
+     * @throws IllegalArgumentException if a value is not allowed by the enum of its variable, or if a variable has
+     *                                  neither a value nor a default.
+     */
+    public String expand(String... values) {
+        if (values.length > variables.length) {
+            throw new IllegalArgumentException("Expected at most " + variables.length + " values, got "
+                + values.length);
+        }
+        String[] resolved = new String[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            resolved[i] = value(i, i < values.length ? values[i] : null);
+        }
+        return concat(resolved);
+    }
+
+    /**
+     * @return the URL with every variable at its default.
+     * @throws IllegalArgumentException if a variable has no default.
+     */
+    public String expandDefaults() {
+        return expand();
+    }
+
+    /**
+     * @return the number of URLs {@link #forEachEndpoint(Consumer)} produces.
+     * @throws IllegalStateException if a variable has neither an enum nor a default.
+     */
+    public long endpointCount() {
+        long count = 1;
+        for (int i = 0; i < variables.length; i++) {
+            count = Math.multiplyExact(count, choices(i).size());
+        }
+        return count;
+    }
+
+    /**
+     * Produces every URL the enums allow, variables without an enum take their default. The last variable changes
+     * fastest and the values of a variable follow the order of its enum.
+     *
+     * @param action called with every URL.
+     * @throws IllegalStateException if a variable has neither an enum nor a default.
+     */
+    public void forEachEndpoint(Consumer<String> action) {
+        List<List<String>> choices = new ArrayList<>(variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            choices.add(choices(i));
+        }
+        int[] indexes = new int[variables.length];
+        String[] values = new String[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            values[i] = choices.get(i).get(0);
+        }
+        while (true) {
+            action.accept(concat(values));
+            int i = variables.length - 1;
+            while (i >= 0 && ++indexes[i] == choices.get(i).size()) {
+                indexes[i] = 0;
+                values[i] = choices.get(i).get(0);
+                i--;
+            }
+            if (i < 0) {
+                return;
+            }
+            values[i] = choices.get(i).get(indexes[i]);
+        }
+    }
+
+    /**
+     * @return every URL the enums allow, see {@link #forEachEndpoint(Consumer)}.
+     * @throws IllegalStateException if a variable has neither an enum nor a default.
+     */
+    public List<String> endpoints() {
+        List<String> endpoints = new ArrayList<>(Math.toIntExact(endpointCount()));
+        forEachEndpoint(endpoints::add);
+        return endpoints;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append('{').append(variables[slots[i]]).append('}').append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    private String value(int index, String value) {
+        if (value == null) {
+            value = defaults[index];
+            if (value == null) {
+                throw new IllegalArgumentException("No value for server variable '" + variables[index] + "'");
+            }
+            return value;
+        }
+        if (allowed[index] != null && !allowed[index].contains(value, 0, value.length())) {
+            throw new IllegalArgumentException("Value '" + value + "' of server variable '" + variables[index]
+                + "' is not one of " + enums.get(index));
+        }
+        return value;
+    }
+
+    private List<String> choices(int index) {
+        if (enums.get(index) != null) {
+            return enums.get(index);
+        }
+        if (defaults[index] != null) {
+            return List.of(defaults[index]);
+        }
+        throw new IllegalStateException("Server variable '" + variables[index] + "' has neither an enum nor a default");
+    }
+
+    private String concat(String[] values) {
+        int length = literalLength;
+        for (int slot : slots) {
+            length += values[slot].length();
+        }
+        StringBuilder builder = new StringBuilder(length);
+        builder.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(values[slots[i]]).append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.rules;
+
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Server;
+
+/**
+ * A semantic check of a document, such as the ones of {@link Rules}.
+ * <p>
+ * A {@link SemanticValidator} walks a document once and hands every server, channel and operation to all of its
+ * rules in turn, so a rule only looks at the object it is given and reports through the context. The objects of the
+ * root sections and of the components are passed to the rules, references to them are not. Rules are called from
+ * several threads at once for large documents and must be thread-safe. All checks do nothing by default.
+ */
+public interface Rule {
+
+    /**
+     * @return the name of the rule, such as {@code channel-parameters}, reported with its diagnostics.
+     */
+    String name();
+
+    /**
+     * @param context the document being validated and the diagnostics of the rule.
+     * @param path    the JSON pointer of the server, such as {@code /servers/production}.
+     * @param server  the server.
+     */
+    default void checkServer(RuleContext context, String path, Server server) {
+    }
+
+    /**
+     * @param context the document being validated and the diagnostics of the rule.
+     * @param path    the JSON pointer of the channel, such as {@code /channels/userSignup}.
+     * @param channel the channel.
+     */
+    default void checkChannel(RuleContext context, String path, Channel channel) {
+    }
+
+    /**
+     * @param context   the document being validated and the diagnostics of the rule.
+     * @param path      the JSON pointer of the operation, such as {@code /operations/onUserSignup}.
+     * @param operation the operation.
+     */
+    default void checkOperation(RuleContext context, String path, Operation operation) {
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.rules;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What a {@link Rule} sees of a validation: the document, its resolver and the diagnostics reported so far.
+ * <p>
+ * Every part of a document that is validated on its own thread has a context of its own, contexts are not
+ * thread-safe.
+ */
+public final class RuleContext {
+
+    private final AsyncAPI document;
+    private final ReferenceResolver resolver;
+    final List<Diagnostic> diagnostics = new ArrayList<>();
+    Rule rule;
+
+    RuleContext(AsyncAPI document, ReferenceResolver resolver) {
+        this.document = document;
+        this.resolver = resolver;
+    }
+
+    /**
+     * @return the document being validated.
+     */
+    public AsyncAPI document() {
+        return document;
+    }
+
+    /**
+     * @return the resolver of the document, for rules that follow references.
+     */
+    public ReferenceResolver resolver() {
+        return resolver;
+    }
+
+    /**
+     * Reports a violation of the rule being run.
+     *
+     * @param path    the JSON pointer of the offending value.
+     * @param message a description of the violation.
+     */
+    public void report(String path, String message) {
+        diagnostics.add(new Diagnostic(path, rule.name(), message));
+    }
+
+    /**
+     * @param path  a JSON pointer.
+     * @param token a property name or map key, escaped as needed.
+     * @return the pointer of the child.
+     */
+    public static String child(String path, String token) {
+        if (token.indexOf('~') < 0 && token.indexOf('/') < 0) {
+            return path + '/' + token;
+        }
+        return path + '/' + token.replace("~", "~0").replace("/", "~1");
+    }
+
+    static String unescape(String token) {
+        if (token.indexOf('~') < 0) {
+            return token;
+        }
+        return token.replace("~1", "/").replace("~0", "~");
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.rules;
+
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Reference;
+import dev.alubenets.asyncapi.models.Server;
+import dev.alubenets.asyncapi.resolver.ReferenceResolutionException;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The rules of the AsyncAPI specification that the models do not enforce by their shape.
+ * <ul>
+ *     <li>{@code channel-parameters}: the parameters of a channel are exactly the placeholders of its address,</li>
+ *     <li>{@code server-variables}: the variables of a server are exactly the placeholders of its host and
+ *     pathname,</li>
+ *     <li>{@code operation-channel}: an operation refers to an existing channel, in the root channels for root
+ *     operations,</li>
+ *     <li>{@code operation-messages}: the messages of an operation refer to messages of its channel.</li>
+ * </ul>
+ */
+public final class Rules {
+
+    private static final String ROOT_CHANNELS = "#/channels/";
+    private static final int MAX_HOPS = 32;
+
+    private Rules() {
+    }
+
+    /**
+     * @return all rules of this class.
+     */
+    public static List<Rule> standard() {
+        return List.of(channelParameters(), serverVariables(), operationChannel(), operationMessages());
+    }
+
+    public static Rule channelParameters() {
+        return ChannelParameters.INSTANCE;
+    }
+
+    public static Rule serverVariables() {
+        return ServerVariables.INSTANCE;
+    }
+
+    public static Rule operationChannel() {
+        return OperationChannel.INSTANCE;
+    }
+
+    public static Rule operationMessages() {
+        return OperationMessages.INSTANCE;
+    }
+
+    private static final class ChannelParameters implements Rule {
+
+        static final Rule INSTANCE = new ChannelParameters();
+
+        @Override
+        public String name() {
+            return "channel-parameters";
+        }
+
+        @Override
+        public void checkChannel(RuleContext context, String path, Channel channel) {
+            if (channel.address() == null) {
+                return;
+            }
+            Set<String> placeholders = placeholders(channel.address());
+            Set<String> parameters = channel.parameters() == null ? Set.of() : channel.parameters().keySet();
+            for (String placeholder : placeholders) {
+                if (!parameters.contains(placeholder)) {
+                    context.report(RuleContext.child(path, "address"),
+                        "Placeholder {" + placeholder + "} has no parameter");
+                }
+            }
+            for (String parameter : parameters) {
+                if (!placeholders.contains(parameter)) {
+                    context.report(RuleContext.child(RuleContext.child(path, "parameters"), parameter),
+                        "Parameter " + parameter + " does not occur in the address");
+                }
+            }
+        }
+    }
+
+    private static final class ServerVariables implements Rule {
+
+        static final Rule INSTANCE = new ServerVariables();
+
+        @Override
+        public String name() {
+            return "server-variables";
+        }
+
+        @Override
+        public void checkServer(RuleContext context, String path, Server server) {
+            Set<String> placeholders = new LinkedHashSet<>();
+            if (server.host() != null) {
+                placeholders.addAll(placeholders(server.host()));
+            }
+            if (server.pathname() != null) {
+                placeholders.addAll(placeholders(server.pathname()));
+            }
+            Set<String> variables = server.variables() == null ? Set.of() : server.variables().keySet();
+            for (String placeholder : placeholders) {
+                if (!variables.contains(placeholder)) {
+                    context.report(path, "Placeholder {" + placeholder + "} has no variable");
+                }
+            }
+            for (String variable : variables) {
+                if (!placeholders.contains(variable)) {
+                    context.report(RuleContext.child(RuleContext.child(path, "variables"), variable),
+                        "Variable " + variable + " does not occur in the host or pathname");
+                }
+            }
+        }
+    }
+
+    private static final class OperationChannel implements Rule {
+
+        static final Rule INSTANCE = new OperationChannel();
+
+        @Override
+        public String name() {
+            return "operation-channel";
+        }
+
+        @Override
+        public void checkOperation(RuleContext context, String path, Operation operation) {
+            String channelPath = RuleContext.child(path, "channel");
+            Reference channel = operation.channel();
+            if (channel == null) {
+                context.report(path, "Operation has no channel");
+                return;
+            }
+            if (!channel.isRef()) {
+                context.report(channelPath, "Channel must be a reference");
+                return;
+            }
+            String ref = channel.$ref();
+            if (isRoot(path)) {
+                String name = rootChannel(ref);
+                if (name == null) {
+                    context.report(channelPath, "Channel " + ref + " is not a channel of the root channels");
+                } else if (context.document().channels() == null
+                    || !context.document().channels().containsKey(name)) {
+                    context.report(channelPath, "Channel " + ref + " does not exist");
+                }
+            } else if (target(context.resolver(), ref, Channel.class) == null) {
+                context.report(channelPath, "Channel " + ref + " cannot be resolved");
+            }
+        }
+    }
+
+    private static final class OperationMessages implements Rule {
+
+        static final Rule INSTANCE = new OperationMessages();
+
+        @Override
+        public String name() {
+            return "operation-messages";
+        }
+
+        @Override
+        public void checkOperation(RuleContext context, String path, Operation operation) {
+            if (operation.messages() == null || operation.messages().isEmpty() || operation.channel() == null
+                || !operation.channel().isRef()) {
+                return;
+            }
+            String channelRef = operation.channel().$ref();
+            if (isRoot(path) && rootChannel(channelRef) == null) {
+                return;
+            }
+            Channel channel = target(context.resolver(), channelRef, Channel.class);
+            if (channel == null) {
+                // Reported by operation-channel.
+                return;
+            }
+            Map<String, Message> messages = channel.messages() == null ? Map.of() : channel.messages();
+            String prefix = channelRef + "/messages/";
+            String messagesPath = RuleContext.child(path, "messages");
+            for (int i = 0; i < operation.messages().size(); i++) {
+                Message message = operation.messages().get(i);
+                String messagePath = messagesPath + '/' + i;
+                if (message == null || !message.isRef()) {
+                    context.report(messagePath, "Message must be a reference");
+                } else if (message.$ref().startsWith(prefix)) {
+                    String name = RuleContext.unescape(message.$ref().substring(prefix.length()));
+                    if (!messages.containsKey(name)) {
+                        context.report(messagePath, "Message " + name + " is not a message of channel " + channelRef);
+                    }
+                } else if (isRoot(path) || !contains(context.resolver(), messages, message)) {
+                    context.report(messagePath, "Message " + message.$ref() + " is not a message of channel "
+                        + channelRef);
+                }
+            }
+        }
+
+        /**
+         * Operations of the components may refer to the messages of their channel through any path.
+         */
+        private static boolean contains(ReferenceResolver resolver, Map<String, Message> messages, Message message) {
+            Message target = target(resolver, message.$ref(), Message.class);
+            if (target == null) {
+                return false;
+            }
+            for (Message candidate : messages.values()) {
+                if (candidate == target || candidate != null && candidate.isRef()
+                    && target(resolver, candidate.$ref(), Message.class) == target) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static boolean isRoot(String path) {
+        return path.startsWith("/operations/");
+    }
+
+    /**
+     * @return the name of the root channel a reference points to, or {@code null} if it points elsewhere.
+     */
+    private static String rootChannel(String ref) {
+        if (!ref.startsWith(ROOT_CHANNELS) || ref.indexOf('/', ROOT_CHANNELS.length()) >= 0) {
+            return null;
+        }
+        return RuleContext.unescape(ref.substring(ROOT_CHANNELS.length()));
+    }
+
+    /**
+     * Follows a reference and the references it leads to.
+     *
+     * @return the target, or {@code null} if it cannot be resolved.
+     */
+    private static <T extends Reference> T target(ReferenceResolver resolver, String ref, Class<T> type) {
+        try {
+            T target = resolver.resolve(ref, type);
+            for (int hops = 0; target != null && target.isRef() && hops < MAX_HOPS; hops++) {
+                target = resolver.resolve(target);
+            }
+            return target == null || target.isRef() ? null : target;
+        } catch (ReferenceResolutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the names of the {@code {name}} placeholders of a template, in order.
+     */
+    static Set<String> placeholders(String template) {
+        Set<String> names = new LinkedHashSet<>();
+        int position = 0;
+        while (true) {
+            int open = template.indexOf('{', position);
+            int close = open < 0 ? -1 : template.indexOf('}', open);
+            if (close < 0) {
+                return names;
+            }
+            names.add(template.substring(open + 1, close));
+            position = close + 1;
+        }
+    }
+}
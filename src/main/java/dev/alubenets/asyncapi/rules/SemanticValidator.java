@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.rules;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Components;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Reference;
+import dev.alubenets.asyncapi.models.Server;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Checks documents against semantic {@link Rule}s, such as the {@link Rules#standard() standard} ones, that a
+ * document can violate while being well-formed.
+ * <p>
+ * The document is traversed once for all rules: every server, channel and operation of the root sections and of the
+ * components is handed to each rule before moving on to the next one. Documents with more than a few hundred of
+ * them are split into slices that are checked in parallel on a {@link ForkJoinPool}. Diagnostics come back in the
+ * same order either way, each with the JSON pointer of the offending value: by section in the order above, then by the
+ * name of the object within its section, then by rule. Model maps do not keep the order of the document, sorting by
+ * name makes the result reproducible across reads of the same document.
+ * <pre>{@code
+ * for (Diagnostic diagnostic : SemanticValidator.create().validate(api)) {
+ *     log.error(diagnostic.path() + ": " + diagnostic.message() + " [" + diagnostic.rule() + "]");
+ * }
+ * }</pre>
+ * Instances are immutable and thread-safe.
+ */
+public final class SemanticValidator {
+
+    /**
+     * The number of objects checked by one task, large enough to outweigh forking it.
+     */
+    private static final int SLICE = 256;
+
+    private final List<Rule> rules;
+    private final ForkJoinPool pool;
+
+    private SemanticValidator(List<Rule> rules, ForkJoinPool pool) {
+        this.rules = rules;
+        this.pool = pool;
+    }
+
+    /**
+     * @return a validator running the standard rules on the common pool.
+     */
+    public static SemanticValidator create() {
+        return new SemanticValidator(Rules.standard(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param rules the rules to check.
+     * @return a validator running the rules.
+     */
+    public SemanticValidator withRules(List<Rule> rules) {
+        return new SemanticValidator(List.copyOf(rules), pool);
+    }
+
+    /**
+     * @param pool the pool to check large documents on.
+     * @return a validator using the pool.
+     */
+    public SemanticValidator withPool(ForkJoinPool pool) {
+        return new SemanticValidator(rules, Objects.requireNonNull(pool, "pool"));
+    }
+
+    /**
+     * @param document a document without references into other files.
+     * @return the violations of the rules, sorted by section and name.
+     */
+    public List<Diagnostic> validate(AsyncAPI document) {
+        return validate(document, ReferenceResolver.of(document));
+    }
+
+    /**
+     * @param document the document.
+     * @param resolver the resolver of the document, for rules that follow references.
+     * @return the violations of the rules, sorted by section and name.
+     */
+    public List<Diagnostic> validate(AsyncAPI document, ReferenceResolver resolver) {
+        List<Slice> slices = new ArrayList<>();
+        slice(slices, "/servers", document.servers(), Kind.SERVER);
+        slice(slices, "/channels", document.channels(), Kind.CHANNEL);
+        slice(slices, "/operations", document.operations(), Kind.OPERATION);
+        Components components = document.components();
+        if (components != null) {
+            slice(slices, "/components/servers", components.servers(), Kind.SERVER);
+            slice(slices, "/components/channels", components.channels(), Kind.CHANNEL);
+            slice(slices, "/components/operations", components.operations(), Kind.OPERATION);
+        }
+        int size = 0;
+        for (Slice slice : slices) {
+            size += slice.to - slice.from;
+        }
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        if (size <= SLICE) {
+            for (Slice slice : slices) {
+                diagnostics.addAll(check(slice, document, resolver));
+            }
+            return diagnostics;
+        }
+        List<ForkJoinTask<List<Diagnostic>>> tasks = new ArrayList<>(slices.size());
+        for (Slice slice : slices) {
+            tasks.add(pool.submit(() -> check(slice, document, resolver)));
+        }
+        for (ForkJoinTask<List<Diagnostic>> task : tasks) {
+            diagnostics.addAll(task.join());
+        }
+        return diagnostics;
+    }
+
+    private List<Diagnostic> check(Slice slice, AsyncAPI document, ReferenceResolver resolver) {
+        RuleContext context = new RuleContext(document, resolver);
+        for (int i = slice.from; i < slice.to; i++) {
+            Object value = slice.values[i];
+            if (value == null || ((Reference) value).isRef()) {
+                continue;
+            }
+            String path = RuleContext.child(slice.path, slice.names[i]);
+            for (Rule rule : rules) {
+                context.rule = rule;
+                switch (slice.kind) {
+                    case SERVER -> rule.checkServer(context, path, (Server) value);
+                    case CHANNEL -> rule.checkChannel(context, path, (Channel) value);
+                    case OPERATION -> rule.checkOperation(context, path, (Operation) value);
+                }
+            }
+        }
+        return context.diagnostics;
+    }
+
+    private static void slice(List<Slice> slices, String path, Map<String, ?> map, Kind kind) {
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+        String[] names = map.keySet().toArray(new String[0]);
+        Arrays.sort(names, Comparator.nullsFirst(Comparator.naturalOrder()));
+        Object[] values = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            values[i] = map.get(names[i]);
+        }
+        for (int from = 0; from < names.length; from += SLICE) {
+            slices.add(new Slice(path, kind, names, values, from, Math.min(names.length, from + SLICE)));
+        }
+    }
+
+    private enum Kind {
+        SERVER,
+        CHANNEL,
+        OPERATION
+    }
+
+    /**
+     * A run of the entries of one section, checked by one task.
+     */
+    private record Slice(String path, Kind kind, String[] names, Object[] values, int from, int to) {
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.snapshot;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshots of whole {@link AsyncAPI} documents, to skip parsing JSON or YAML on startup.
+ * <p>
+ * A snapshot holds the complete model graph, including {@link dev.alubenets.asyncapi.models.Components}, with all
+ * strings in a shared table and objects that are reachable more than once, such as interned values or a schema used
+ * by several messages, stored once. Reading a snapshot maps the file and only validates its header and class table;
+ * channels, operations, servers, messages and parameters, and the entries of the component maps, are materialized when
+ * they are first looked up. Opening a snapshot therefore costs in proportion to the touched part of the document
+ * rather than to its size.
+ * <p>
+ * The named maps of a document read from a snapshot are {@link dev.alubenets.asyncapi.models.FreezableMap#isFrozen()
+ * frozen}, and so are its {@link dev.alubenets.asyncapi.models.Tags}. The maps and lists held by other model objects,
+ * such as those of components or the messages of an operation, are read-only. A snapshot records the format version
+ * and the shape of every model class it contains; snapshots written by an incompatible version of the library are
+ * rejected with a {@link SnapshotFormatException}.
+ * <p>
+ * References are written as they are: a Reference Object stays a {@code $ref} in the snapshot and its target is not
+ * stored with it. Resolve references after reading, with a {@link dev.alubenets.asyncapi.resolver.ReferenceResolver}
+ * for the document read from the snapshot, and for references to other files one that reads them from their source.
+ * <pre>{@code
+ * AsyncAPI api;
+ * try {
+ *     api = Snapshot.read(snapshotPath);
+ * } catch (SnapshotFormatException e) {
+ *     api = AsyncApiReader.create().read(Files.newInputStream(documentPath));
+ *     Snapshot.write(api, snapshotPath);
+ * }
+ * }</pre>
+ */
+public final class Snapshot {
+
+    /**
+     * The format version written into and expected from the snapshot header.
+     */
+    public static final int FORMAT_VERSION = SnapshotFormat.VERSION;
+
+    private Snapshot() {
+    }
+
+    /**
+     * @param document the document.
+     * @return the snapshot of the document.
+     * @throws IllegalArgumentException if the document holds values that are not part of the models, such as
+     *                                  custom objects in schemas.
+     */
+    public static byte[] toBytes(AsyncAPI document) {
+        return new SnapshotEncoder().encode(document);
+    }
+
+    /**
+     * Writes a snapshot of the document. The file is replaced atomically where the file system supports it, so
+     * readers never map a partially written snapshot.
+     *
+     * @param document the document.
+     * @param file     the snapshot file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(AsyncAPI document, Path file) throws IOException {
+        byte[] snapshot = toBytes(document);
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, snapshot);
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Maps a snapshot file into memory and reads the document from it. The mapping stays valid while the document
+     * is referenced, the file must not be modified in place meanwhile.
+     *
+     * @param file the snapshot file.
+     * @return the document, materialized on access.
+     * @throws SnapshotFormatException if the file is not a snapshot this version can read.
+     * @throws IOException             if the file cannot be read.
+     */
+    public static AsyncAPI read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new SnapshotFormatException("Snapshot is too large");
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @param buffer a snapshot, from its position to its limit. The buffer must not be modified while the document
+     *               is referenced.
+     * @return the document, materialized on access.
+     * @throws SnapshotFormatException if the buffer does not hold a snapshot this version can read.
+     */
+    public static AsyncAPI read(ByteBuffer buffer) throws SnapshotFormatException {
+        return SnapshotDecoder.open(buffer.slice());
+    }
+}
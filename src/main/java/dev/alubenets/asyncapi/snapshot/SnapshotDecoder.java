@@ -0,0 +1,491 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.snapshot;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.FreezableMap;
+import dev.alubenets.asyncapi.models.Tags;
+
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static dev.alubenets.asyncapi.snapshot.SnapshotFormat.*;
+
+/**
+ * Materializes values of a snapshot on demand. Frozen maps and the maps held by records, such as the component maps,
+ * are materialized entry by entry, when an entry is first accessed, so the cost of opening a snapshot grows with the
+ * part of the document that is used rather than with its size. Every value reachable more than once is materialized
+ * once. Instances are thread-safe.
+ */
+final class SnapshotDecoder {
+
+    private static final Object UNLOADED = new Object();
+    /**
+     * The values of a {@link LazyMap} are published with release writes and read with acquire reads.
+     */
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final ByteBuffer buffer;
+    private final StringTable strings;
+    private final Class<?>[] classes;
+    private final Constructor<?>[] constructors;
+    private final ConcurrentMap<Integer, Object> materialized = new ConcurrentHashMap<>();
+
+    private SnapshotDecoder(ByteBuffer buffer, StringTable strings, Class<?>[] classes,
+                            Constructor<?>[] constructors) {
+        this.buffer = buffer;
+        this.strings = strings;
+        this.classes = classes;
+        this.constructors = constructors;
+    }
+
+    /**
+     * Validates the header and the class table of a snapshot and materializes its root.
+     */
+    static AsyncAPI open(ByteBuffer buffer) throws SnapshotFormatException {
+        if (buffer.remaining() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+            throw new SnapshotFormatException("Not a snapshot");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new SnapshotFormatException("Unsupported snapshot version " + version + ", expected " + VERSION);
+        }
+        int length = buffer.getInt(8);
+        int classTable = buffer.getInt(12);
+        int stringTable = buffer.getInt(16);
+        int root = buffer.getInt(20);
+        if (length != buffer.limit() || root < HEADER_LENGTH || root >= classTable || classTable >= stringTable
+            || stringTable >= length) {
+            throw new SnapshotFormatException("Truncated or corrupt snapshot");
+        }
+        try {
+            StringTable strings = new StringTable(buffer, stringTable);
+            Cursor cursor = new Cursor(classTable);
+            int count = readVarint(buffer, cursor);
+            Class<?>[] classes = new Class<?>[count];
+            Constructor<?>[] constructors = new Constructor<?>[count];
+            for (int i = 0; i < count; i++) {
+                String name = strings.get(readVarint(buffer, cursor));
+                byte kind = buffer.get(cursor.position++);
+                classes[i] = load(name, kind);
+                if (kind == KIND_RECORD) {
+                    constructors[i] = canonicalConstructor(classes[i], buffer, strings, cursor);
+                } else if (kind != KIND_ENUM) {
+                    constructors[i] = noArgumentConstructor(classes[i]);
+                }
+            }
+            Object document = new SnapshotDecoder(buffer, strings, classes, constructors).valueAt(root);
+            if (!(document instanceof AsyncAPI api)) {
+                throw new SnapshotFormatException("Snapshot does not hold an AsyncAPI document");
+            }
+            return api;
+        } catch (RuntimeException e) {
+            throw new SnapshotFormatException("Truncated or corrupt snapshot", e);
+        }
+    }
+
+    private static Class<?> load(String name, byte kind) throws SnapshotFormatException {
+        Class<?> type;
+        try {
+            type = Class.forName(name, false, SnapshotDecoder.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new SnapshotFormatException("Stale snapshot, " + name + " no longer exists", e);
+        }
+        if (!isSupported(type) || kind(type) != kind) {
+            throw new SnapshotFormatException("Stale snapshot, " + name + " has changed");
+        }
+        return type;
+    }
+
+    private static Constructor<?> canonicalConstructor(Class<?> type, ByteBuffer buffer, StringTable strings,
+                                                       Cursor cursor) throws SnapshotFormatException {
+        RecordComponent[] components = type.getRecordComponents();
+        int count = readVarint(buffer, cursor);
+        boolean matches = count == components.length;
+        for (int i = 0; i < count; i++) {
+            String name = strings.get(readVarint(buffer, cursor));
+            String signature = strings.get(readVarint(buffer, cursor));
+            if (matches && (!components[i].getName().equals(name) || !signature(components[i]).equals(signature))) {
+                matches = false;
+            }
+        }
+        if (!matches) {
+            throw new SnapshotFormatException("Stale snapshot, components of " + type.getName() + " have changed");
+        }
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            parameterTypes[i] = components[i].getType();
+        }
+        try {
+            return type.getDeclaredConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new SnapshotFormatException("Stale snapshot, " + type.getName() + " has changed", e);
+        }
+    }
+
+    private static Constructor<?> noArgumentConstructor(Class<?> type) throws SnapshotFormatException {
+        try {
+            return type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new SnapshotFormatException("Stale snapshot, " + type.getName() + " has changed", e);
+        }
+    }
+
+    private Object valueAt(int offset) {
+        return value(new Cursor(offset));
+    }
+
+    private Object value(Cursor cursor) {
+        int start = cursor.position;
+        byte tag = buffer.get(cursor.position++);
+        return switch (tag) {
+            case NULL -> null;
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case STRING -> string(readVarint(buffer, cursor));
+            case INT -> (Object) (int) unzigzag(readVarlong(buffer, cursor));
+            case LONG -> unzigzag(readVarlong(buffer, cursor));
+            case DOUBLE -> {
+                cursor.position += 8;
+                yield Double.longBitsToDouble(buffer.getLong(start + 1));
+            }
+            case BIG_INTEGER -> new BigInteger(string(readVarint(buffer, cursor)));
+            case BIG_DECIMAL -> new BigDecimal(string(readVarint(buffer, cursor)));
+            case ENUM -> constant(classes[readVarint(buffer, cursor)], string(readVarint(buffer, cursor)));
+            case REFERENCE -> {
+                cursor.position += 4;
+                yield valueAt(buffer.getInt(start + 1));
+            }
+            case RECORD, LIST, MAP, FROZEN_MAP, LAZY_MAP -> composite(tag, start, cursor);
+            case RECORD | SHARED, LIST | SHARED, MAP | SHARED, FROZEN_MAP | SHARED -> shared(tag, start, cursor);
+            default -> throw new IllegalStateException("Unknown tag " + tag + " at " + start);
+        };
+    }
+
+    private Object composite(byte tag, int start, Cursor cursor) {
+        int type = readVarint(buffer, cursor);
+        int end = buffer.getInt(cursor.position);
+        cursor.position += 4;
+        Object value = switch (tag) {
+            case RECORD -> record(type, cursor);
+            case LIST -> list(type, cursor);
+            case MAP -> map(type, cursor);
+            case LAZY_MAP -> new LazyMap(cursor.position);
+            default -> frozenMap(type, cursor);
+        };
+        cursor.position = end;
+        return value;
+    }
+
+    /**
+     * Materializes a value that is reachable more than once, or returns the already materialized instance and skips
+     * its encoding.
+     */
+    private Object shared(byte tag, int start, Cursor cursor) {
+        Object value = materialized.get(start);
+        if (value != null) {
+            readVarint(buffer, cursor);
+            cursor.position = buffer.getInt(cursor.position);
+            return value;
+        }
+        value = composite((byte) (tag & ~SHARED), start, cursor);
+        Object previous = materialized.putIfAbsent(start, value);
+        return previous != null ? previous : value;
+    }
+
+    private Object record(int type, Cursor cursor) {
+        Object[] arguments = new Object[constructors[type].getParameterCount()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = value(cursor);
+        }
+        return instantiate(type, arguments);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object list(int type, Cursor cursor) {
+        Collection<Object> list = (Collection<Object>) instantiate(type);
+        int size = readVarint(buffer, cursor);
+        for (int i = 0; i < size; i++) {
+            list.add(value(cursor));
+        }
+        if (list instanceof List<?> elements) {
+            if (elements instanceof Tags tags) {
+                tags.freeze();
+                return tags;
+            }
+            return Collections.unmodifiableList(elements);
+        }
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object map(int type, Cursor cursor) {
+        Map<String, Object> map = (Map<String, Object>) instantiate(type);
+        int size = readVarint(buffer, cursor);
+        for (int i = 0; i < size; i++) {
+            String key = string(readVarint(buffer, cursor));
+            map.put(key, value(cursor));
+        }
+        return map;
+    }
+
+    private Object frozenMap(int type, Cursor cursor) {
+        FreezableMap<?> map = (FreezableMap<?>) instantiate(type);
+        int size = readVarint(buffer, cursor);
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = string(readVarint(buffer, cursor));
+        }
+        freezeLazily(map, keys, cursor.position);
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> void freezeLazily(FreezableMap<V> map, String[] keys, int offsets) {
+        map.freezeLazily(keys, index -> (V) entry(offsets, index));
+    }
+
+    private Object entry(int offsets, int index) {
+        int offset = buffer.getInt(offsets + 4 * index);
+        try {
+            return valueAt(offset);
+        } catch (RuntimeException e) {
+            throw new UncheckedIOException(new SnapshotFormatException("Corrupt snapshot value at " + offset, e));
+        }
+    }
+
+    private Object instantiate(int type, Object... arguments) {
+        try {
+            return constructors[type].newInstance(arguments);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot instantiate " + classes[type].getName(), e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object constant(Class<?> type, String name) {
+        return Enum.valueOf((Class) type, name);
+    }
+
+    private String string(int index) {
+        return strings.get(index);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int readVarint(ByteBuffer buffer, Cursor cursor) {
+        long value = readVarlong(buffer, cursor);
+        if (value >>> 32 != 0) {
+            throw new IllegalStateException("Malformed varint at " + cursor.position);
+        }
+        return (int) value;
+    }
+
+    private static long readVarlong(ByteBuffer buffer, Cursor cursor) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get(cursor.position++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint at " + cursor.position);
+    }
+
+    /**
+     * A read-only map held by a record. Its keys are decoded on first access of the map, and every value on first
+     * access of the value, at most once.
+     */
+    private final class LazyMap extends AbstractMap<String, Object> {
+
+        private final int position;
+        private volatile String[] keys;
+        private Map<String, Integer> indexes;
+        private Object[] values;
+        private int offsets;
+
+        LazyMap(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Integer index = indexes().get(key);
+            return index == null ? null : value(index);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexes().containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return keys().length;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    String[] names = keys();
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < names.length;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            if (next >= names.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next++;
+                            return new SimpleImmutableEntry<>(names[index], value(index));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys().length;
+                }
+            };
+        }
+
+        private String[] keys() {
+            String[] current = keys;
+            if (current == null) {
+                synchronized (this) {
+                    current = keys;
+                    if (current == null) {
+                        Cursor cursor = new Cursor(position);
+                        current = new String[readVarint(buffer, cursor)];
+                        Map<String, Integer> byKey = new HashMap<>(current.length * 4 / 3 + 1);
+                        for (int i = 0; i < current.length; i++) {
+                            current[i] = string(readVarint(buffer, cursor));
+                            byKey.put(current[i], i);
+                        }
+                        indexes = byKey;
+                        values = new Object[current.length];
+                        Arrays.fill(values, UNLOADED);
+                        offsets = cursor.position;
+                        keys = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        private Map<String, Integer> indexes() {
+            keys();
+            return indexes;
+        }
+
+        private Object value(int index) {
+            Object value = VALUES.getAcquire(values, index);
+            return value != UNLOADED ? value : load(index);
+        }
+
+        private synchronized Object load(int index) {
+            Object value = values[index];
+            if (value == UNLOADED) {
+                value = entry(offsets, index);
+                VALUES.setRelease(values, index, value);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Decodes strings on first use. Concurrent first uses may decode a string twice, which is harmless.
+     */
+    private static final class StringTable {
+
+        private final ByteBuffer buffer;
+        private final int table;
+        private final int offsets;
+        private final String[] strings;
+
+        StringTable(ByteBuffer buffer, int table) {
+            Cursor cursor = new Cursor(table);
+            this.buffer = buffer;
+            this.table = table;
+            this.strings = new String[readVarint(buffer, cursor)];
+            this.offsets = cursor.position;
+        }
+
+        String get(int index) {
+            String value = strings[index];
+            if (value == null) {
+                Cursor cursor = new Cursor(table + buffer.getInt(offsets + 4 * index));
+                byte[] bytes = new byte[readVarint(buffer, cursor)];
+                buffer.get(cursor.position, bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+                strings[index] = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Read position within the buffer, which itself is only read with absolute accessors and so can be shared.
+     */
+    private static final class Cursor {
+
+        int position;
+
+        Cursor(int position) {
+            this.position = position;
+        }
+    }
+}
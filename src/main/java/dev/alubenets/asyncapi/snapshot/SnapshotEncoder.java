@@ -0,0 +1,326 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.snapshot;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.FreezableMap;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static dev.alubenets.asyncapi.snapshot.SnapshotFormat.*;
+
+/**
+ * Writes a document in the snapshot layout described by {@link SnapshotFormat}. Single use.
+ */
+final class SnapshotEncoder {
+
+    private static final ClassValue<Method[]> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Method[] computeValue(Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            Method[] methods = new Method[components.length];
+            for (int i = 0; i < components.length; i++) {
+                methods[i] = components[i].getAccessor();
+            }
+            return methods;
+        }
+    };
+
+    private byte[] out = new byte[64 * 1024];
+    private int position;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final List<String> stringList = new ArrayList<>();
+    private final Map<Class<?>, Integer> classes = new IdentityHashMap<>();
+    private final List<Class<?>> classList = new ArrayList<>();
+    private final Map<Object, Integer> written = new IdentityHashMap<>();
+
+    byte[] encode(AsyncAPI document) {
+        position = HEADER_LENGTH;
+        int root = position;
+        value(document);
+        int classTable = position;
+        classTable();
+        int stringTable = position;
+        stringTable();
+        int length = position;
+        position = 0;
+        writeInt(MAGIC);
+        writeInt(VERSION);
+        writeInt(length);
+        writeInt(classTable);
+        writeInt(stringTable);
+        writeInt(root);
+        return Arrays.copyOf(out, length);
+    }
+
+    private void value(Object value) {
+        if (value == null) {
+            writeByte(NULL);
+        } else if (value instanceof String string) {
+            writeByte(STRING);
+            writeVarint(string(string));
+        } else if (value instanceof Boolean bool) {
+            writeByte(bool ? TRUE : FALSE);
+        } else if (value instanceof Integer number) {
+            writeByte(INT);
+            writeVarlong(zigzag(number));
+        } else if (value instanceof Long number) {
+            writeByte(LONG);
+            writeVarlong(zigzag(number));
+        } else if (value instanceof Double number) {
+            writeByte(DOUBLE);
+            writeLong(Double.doubleToRawLongBits(number));
+        } else if (value instanceof BigInteger number) {
+            writeByte(BIG_INTEGER);
+            writeVarint(string(number.toString()));
+        } else if (value instanceof Number number) {
+            writeByte(BIG_DECIMAL);
+            writeVarint(string(new BigDecimal(number.toString()).toString()));
+        } else if (value instanceof Enum<?> constant) {
+            writeByte(ENUM);
+            writeVarint(classIndex(constant.getDeclaringClass()));
+            writeVarint(string(constant.name()));
+        } else {
+            // Documents share records after interning, and records, schemas and other maps and lists wherever one
+            // instance was put in several places.
+            Integer previous = written.putIfAbsent(value, position);
+            if (previous != null) {
+                out[previous] |= SHARED;
+                writeByte(REFERENCE);
+                writeInt(previous);
+            } else {
+                composite(value);
+            }
+        }
+    }
+
+    private void composite(Object value) {
+        if (value instanceof Record record) {
+            writeByte(RECORD);
+            int end = start(record.getClass());
+            for (Method accessor : ACCESSORS.get(record.getClass())) {
+                Object component = component(accessor, record);
+                Class<?> declared = accessor.getReturnType();
+                if (component instanceof Map<?, ?> map && !(component instanceof FreezableMap<?>)
+                    && (declared == Map.class || declared == Object.class)) {
+                    writeByte(LAZY_MAP);
+                    int mapEnd = start(LinkedHashMap.class);
+                    entries(map);
+                    patchInt(mapEnd, position);
+                } else {
+                    value(component);
+                }
+            }
+            patchInt(end, position);
+        } else if (value instanceof FreezableMap<?> map) {
+            writeByte(FROZEN_MAP);
+            int end = start(map.getClass());
+            entries(map);
+            patchInt(end, position);
+        } else if (value instanceof Map<?, ?> map) {
+            writeByte(MAP);
+            int end = start(isSupported(map.getClass()) ? map.getClass() : LinkedHashMap.class);
+            writeVarint(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String key)) {
+                    throw new IllegalArgumentException("Unsupported map key " + entry.getKey());
+                }
+                writeVarint(string(key));
+                value(entry.getValue());
+            }
+            patchInt(end, position);
+        } else if (value instanceof List<?> list) {
+            writeByte(LIST);
+            int end = start(isSupported(list.getClass()) ? list.getClass() : ArrayList.class);
+            writeVarint(list.size());
+            for (Object item : list) {
+                value(item);
+            }
+            patchInt(end, position);
+        } else {
+            throw new IllegalArgumentException("Unsupported value of " + value.getClass());
+        }
+    }
+
+    /**
+     * Writes the keys of a map followed by the offsets of its values and the values.
+     */
+    private void entries(Map<?, ?> map) {
+        List<Object> values = new ArrayList<>(map.size());
+        writeVarint(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!(entry.getKey() instanceof String key)) {
+                throw new IllegalArgumentException("Unsupported map key " + entry.getKey());
+            }
+            writeVarint(string(key));
+            values.add(entry.getValue());
+        }
+        int offsets = reserve(4 * values.size());
+        for (int i = 0; i < values.size(); i++) {
+            patchInt(offsets + 4 * i, position);
+            value(values.get(i));
+        }
+    }
+
+    /**
+     * Writes the class index and reserves the end offset of a composite value.
+     */
+    private int start(Class<?> type) {
+        if (!isSupported(type)) {
+            throw new IllegalArgumentException("Unsupported type " + type.getName());
+        }
+        writeVarint(classIndex(type));
+        return reserve(4);
+    }
+
+    private static Object component(Method accessor, Record record) {
+        try {
+            return accessor.invoke(record);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot read " + accessor, e);
+        }
+    }
+
+    private int classIndex(Class<?> type) {
+        Integer index = classes.get(type);
+        if (index == null) {
+            index = classList.size();
+            classes.put(type, index);
+            classList.add(type);
+        }
+        return index;
+    }
+
+    private int string(String value) {
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = stringList.size();
+            strings.put(value, index);
+            stringList.add(value);
+        }
+        return index;
+    }
+
+    private void classTable() {
+        writeVarint(classList.size());
+        for (Class<?> type : classList) {
+            writeVarint(string(type.getName()));
+            byte kind = kind(type);
+            writeByte(kind);
+            if (kind == KIND_RECORD) {
+                RecordComponent[] components = type.getRecordComponents();
+                writeVarint(components.length);
+                for (RecordComponent component : components) {
+                    writeVarint(string(component.getName()));
+                    writeVarint(string(signature(component)));
+                }
+            }
+        }
+    }
+
+    private void stringTable() {
+        int table = position;
+        writeVarint(stringList.size());
+        int offsets = reserve(4 * stringList.size());
+        for (int i = 0; i < stringList.size(); i++) {
+            patchInt(offsets + 4 * i, position - table);
+            byte[] bytes = stringList.get(i).getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, out, position, bytes.length);
+            position += bytes.length;
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private int reserve(int length) {
+        ensure(length);
+        int start = position;
+        position += length;
+        return start;
+    }
+
+    private void ensure(int length) {
+        if (position + length > out.length) {
+            long capacity = Math.max((long) out.length * 2, (long) position + length);
+            if (capacity > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Document is too large for a snapshot");
+            }
+            out = Arrays.copyOf(out, (int) capacity);
+        }
+    }
+
+    private void writeByte(int value) {
+        ensure(1);
+        out[position++] = (byte) value;
+    }
+
+    private void writeVarint(int value) {
+        writeVarlong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarlong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+        ensure(4);
+        patchInt(position, value);
+        position += 4;
+    }
+
+    private void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    private void patchInt(int at, int value) {
+        out[at] = (byte) (value >>> 24);
+        out[at + 1] = (byte) (value >>> 16);
+        out[at + 2] = (byte) (value >>> 8);
+        out[at + 3] = (byte) value;
+    }
+}
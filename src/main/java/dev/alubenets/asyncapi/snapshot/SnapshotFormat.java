@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.snapshot;
+
+import dev.alubenets.asyncapi.models.FreezableMap;
+
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout of a snapshot. All integers are big-endian.
+ * <pre>
+ * header    int magic, int format version, int total length,
+ *           int class table offset, int string table offset, int root offset
+ * values    the root {@code AsyncAPI} value and everything reachable from it
+ * classes   varint count, per class: varint name string, byte kind, and for records varint component count followed
+ *           by the name and generic type strings of every component
+ * strings   varint count, int offset per string relative to the table, then varint length and UTF-8 bytes each
+ * </pre>
+ * A value starts with a tag byte. Records, lists and maps are followed by a class index and the int offset of their
+ * end, so a reader can skip values it has already materialized. Frozen maps, and the maps records hold in components
+ * typed {@code Map} or {@code Object} such as those of {@code Components}, store the offsets of their values, which
+ * lets a reader materialize single entries. A record, list or map that is reachable more than once is written once,
+ * flagged as {@link #SHARED}, and referred to by the offset of its tag afterwards. The maps that are written for lazy
+ * access within a record are always written in place.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x41534E50;
+    static final int VERSION = 2;
+    static final int HEADER_LENGTH = 24;
+
+    static final byte NULL = 0;
+    static final byte TRUE = 1;
+    static final byte FALSE = 2;
+    static final byte STRING = 3;
+    static final byte INT = 4;
+    static final byte LONG = 5;
+    static final byte DOUBLE = 6;
+    static final byte BIG_INTEGER = 7;
+    static final byte BIG_DECIMAL = 8;
+    static final byte ENUM = 9;
+    static final byte RECORD = 10;
+    static final byte LIST = 11;
+    static final byte MAP = 12;
+    static final byte FROZEN_MAP = 13;
+    static final byte REFERENCE = 14;
+    static final byte LAZY_MAP = 15;
+
+    /**
+     * Set on the tag of a record, list or map that is referred to by a {@link #REFERENCE}.
+     */
+    static final byte SHARED = 0x40;
+
+    static final byte KIND_RECORD = 1;
+    static final byte KIND_ENUM = 2;
+    static final byte KIND_LIST = 3;
+    static final byte KIND_MAP = 4;
+    static final byte KIND_FROZEN_MAP = 5;
+
+    private static final String MODELS_PACKAGE = FreezableMap.class.getPackageName() + ".";
+
+    private SnapshotFormat() {
+    }
+
+    static byte kind(Class<?> type) {
+        if (type.isRecord()) {
+            return KIND_RECORD;
+        }
+        if (type.isEnum()) {
+            return KIND_ENUM;
+        }
+        if (FreezableMap.class.isAssignableFrom(type)) {
+            return KIND_FROZEN_MAP;
+        }
+        if (List.class.isAssignableFrom(type)) {
+            return KIND_LIST;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return KIND_MAP;
+        }
+        throw new IllegalArgumentException("Unsupported type " + type.getName());
+    }
+
+    /**
+     * @return whether instances of the class may be written as is, rather than as a plain list or map.
+     */
+    static boolean isSupported(Class<?> type) {
+        return type == ArrayList.class || type == LinkedHashMap.class || type == HashMap.class
+            || type.getName().startsWith(MODELS_PACKAGE);
+    }
+
+    /**
+     * @return the signature of a record component that must match between writer and reader.
+     */
+    static String signature(RecordComponent component) {
+        return component.getGenericType().getTypeName();
+    }
+}
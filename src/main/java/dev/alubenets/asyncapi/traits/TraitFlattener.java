@@ -0,0 +1,290 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.traits;
+
+import dev.alubenets.asyncapi.codecs.ModelCodec;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.FreezableMap;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.MessageTrait;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.OperationTrait;
+import dev.alubenets.asyncapi.models.ProtocolBindings;
+import dev.alubenets.asyncapi.models.Reference;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies operation and message traits to their targets and caches the effective objects of a document.
+ * <p>
+ * Traits are merged the way the specification defines it: in the order they are listed, as JSON Merge Patches, and
+ * a property of the target always wins over the same property of a trait. Objects, such as header schemas and
+ * bindings, are merged property by property, arrays and scalars are replaced as a whole. Effective objects have no
+ * traits and keep sharing every sub-object that the merge did not change with the original and the traits, and
+ * objects without traits are returned as they are.
+ * <p>
+ * Each object is flattened once, later lookups return the cached effective object. Flatteners are thread-safe.
+ * <pre>{@code
+ * TraitFlattener traits = TraitFlattener.of(ReferenceResolver.of(api));
+ * Operation operation = traits.effective(api.operations().get("onUserSignup"));
+ * }</pre>
+ */
+public final class TraitFlattener {
+
+    private final ReferenceResolver resolver;
+    /**
+     * Effective objects by the identity of the original object.
+     */
+    private final Map<Identity, Object> effective = new ConcurrentHashMap<>();
+
+    private TraitFlattener(ReferenceResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * @param resolver the resolver of the document, trait references are resolved through it.
+     * @return a flattener for the document of the resolver.
+     */
+    public static TraitFlattener of(ReferenceResolver resolver) {
+        return new TraitFlattener(Objects.requireNonNull(resolver, "resolver"));
+    }
+
+    /**
+     * @param document a document without references into other files.
+     * @return a flattener for the document.
+     */
+    public static TraitFlattener of(AsyncAPI document) {
+        return of(ReferenceResolver.of(document));
+    }
+
+    /**
+     * @param operation an operation of the document, possibly a reference.
+     * @return the operation with its traits applied, or the resolved operation if it has no traits.
+     * @throws dev.alubenets.asyncapi.resolver.ReferenceResolutionException if a reference cannot be resolved.
+     */
+    public Operation effective(Operation operation) {
+        if (operation == null) {
+            return null;
+        }
+        Identity key = new Identity(operation);
+        Object cached = effective.get(key);
+        if (cached != null) {
+            return (Operation) cached;
+        }
+        Operation result = flatten(resolver.resolve(operation));
+        Object previous = effective.putIfAbsent(key, result);
+        return previous != null ? (Operation) previous : result;
+    }
+
+    /**
+     * @param message a message of the document, possibly a reference.
+     * @return the message with its traits applied, or the resolved message if it has no traits.
+     * @throws dev.alubenets.asyncapi.resolver.ReferenceResolutionException if a reference cannot be resolved.
+     */
+    public Message effective(Message message) {
+        if (message == null) {
+            return null;
+        }
+        Identity key = new Identity(message);
+        Object cached = effective.get(key);
+        if (cached != null) {
+            return (Message) cached;
+        }
+        Message result = flatten(resolver.resolve(message));
+        Object previous = effective.putIfAbsent(key, result);
+        return previous != null ? (Message) previous : result;
+    }
+
+    private Operation flatten(Operation operation) {
+        List<OperationTrait> traits = operation.traits();
+        if (traits == null || traits.isEmpty()) {
+            return operation;
+        }
+        OperationTrait trait = null;
+        for (OperationTrait next : traits) {
+            trait = merge(trait, resolver.resolve(next));
+        }
+        return new Operation(
+            operation.$ref(),
+            operation.action(),
+            operation.channel(),
+            merge(trait.title(), operation.title()),
+            merge(trait.summary(), operation.summary()),
+            merge(trait.description(), operation.description()),
+            merge(trait.security(), operation.security()),
+            merge(trait.tags(), operation.tags()),
+            merge(trait.externalDocs(), operation.externalDocs()),
+            merge(trait.bindings(), operation.bindings()),
+            null,
+            operation.messages(),
+            operation.reply()
+        );
+    }
+
+    private Message flatten(Message message) {
+        List<MessageTrait> traits = message.traits();
+        if (traits == null || traits.isEmpty()) {
+            return message;
+        }
+        MessageTrait trait = null;
+        for (MessageTrait next : traits) {
+            trait = merge(trait, resolver.resolve(next));
+        }
+        return new Message(
+            message.$ref(),
+            merge(trait.headers(), message.headers()),
+            message.payload(),
+            merge(trait.correlationId(), message.correlationId()),
+            merge(trait.contentType(), message.contentType()),
+            merge(trait.name(), message.name()),
+            merge(trait.title(), message.title()),
+            merge(trait.summary(), message.summary()),
+            merge(trait.description(), message.description()),
+            merge(trait.tags(), message.tags()),
+            merge(trait.externalDocs(), message.externalDocs()),
+            merge(trait.bindings(), message.bindings()),
+            merge(trait.examples(), message.examples()),
+            null
+        );
+    }
+
+    /**
+     * Applies a merge patch.
+     *
+     * @param base  the value being patched, {@code null} if it is absent.
+     * @param patch the patch, whose values win.
+     * @return the merged value, which is {@code base} or {@code patch} whenever one of them already is the result.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T merge(T base, T patch) {
+        if (base == null || base == patch) {
+            return patch;
+        }
+        if (patch == null) {
+            return base;
+        }
+        if (base instanceof Map<?, ?> && patch instanceof Map<?, ?>) {
+            Object from = resolver.resolveValue(base);
+            Object to = resolver.resolveValue(patch);
+            if (from instanceof Map<?, ?> x && to instanceof Map<?, ?> y && isMergeable(x, y)) {
+                return (T) mergeMaps((Map<String, Object>) x, (Map<String, Object>) y);
+            }
+            return patch;
+        }
+        if (base instanceof Record && base.getClass() == patch.getClass()) {
+            if (isRef(base) || isRef(patch)) {
+                // A referenced object is a separate definition and replaces what it is merged with.
+                return patch;
+            }
+            return (T) mergeRecords((Record) base, (Record) patch);
+        }
+        return patch;
+    }
+
+    private Map<String, Object> mergeMaps(Map<String, Object> base, Map<String, Object> patch) {
+        Map<String, Object> result = null;
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            Object current = base.get(entry.getKey());
+            Object merged = merge(current, entry.getValue());
+            if (merged != current || current == null && !base.containsKey(entry.getKey())) {
+                if (result == null) {
+                    result = copy(base);
+                }
+                result.put(entry.getKey(), merged);
+            }
+        }
+        if (result != null && base instanceof FreezableMap<?> map && map.isFrozen()) {
+            ((FreezableMap<?>) result).freeze();
+        }
+        return result != null ? result : base;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> copy(Map<String, Object> map) {
+        if (!(map instanceof ProtocolBindings)) {
+            return new LinkedHashMap<>(map);
+        }
+        Map<String, Object> copy = (Map<String, Object>) ModelCodec.of(map.getClass()).create();
+        copy.putAll(map);
+        return copy;
+    }
+
+    private Record mergeRecords(Record base, Record patch) {
+        ModelCodec<Record> codec = ModelCodec.of(base.getClass());
+        Object[] values = new Object[codec.size()];
+        boolean isBase = true;
+        boolean isPatch = true;
+        for (int i = 0; i < values.length; i++) {
+            Object from = codec.get(base, i);
+            Object to = codec.get(patch, i);
+            values[i] = merge(from, to);
+            isBase &= values[i] == from;
+            isPatch &= values[i] == to;
+        }
+        if (isPatch) {
+            return patch;
+        }
+        if (isBase) {
+            return base;
+        }
+        return codec.create(values);
+    }
+
+    private static boolean isRef(Object value) {
+        return value instanceof Reference reference && reference.isRef();
+    }
+
+    /**
+     * Bindings objects merge into a copy of their own type. Other model maps such as {@code Messages} are typed by
+     * their key, merging them would not keep their type.
+     */
+    private static boolean isMergeable(Map<?, ?> base, Map<?, ?> patch) {
+        if (base instanceof ProtocolBindings || patch instanceof ProtocolBindings) {
+            return base.getClass() == patch.getClass();
+        }
+        return !(base instanceof FreezableMap) && !(patch instanceof FreezableMap);
+    }
+
+    /**
+     * A cache key that compares objects by identity, records would otherwise be hashed deeply on every lookup.
+     */
+    private record Identity(Object value) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Identity identity && identity.value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+}
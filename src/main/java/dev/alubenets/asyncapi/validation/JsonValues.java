@@ -0,0 +1,189 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.validation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON data model operations over decoded values: maps with string keys, lists, strings, numbers, booleans and
+ * {@code null}.
+ */
+final class JsonValues {
+
+    static final int NULL = 1;
+    static final int BOOLEAN = 1 << 1;
+    static final int OBJECT = 1 << 2;
+    static final int ARRAY = 1 << 3;
+    static final int NUMBER = 1 << 4;
+    static final int STRING = 1 << 5;
+    static final int INTEGER = 1 << 6;
+
+    /**
+     * Longs beyond this magnitude are not exactly representable as doubles.
+     */
+    private static final long EXACT_LONG = 1L << 53;
+
+    private JsonValues() {
+    }
+
+    /**
+     * @param name a JSON Schema type name.
+     * @return the type bit, {@link #INTEGER} for {@code integer}, or 0 for an unknown name.
+     */
+    static int type(String name) {
+        return switch (name) {
+            case "null" -> NULL;
+            case "boolean" -> BOOLEAN;
+            case "object" -> OBJECT;
+            case "array" -> ARRAY;
+            case "number" -> NUMBER;
+            case "string" -> STRING;
+            case "integer" -> INTEGER;
+            default -> 0;
+        };
+    }
+
+    /**
+     * @return the type bits of a value, numbers with an integral value are both {@link #NUMBER} and {@link #INTEGER}.
+     */
+    static int typeOf(Object value) {
+        if (value instanceof String) {
+            return STRING;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+            || value instanceof BigInteger) {
+            return NUMBER | INTEGER;
+        }
+        if (value instanceof Map) {
+            return OBJECT;
+        }
+        if (value instanceof List) {
+            return ARRAY;
+        }
+        if (value instanceof Boolean) {
+            return BOOLEAN;
+        }
+        if (value == null) {
+            return NULL;
+        }
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            return number == Math.rint(number) && !Double.isInfinite(number) ? NUMBER | INTEGER : NUMBER;
+        }
+        if (value instanceof BigDecimal number) {
+            return number.stripTrailingZeros().scale() <= 0 ? NUMBER | INTEGER : NUMBER;
+        }
+        return 0;
+    }
+
+    static String typeName(Object value) {
+        int type = typeOf(value);
+        if ((type & INTEGER) != 0) {
+            return "integer";
+        }
+        return switch (type) {
+            case NULL -> "null";
+            case BOOLEAN -> "boolean";
+            case OBJECT -> "object";
+            case ARRAY -> "array";
+            case NUMBER -> "number";
+            case STRING -> "string";
+            default -> value.getClass().getName();
+        };
+    }
+
+    /**
+     * @return whether a number can be compared as a double without losing precision.
+     */
+    static boolean isExact(Number number) {
+        if (number instanceof Integer || number instanceof Double || number instanceof Short || number instanceof Float
+            || number instanceof Byte) {
+            return true;
+        }
+        if (number instanceof Long value) {
+            return value > -EXACT_LONG && value < EXACT_LONG;
+        }
+        return false;
+    }
+
+    static BigDecimal decimal(Number number) {
+        if (number instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (number instanceof BigInteger integer) {
+            return new BigDecimal(integer);
+        }
+        if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    /**
+     * Equality of the JSON data model: numbers are equal by value regardless of their Java type.
+     */
+    static boolean equal(Object a, Object b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        if (a instanceof Number x && b instanceof Number y) {
+            if (isExact(x) && isExact(y)) {
+                return x.doubleValue() == y.doubleValue();
+            }
+            return decimal(x).compareTo(decimal(y)) == 0;
+        }
+        if (a instanceof Map<?, ?> x && b instanceof Map<?, ?> y) {
+            if (x.size() != y.size()) {
+                return false;
+            }
+            for (Map.Entry<?, ?> entry : x.entrySet()) {
+                Object other = y.get(entry.getKey());
+                if (other == null && !y.containsKey(entry.getKey()) || !equal(entry.getValue(), other)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a instanceof List<?> x && b instanceof List<?> y) {
+            int size = x.size();
+            if (size != y.size()) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (!equal(x.get(i), y.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return a.equals(b);
+    }
+}
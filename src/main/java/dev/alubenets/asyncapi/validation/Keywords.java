@@ -0,0 +1,754 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.validation;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static dev.alubenets.asyncapi.validation.JsonValues.INTEGER;
+import static dev.alubenets.asyncapi.validation.JsonValues.NUMBER;
+import static dev.alubenets.asyncapi.validation.JsonValues.OBJECT;
+import static dev.alubenets.asyncapi.validation.JsonValues.STRING;
+
+/**
+ * The supported JSON Schema keywords. Keywords that only apply to one type of value accept values of other types, as
+ * the specification requires; {@code type} restricts those.
+ */
+final class Keywords {
+
+    private Keywords() {
+    }
+
+    static final class False extends Keyword {
+
+        False() {
+            super("false");
+        }
+
+        @Override
+        boolean test(Object value) {
+            return false;
+        }
+
+        @Override
+        String message(Object value) {
+            return "No value is allowed";
+        }
+    }
+
+    static final class Type extends Keyword {
+
+        private final int types;
+        private final String expected;
+
+        Type(int types, String expected) {
+            super("type");
+            this.types = types;
+            this.expected = expected;
+        }
+
+        @Override
+        boolean test(Object value) {
+            // Cheap checks for the common cases before the general type computation.
+            if (value instanceof String) {
+                return (types & STRING) != 0;
+            }
+            if (value instanceof Map) {
+                return (types & OBJECT) != 0;
+            }
+            if (value instanceof Integer || value instanceof Long) {
+                return (types & (NUMBER | INTEGER)) != 0;
+            }
+            return (JsonValues.typeOf(value) & types) != 0;
+        }
+
+        @Override
+        String message(Object value) {
+            return "Expected " + expected + " but found " + JsonValues.typeName(value);
+        }
+    }
+
+    static final class Const extends Keyword {
+
+        private final Object constant;
+
+        Const(Object constant) {
+            super("const");
+            this.constant = constant;
+        }
+
+        @Override
+        boolean test(Object value) {
+            return JsonValues.equal(constant, value);
+        }
+
+        @Override
+        String message(Object value) {
+            return "Expected " + constant;
+        }
+    }
+
+    static final class Enum extends Keyword {
+
+        private final Object[] values;
+
+        Enum(List<?> values) {
+            super("enum");
+            this.values = values.toArray();
+        }
+
+        @Override
+        boolean test(Object value) {
+            for (Object allowed : values) {
+                if (JsonValues.equal(allowed, value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        String message(Object value) {
+            return "Value " + value + " is not one of " + List.of(values);
+        }
+    }
+
+    /**
+     * {@code minimum}, {@code maximum} and their exclusive variants.
+     */
+    static final class Bound extends Keyword {
+
+        private final double limit;
+        private final BigDecimal exactLimit;
+        private final boolean lower;
+        private final boolean exclusive;
+
+        Bound(String name, Number limit, boolean lower, boolean exclusive) {
+            super(name);
+            this.limit = limit.doubleValue();
+            this.exactLimit = JsonValues.decimal(limit);
+            this.lower = lower;
+            this.exclusive = exclusive;
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (!(value instanceof Number number)) {
+                return true;
+            }
+            int comparison = JsonValues.isExact(number)
+                ? Double.compare(number.doubleValue(), limit)
+                : JsonValues.decimal(number).compareTo(exactLimit);
+            if (lower) {
+                return exclusive ? comparison > 0 : comparison >= 0;
+            }
+            return exclusive ? comparison < 0 : comparison <= 0;
+        }
+
+        @Override
+        String message(Object value) {
+            return "Value " + value + " must be " + (lower ? "greater than " : "less than ")
+                + (exclusive ? "" : "or equal to ") + exactLimit.toPlainString();
+        }
+    }
+
+    static final class MultipleOf extends Keyword {
+
+        private final BigDecimal divisor;
+        private final long integralDivisor;
+
+        MultipleOf(Number divisor) {
+            super("multipleOf");
+            this.divisor = JsonValues.decimal(divisor);
+            BigDecimal stripped = this.divisor.stripTrailingZeros();
+            this.integralDivisor = stripped.scale() <= 0 && stripped.precision() - stripped.scale() < 19
+                ? stripped.longValueExact()
+                : 0;
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (!(value instanceof Number number)) {
+                return true;
+            }
+            if (integralDivisor != 0 && (number instanceof Integer || number instanceof Long)) {
+                return number.longValue() % integralDivisor == 0;
+            }
+            if (number instanceof Double || number instanceof Float) {
+                double d = number.doubleValue();
+                if (Double.isNaN(d) || Double.isInfinite(d)) {
+                    return false;
+                }
+            }
+            return JsonValues.decimal(number).remainder(divisor).signum() == 0;
+        }
+
+        @Override
+        String message(Object value) {
+            return "Value " + value + " is not a multiple of " + divisor.toPlainString();
+        }
+    }
+
+    /**
+     * {@code minLength} and {@code maxLength}, which count code points rather than chars.
+     */
+    static final class Length extends Keyword {
+
+        private final int limit;
+        private final boolean lower;
+
+        Length(String name, int limit, boolean lower) {
+            super(name);
+            this.limit = limit;
+            this.lower = lower;
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (!(value instanceof String string)) {
+                return true;
+            }
+            int chars = string.length();
+            // A string has at most as many code points as chars and at least half as many.
+            if (lower) {
+                return chars >= limit && (chars / 2 >= limit || string.codePointCount(0, chars) >= limit);
+            }
+            return chars <= limit || chars / 2 <= limit && string.codePointCount(0, chars) <= limit;
+        }
+
+        @Override
+        String message(Object value) {
+            return "String must have " + (lower ? "at least " : "at most ") + limit + " characters";
+        }
+    }
+
+    static final class Matches extends Keyword {
+
+        private final Pattern pattern;
+
+        Matches(Pattern pattern) {
+            super("pattern");
+            this.pattern = pattern;
+        }
+
+        @Override
+        boolean test(Object value) {
+            return !(value instanceof String string) || pattern.matcher(string).find();
+        }
+
+        @Override
+        String message(Object value) {
+            return "String does not match " + pattern.pattern();
+        }
+    }
+
+    /**
+     * {@code minItems}, {@code maxItems}, {@code minProperties} and {@code maxProperties}.
+     */
+    static final class Size extends Keyword {
+
+        private final int limit;
+        private final boolean lower;
+        private final boolean array;
+
+        Size(String name, int limit, boolean lower, boolean array) {
+            super(name);
+            this.limit = limit;
+            this.lower = lower;
+            this.array = array;
+        }
+
+        @Override
+        boolean test(Object value) {
+            int size;
+            if (array && value instanceof List<?> list) {
+                size = list.size();
+            } else if (!array && value instanceof Map<?, ?> map) {
+                size = map.size();
+            } else {
+                return true;
+            }
+            return lower ? size >= limit : size <= limit;
+        }
+
+        @Override
+        String message(Object value) {
+            return (array ? "Array" : "Object") + " must have " + (lower ? "at least " : "at most ") + limit
+                + (array ? " items" : " properties");
+        }
+    }
+
+    /**
+     * {@code items} and {@code additionalItems}: a schema for every element, or a schema per position followed by a
+     * schema for the remaining elements.
+     */
+    static final class Items extends Keyword {
+
+        private final Schema[] positions;
+        private final Schema rest;
+
+        Items(Schema[] positions, Schema rest) {
+            super("items");
+            this.positions = positions;
+            this.rest = rest;
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (!(value instanceof List<?> list)) {
+                return true;
+            }
+            int size = list.size();
+            for (int i = 0; i < size; i++) {
+                Schema schema = i < positions.length ? positions[i] : rest;
+                if (schema == null) {
+                    return true;
+                }
+                if (!schema.test(list.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void collect(Object value, Report report) {
+            if (!(value instanceof List<?> list)) {
+                return;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                Schema schema = i < positions.length ? positions[i] : rest;
+                if (schema == null) {
+                    return;
+                }
+                Object item = list.get(i);
+                if (!schema.test(item)) {
+                    int length = report.enter(i);
+                    schema.collect(item, report);
+                    report.leave(length);
+                }
+            }
+        }
+    }
+
+    static final class UniqueItems extends Keyword {
+
+        UniqueItems() {
+            super("uniqueItems");
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (!(value instanceof List<?> list)) {
+                return true;
+            }
+            int size = list.size();
+            for (int i = 1; i < size; i++) {
+                Object item = list.get(i);
+                for (int j = 0; j < i; j++) {
+                    if (JsonValues.equal(item, list.get(j))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        String message(Object value) {
+            return "Array items must be unique";
+        }
+    }
+
+    static final class Contains extends Keyword {
+
+        private final Schema schema;
+
+        Contains(Schema schema) {
+            super("contains");
+            this.schema = schema;
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (!(value instanceof List<?> list)) {
+                return true;
+            }
+            for (Object item : list) {
+                if (schema.test(item)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        String message(Object value) {
+            return "Array has no matching item";
+        }
+    }
+
+    static final class Required extends Keyword {
+
+        private final String[] names;
+
+        Required(String[] names) {
+            super("required");
+            this.names = names;
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (!(value instanceof Map<?, ?> map)) {
+                return true;
+            }
+            for (String name : names) {
+                if (!map.containsKey(name)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void collect(Object value, Report report) {
+            if (value instanceof Map<?, ?> map) {
+                for (String name : names) {
+                    if (!map.containsKey(name)) {
+                        report.error(this.name, "Missing property " + name);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code properties}, {@code patternProperties} and {@code additionalProperties}, which depend on each other.
+     */
+    static final class Properties extends Keyword {
+
+        private final String[] names;
+        private final Schema[] schemas;
+        private final Map<String, Schema> byName;
+        private final Pattern[] patterns;
+        private final Schema[] patternSchemas;
+        private final Schema additional;
+
+        Properties(String[] names, Schema[] schemas, Pattern[] patterns, Schema[] patternSchemas, Schema additional) {
+            super("properties");
+            this.names = names;
+            this.schemas = schemas;
+            this.byName = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                byName.put(names[i], schemas[i]);
+            }
+            this.patterns = patterns;
+            this.patternSchemas = patternSchemas;
+            this.additional = additional;
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (!(value instanceof Map<?, ?> map)) {
+                return true;
+            }
+            if (additional == null && patterns.length == 0) {
+                // Only declared properties are constrained, look them up instead of iterating the object.
+                for (int i = 0; i < names.length; i++) {
+                    Object property = map.get(names[i]);
+                    if ((property != null || map.containsKey(names[i])) && !schemas[i].test(property)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                Object property = entry.getValue();
+                Schema schema = byName.get(key);
+                boolean matched = schema != null;
+                if (matched && !schema.test(property)) {
+                    return false;
+                }
+                for (int i = 0; i < patterns.length; i++) {
+                    if (patterns[i].matcher(key).find()) {
+                        matched = true;
+                        if (!patternSchemas[i].test(property)) {
+                            return false;
+                        }
+                    }
+                }
+                if (!matched && additional != null && !additional.test(property)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void collect(Object value, Report report) {
+            if (!(value instanceof Map<?, ?> map)) {
+                return;
+            }
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                Object property = entry.getValue();
+                Schema schema = byName.get(key);
+                boolean matched = schema != null;
+                int length = report.enter(key);
+                if (matched) {
+                    schema.collect(property, report);
+                }
+                for (int i = 0; i < patterns.length; i++) {
+                    if (patterns[i].matcher(key).find()) {
+                        matched = true;
+                        patternSchemas[i].collect(property, report);
+                    }
+                }
+                if (!matched && additional != null && !additional.test(property)) {
+                    if (isFalse(additional)) {
+                        report.error("additionalProperties", "Property " + key + " is not allowed");
+                    } else {
+                        additional.collect(property, report);
+                    }
+                }
+                report.leave(length);
+            }
+        }
+    }
+
+    private static boolean isFalse(Schema schema) {
+        return schema.keywords.length == 1 && schema.keywords[0] instanceof False;
+    }
+
+    static final class PropertyNames extends Keyword {
+
+        private final Schema schema;
+
+        PropertyNames(Schema schema) {
+            super("propertyNames");
+            this.schema = schema;
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (!(value instanceof Map<?, ?> map)) {
+                return true;
+            }
+            for (Object key : map.keySet()) {
+                if (!schema.test(key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        String message(Object value) {
+            return "Object has an invalid property name";
+        }
+    }
+
+    /**
+     * {@code dependencies}: properties that require other properties, or the object to match a schema, when present.
+     */
+    static final class Dependencies extends Keyword {
+
+        private final String[] keys;
+        private final String[][] required;
+        private final Schema[] schemas;
+
+        Dependencies(String[] keys, String[][] required, Schema[] schemas) {
+            super("dependencies");
+            this.keys = keys;
+            this.required = required;
+            this.schemas = schemas;
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (!(value instanceof Map<?, ?> map)) {
+                return true;
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (!map.containsKey(keys[i])) {
+                    continue;
+                }
+                if (schemas[i] != null && !schemas[i].test(value)) {
+                    return false;
+                }
+                if (required[i] != null) {
+                    for (String name : required[i]) {
+                        if (!map.containsKey(name)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        String message(Object value) {
+            return "Object does not satisfy the dependencies of its properties";
+        }
+    }
+
+    static final class AllOf extends Keyword {
+
+        private final Schema[] schemas;
+
+        AllOf(Schema[] schemas) {
+            super("allOf");
+            this.schemas = schemas;
+        }
+
+        @Override
+        boolean test(Object value) {
+            for (Schema schema : schemas) {
+                if (!schema.test(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void collect(Object value, Report report) {
+            for (Schema schema : schemas) {
+                schema.collect(value, report);
+            }
+        }
+    }
+
+    static final class AnyOf extends Keyword {
+
+        private final Schema[] schemas;
+
+        AnyOf(Schema[] schemas) {
+            super("anyOf");
+            this.schemas = schemas;
+        }
+
+        @Override
+        boolean test(Object value) {
+            for (Schema schema : schemas) {
+                if (schema.test(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        String message(Object value) {
+            return "Value matches none of the schemas";
+        }
+    }
+
+    static final class OneOf extends Keyword {
+
+        private final Schema[] schemas;
+
+        OneOf(Schema[] schemas) {
+            super("oneOf");
+            this.schemas = schemas;
+        }
+
+        @Override
+        boolean test(Object value) {
+            return matches(value) == 1;
+        }
+
+        private int matches(Object value) {
+            int matches = 0;
+            for (Schema schema : schemas) {
+                if (schema.test(value) && ++matches > 1) {
+                    break;
+                }
+            }
+            return matches;
+        }
+
+        @Override
+        String message(Object value) {
+            return matches(value) == 0 ? "Value matches none of the schemas" : "Value matches more than one schema";
+        }
+    }
+
+    static final class Not extends Keyword {
+
+        private final Schema schema;
+
+        Not(Schema schema) {
+            super("not");
+            this.schema = schema;
+        }
+
+        @Override
+        boolean test(Object value) {
+            return !schema.test(value);
+        }
+
+        @Override
+        String message(Object value) {
+            return "Value must not match the schema";
+        }
+    }
+
+    /**
+     * {@code if}, {@code then} and {@code else}.
+     */
+    static final class Conditional extends Keyword {
+
+        private final Schema condition;
+        private final Schema then;
+        private final Schema otherwise;
+
+        Conditional(Schema condition, Schema then, Schema otherwise) {
+            super("if");
+            this.condition = condition;
+            this.then = then;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        boolean test(Object value) {
+            Schema branch = condition.test(value) ? then : otherwise;
+            return branch == null || branch.test(value);
+        }
+
+        @Override
+        void collect(Object value, Report report) {
+            Schema branch = condition.test(value) ? then : otherwise;
+            if (branch != null) {
+                branch.collect(value, report);
+            }
+        }
+    }
+}
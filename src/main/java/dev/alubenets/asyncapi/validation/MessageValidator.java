@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.validation;
+
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.List;
+
+/**
+ * Validates decoded messages against the {@link Message#headers()} and {@link Message#payload()} schemas of a
+ * {@link Message}. See {@link SchemaValidator} for the supported schemas and values.
+ * <pre>{@code
+ * MessageValidator validator = MessageValidator.compile(message, ReferenceResolver.of(api));
+ * if (!validator.isValid(headers, payload)) {
+ *     List<ValidationError> errors = validator.validate(headers, payload);
+ *     ...
+ * }
+ * }</pre>
+ * Error paths start with {@code /headers} or {@code /payload}. Validators are immutable and safe to share between
+ * threads.
+ */
+public final class MessageValidator {
+
+    private final Schema headers;
+    private final Schema payload;
+
+    private MessageValidator(Schema headers, Schema payload) {
+        this.headers = headers;
+        this.payload = payload;
+    }
+
+    /**
+     * @param message  the message, possibly a reference.
+     * @param resolver resolves the message and the {@code $ref}s in its schemas.
+     * @return the validator. Headers or payloads without a schema are always valid.
+     * @throws SchemaCompilationException if a schema is invalid, uses a schema format other than JSON Schema, or a
+     *                                    reference cannot be resolved.
+     */
+    public static MessageValidator compile(Message message, ReferenceResolver resolver) {
+        Message target = resolver.resolve(message);
+        SchemaCompiler compiler = new SchemaCompiler(resolver);
+        return new MessageValidator(
+            target.headers() == null ? null : compiler.compileMessageSchema(target.headers()),
+            target.payload() == null ? null : compiler.compileMessageSchema(target.payload())
+        );
+    }
+
+    /**
+     * @param headers the decoded application headers.
+     * @param payload the decoded payload.
+     * @return whether the message is valid.
+     */
+    public boolean isValid(Object headers, Object payload) {
+        return (this.headers == null || this.headers.test(headers))
+            && (this.payload == null || this.payload.test(payload));
+    }
+
+    /**
+     * @param headers the decoded application headers.
+     * @param payload the decoded payload.
+     * @return the errors, empty if the message is valid.
+     */
+    public List<ValidationError> validate(Object headers, Object payload) {
+        if (isValid(headers, payload)) {
+            return List.of();
+        }
+        Report report = new Report();
+        collect(this.headers, headers, "headers", report);
+        collect(this.payload, payload, "payload", report);
+        return report.errors;
+    }
+
+    private static void collect(Schema schema, Object value, String part, Report report) {
+        if (schema != null && !schema.test(value)) {
+            int length = report.enter(part);
+            schema.collect(value, report);
+            report.leave(length);
+        }
+    }
+}
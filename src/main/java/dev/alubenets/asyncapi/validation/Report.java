@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the errors of a value that failed validation, along with the JSON pointer of the value being looked at.
+ */
+final class Report {
+
+    final List<ValidationError> errors = new ArrayList<>();
+    private final StringBuilder path = new StringBuilder();
+
+    void error(String keyword, String message) {
+        errors.add(new ValidationError(path.toString(), keyword, message));
+    }
+
+    /**
+     * @return the length of the path to restore with {@link #leave(int)}.
+     */
+    int enter(String token) {
+        int length = path.length();
+        path.append('/');
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            switch (c) {
+                case '~' -> path.append("~0");
+                case '/' -> path.append("~1");
+                default -> path.append(c);
+            }
+        }
+        return length;
+    }
+
+    int enter(int index) {
+        int length = path.length();
+        path.append('/').append(index);
+        return length;
+    }
+
+    void leave(int length) {
+        path.setLength(length);
+    }
+}
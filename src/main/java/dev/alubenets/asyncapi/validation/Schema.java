@@ -0,0 +1,53 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.validation;
+
+/**
+ * A compiled schema: the keywords a value has to satisfy, checked in order until one fails.
+ * <p>
+ * The keywords are assigned once the schema is compiled, which allows recursive schemas to refer to themselves.
+ * Compiled schemas are immutable afterwards and safe to share between threads.
+ */
+final class Schema {
+
+    private static final Keyword[] NONE = new Keyword[0];
+
+    Keyword[] keywords = NONE;
+
+    boolean test(Object value) {
+        for (Keyword keyword : keywords) {
+            if (!keyword.test(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void collect(Object value, Report report) {
+        for (Keyword keyword : keywords) {
+            keyword.collect(value, report);
+        }
+    }
+}
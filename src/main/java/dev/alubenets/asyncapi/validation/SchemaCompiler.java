@@ -0,0 +1,348 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.validation;
+
+import dev.alubenets.asyncapi.resolver.ReferenceResolutionException;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Turns JSON Schema documents in generic form into {@link Schema}s. Every schema object is compiled once, so shared
+ * and recursive {@code $ref}s end up as shared and cyclic compiled schemas. Single use.
+ */
+final class SchemaCompiler {
+
+    private final ReferenceResolver resolver;
+    private final Map<Object, Schema> compiled = new IdentityHashMap<>();
+
+    SchemaCompiler(ReferenceResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Compiles the schema of a message, which may be a Multi Format Schema Object wrapping the actual schema.
+     */
+    Schema compileMessageSchema(Object schema) {
+        if (schema instanceof Map<?, ?> map && map.containsKey("schemaFormat") && !map.containsKey("$ref")) {
+            Object format = map.get("schemaFormat");
+            if (!(format instanceof String name) || !isJsonSchema(name)) {
+                throw new SchemaCompilationException("Unsupported schema format " + format);
+            }
+            return compile(map.get("schema"));
+        }
+        return compile(schema);
+    }
+
+    private static boolean isJsonSchema(String format) {
+        return format.startsWith("application/vnd.aai.asyncapi")
+            || format.startsWith("application/schema+json")
+            || format.startsWith("application/schema+yaml");
+    }
+
+    Schema compile(Object schema) {
+        schema = resolve(schema);
+        if (schema instanceof Boolean allowed) {
+            Schema result = new Schema();
+            if (!allowed) {
+                result.keywords = new Keyword[]{new Keywords.False()};
+            }
+            return result;
+        }
+        if (!(schema instanceof Map<?, ?> map)) {
+            throw new SchemaCompilationException("Schema must be an object or a boolean, found " + schema);
+        }
+        Schema result = compiled.get(map);
+        if (result == null) {
+            result = new Schema();
+            compiled.put(map, result);
+            result.keywords = keywords(map).toArray(new Keyword[0]);
+        }
+        return result;
+    }
+
+    private Object resolve(Object schema) {
+        if (!(schema instanceof Map<?, ?> map) || !(map.get("$ref") instanceof String ref)) {
+            return schema;
+        }
+        if (resolver == null) {
+            throw new SchemaCompilationException("Cannot resolve '" + ref + "' without a document");
+        }
+        try {
+            return resolver.resolveValue(schema);
+        } catch (ReferenceResolutionException e) {
+            throw new SchemaCompilationException("Cannot resolve schema '" + ref + "'", e);
+        }
+    }
+
+    /**
+     * @return the keywords of a schema object, the cheap and the most selective ones first.
+     */
+    private List<Keyword> keywords(Map<?, ?> schema) {
+        List<Keyword> keywords = new ArrayList<>();
+        Object type = schema.get("type");
+        if (type != null) {
+            keywords.add(type(type));
+        }
+        if (schema.containsKey("const")) {
+            keywords.add(new Keywords.Const(schema.get("const")));
+        }
+        if (schema.get("enum") instanceof List<?> values) {
+            keywords.add(new Keywords.Enum(values));
+        }
+
+        numbers(schema, keywords);
+        strings(schema, keywords);
+        arrays(schema, keywords);
+        objects(schema, keywords);
+
+        if (schema.containsKey("allOf")) {
+            keywords.add(new Keywords.AllOf(schemas(schema.get("allOf"), "allOf")));
+        }
+        if (schema.containsKey("anyOf")) {
+            keywords.add(new Keywords.AnyOf(schemas(schema.get("anyOf"), "anyOf")));
+        }
+        if (schema.containsKey("oneOf")) {
+            keywords.add(new Keywords.OneOf(schemas(schema.get("oneOf"), "oneOf")));
+        }
+        if (schema.containsKey("not")) {
+            keywords.add(new Keywords.Not(compile(schema.get("not"))));
+        }
+        if (schema.containsKey("if")) {
+            keywords.add(new Keywords.Conditional(
+                compile(schema.get("if")),
+                schema.containsKey("then") ? compile(schema.get("then")) : null,
+                schema.containsKey("else") ? compile(schema.get("else")) : null
+            ));
+        }
+        return keywords;
+    }
+
+    private static Keyword type(Object type) {
+        List<?> names = type instanceof List<?> list ? list : List.of(type);
+        int types = 0;
+        for (Object name : names) {
+            int bit = name instanceof String string ? JsonValues.type(string) : 0;
+            if (bit == 0) {
+                throw new SchemaCompilationException("Unknown type " + name);
+            }
+            types |= bit;
+        }
+        return new Keywords.Type(types, names.size() == 1 ? String.valueOf(names.get(0)) : names.toString());
+    }
+
+    private static void numbers(Map<?, ?> schema, List<Keyword> keywords) {
+        Number minimum = number(schema, "minimum");
+        Number maximum = number(schema, "maximum");
+        Number exclusiveMinimum = number(schema, "exclusiveMinimum");
+        Number exclusiveMaximum = number(schema, "exclusiveMaximum");
+        Number multipleOf = number(schema, "multipleOf");
+        // Draft 4 spells exclusive bounds as booleans next to minimum and maximum.
+        boolean exclusiveLower = Boolean.TRUE.equals(schema.get("exclusiveMinimum"));
+        boolean exclusiveUpper = Boolean.TRUE.equals(schema.get("exclusiveMaximum"));
+        if (minimum != null) {
+            keywords.add(new Keywords.Bound("minimum", minimum, true, exclusiveLower));
+        }
+        if (maximum != null) {
+            keywords.add(new Keywords.Bound("maximum", maximum, false, exclusiveUpper));
+        }
+        if (exclusiveMinimum != null) {
+            keywords.add(new Keywords.Bound("exclusiveMinimum", exclusiveMinimum, true, true));
+        }
+        if (exclusiveMaximum != null) {
+            keywords.add(new Keywords.Bound("exclusiveMaximum", exclusiveMaximum, false, true));
+        }
+        if (multipleOf != null) {
+            if (JsonValues.decimal(multipleOf).signum() <= 0) {
+                throw new SchemaCompilationException("multipleOf must be greater than 0");
+            }
+            keywords.add(new Keywords.MultipleOf(multipleOf));
+        }
+    }
+
+    private static void strings(Map<?, ?> schema, List<Keyword> keywords) {
+        Integer minLength = count(schema, "minLength");
+        Integer maxLength = count(schema, "maxLength");
+        if (minLength != null) {
+            keywords.add(new Keywords.Length("minLength", minLength, true));
+        }
+        if (maxLength != null) {
+            keywords.add(new Keywords.Length("maxLength", maxLength, false));
+        }
+        if (schema.get("pattern") instanceof String pattern) {
+            keywords.add(new Keywords.Matches(pattern(pattern)));
+        }
+    }
+
+    private void arrays(Map<?, ?> schema, List<Keyword> keywords) {
+        Integer minItems = count(schema, "minItems");
+        Integer maxItems = count(schema, "maxItems");
+        if (minItems != null) {
+            keywords.add(new Keywords.Size("minItems", minItems, true, true));
+        }
+        if (maxItems != null) {
+            keywords.add(new Keywords.Size("maxItems", maxItems, false, true));
+        }
+        if (Boolean.TRUE.equals(schema.get("uniqueItems"))) {
+            keywords.add(new Keywords.UniqueItems());
+        }
+        Object items = schema.get("items");
+        if (items instanceof List<?>) {
+            Schema rest = schema.containsKey("additionalItems") ? compile(schema.get("additionalItems")) : null;
+            keywords.add(new Keywords.Items(schemas(items, "items"), rest));
+        } else if (items != null) {
+            keywords.add(new Keywords.Items(new Schema[0], compile(items)));
+        }
+        if (schema.containsKey("contains")) {
+            keywords.add(new Keywords.Contains(compile(schema.get("contains"))));
+        }
+    }
+
+    private void objects(Map<?, ?> schema, List<Keyword> keywords) {
+        Integer minProperties = count(schema, "minProperties");
+        Integer maxProperties = count(schema, "maxProperties");
+        if (minProperties != null) {
+            keywords.add(new Keywords.Size("minProperties", minProperties, true, false));
+        }
+        if (maxProperties != null) {
+            keywords.add(new Keywords.Size("maxProperties", maxProperties, false, false));
+        }
+        if (schema.get("required") instanceof List<?> required && !required.isEmpty()) {
+            keywords.add(new Keywords.Required(strings(required, "required")));
+        }
+
+        Map<?, ?> properties = map(schema, "properties");
+        Map<?, ?> patternProperties = map(schema, "patternProperties");
+        Object additional = schema.get("additionalProperties");
+        if (!properties.isEmpty() || !patternProperties.isEmpty() || additional != null) {
+            String[] names = new String[properties.size()];
+            Schema[] schemas = new Schema[properties.size()];
+            int i = 0;
+            for (Map.Entry<?, ?> entry : properties.entrySet()) {
+                names[i] = String.valueOf(entry.getKey());
+                schemas[i++] = compile(entry.getValue());
+            }
+            Pattern[] patterns = new Pattern[patternProperties.size()];
+            Schema[] patternSchemas = new Schema[patternProperties.size()];
+            i = 0;
+            for (Map.Entry<?, ?> entry : patternProperties.entrySet()) {
+                patterns[i] = pattern(String.valueOf(entry.getKey()));
+                patternSchemas[i++] = compile(entry.getValue());
+            }
+            // additionalProperties: true constrains nothing, skip it to keep the lookup path.
+            Schema rest = additional == null || Boolean.TRUE.equals(additional) ? null : compile(additional);
+            keywords.add(new Keywords.Properties(names, schemas, patterns, patternSchemas, rest));
+        }
+
+        if (schema.containsKey("propertyNames")) {
+            keywords.add(new Keywords.PropertyNames(compile(schema.get("propertyNames"))));
+        }
+        Map<?, ?> dependencies = map(schema, "dependencies");
+        if (!dependencies.isEmpty()) {
+            String[] keys = new String[dependencies.size()];
+            String[][] required = new String[dependencies.size()][];
+            Schema[] schemas = new Schema[dependencies.size()];
+            int i = 0;
+            for (Map.Entry<?, ?> entry : dependencies.entrySet()) {
+                keys[i] = String.valueOf(entry.getKey());
+                if (entry.getValue() instanceof List<?> names) {
+                    required[i] = strings(names, "dependencies");
+                } else {
+                    schemas[i] = compile(entry.getValue());
+                }
+                i++;
+            }
+            keywords.add(new Keywords.Dependencies(keys, required, schemas));
+        }
+    }
+
+    private Schema[] schemas(Object value, String keyword) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            throw new SchemaCompilationException(keyword + " must be a non-empty array of schemas");
+        }
+        Schema[] schemas = new Schema[list.size()];
+        for (int i = 0; i < schemas.length; i++) {
+            schemas[i] = compile(list.get(i));
+        }
+        return schemas;
+    }
+
+    private static String[] strings(List<?> list, String keyword) {
+        String[] strings = new String[list.size()];
+        for (int i = 0; i < strings.length; i++) {
+            if (!(list.get(i) instanceof String string)) {
+                throw new SchemaCompilationException(keyword + " must be an array of strings");
+            }
+            strings[i] = string;
+        }
+        return strings;
+    }
+
+    private static Map<?, ?> map(Map<?, ?> schema, String keyword) {
+        Object value = schema.get(keyword);
+        if (value == null) {
+            return Map.of();
+        }
+        if (!(value instanceof Map<?, ?> map)) {
+            throw new SchemaCompilationException(keyword + " must be an object");
+        }
+        return map;
+    }
+
+    private static Number number(Map<?, ?> schema, String keyword) {
+        Object value = schema.get(keyword);
+        if (value == null || value instanceof Boolean && keyword.startsWith("exclusive")) {
+            return null;
+        }
+        if (!(value instanceof Number number)) {
+            throw new SchemaCompilationException(keyword + " must be a number");
+        }
+        return number;
+    }
+
+    private static Integer count(Map<?, ?> schema, String keyword) {
+        Number number = number(schema, keyword);
+        if (number == null) {
+            return null;
+        }
+        if ((JsonValues.typeOf(number) & JsonValues.INTEGER) == 0 || number.longValue() < 0) {
+            throw new SchemaCompilationException(keyword + " must be a non-negative integer");
+        }
+        return (int) Math.min(number.longValue(), Integer.MAX_VALUE);
+    }
+
+    private static Pattern pattern(String regex) {
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new SchemaCompilationException("Invalid pattern '" + regex + "'", e);
+        }
+    }
+}
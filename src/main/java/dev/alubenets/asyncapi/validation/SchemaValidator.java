@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.validation;
+
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+
+import java.util.List;
+
+/**
+ * A JSON Schema compiled into a validator for decoded values: maps with string keys, lists, strings, numbers,
+ * booleans and {@code null}, as produced by common JSON and YAML libraries.
+ * <p>
+ * Compilation resolves all {@code $ref}s, compiles patterns and arranges keywords so that validation does not look at
+ * the schema anymore. {@link #isValid(Object)} does not allocate apart from regular expression matching, and
+ * {@link #validate(Object)} only allocates for values that turn out to be invalid. Validators are immutable and safe to
+ * share between threads.
+ * <p>
+ * The keywords of JSON Schema draft 07, which AsyncAPI schemas are based on, are supported except for {@code format},
+ * which is treated as an annotation, as the specification allows.
+ */
+public final class SchemaValidator {
+
+    private final Schema schema;
+
+    private SchemaValidator(Schema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * @param schema a schema without references to other parts of a document.
+     * @return the validator.
+     * @throws SchemaCompilationException if the schema is invalid or contains a {@code $ref}.
+     */
+    public static SchemaValidator compile(Object schema) {
+        return compile(schema, null);
+    }
+
+    /**
+     * @param schema   a schema, such as an entry of {@link dev.alubenets.asyncapi.models.Components#schemas()}.
+     * @param resolver resolves the {@code $ref}s in the schema.
+     * @return the validator.
+     * @throws SchemaCompilationException if the schema is invalid or a reference cannot be resolved.
+     */
+    public static SchemaValidator compile(Object schema, ReferenceResolver resolver) {
+        return new SchemaValidator(new SchemaCompiler(resolver).compile(schema));
+    }
+
+    /**
+     * @param value a decoded value.
+     * @return whether the value is valid.
+     */
+    public boolean isValid(Object value) {
+        return schema.test(value);
+    }
+
+    /**
+     * @param value a decoded value.
+     * @return the errors, empty if the value is valid.
+     */
+    public List<ValidationError> validate(Object value) {
+        if (schema.test(value)) {
+            return List.of();
+        }
+        Report report = new Report();
+        schema.collect(value, report);
+        return report.errors;
+    }
+}
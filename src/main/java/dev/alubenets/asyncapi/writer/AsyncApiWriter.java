@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.writer;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.DocumentFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Writes AsyncAPI documents as JSON or YAML.
+ * <p>
+ * The models are walked and encoded as UTF-8 straight into the target, no intermediate tree or string of the document
+ * is built and the names of the model properties are encoded once per type. The output is deterministic: properties
+ * follow the declaration order of the models and the entries of every map, such as channels, operations and the
+ * components, are sorted by key, so equal documents produce identical bytes that can be hashed and diffed.
+ * <p>
+ * Documents are written with {@code asyncapi: 3.0.0}, the version the models describe. JSON is written compactly and
+ * YAML in block style.
+ * <p>
+ * Instances are immutable and thread-safe; every {@code with*} method returns a reconfigured copy.
+ * <pre>{@code
+ * AsyncApiWriter.create().withFormat(DocumentFormat.YAML).write(api, Files.newOutputStream(path));
+ * }</pre>
+ */
+public final class AsyncApiWriter {
+
+    private final DocumentFormat format;
+
+    private AsyncApiWriter(DocumentFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * @return a writer of JSON.
+     */
+    public static AsyncApiWriter create() {
+        return new AsyncApiWriter(DocumentFormat.JSON);
+    }
+
+    /**
+     * @param format the format to write.
+     * @return a copy of this writer that uses the given format.
+     */
+    public AsyncApiWriter withFormat(DocumentFormat format) {
+        return new AsyncApiWriter(Objects.requireNonNull(format, "format"));
+    }
+
+    /**
+     * Writes a document and flushes the stream, the stream is not closed.
+     *
+     * @param document the document.
+     * @param out      the target of the UTF-8 output.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void write(AsyncAPI document, OutputStream out) throws IOException {
+        write(document, Output.of(out));
+    }
+
+    /**
+     * Writes a document, the channel is not closed.
+     *
+     * @param document the document.
+     * @param channel  the target of the UTF-8 output.
+     * @throws IOException if the channel cannot be written.
+     */
+    public void write(AsyncAPI document, WritableByteChannel channel) throws IOException {
+        write(document, Output.of(channel));
+    }
+
+    /**
+     * Writes a document into the remaining space of a buffer, such as a buffer taken from a pool. Heap buffers are
+     * encoded into in place. The position of the buffer is advanced past the document if it fits.
+     *
+     * @param document the document.
+     * @param buffer   the target of the UTF-8 output.
+     * @throws java.nio.BufferOverflowException if the document does not fit, the position is not changed then.
+     */
+    public void write(AsyncAPI document, ByteBuffer buffer) {
+        try {
+            write(document, Output.of(buffer));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param document the document.
+     * @return the document as UTF-8.
+     */
+    public byte[] toBytes(AsyncAPI document) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(document, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a single model object, such as an effective {@link dev.alubenets.asyncapi.models.Message}, or a generic
+     * value and flushes the stream, the stream is not closed.
+     *
+     * @param value a model object, map, list or scalar.
+     * @param out   the target of the UTF-8 output.
+     * @throws IOException              if the stream cannot be written.
+     * @throws IllegalArgumentException if the value holds objects that are neither models nor JSON values.
+     */
+    public void writeValue(Object value, OutputStream out) throws IOException {
+        Output output = Output.of(out);
+        new ModelWalker(emitter(output)).root(value);
+        output.finish();
+    }
+
+    private void write(AsyncAPI document, Output output) throws IOException {
+        Objects.requireNonNull(document, "document");
+        new ModelWalker(emitter(output)).document(document);
+        output.finish();
+    }
+
+    private Emitter emitter(Output output) {
+        return format == DocumentFormat.JSON ? new JsonEmitter(output) : new YamlEmitter(output);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.writer;
+
+import java.io.IOException;
+
+/**
+ * Writes the events of a walk over a document in one format.
+ */
+abstract class Emitter {
+
+    final Output out;
+
+    Emitter(Output out) {
+        this.out = out;
+    }
+
+    abstract void beginObject() throws IOException;
+
+    /**
+     * Writes the name of a record component.
+     */
+    abstract void field(FieldName name) throws IOException;
+
+    /**
+     * Writes the key of a map entry.
+     */
+    abstract void key(String key) throws IOException;
+
+    abstract void endObject() throws IOException;
+
+    abstract void beginArray() throws IOException;
+
+    /**
+     * Starts the next element of an array.
+     */
+    abstract void element() throws IOException;
+
+    abstract void endArray() throws IOException;
+
+    abstract void string(String value) throws IOException;
+
+    /**
+     * Writes a number, boolean or {@code null} in its JSON form.
+     */
+    abstract void literal(String value) throws IOException;
+
+    /**
+     * Completes the document.
+     */
+    abstract void end() throws IOException;
+}
@@ -0,0 +1,47 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.writer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The name of a record component, encoded once for each format.
+ *
+ * @param json the quoted name followed by a colon.
+ * @param yaml the name, quoted if it is not a plain scalar, followed by a colon.
+ */
+record FieldName(byte[] json, byte[] yaml) {
+
+    /**
+     * @param name the name of a property, components named after Java keywords such as {@code _enum} are passed
+     *             without the underscore.
+     */
+    static FieldName of(String name) {
+        String quoted = '"' + name + '"';
+        String yaml = YamlEmitter.isPlain(name) ? name : quoted;
+        return new FieldName((quoted + ':').getBytes(StandardCharsets.UTF_8),
+            (yaml + ':').getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.writer;
+
+import java.io.IOException;
+
+/**
+ * Writes compact JSON.
+ */
+final class JsonEmitter extends Emitter {
+
+    /**
+     * Whether a value was written in the current container, so the next one needs a comma.
+     */
+    private boolean separate;
+
+    JsonEmitter(Output out) {
+        super(out);
+    }
+
+    @Override
+    void beginObject() throws IOException {
+        separator();
+        out.write((byte) '{');
+        separate = false;
+    }
+
+    @Override
+    void field(FieldName name) throws IOException {
+        separator();
+        out.write(name.json());
+        separate = false;
+    }
+
+    @Override
+    void key(String key) throws IOException {
+        separator();
+        out.writeQuoted(key);
+        out.write((byte) ':');
+        separate = false;
+    }
+
+    @Override
+    void endObject() throws IOException {
+        out.write((byte) '}');
+        separate = true;
+    }
+
+    @Override
+    void beginArray() throws IOException {
+        separator();
+        out.write((byte) '[');
+        separate = false;
+    }
+
+    @Override
+    void element() {
+        // Elements are separated by the values themselves.
+    }
+
+    @Override
+    void endArray() throws IOException {
+        out.write((byte) ']');
+        separate = true;
+    }
+
+    @Override
+    void string(String value) throws IOException {
+        separator();
+        out.writeQuoted(value);
+        separate = true;
+    }
+
+    @Override
+    void literal(String value) throws IOException {
+        separator();
+        out.writeAscii(value);
+        separate = true;
+    }
+
+    @Override
+    void end() {
+        // A JSON document ends with its root value.
+    }
+
+    private void separator() throws IOException {
+        if (separate) {
+            out.write((byte) ',');
+        }
+    }
+}
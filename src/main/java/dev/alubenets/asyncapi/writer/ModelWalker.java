@@ -0,0 +1,149 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.writer;
+
+import dev.alubenets.asyncapi.codecs.ModelCodec;
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Operation;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Walks models and generic values and passes them to an emitter.
+ * <p>
+ * Record components are written in declaration order and skipped when they are {@code null}, map entries are
+ * written in the order of their keys, so equal documents are always written the same way.
+ */
+final class ModelWalker {
+
+    /**
+     * The specification version the models describe, documents do not keep the version they were read with.
+     */
+    static final String VERSION = "3.0.0";
+
+    private static final FieldName ASYNCAPI = FieldName.of("asyncapi");
+
+    private static final ClassValue<Shape> SHAPES = new ClassValue<>() {
+        @Override
+        protected Shape computeValue(Class<?> type) {
+            ModelCodec<Record> codec = ModelCodec.of(type.asSubclass(Record.class));
+            FieldName[] names = new FieldName[codec.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = FieldName.of(codec.name(i));
+            }
+            return new Shape(names, codec);
+        }
+    };
+
+    private static final Map.Entry<?, ?>[] NO_ENTRIES = new Map.Entry<?, ?>[0];
+
+    private final Emitter emitter;
+
+    ModelWalker(Emitter emitter) {
+        this.emitter = emitter;
+    }
+
+    void document(AsyncAPI document) throws IOException {
+        emitter.beginObject();
+        emitter.field(ASYNCAPI);
+        emitter.string(VERSION);
+        fields(document);
+        emitter.endObject();
+        emitter.end();
+    }
+
+    void root(Object value) throws IOException {
+        value(value);
+        emitter.end();
+    }
+
+    private void value(Object value) throws IOException {
+        if (value instanceof String string) {
+            emitter.string(string);
+        } else if (value instanceof Record record) {
+            emitter.beginObject();
+            fields(record);
+            emitter.endObject();
+        } else if (value instanceof Map<?, ?> map) {
+            map(map);
+        } else if (value instanceof Collection<?> collection) {
+            emitter.beginArray();
+            for (Object element : collection) {
+                emitter.element();
+                value(element);
+            }
+            emitter.endArray();
+        } else if (value instanceof Number number) {
+            emitter.literal(number(number));
+        } else if (value instanceof Boolean || value == null) {
+            emitter.literal(String.valueOf(value));
+        } else if (value instanceof Operation.Action action) {
+            emitter.string(action.value());
+        } else {
+            throw new IllegalArgumentException("Cannot write " + value.getClass().getName());
+        }
+    }
+
+    private void fields(Record record) throws IOException {
+        Shape shape = SHAPES.get(record.getClass());
+        for (int i = 0; i < shape.names.length; i++) {
+            Object value = shape.codec.get(record, i);
+            if (value != null) {
+                emitter.field(shape.names[i]);
+                value(value);
+            }
+        }
+    }
+
+    private void map(Map<?, ?> map) throws IOException {
+        Map.Entry<?, ?>[] entries = map.entrySet().toArray(NO_ENTRIES);
+        Arrays.sort(entries, (a, b) -> ((String) a.getKey()).compareTo((String) b.getKey()));
+        emitter.beginObject();
+        for (Map.Entry<?, ?> entry : entries) {
+            emitter.key((String) entry.getKey());
+            value(entry.getValue());
+        }
+        emitter.endObject();
+    }
+
+    private static String number(Number number) {
+        if (number instanceof Double || number instanceof Float) {
+            double value = number.doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException("Cannot write " + value + " as a JSON number");
+            }
+        }
+        return number.toString();
+    }
+
+    /**
+     * The encoded names and the codec of a record type.
+     */
+    private record Shape(FieldName[] names, ModelCodec<Record> codec) {
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A byte buffer that UTF-8 output is encoded into and that is drained into a target whenever it fills up.
+ */
+abstract class Output {
+
+    private static final int CHUNK = 16 * 1024;
+    /**
+     * The longest encoding of a character: a four byte sequence, or a six byte escape.
+     */
+    private static final int MAX_ENCODED = 6;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    byte[] bytes;
+    int position;
+    int limit;
+
+    Output(byte[] bytes, int position, int limit) {
+        this.bytes = bytes;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    static Output of(OutputStream out) {
+        return new StreamOutput(out);
+    }
+
+    static Output of(WritableByteChannel channel) {
+        return new ChannelOutput(channel);
+    }
+
+    static Output of(ByteBuffer buffer) {
+        return buffer.hasArray() ? new ArrayOutput(buffer) : new DirectOutput(buffer);
+    }
+
+    /**
+     * Makes room for at least {@code length} bytes, which is at most {@link #MAX_ENCODED}.
+     */
+    abstract void drain(int length) throws IOException;
+
+    /**
+     * Drains everything written so far.
+     */
+    abstract void finish() throws IOException;
+
+    final void write(byte b) throws IOException {
+        if (position == limit) {
+            drain(1);
+        }
+        bytes[position++] = b;
+    }
+
+    final void write(byte[] source) throws IOException {
+        int offset = 0;
+        while (offset < source.length) {
+            if (position == limit) {
+                drain(1);
+            }
+            int length = Math.min(source.length - offset, limit - position);
+            System.arraycopy(source, offset, bytes, position, length);
+            position += length;
+            offset += length;
+        }
+    }
+
+    final void writeAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            write((byte) value.charAt(i));
+        }
+    }
+
+    /**
+     * Writes a string as a double-quoted JSON string, which is a valid double-quoted YAML scalar as well.
+     */
+    final void writeQuoted(String value) throws IOException {
+        write((byte) '"');
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            // Copy the run of characters that need no escaping and fit as they are.
+            int run = Math.min(length, i + limit - position);
+            for (; i < run; i++) {
+                char c = value.charAt(i);
+                if (c < 0x20 || c >= 0x80 || c == '"' || c == '\\') {
+                    break;
+                }
+                bytes[position++] = (byte) c;
+            }
+            if (i < length) {
+                if (limit - position < MAX_ENCODED && !reserve(MAX_ENCODED)) {
+                    i = spill(value, i) + 1;
+                } else {
+                    i = encode(value, i) + 1;
+                }
+            }
+        }
+        write((byte) '"');
+    }
+
+    /**
+     * Makes room for {@code length} bytes if the target can take the bytes written so far.
+     *
+     * @return whether there is room now.
+     */
+    boolean reserve(int length) throws IOException {
+        drain(length);
+        return true;
+    }
+
+    /**
+     * Encodes a character through the scratch array when the output cannot make room for it.
+     */
+    private int spill(String value, int i) throws IOException {
+        byte[] target = bytes;
+        int at = position;
+        int end = limit;
+        bytes = new byte[MAX_ENCODED];
+        position = 0;
+        limit = MAX_ENCODED;
+        int next = encode(value, i);
+        byte[] encoded = Arrays.copyOf(bytes, position);
+        bytes = target;
+        position = at;
+        limit = end;
+        write(encoded);
+        return next;
+    }
+
+    /**
+     * Encodes the character at {@code i}, and the low surrogate after it, into at most {@link #MAX_ENCODED} bytes.
+     *
+     * @return the index of the last character consumed.
+     */
+    private int encode(String value, int i) {
+        char c = value.charAt(i);
+        if (c >= 0x20 && c < 0x80) {
+            if (c == '"' || c == '\\') {
+                bytes[position++] = '\\';
+            }
+            bytes[position++] = (byte) c;
+        } else if (c < 0x20) {
+            bytes[position++] = '\\';
+            switch (c) {
+                case '\n' -> bytes[position++] = 'n';
+                case '\r' -> bytes[position++] = 'r';
+                case '\t' -> bytes[position++] = 't';
+                case '\b' -> bytes[position++] = 'b';
+                case '\f' -> bytes[position++] = 'f';
+                default -> escape(c);
+            }
+        } else if (c < 0x800) {
+            bytes[position++] = (byte) (0xC0 | c >> 6);
+            bytes[position++] = (byte) (0x80 | c & 0x3F);
+        } else if (!Character.isSurrogate(c)) {
+            bytes[position++] = (byte) (0xE0 | c >> 12);
+            bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+            bytes[position++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(++i));
+            bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+            bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+            bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+        } else {
+            // An unpaired surrogate cannot be encoded in UTF-8, the escape keeps it.
+            bytes[position++] = '\\';
+            escape(c);
+        }
+        return i;
+    }
+
+    private void escape(char c) {
+        bytes[position++] = 'u';
+        bytes[position++] = HEX[c >> 12];
+        bytes[position++] = HEX[c >> 8 & 0xF];
+        bytes[position++] = HEX[c >> 4 & 0xF];
+        bytes[position++] = HEX[c & 0xF];
+    }
+
+    private static final class StreamOutput extends Output {
+
+        private final OutputStream out;
+
+        StreamOutput(OutputStream out) {
+            super(new byte[CHUNK], 0, CHUNK);
+            this.out = out;
+        }
+
+        @Override
+        void drain(int length) throws IOException {
+            out.write(bytes, 0, position);
+            position = 0;
+        }
+
+        @Override
+        void finish() throws IOException {
+            drain(0);
+            out.flush();
+        }
+    }
+
+    private static final class ChannelOutput extends Output {
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer view;
+
+        ChannelOutput(WritableByteChannel channel) {
+            super(new byte[CHUNK], 0, CHUNK);
+            this.channel = channel;
+            this.view = ByteBuffer.wrap(bytes);
+        }
+
+        @Override
+        void drain(int length) throws IOException {
+            view.clear().limit(position);
+            while (view.hasRemaining()) {
+                channel.write(view);
+            }
+            position = 0;
+        }
+
+        @Override
+        void finish() throws IOException {
+            drain(0);
+        }
+    }
+
+    /**
+     * Encodes straight into the array of a heap buffer.
+     */
+    private static final class ArrayOutput extends Output {
+
+        private final ByteBuffer buffer;
+
+        ArrayOutput(ByteBuffer buffer) {
+            super(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.arrayOffset() + buffer.limit());
+            this.buffer = buffer;
+        }
+
+        @Override
+        void drain(int length) {
+            throw new BufferOverflowException();
+        }
+
+        @Override
+        boolean reserve(int length) {
+            return false;
+        }
+
+        @Override
+        void finish() {
+            buffer.position(position - buffer.arrayOffset());
+        }
+    }
+
+    /**
+     * Encodes into a chunk that is copied into a direct buffer.
+     */
+    private static final class DirectOutput extends Output {
+
+        private final ByteBuffer buffer;
+        private int written;
+
+        DirectOutput(ByteBuffer buffer) {
+            super(new byte[CHUNK], 0, CHUNK);
+            this.buffer = buffer;
+        }
+
+        @Override
+        void drain(int length) {
+            int offset = buffer.position() + written;
+            if (position > buffer.limit() - offset) {
+                throw new BufferOverflowException();
+            }
+            buffer.put(offset, bytes, 0, position);
+            written += position;
+            position = 0;
+        }
+
+        @Override
+        void finish() {
+            drain(0);
+            buffer.position(buffer.position() + written);
+        }
+    }
+}
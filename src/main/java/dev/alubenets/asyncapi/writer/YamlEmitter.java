@@ -0,0 +1,195 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.writer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Writes block style YAML indented by two spaces, with {@code {}} and {@code []} for empty collections.
+ * <p>
+ * Strings are written as plain scalars when they cannot be mistaken for anything else and as double-quoted scalars
+ * otherwise.
+ */
+final class YamlEmitter extends Emitter {
+
+    private static final int START = 0;
+    private static final int AFTER_KEY = 1;
+    private static final int AFTER_DASH = 2;
+    private static final int AFTER_VALUE = 3;
+
+    private int state = START;
+    /**
+     * Column of the keys or dashes of every open collection.
+     */
+    private int[] indents = new int[16];
+    /**
+     * Number of entries or elements written into every open collection.
+     */
+    private int[] counts = new int[16];
+    private int depth;
+
+    YamlEmitter(Output out) {
+        super(out);
+    }
+
+    /**
+     * @return whether a string can be written without quotes and read back as the same string.
+     */
+    static boolean isPlain(String value) {
+        int length = value.length();
+        if (length == 0 || value.charAt(length - 1) == ' ') {
+            return false;
+        }
+        char first = value.charAt(0);
+        if (!(first >= 'a' && first <= 'z' || first >= 'A' && first <= 'Z' || first == '_' || first == '$'
+            || first == '/')) {
+            return false;
+        }
+        for (int i = 1; i < length; i++) {
+            char c = value.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '$'
+                || c == '/' || c == '.' || c == '-' || c == ' ')) {
+                return false;
+            }
+        }
+        return length > 5 || !isReserved(value.toLowerCase());
+    }
+
+    private static boolean isReserved(String value) {
+        return switch (value) {
+            case "true", "false", "null", "yes", "no", "on", "off", "y", "n" -> true;
+            default -> false;
+        };
+    }
+
+    @Override
+    void beginObject() {
+        open();
+    }
+
+    @Override
+    void field(FieldName name) throws IOException {
+        startEntry();
+        out.write(name.yaml());
+        state = AFTER_KEY;
+    }
+
+    @Override
+    void key(String key) throws IOException {
+        startEntry();
+        if (isPlain(key)) {
+            out.writeAscii(key);
+        } else {
+            out.writeQuoted(key);
+        }
+        out.write((byte) ':');
+        state = AFTER_KEY;
+    }
+
+    @Override
+    void endObject() throws IOException {
+        close("{}");
+    }
+
+    @Override
+    void beginArray() {
+        open();
+    }
+
+    @Override
+    void element() throws IOException {
+        startEntry();
+        out.write((byte) '-');
+        out.write((byte) ' ');
+        state = AFTER_DASH;
+    }
+
+    @Override
+    void endArray() throws IOException {
+        close("[]");
+    }
+
+    @Override
+    void string(String value) throws IOException {
+        startScalar();
+        if (isPlain(value)) {
+            out.writeAscii(value);
+        } else {
+            out.writeQuoted(value);
+        }
+    }
+
+    @Override
+    void literal(String value) throws IOException {
+        startScalar();
+        out.writeAscii(value);
+    }
+
+    @Override
+    void end() throws IOException {
+        out.write((byte) '\n');
+    }
+
+    private void open() {
+        if (depth + 1 == indents.length) {
+            indents = Arrays.copyOf(indents, depth * 2);
+            counts = Arrays.copyOf(counts, depth * 2);
+        }
+        int indent = depth == 0 ? 0 : indents[depth] + 2;
+        depth++;
+        indents[depth] = indent;
+        counts[depth] = 0;
+    }
+
+    private void close(String empty) throws IOException {
+        if (counts[depth] == 0) {
+            startScalar();
+            out.writeAscii(empty);
+        }
+        depth--;
+        state = AFTER_VALUE;
+    }
+
+    /**
+     * Moves to the line of the next key or dash, the first one after a dash stays on the line of the dash.
+     */
+    private void startEntry() throws IOException {
+        counts[depth]++;
+        if (state == AFTER_KEY || state == AFTER_VALUE) {
+            out.write((byte) '\n');
+            for (int i = indents[depth]; i > 0; i--) {
+                out.write((byte) ' ');
+            }
+        }
+    }
+
+    private void startScalar() throws IOException {
+        if (state == AFTER_KEY) {
+            out.write((byte) ' ');
+        }
+        state = AFTER_VALUE;
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a {@code ModelCodec} for every public record and every public, non-abstract map or list class with a
+ * public no-argument constructor in the packages annotated with {@code @GenerateCodecs}, and the lookup that
+ * {@code ModelCodec.of} consults before it falls back to reflection.
+ * <p>
+ * Component names are mangled the way documents are written: a leading underscore, which keeps names such as
+ * {@code _enum} and {@code _default} legal in Java, is dropped, {@code $ref} is kept as it is.
+ */
+@SupportedAnnotationTypes(CodecProcessor.ANNOTATION)
+public final class CodecProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "dev.alubenets.asyncapi.codecs.GenerateCodecs";
+
+    private static final String PACKAGE = "dev.alubenets.asyncapi.codecs";
+    private static final String GENERATED = "@javax.annotation.processing.Generated(\""
+        + CodecProcessor.class.getName() + "\")";
+
+    /**
+     * Codec class names by the qualified name of the type they are generated for.
+     */
+    private final Map<String, String> codecs = new TreeMap<>();
+    private boolean written;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (PackageElement pkg : ElementFilter.packagesIn(round.getElementsAnnotatedWith(annotation))) {
+                for (TypeElement type : ElementFilter.typesIn(pkg.getEnclosedElements())) {
+                    generate(type);
+                }
+            }
+        }
+        if (!written && !codecs.isEmpty() && !round.processingOver()) {
+            written = true;
+            write("GeneratedCodecs", lookup());
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) {
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL || !type.getModifiers().contains(Modifier.PUBLIC)) {
+            return;
+        }
+        String source;
+        String codec = type.getSimpleName() + "Codec";
+        if (type.getKind() == ElementKind.RECORD) {
+            source = recordCodec(type, codec);
+        } else if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT)
+            && isCollection(type)) {
+            if (!hasPublicNoArgumentConstructor(type)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "No public no-argument constructor to generate a codec with", type);
+                return;
+            }
+            source = collectionCodec(type, codec);
+        } else {
+            return;
+        }
+        String name = type.getQualifiedName().toString();
+        if (codecs.containsValue(codec)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Another type named " + type.getSimpleName() + " already has a codec", type);
+            return;
+        }
+        codecs.put(name, codec);
+        write(codec, source, type);
+    }
+
+    private boolean isCollection(TypeElement type) {
+        var types = processingEnv.getTypeUtils();
+        var elements = processingEnv.getElementUtils();
+        TypeMirror erasure = types.erasure(type.asType());
+        return types.isAssignable(erasure, types.erasure(elements.getTypeElement("java.util.Map").asType()))
+            || types.isAssignable(erasure, types.erasure(elements.getTypeElement("java.util.Collection").asType()));
+    }
+
+    private static boolean hasPublicNoArgumentConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String recordCodec(TypeElement type, String codec) {
+        String name = type.getQualifiedName().toString();
+        List<? extends RecordComponentElement> components = type.getRecordComponents();
+        List<String> names = new ArrayList<>();
+        List<String> componentNames = new ArrayList<>();
+        List<String> componentTypes = new ArrayList<>();
+        for (RecordComponentElement component : components) {
+            String componentName = component.getSimpleName().toString();
+            componentNames.add(literal(componentName));
+            componentTypes.add(processingEnv.getTypeUtils().erasure(component.asType()) + ".class");
+            names.add(literal(componentName.startsWith("_") ? componentName.substring(1) : componentName));
+        }
+        StringBuilder get = new StringBuilder();
+        StringBuilder create = new StringBuilder();
+        for (int i = 0; i < components.size(); i++) {
+            RecordComponentElement component = components.get(i);
+            get.append("            case ").append(i).append(" -> value.").append(component.getSimpleName())
+                .append("();\n");
+            String boxed = boxed(component.asType());
+            create.append(i == 0 ? "\n" : ",\n").append("            ");
+            // Object components take the value as is, a cast would only be redundant.
+            if (!boxed.equals("java.lang.Object")) {
+                create.append('(').append(boxed).append(") ");
+            }
+            create.append("values[").append(i).append(']');
+        }
+        return header()
+            + "@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n"
+            + "final class " + codec + " implements ModelCodec<" + name + "> {\n\n"
+            + "    static final " + codec + " INSTANCE = new " + codec + "();\n\n"
+            + "    private static final String[] NAMES = {" + String.join(", ", names) + "};\n"
+            + "    private static final String[] COMPONENT_NAMES = {" + String.join(", ", componentNames) + "};\n"
+            + "    private static final Class<?>[] COMPONENT_TYPES = {" + String.join(", ", componentTypes) + "};\n\n"
+            + "    @Override\n"
+            + "    public Class<?> type() {\n"
+            + "        return " + name + ".class;\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public int size() {\n"
+            + "        return " + components.size() + ";\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public String name(int index) {\n"
+            + "        return NAMES[index];\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public String componentName(int index) {\n"
+            + "        return COMPONENT_NAMES[index];\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public Class<?> componentType(int index) {\n"
+            + "        return COMPONENT_TYPES[index];\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public Object get(" + name + " value, int index) {\n"
+            + "        return switch (index) {\n"
+            + get
+            + "            default -> throw new IndexOutOfBoundsException(index);\n"
+            + "        };\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public " + name + " create(Object... values) {\n"
+            + "        if (values.length != " + components.size() + ") {\n"
+            + "            throw new IllegalArgumentException(\"" + name + " takes " + components.size()
+            + " values, not \" + values.length);\n"
+            + "        }\n"
+            + "        return new " + name + "(" + create + ");\n"
+            + "    }\n"
+            + "}\n";
+    }
+
+    private String collectionCodec(TypeElement type, String codec) {
+        String name = type.getQualifiedName().toString();
+        return header()
+            + "final class " + codec + " implements ModelCodec<" + name + "> {\n\n"
+            + "    static final " + codec + " INSTANCE = new " + codec + "();\n\n"
+            + "    @Override\n"
+            + "    public Class<?> type() {\n"
+            + "        return " + name + ".class;\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public int size() {\n"
+            + "        return 0;\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public String name(int index) {\n"
+            + "        throw new IndexOutOfBoundsException(index);\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public String componentName(int index) {\n"
+            + "        throw new IndexOutOfBoundsException(index);\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public Class<?> componentType(int index) {\n"
+            + "        throw new IndexOutOfBoundsException(index);\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public Object get(" + name + " value, int index) {\n"
+            + "        throw new IndexOutOfBoundsException(index);\n"
+            + "    }\n\n"
+            + "    @Override\n"
+            + "    public " + name + " create(Object... values) {\n"
+            + "        if (values.length != 0) {\n"
+            + "            throw new IllegalArgumentException(\"" + name + " takes no values\");\n"
+            + "        }\n"
+            + "        return new " + name + "();\n"
+            + "    }\n"
+            + "}\n";
+    }
+
+    /**
+     * Switches on the class name rather than holding a map of all codecs, so only the codecs that are asked for are
+     * loaded.
+     */
+    private String lookup() {
+        StringBuilder cases = new StringBuilder();
+        for (Map.Entry<String, String> entry : codecs.entrySet()) {
+            cases.append("            case ").append(literal(entry.getKey())).append(" -> ").append(entry.getValue())
+                .append(".INSTANCE;\n");
+        }
+        return header()
+            + "final class GeneratedCodecs {\n\n"
+            + "    private GeneratedCodecs() {\n"
+            + "    }\n\n"
+            + "    static ModelCodec<?> lookup(Class<?> type) {\n"
+            + "        return switch (type.getName()) {\n"
+            + cases
+            + "            default -> null;\n"
+            + "        };\n"
+            + "    }\n"
+            + "}\n";
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type)
+                .getQualifiedName().toString();
+        }
+        return type.getKind() == TypeKind.DECLARED || type.getKind() == TypeKind.ARRAY
+            ? type.toString() : processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static String header() {
+        return "package " + PACKAGE + ";\n\n" + GENERATED + "\n";
+    }
+
+    private static String literal(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private void write(String name, String source, Element... origin) {
+        try {
+            try (Writer writer = processingEnv.getFiler().createSourceFile(PACKAGE + "." + name, origin)
+                .openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
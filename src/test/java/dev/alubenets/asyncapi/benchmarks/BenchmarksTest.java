@@ -0,0 +1,194 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.benchmarks;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every benchmark method once with the smallest parameters, so broken fixtures fail the build instead of a
+ * benchmark run.
+ */
+class BenchmarksTest {
+
+    private static final List<Class<?>> BENCHMARKS = List.of(
+        BindingsBenchmark.class, CodecBenchmark.class, DiffBenchmark.class, ExpressionBenchmark.class,
+        GeneratorBenchmark.class, HashBenchmark.class, IndexBenchmark.class, LoaderBenchmark.class,
+        MapBenchmark.class, ModelBenchmark.class, ParserBenchmark.class, PayloadBenchmark.class,
+        RegistryBenchmark.class, ReloadBenchmark.class, RouterBenchmark.class, RulesBenchmark.class,
+        ServerUrlBenchmark.class, SnapshotBenchmark.class, TraitBenchmark.class, ValidationBenchmark.class,
+        VisitorBenchmark.class, WriterBenchmark.class);
+
+    @Test
+    void generatesEquivalentDocumentsInBothFormats() throws IOException {
+        AsyncAPI json = read(SyntheticDocuments.json(120));
+        AsyncAPI yaml = read(SyntheticDocuments.yaml(120));
+
+        assertEquals(json, yaml);
+        assertEquals(120, json.channels().size());
+        assertEquals(120, json.operations().size());
+        assertArrayEquals(SyntheticDocuments.json(120), SyntheticDocuments.json(120));
+    }
+
+    @Test
+    void generatesResolvableDocuments() throws IOException {
+        for (byte[] document : List.of(SyntheticDocuments.json(60), SyntheticDocuments.jsonWithTraits(60),
+            SyntheticDocuments.jsonWithBindings(60))) {
+            assertTrue(ReferenceResolver.of(read(document)).resolveAll() > 60);
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> runsEveryBenchmarkOnce() {
+        return BENCHMARKS.stream().flatMap(type -> Arrays.stream(type.getMethods())
+            .filter(method -> method.isAnnotationPresent(Benchmark.class))
+            .sorted(Comparator.comparing(Method::getName))
+            .map(method -> DynamicTest.dynamicTest(type.getSimpleName() + "." + method.getName(),
+                () -> new Run().invoke(type, method))));
+    }
+
+    private static AsyncAPI read(byte[] document) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(document));
+    }
+
+    /**
+     * The states of a single benchmark invocation, set up like JMH would for one trial.
+     */
+    private static final class Run {
+
+        private final Blackhole blackhole = new Blackhole(
+            "Today's password is swordfish. I understand instantiating Blackholes directly is dangerous.");
+        private final Map<Class<?>, Object> states = new LinkedHashMap<>();
+
+        void invoke(Class<?> type, Method benchmark) throws Throwable {
+            try {
+                Object instance = state(type);
+                benchmark.invoke(instance, arguments(benchmark));
+                List<Object> created = new ArrayList<>(states.values());
+                for (int i = created.size() - 1; i >= 0; i--) {
+                    for (Method method : annotated(created.get(i).getClass(), TearDown.class)) {
+                        method.invoke(created.get(i), arguments(method));
+                    }
+                }
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                blackhole.evaporate("Yes, I am Stephen Hawking, and know a thing or two about black holes.");
+            }
+        }
+
+        private Object state(Class<?> type) throws ReflectiveOperationException {
+            if (type == Blackhole.class) {
+                return blackhole;
+            }
+            Object state = states.get(type);
+            if (state != null) {
+                return state;
+            }
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            state = constructor.newInstance();
+            for (Field field : type.getDeclaredFields()) {
+                Param param = field.getAnnotation(Param.class);
+                if (param != null) {
+                    field.setAccessible(true);
+                    field.set(state, convert(smallest(param.value()), field.getType()));
+                }
+            }
+            states.put(type, state);
+            for (Method method : annotated(type, Setup.class)) {
+                method.invoke(state, arguments(method));
+            }
+            return state;
+        }
+
+        private Object[] arguments(Method method) throws ReflectiveOperationException {
+            Object[] arguments = new Object[method.getParameterCount()];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = state(method.getParameterTypes()[i]);
+            }
+            return arguments;
+        }
+
+        private static List<Method> annotated(Class<?> type, Class<? extends java.lang.annotation.Annotation> kind) {
+            return Arrays.stream(type.getMethods())
+                .filter(method -> method.isAnnotationPresent(kind))
+                .sorted(Comparator.comparing(Method::getName))
+                .toList();
+        }
+
+        private static String smallest(String[] values) {
+            try {
+                return Arrays.stream(values).min(Comparator.comparingLong(Long::parseLong)).orElseThrow();
+            } catch (NumberFormatException e) {
+                return values[0];
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Object convert(String value, Class<?> type) {
+            if (type == int.class) {
+                return Integer.parseInt(value);
+            }
+            if (type == long.class) {
+                return Long.parseLong(value);
+            }
+            if (type == boolean.class) {
+                return Boolean.parseBoolean(value);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value);
+            }
+            return value;
+        }
+    }
+}
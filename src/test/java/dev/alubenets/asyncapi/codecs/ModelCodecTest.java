@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.codecs;
+
+import dev.alubenets.asyncapi.models.Channels;
+import dev.alubenets.asyncapi.models.Parameter;
+import dev.alubenets.asyncapi.models.Tag;
+import dev.alubenets.asyncapi.models.Tags;
+import dev.alubenets.asyncapi.models.bindings.KafkaServerBinding;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelCodecTest {
+
+    @Test
+    void namesComponentsAsDocumentsDo() {
+        ModelCodec<Parameter> codec = ModelCodec.of(Parameter.class);
+
+        assertEquals(6, codec.size());
+        assertEquals(List.of("$ref", "enum", "default", "description", "examples", "location"), names(codec));
+        assertEquals("$ref", codec.componentName(0));
+        assertEquals("_enum", codec.componentName(1));
+        assertEquals("_default", codec.componentName(2));
+        assertSame(String.class, codec.componentType(0));
+        assertSame(List.class, codec.componentType(1));
+        assertSame(Parameter.class, codec.type());
+    }
+
+    @Test
+    void readsAndCreatesRecords() {
+        ModelCodec<Parameter> codec = ModelCodec.of(Parameter.class);
+        Parameter parameter = new Parameter(null, List.of("eu", "us"), "eu", "region", null, "$message.header#/r");
+
+        Object[] values = new Object[codec.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = codec.get(parameter, i);
+        }
+
+        assertEquals(List.of("eu", "us"), values[1]);
+        assertEquals("$message.header#/r", values[5]);
+        assertEquals(parameter, codec.create(values));
+    }
+
+    @Test
+    void rejectsTheWrongNumberOfValues() {
+        ModelCodec<Tag> codec = ModelCodec.of(Tag.class);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.create("name"));
+        assertThrows(IllegalArgumentException.class, () -> codec.create("name", null, null));
+        assertThrows(ClassCastException.class, () -> codec.create(1, null));
+        assertEquals(new Tag("name", null), codec.create("name", null));
+    }
+
+    @Test
+    void createsEmptyMapsAndLists() {
+        ModelCodec<Channels> channels = ModelCodec.of(Channels.class);
+        ModelCodec<Tags> tags = ModelCodec.of(Tags.class);
+
+        assertEquals(0, channels.size());
+        assertEquals(0, tags.size());
+        assertInstanceOf(Channels.class, channels.create());
+        assertTrue(channels.create().isEmpty());
+        assertFalse(channels.create().isFrozen());
+        assertInstanceOf(Tags.class, tags.create());
+        assertTrue(tags.create().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> tags.create(new Tag("a", null)));
+    }
+
+    @Test
+    void generatesCodecsOfModelAndBindingTypes() {
+        assertNotSame(ReflectiveCodec.class, ModelCodec.of(Parameter.class).getClass());
+        assertNotSame(ReflectiveCodec.class, ModelCodec.of(Channels.class).getClass());
+        assertNotSame(ReflectiveCodec.class, ModelCodec.of(KafkaServerBinding.class).getClass());
+        assertSame(ModelCodec.of(Parameter.class), ModelCodec.of(Parameter.class));
+    }
+
+    @Test
+    void fallsBackToReflectionForOtherTypes() {
+        ModelCodec<Point> codec = ModelCodec.of(Point.class);
+        ModelCodec<Object> list = ModelCodec.of(ArrayList.class);
+
+        assertInstanceOf(ReflectiveCodec.class, codec);
+        assertEquals(List.of("x", "default"), names(codec));
+        assertEquals("_default", codec.componentName(1));
+        assertSame(int.class, codec.componentType(0));
+        assertEquals(2, codec.get(new Point(2, "b"), 0));
+        assertEquals(new Point(1, "a"), codec.create(1, "a"));
+        assertThrows(IllegalArgumentException.class, () -> codec.create(1));
+        assertEquals(new ArrayList<>(), list.create());
+    }
+
+    @Test
+    void rejectsTypesThatCannotBeCreated() {
+        assertThrows(IllegalArgumentException.class, () -> ModelCodec.of(String.class));
+        assertThrows(IllegalArgumentException.class, () -> ModelCodec.of(Map.class));
+        assertThrows(IllegalArgumentException.class, () -> ModelCodec.of(List.of().getClass()));
+    }
+
+    private static List<String> names(ModelCodec<?> codec) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < codec.size(); i++) {
+            names.add(codec.name(i));
+        }
+        return names;
+    }
+
+    record Point(int x, String _default) {
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.diff;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentDiffTest {
+
+    @Test
+    void findsNoChangesBetweenEqualDocuments() throws IOException {
+        AsyncAPI api;
+        AsyncAPI other;
+        try (InputStream in = DocumentDiffTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+        try (InputStream in = DocumentDiffTest.class.getResourceAsStream("/streetlights.json")) {
+            other = AsyncApiReader.create().read(in);
+        }
+
+        assertTrue(DocumentDiff.compare(api, api).isEmpty());
+        assertTrue(DocumentDiff.compare(api, other).isEmpty());
+        assertEquals("", DocumentDiff.compare(api, other).toString());
+    }
+
+    @Test
+    void reportsChangesWhereTheyOccur() throws IOException {
+        DocumentDiff diff = DocumentDiff.compare(read("""
+            info: {title: Orders, version: '1.0'}
+            channels:
+              orders: {address: orders}
+              payments: {address: payments}
+            """), read("""
+            info: {title: Orders, version: '1.1'}
+            channels:
+              orders: {address: orders.v2}
+              refunds: {address: refunds}
+            """));
+
+        assertEquals(4, diff.changes().size());
+        assertEquals(new DocumentChange(DocumentChange.Kind.MODIFIED, "/info/version", "1.0", "1.1"),
+            diff.changes().get(0));
+        assertEquals(
+            new DocumentChange(DocumentChange.Kind.MODIFIED, "/channels/orders/address", "orders", "orders.v2"),
+            change(diff, "/channels/orders/address"));
+        assertEquals(DocumentChange.Kind.REMOVED, change(diff, "/channels/payments").kind());
+        assertNull(change(diff, "/channels/payments").after());
+        assertEquals(DocumentChange.Kind.ADDED, change(diff, "/channels/refunds").kind());
+        assertNull(change(diff, "/channels/refunds").before());
+        assertEquals(Set.of("orders", "payments", "refunds"), diff.changedKeys("/channels"));
+        assertEquals(Set.of(), diff.changedKeys("/operations"));
+        assertFalse(diff.isEmpty());
+    }
+
+    @Test
+    void matchesListElementsByPosition() throws IOException {
+        DocumentDiff diff = DocumentDiff.compare(
+            read("info: {title: t, version: '1', tags: [{name: a}, {name: b}, {name: c}]}"),
+            read("info: {title: t, version: '1', tags: [{name: a}, {name: x}]}"));
+
+        assertEquals(List.of(
+            new DocumentChange(DocumentChange.Kind.MODIFIED, "/info/tags/1/name", "b", "x"),
+            new DocumentChange(DocumentChange.Kind.REMOVED, "/info/tags/2", diff.changes().get(1).before(), null)),
+            diff.changes());
+    }
+
+    @Test
+    void namesComponentsAsInTheDocument() throws IOException {
+        DocumentDiff diff = DocumentDiff.compare(read("""
+            servers:
+              prod: {host: h, protocol: kafka, variables: {port: {default: '9092'}}}
+            channels:
+              orders: {address: 'orders.{region}', parameters: {region: {enum: [eu, us]}}}
+            """), read("""
+            servers:
+              prod: {host: h, protocol: kafka, variables: {port: {default: '9093'}}}
+            channels:
+              orders: {address: 'orders.{region}', parameters: {region: {enum: [eu, asia]}}}
+            """));
+
+        assertEquals(new DocumentChange(DocumentChange.Kind.MODIFIED, "/servers/prod/variables/port/default", "9092",
+            "9093"), change(diff, "/servers/prod/variables/port/default"));
+        assertEquals(new DocumentChange(DocumentChange.Kind.MODIFIED, "/channels/orders/parameters/region/enum/1", "us",
+            "asia"), change(diff, "/channels/orders/parameters/region/enum/1"));
+        assertEquals(2, diff.changes().size());
+    }
+
+    @Test
+    void comparesGenericValuesDeeply() throws IOException {
+        DocumentDiff diff = DocumentDiff.compare(
+            read("components: {schemas: {order: {type: object, properties: {id: {type: string}}}}}"),
+            read("components: {schemas: {order: {type: object, properties: {id: {type: integer}}}}}"));
+
+        assertEquals(List.of(new DocumentChange(DocumentChange.Kind.MODIFIED,
+            "/components/schemas/order/properties/id/type", "string", "integer")), diff.changes());
+        assertEquals(Set.of("order"), diff.changedKeys("/components/schemas"));
+    }
+
+    @Test
+    void escapesKeysInPointers() throws IOException {
+        DocumentDiff diff = DocumentDiff.compare(
+            read("channels: {'user/signed~up': {address: a}}"),
+            read("channels: {'user/signed~up': {address: b}}"));
+
+        assertEquals("/channels/user~1signed~0up/address", diff.changes().get(0).path());
+        assertEquals(Set.of("user/signed~up"), diff.changedKeys("/channels"));
+        assertEquals("MODIFIED /channels/user~1signed~0up/address\n", diff.toString());
+    }
+
+    @Test
+    void reportsWholeMapsThatWereAddedOrRemoved() throws IOException {
+        DocumentDiff diff = DocumentDiff.compare(
+            read("asyncapi: 3.0.0"),
+            read("channels: {a: {address: a}, b: {address: b}}\nasyncapi: 3.0.0"));
+
+        assertEquals(1, diff.changes().size());
+        assertEquals(DocumentChange.Kind.ADDED, diff.changes().get(0).kind());
+        assertEquals("/channels", diff.changes().get(0).path());
+        assertEquals(Set.of("a", "b"), diff.changedKeys("/channels"));
+        assertEquals(Set.of("a", "b"), DocumentDiff.compare(
+            read("channels: {a: {address: a}, b: {address: b}}"), read("asyncapi: 3.0.0")).changedKeys("/channels"));
+    }
+
+    @Test
+    void rejectsMissingDocuments() throws IOException {
+        AsyncAPI api = read("asyncapi: 3.0.0");
+
+        assertThrows(NullPointerException.class, () -> DocumentDiff.compare(null, api));
+        assertThrows(NullPointerException.class, () -> DocumentDiff.compare(api, null));
+    }
+
+    private static DocumentChange change(DocumentDiff diff, String path) {
+        return diff.changes().stream().filter(change -> change.path().equals(path)).findFirst().orElseThrow();
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.expression;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RuntimeExpressionTest {
+
+    private static final String PAYLOAD = """
+        {
+          "meta": {"id": "m-1", "ids": [10, 20, {"deep": true}], "skip": {"x": [1, "}", {"y": null}]}},
+          "a/b": {"c~d": 1.5},
+          "escaped\\u0041": "found",
+          "text": "line\\nbreak \\u00e9",
+          "big": 123456789012345678901234567890,
+          "nothing": null
+        }
+        """;
+
+    @Test
+    void splitsThePointerIntoTokens() {
+        RuntimeExpression expression = RuntimeExpression.compile("$message.payload#/a~1b/c~0d/0");
+
+        assertEquals(RuntimeExpression.Source.PAYLOAD, expression.source());
+        assertEquals(List.of("a/b", "c~d", "0"), expression.tokens());
+        assertEquals(List.of(), RuntimeExpression.compile("$message.header").tokens());
+        assertEquals(RuntimeExpression.Source.HEADER, RuntimeExpression.compile("$message.header#/x").source());
+        assertEquals(List.of(""), RuntimeExpression.compile("$message.header#/").tokens());
+        assertEquals("$message.header#/x", RuntimeExpression.compile("$message.header#/x").toString());
+    }
+
+    @Test
+    void rejectsMalformedExpressions() {
+        for (String expression : new String[]{"$request.header#/x", "$message.body#/x", "$message.payload#x",
+            "$message.payload#/a~2", "$message.payload#/a~", "message.payload"}) {
+            assertThrows(IllegalArgumentException.class, () -> RuntimeExpression.compile(expression), expression);
+        }
+        assertThrows(NullPointerException.class, () -> RuntimeExpression.compile(null));
+    }
+
+    @Test
+    void evaluatesDecodedValues() {
+        Map<String, Object> headers = Map.of("replyTo", "replies");
+        Map<String, Object> payload = Map.of("meta", Map.of("ids", List.of(10, 20)), "a/b", "slash");
+
+        assertEquals("replies", RuntimeExpression.compile("$message.header#/replyTo").evaluate(headers, payload));
+        assertEquals(20, RuntimeExpression.compile("$message.payload#/meta/ids/1").evaluate(headers, payload));
+        assertEquals("slash", RuntimeExpression.compile("$message.payload#/a~1b").evaluate(payload));
+        assertEquals(payload, RuntimeExpression.compile("$message.payload").evaluate(headers, payload));
+        assertNull(RuntimeExpression.compile("$message.payload#/meta/ids/2").evaluate(payload));
+        assertNull(RuntimeExpression.compile("$message.payload#/meta/ids/01").evaluate(payload));
+        assertNull(RuntimeExpression.compile("$message.payload#/meta/ids/x").evaluate(payload));
+        assertNull(RuntimeExpression.compile("$message.payload#/a~1b/c").evaluate(payload));
+        assertNull(RuntimeExpression.compile("$message.payload#/missing/c").evaluate(payload));
+        assertNull(RuntimeExpression.compile("$message.payload#/x").evaluate(null));
+    }
+
+    @Test
+    void evaluatesRawJson() {
+        byte[] json = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("m-1", evaluate("/meta/id", json));
+        assertEquals(20, evaluate("/meta/ids/1", json));
+        assertEquals(true, evaluate("/meta/ids/2/deep", json));
+        assertEquals(Map.of("deep", true), evaluate("/meta/ids/2", json));
+        assertEquals(1.5, evaluate("/a~1b/c~0d", json));
+        assertEquals("found", evaluate("/escapedA", json));
+        assertEquals("line\nbreak \u00e9", evaluate("/text", json));
+        assertEquals(new BigInteger("123456789012345678901234567890"), evaluate("/big", json));
+        assertNull(evaluate("/nothing", json));
+        assertNull(evaluate("/missing", json));
+        assertNull(evaluate("/meta/ids/3", json));
+        assertNull(evaluate("/meta/id/x", json));
+        assertNull(evaluate("/meta/skip/x/1/y", json));
+        assertEquals("}", evaluate("/meta/skip/x/1", json));
+    }
+
+    @Test
+    void evaluatesASliceOfABuffer() {
+        byte[] json = "xx{\"id\": 7}yy".getBytes(StandardCharsets.UTF_8);
+        RuntimeExpression expression = RuntimeExpression.compile("$message.payload#/id");
+
+        assertEquals(7, expression.evaluateJson(json, 2, json.length - 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> expression.evaluateJson(json, 2, json.length));
+    }
+
+    @Test
+    void rejectsMalformedJsonOnThePath() {
+        assertThrows(IllegalArgumentException.class,
+            () -> evaluate("/b", "{\"a\": [1, 2, \"b\": 1}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class,
+            () -> evaluate("/a", "{\"a\": tru}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void compilesLocationsOfTheDocument() throws IOException {
+        AsyncAPI api = AsyncApiReader.create().read(new ByteArrayInputStream("""
+            operations:
+              request:
+                action: send
+                reply: {$ref: '#/components/replies/reply'}
+            components:
+              replies:
+                reply:
+                  address: {location: '$message.header#/replyTo'}
+              messages:
+                m:
+                  correlationId: {$ref: '#/components/correlationIds/id'}
+                plain: {name: plain}
+              correlationIds:
+                id: {location: '$message.payload#/meta/id'}
+            """.getBytes(StandardCharsets.UTF_8)));
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+
+        assertEquals(RuntimeExpression.compile("$message.header#/replyTo"),
+            RuntimeExpression.forReplyAddress(api.operations().get("request").reply(), resolver));
+        assertEquals(RuntimeExpression.compile("$message.payload#/meta/id"),
+            RuntimeExpression.forCorrelationId(api.components().messages().get("m"), resolver));
+        assertNull(RuntimeExpression.forCorrelationId(api.components().messages().get("plain"), resolver));
+        assertNull(RuntimeExpression.forReplyAddress(null, resolver));
+    }
+
+    @Test
+    void comparesByExpression() {
+        RuntimeExpression expression = RuntimeExpression.compile("$message.header#/a");
+
+        assertEquals(RuntimeExpression.compile("$message.header#/a"), expression);
+        assertEquals(RuntimeExpression.compile("$message.header#/a").hashCode(), expression.hashCode());
+        assertNotEquals(RuntimeExpression.compile("$message.header#/b"), expression);
+    }
+
+    private static Object evaluate(String pointer, byte[] json) {
+        return RuntimeExpression.compile("$message.payload#" + pointer).evaluateJson(json);
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.generator;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import dev.alubenets.asyncapi.validation.MessageValidator;
+import dev.alubenets.asyncapi.validation.SchemaValidator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageGeneratorTest {
+
+    @Test
+    void generatesValidStreetlightsMessages() throws IOException {
+        AsyncAPI api;
+        try (InputStream in = MessageGeneratorTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+        for (Message message : api.components().messages().values()) {
+            MessageGenerator generator = MessageGenerator.compile(message, resolver);
+            MessageValidator validator = MessageValidator.compile(message, resolver);
+            MessageProducer producer = generator.newProducer(3);
+            for (int i = 0; i < 50; i++) {
+                Object headers = generator.hasHeaders() ? headers(producer) : null;
+                Object payload = payload(producer);
+                assertEquals(List.of(), validator.validate(headers, payload));
+            }
+        }
+    }
+
+    @Test
+    void generatesValuesValidAgainstTheirSchema() throws IOException {
+        assertValid("{type: object, required: [id, kind], properties: {id: {type: string, format: uuid}, "
+            + "kind: {enum: [a, b]}, size: {type: integer, minimum: 1, exclusiveMaximum: 5}, "
+            + "ratio: {type: number, multipleOf: 0.25, minimum: -1, maximum: 1}, "
+            + "tags: {type: array, items: {type: string, minLength: 2, maxLength: 3}, maxItems: 4}, "
+            + "at: {type: string, format: date-time}, flag: {type: boolean}, none: {type: 'null'}, "
+            + "fixed: {const: {x: 1}}}, maxProperties: 5}");
+        assertValid("{allOf: [{properties: {a: {type: integer}}, required: [a]}, "
+            + "{properties: {b: {type: string}}, required: [b]}]}");
+        assertValid("{oneOf: [{type: integer, minimum: 10, maximum: 20}, {type: string, maxLength: 2}]}");
+        assertValid("{type: array, items: [{type: integer}, {type: string}]}");
+        assertValid("{type: number, minimum: 1.5, maximum: 1.75}");
+    }
+
+    @Test
+    void usesExamplesForStrings() throws IOException {
+        MessageGenerator generator = generator("{type: object, required: [name, code], properties: {"
+            + "name: {type: string, examples: [alice, bob]}, code: {type: string, pattern: '^[A-Z]{3}$'}}}",
+            "examples:\n      - payload: {code: ABC}\n      - payload: {code: xyz}");
+        MessageProducer producer = generator.newProducer(5);
+        Set<Object> names = new HashSet<>();
+
+        for (int i = 0; i < 100; i++) {
+            Map<?, ?> payload = (Map<?, ?>) payload(producer);
+            names.add(payload.get("name"));
+            assertEquals("ABC", payload.get("code"));
+        }
+
+        assertEquals(Set.of("alice", "bob"), names);
+    }
+
+    @Test
+    void replaysExamplesOfMessagesWithoutSchemas() throws IOException {
+        MessageGenerator generator = generator(null, "examples:\n      - payload: {a: 1}\n        headers: {h: x}");
+        MessageProducer producer = generator.newProducer(0);
+
+        assertTrue(generator.hasHeaders());
+        assertEquals(Map.of("h", "x"), headers(producer));
+        assertEquals(Map.of("a", 1), payload(producer));
+    }
+
+    @Test
+    void producesTheSameMessagesForTheSameSeed() throws IOException {
+        MessageGenerator generator = generator("{type: object, properties: {a: {type: string}, b: {type: number}}}");
+        MessageProducer first = generator.newProducer(11);
+        MessageProducer second = generator.newProducer(11);
+        MessageProducer other = generator.newProducer(12);
+        List<Object> firstPayloads = new ArrayList<>();
+        List<Object> otherPayloads = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            Object payload = payload(first);
+            assertEquals(payload, payload(second));
+            firstPayloads.add(payload);
+            otherPayloads.add(payload(other));
+        }
+
+        assertNotEquals(firstPayloads, otherPayloads);
+    }
+
+    @Test
+    void terminatesRecursiveSchemas() throws IOException {
+        AsyncAPI api = AsyncApiReader.create().read(new ByteArrayInputStream("""
+            components:
+              schemas:
+                node:
+                  type: object
+                  required: [value]
+                  properties:
+                    value: {type: integer}
+                    children: {type: array, items: {$ref: '#/components/schemas/node'}}
+              messages:
+                m:
+                  payload: {$ref: '#/components/schemas/node'}
+            """.getBytes(StandardCharsets.UTF_8)));
+        MessageProducer producer = MessageGenerator.compile(api.components().messages().get("m"),
+            ReferenceResolver.of(api)).newProducer(2);
+        SchemaValidator validator = SchemaValidator.compile(api.components().schemas().get("node"),
+            ReferenceResolver.of(api));
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(validator.isValid(payload(producer)));
+        }
+    }
+
+    @Test
+    void leavesTheBufferUnchangedWhenTheMessageDoesNotFit() throws IOException {
+        MessageProducer producer = generator("{type: string, minLength: 10}").newProducer(0);
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+
+        assertThrows(BufferOverflowException.class, () -> producer.writePayload(buffer));
+        assertEquals(0, buffer.position());
+        assertEquals(0, producer.writeHeaders(buffer));
+    }
+
+    @Test
+    void rejectsSchemasWithoutValues() {
+        assertThrows(IllegalArgumentException.class, () -> generator("false"));
+        assertThrows(IllegalArgumentException.class, () -> generator("{type: integer, minimum: 2, maximum: 1}"));
+        assertThrows(IllegalArgumentException.class, () -> generator("{type: integer, multipleOf: 0.5}"));
+        assertThrows(IllegalArgumentException.class, () -> generator("{type: array, minItems: 3, maxItems: 2}"));
+        assertThrows(IllegalArgumentException.class, () -> generator("{type: string, pattern: '^a+$'}"));
+        assertThrows(IllegalArgumentException.class, () -> generator("{type: object, minProperties: 2, "
+            + "properties: {a: {}}}"));
+        assertThrows(IllegalArgumentException.class, () -> generator("{type: widget}"));
+        assertThrows(IllegalArgumentException.class, () -> generator("{$ref: '#/components/schemas/missing'}"));
+        assertThrows(IllegalArgumentException.class,
+            () -> generator("{schemaFormat: application/vnd.apache.avro;version=1.9.0, schema: {type: string}}"));
+        assertThrows(IllegalArgumentException.class,
+            () -> generator("{type: string}", "contentType: application/xml"));
+    }
+
+    @Test
+    void generatesDistinctItemsOfVaryingLength() throws IOException {
+        MessageProducer producer = generator("{type: array, minItems: 2, maxItems: 6, uniqueItems: true, "
+            + "items: {type: integer, minimum: 0, maximum: 9}}").newProducer(7);
+        Set<Integer> lengths = new HashSet<>();
+
+        for (int i = 0; i < 500; i++) {
+            List<?> items = (List<?>) payload(producer);
+            assertEquals(items.size(), new HashSet<>(items).size(), items.toString());
+            lengths.add(items.size());
+        }
+
+        assertEquals(Set.of(2, 3, 4, 5, 6), lengths);
+    }
+
+    @Test
+    void generatesAsManyDistinctItemsAsTheItemsAllow() throws IOException {
+        MessageProducer producer = generator("{type: array, minItems: 2, maxItems: 10, uniqueItems: true, "
+            + "items: {enum: [a, b, c, a]}}").newProducer(1);
+
+        for (int i = 0; i < 200; i++) {
+            List<?> items = (List<?>) payload(producer);
+            assertEquals(items.size(), new HashSet<>(items).size(), items.toString());
+            assertTrue(items.size() >= 2 && items.size() <= 3, items.toString());
+        }
+    }
+
+    @Test
+    void rejectsUniqueItemsWithTooFewValues() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> generator("{type: array, minItems: 3, uniqueItems: true, items: {type: boolean}}"));
+        assertTrue(e.getMessage().contains("3 distinct items"), e.getMessage());
+        assertThrows(IllegalArgumentException.class,
+            () -> generator("{type: array, minItems: 2, uniqueItems: true, items: {const: 1}}"));
+    }
+
+    private static void assertValid(String schema) throws IOException {
+        MessageGenerator generator = generator(schema);
+        AsyncAPI api = read("components:\n  schemas:\n    s: " + schema + "\n");
+        SchemaValidator validator = SchemaValidator.compile(api.components().schemas().get("s"));
+        MessageProducer producer = generator.newProducer(9);
+        for (int i = 0; i < 200; i++) {
+            Object payload = payload(producer);
+            assertEquals(List.of(), validator.validate(payload), String.valueOf(payload));
+        }
+    }
+
+    private static Object headers(MessageProducer producer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(65536);
+        producer.writeHeaders(buffer);
+        return AsyncApiReader.create().readTree(new ByteArrayInputStream(buffer.array(), 0, buffer.position()));
+    }
+
+    private static Object payload(MessageProducer producer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(65536);
+        producer.writePayload(buffer);
+        return AsyncApiReader.create().readTree(new ByteArrayInputStream(buffer.array(), 0, buffer.position()));
+    }
+
+    private static MessageGenerator generator(String payload) throws IOException {
+        return generator(payload, "");
+    }
+
+    /**
+     * @param payload the payload schema in flow style, or {@code null} for none.
+     * @param fields  more fields of the message, indented for the message.
+     */
+    private static MessageGenerator generator(String payload, String fields) throws IOException {
+        AsyncAPI api = read("components:\n  messages:\n    m:\n"
+            + (payload == null ? "" : "      payload: " + payload + "\n")
+            + (fields.isEmpty() ? "" : "      " + fields + "\n"));
+        Message message = api.components().messages().get("m");
+        return MessageGenerator.compile(message, ReferenceResolver.of(api));
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
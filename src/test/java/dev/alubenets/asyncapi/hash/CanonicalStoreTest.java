@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.hash;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Info;
+import dev.alubenets.asyncapi.models.Tag;
+import dev.alubenets.asyncapi.models.Tags;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CanonicalStoreTest {
+
+    @Test
+    void sharesIdenticalDocuments() throws IOException {
+        CanonicalStore store = CanonicalStore.create();
+        AsyncAPI yaml = read("/streetlights.yaml", false);
+        AsyncAPI json = read("/streetlights.json", false);
+
+        AsyncAPI first = store.canonicalize(yaml);
+        long nodes = store.nodes();
+        long hits = store.hits();
+        int size = store.size();
+        AsyncAPI second = store.canonicalize(json);
+
+        assertEquals(yaml, first);
+        assertSame(first, second);
+        assertEquals(2 * nodes, store.nodes());
+        assertEquals(hits + nodes, store.hits());
+        assertEquals(size, store.size());
+        assertTrue(store.savedBytes() > 0);
+        assertTrue(store.ratio() > 2);
+    }
+
+    @Test
+    void sharesSubtreesWithinADocument() throws IOException {
+        CanonicalStore store = CanonicalStore.create();
+        AsyncAPI api = read("""
+            servers:
+              a: {host: a, protocol: kafka, tags: [{name: prod}]}
+              b: {host: b, protocol: kafka, tags: [{name: prod}]}
+            """);
+
+        AsyncAPI canonical = store.canonicalize(api);
+
+        assertEquals(api, canonical);
+        assertNotSame(api, canonical);
+        assertSame(canonical.servers().get("a").tags(), canonical.servers().get("b").tags());
+        assertInstanceOf(Tags.class, canonical.servers().get("b").tags());
+        assertSame(api.servers().get("a").tags(), canonical.servers().get("a").tags());
+    }
+
+    @Test
+    void keepsFrozenMapsFrozen() throws IOException {
+        CanonicalStore store = CanonicalStore.create();
+        store.canonicalize(read("/streetlights.yaml", true).channels().get("lightTurnOn"));
+        AsyncAPI api = read("/streetlights.yaml", true);
+
+        AsyncAPI canonical = store.canonicalize(api);
+
+        assertEquals(api, canonical);
+        assertNotSame(api.channels(), canonical.channels());
+        assertTrue(canonical.channels().isFrozen());
+        assertTrue(canonical.channels().get("lightTurnOn").messages().isFrozen());
+    }
+
+    @Test
+    void keepsValuesThatOnlyHashAlike() {
+        CanonicalStore store = CanonicalStore.create();
+        Map<String, Object> integer = Map.of("maximum", 1);
+        Map<String, Object> decimal = Map.of("maximum", 1.0);
+
+        assertSame(integer, store.canonicalize(integer));
+        assertSame(decimal, store.canonicalize(decimal));
+        assertEquals(0, store.hits());
+    }
+
+    @Test
+    void keepsCopiesOfUnmodifiableCollectionsUnmodifiable() {
+        CanonicalStore store = CanonicalStore.create();
+        store.canonicalize(new ArrayList<>(List.of("a")));
+
+        Map<?, ?> canonical = (Map<?, ?>) store.canonicalize(Map.of("enum", Collections.unmodifiableList(
+            new ArrayList<>(List.of(new ArrayList<>(List.of("a")), "b")))));
+
+        assertEquals(Map.of("enum", List.of(List.of("a"), "b")), canonical);
+        assertThrows(UnsupportedOperationException.class, canonical::clear);
+        assertThrows(UnsupportedOperationException.class, () -> ((List<?>) canonical.get("enum")).clear());
+    }
+
+    @Test
+    void canonicalizesScalarsAndNull() {
+        CanonicalStore store = CanonicalStore.create();
+
+        assertNull(store.canonicalize(null));
+        assertEquals("a", store.canonicalize("a"));
+        assertEquals(0, store.nodes());
+        assertEquals(1, store.ratio());
+        assertThrows(IllegalArgumentException.class, () -> store.canonicalize(List.of(new Object())));
+    }
+
+    @Test
+    void rebuildsPartiallySharedListsAsTheirOwnType() {
+        CanonicalStore store = CanonicalStore.create();
+        Info first = store.canonicalize(info(tags(new Tag("x", null))));
+
+        Info second = store.canonicalize(info(tags(new Tag("x", null), new Tag("y", null))));
+
+        assertEquals(info(tags(new Tag("x", null), new Tag("y", null))), second);
+        assertInstanceOf(Tags.class, second.tags());
+        assertSame(first.tags().get(0), second.tags().get(0));
+    }
+
+    private static AsyncAPI read(String resource, boolean frozen) throws IOException {
+        try (InputStream in = CanonicalStoreTest.class.getResourceAsStream(resource)) {
+            return AsyncApiReader.create().withFrozenMaps(frozen).read(in);
+        }
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Info info(Tags tags) {
+        return new Info("t", "1", null, null, null, null, tags, null);
+    }
+
+    private static Tags tags(Tag... values) {
+        Tags tags = new Tags();
+        Collections.addAll(tags, values);
+        return tags;
+    }
+}
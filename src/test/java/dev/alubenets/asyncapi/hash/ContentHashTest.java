@@ -0,0 +1,183 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.hash;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Channels;
+import dev.alubenets.asyncapi.models.ExternalDocumentation;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Tag;
+import dev.alubenets.asyncapi.models.Tags;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentHashTest {
+
+    /**
+     * A hash persisted by an earlier version, which must not change.
+     */
+    private static final String STABLE = "0a52ddd0fa0cee58ed70fa2a89669048";
+
+    @Test
+    void hashesDocumentsByContent() throws IOException {
+        AsyncAPI yaml = read(AsyncApiReader.create(), "/streetlights.yaml");
+        AsyncAPI json = read(AsyncApiReader.create(), "/streetlights.json");
+
+        assertEquals(ContentHash.of(yaml), ContentHash.of(json));
+        assertTrue(ContentHash.contentEquals(yaml, json));
+        assertNotEquals(ContentHash.of(yaml.channels()), ContentHash.of(yaml.operations()));
+        assertTrue(ContentHash.of(yaml).toString().matches("[0-9a-f]{32}"));
+    }
+
+    @Test
+    void combinesMapEntriesInAnyOrder() {
+        Map<String, Object> forward = new LinkedHashMap<>();
+        Map<String, Object> backward = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            forward.put("key" + i, i);
+            backward.put("key" + (19 - i), 19 - i);
+        }
+
+        assertEquals(ContentHash.of(forward), ContentHash.of(backward));
+        assertEquals(ContentHash.of(forward), ContentHash.of(new HashMap<>(forward)));
+        assertNotEquals(ContentHash.of(List.of(1, 2)), ContentHash.of(List.of(2, 1)));
+        assertNotEquals(ContentHash.of(Map.of("a", 1, "b", 2)), ContentHash.of(Map.of("a", 2, "b", 1)));
+    }
+
+    @Test
+    void hashesNumbersByValue() {
+        ContentHash one = ContentHash.of(1);
+
+        assertEquals(one, ContentHash.of(1L));
+        assertEquals(one, ContentHash.of(1.0));
+        assertEquals(one, ContentHash.of(1.0f));
+        assertEquals(one, ContentHash.of(BigInteger.ONE));
+        assertEquals(one, ContentHash.of(new BigDecimal("1.00")));
+        assertEquals(ContentHash.of(0.5), ContentHash.of(new BigDecimal("0.50")));
+        assertEquals(ContentHash.of(new BigInteger("123456789012345678901234567890")),
+            ContentHash.of(new BigDecimal("123456789012345678901234567890.0")));
+        assertNotEquals(one, ContentHash.of("1"));
+        assertNotEquals(ContentHash.of(0.1), ContentHash.of(new BigDecimal("0.1")));
+        assertNotEquals(ContentHash.of(true), ContentHash.of(false));
+        assertNotEquals(ContentHash.of(null), ContentHash.of(""));
+    }
+
+    @Test
+    void hashesRecordsLikeTheObjectsTheyAreWrittenAs() {
+        assertEquals(ContentHash.of(Map.of("name", "billing")), ContentHash.of(new Tag("billing", null)));
+        assertEquals(ContentHash.of(Map.of("description", "docs", "url", "https://example.com")),
+            ContentHash.of(new ExternalDocumentation(null, "docs", "https://example.com")));
+        assertEquals(ContentHash.of("send"), ContentHash.of(Operation.Action.SEND));
+        assertNotEquals(ContentHash.of(new Tag("billing", null)), ContentHash.of(new Tag(null, "billing")));
+    }
+
+    @Test
+    void keepsHashesStableAcrossRuns() {
+        assertEquals(ContentHash.of(Map.of("name", "billing", "values", List.of(1, 2.5, true))).toString(),
+            ContentHash.of(Map.of("values", Arrays.asList(1L, 2.5f, true), "name", "billing")).toString());
+        assertEquals(STABLE, ContentHash.of(Map.of("name", "billing", "values", List.of(1, 2.5, true))).toString());
+    }
+
+    @Test
+    void rejectsValuesWithoutJsonForm() {
+        assertThrows(IllegalArgumentException.class, () -> ContentHash.of(new Object()));
+        assertThrows(IllegalArgumentException.class, () -> ContentHash.of(List.of(Double.NaN)));
+        assertThrows(IllegalArgumentException.class, () -> ContentHash.of(Map.of("a", Double.POSITIVE_INFINITY)));
+        assertFalse(ContentHash.contentEquals("a", 1));
+    }
+
+    @Test
+    void cachesOnlyFrozenNodes() throws IOException {
+        AsyncAPI frozen = read(AsyncApiReader.create().withFrozenMaps(true), "/streetlights.yaml");
+        AsyncAPI mutable = read(AsyncApiReader.create(), "/streetlights.yaml");
+
+        assertEquals(ContentHash.of(frozen), ContentHash.of(mutable));
+        assertNotNull(ContentHash.cached(frozen));
+        assertNotNull(ContentHash.cached(frozen.channels()));
+        assertNull(ContentHash.cached(mutable));
+        assertNull(ContentHash.cached(mutable.channels()));
+        assertNull(ContentHash.cached(mutable.channels().get("lightTurnOn")));
+    }
+
+    @Test
+    void seesChangesToMutableMaps() throws IOException {
+        AsyncAPI api = read(AsyncApiReader.create(), "/streetlights.yaml");
+        ContentHash before = ContentHash.of(api);
+        ContentHash channels = ContentHash.of(api.channels());
+
+        api.channels().put("extra", new Channel(null, "extra", null, null, null, null, null, null, null, null, null));
+
+        assertNotEquals(before, ContentHash.of(api));
+        assertNotEquals(channels, ContentHash.of(api.channels()));
+        api.channels().remove("extra");
+        assertEquals(before, ContentHash.of(api));
+    }
+
+    @Test
+    void seesChangesToMutableLists() throws IOException {
+        AsyncAPI frozen = read(AsyncApiReader.create().withFrozenMaps(true), "/streetlights.yaml");
+        Tags tags = new Tags();
+        Channels channels = new Channels();
+        channels.putAll(frozen.channels());
+        channels.put("extra", new Channel(null, "extra", null, null, null, null, null, null, tags, null, null));
+        channels.freeze();
+        AsyncAPI api = new AsyncAPI(frozen.info(), frozen.id(), frozen.servers(), frozen.defaultContentType(), channels,
+            frozen.operations(), frozen.components());
+        ContentHash before = ContentHash.of(api);
+
+        tags.add(new Tag("extra", null));
+
+        assertNotEquals(before, ContentHash.of(api));
+        assertNull(ContentHash.cached(api));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.info().tags().add(new Tag("extra", null)));
+        assertThrows(UnsupportedOperationException.class,
+            () -> frozen.operations().get("turnOn").messages().clear());
+    }
+
+    private static AsyncAPI read(AsyncApiReader reader, String resource) throws IOException {
+        try (InputStream in = ContentHashTest.class.getResourceAsStream(resource)) {
+            return reader.read(in);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.index;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolutionException;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentIndexTest {
+
+    @Test
+    void answersQueriesOverTheDocument() throws IOException {
+        AsyncAPI api;
+        try (InputStream in = DocumentIndexTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+        DocumentIndex index = DocumentIndex.build(api);
+
+        assertEquals(api.operations().size(), index.operationCount());
+        assertEquals(api.channels().size(), index.channelCount());
+        assertEquals(Set.of("turnOn", "turnOff"),
+            Set.copyOf(index.operationNames(index.operationsWithAction(Operation.Action.SEND))));
+        assertEquals(List.of("receiveLightMeasurement"),
+            index.operationNames(index.operationsWithAction(Operation.Action.RECEIVE)));
+        assertEquals(List.of("turnOn"), index.operationNames(index.operationsOnChannel("lightTurnOn")));
+        assertEquals(List.of("receiveLightMeasurement"),
+            index.operationNames(index.operationsWithMessage("lightMeasured")));
+        // Channels without servers are available on all of them.
+        assertEquals(index.allChannels(), index.channelsOnServer("scram-connections"));
+        assertEquals(index.allOperations(), index.operationsOnServer("mtls-connections"));
+        assertEquals(IdSet.EMPTY, index.operationsOnServer("missing"));
+
+        int id = index.operationId("turnOn");
+        assertEquals("turnOn", index.operationName(id));
+        assertSame(api.operations().get("turnOn"), index.operation(id));
+        assertSame(api.channels().get("lightTurnOn"), index.channel(index.channelId("lightTurnOn")));
+        assertEquals(-1, index.operationId("missing"));
+        assertEquals(-1, index.channelId("missing"));
+    }
+
+    @Test
+    void combinesQueries() throws IOException {
+        DocumentIndex index = DocumentIndex.build(read("""
+            servers:
+              eu: {host: eu, protocol: kafka}
+              us: {host: us, protocol: kafka}
+            channels:
+              orders: {address: orders, servers: [{$ref: '#/servers/eu'}], tags: [{name: commerce}]}
+              users: {address: users, servers: [{$ref: '#/servers/us'}]}
+            operations:
+              publishOrder: {action: send, channel: {$ref: '#/channels/orders'}, tags: [{name: commerce}]}
+              consumeOrder: {action: receive, channel: {$ref: '#/channels/orders'}}
+              publishUser: {action: send, channel: {$ref: '#/channels/users'}}
+            """));
+
+        IdSet sentInEurope = index.operationsWithAction(Operation.Action.SEND).and(index.operationsOnServer("eu"));
+
+        assertEquals(List.of("publishOrder"), index.operationNames(sentInEurope));
+        assertEquals(List.of("orders"), index.channelNames(index.channelsTagged("commerce")));
+        assertEquals(List.of("publishOrder"), index.operationNames(index.operationsTagged("commerce")));
+        assertEquals(Set.of("consumeOrder", "publishUser"), Set.copyOf(index.operationNames(
+            index.allOperations().andNot(index.operationsTagged("commerce")))));
+        assertEquals(List.of("users"), index.channelNames(index.channelsOnServer("us")));
+    }
+
+    @Test
+    void coversAllMessagesOfTheChannelWithoutAMessageList() throws IOException {
+        DocumentIndex index = DocumentIndex.build(read("""
+            channels:
+              orders:
+                address: orders
+                messages:
+                  created: {name: created}
+                  cancelled: {name: cancelled}
+            operations:
+              all: {action: receive, channel: {$ref: '#/channels/orders'}}
+              some:
+                action: send
+                channel: {$ref: '#/channels/orders'}
+                messages: [{$ref: '#/channels/orders/messages/created'}]
+            """));
+
+        assertEquals(Set.of("all", "some"), Set.copyOf(index.operationNames(index.operationsWithMessage("created"))));
+        assertEquals(List.of("all"), index.operationNames(index.operationsWithMessage("cancelled")));
+        assertEquals(List.of("orders"), index.channelNames(index.channelsWithMessage("cancelled")));
+    }
+
+    @Test
+    void updatesChangedChannelsAndOperations() throws IOException {
+        String template = """
+            servers:
+              eu: {host: eu, protocol: kafka}
+              us: {host: us, protocol: kafka}
+            channels:
+              orders: {address: orders, servers: [{$ref: '#/servers/%s'}]}
+              users: {address: users}
+            operations:
+              publishOrder: {action: send, channel: {$ref: '#/channels/orders'}}
+              publishUser: {action: %s, channel: {$ref: '#/channels/users'}}
+            """;
+        DocumentIndex index = DocumentIndex.build(read(template.formatted("eu", "send")));
+        AsyncAPI changed = read(template.formatted("us", "receive"));
+
+        DocumentIndex updated = index.update(changed, ReferenceResolver.of(changed), Set.of("orders"),
+            Set.of("publishUser"));
+
+        assertEquals(DocumentIndex.build(changed).operationsOnServer("us"), updated.operationsOnServer("us"));
+        assertTrue(updated.operationsOnServer("eu").contains(updated.operationId("publishUser")));
+        assertEquals(IdSet.of(updated.operationId("publishUser"), updated.operationId("publishOrder")),
+            updated.operationsOnServer("us"));
+        assertEquals(List.of("publishUser"),
+            updated.operationNames(updated.operationsWithAction(Operation.Action.RECEIVE)));
+        assertEquals(index.operationId("publishOrder"), updated.operationId("publishOrder"));
+        assertTrue(index.operationsOnServer("eu").contains(index.operationId("publishOrder")));
+        assertSame(updated, updated.update(changed, ReferenceResolver.of(changed), Set.of(), Set.of()));
+    }
+
+    @Test
+    void keepsInlineMessagesOfUnchangedChannels() throws IOException {
+        String template = """
+            channels:
+              orders:
+                address: orders
+                messages:
+                  created: {name: created}
+            operations:
+              onOrder:
+                action: receive
+                summary: %s
+                channel: {$ref: '#/channels/orders'}
+                messages: [{$ref: '#/channels/orders/messages/created'}]
+            """;
+        DocumentIndex index = DocumentIndex.build(read(template.formatted("before")));
+        AsyncAPI changed = read(template.formatted("after"));
+
+        DocumentIndex updated = index.update(changed, ReferenceResolver.of(changed), Set.of(), Set.of("onOrder"));
+
+        assertEquals(List.of("onOrder"), updated.operationNames(updated.operationsWithMessage("created")));
+        assertEquals(DocumentIndex.build(changed).operationsWithMessage("created"),
+            updated.operationsWithMessage("created"));
+    }
+
+    @Test
+    void rebuildsWhenTheShapeChanges() throws IOException {
+        DocumentIndex index = DocumentIndex.build(read("channels: {a: {address: a}}"));
+        AsyncAPI changed = read("channels: {a: {address: a}, b: {address: b}}");
+
+        DocumentIndex updated = index.update(changed, ReferenceResolver.of(changed), Set.of("b"), Set.of());
+
+        assertNotSame(index, updated);
+        assertEquals(2, updated.channelCount());
+        assertEquals(1, index.channelCount());
+    }
+
+    @Test
+    void rejectsDanglingReferences() throws IOException {
+        AsyncAPI api = read("operations: {a: {action: send, channel: {$ref: '#/channels/missing'}}}");
+
+        assertThrows(ReferenceResolutionException.class, () -> DocumentIndex.build(api));
+    }
+
+    @Test
+    void indexesObjectsUnderEveryKeyTheyAreHeldUnder() throws IOException {
+        DocumentIndex index = DocumentIndex.build(read("""
+            servers:
+              production: {host: a, protocol: kafka}
+              live: {$ref: '#/servers/production'}
+            channels:
+              orders:
+                address: orders
+                servers: [{$ref: '#/servers/live'}]
+                messages:
+                  created: {$ref: '#/components/messages/orderCreated'}
+            operations:
+              publish:
+                action: send
+                channel: {$ref: '#/channels/orders'}
+                messages: [{$ref: '#/channels/orders/messages/created'}]
+            components:
+              messages:
+                orderCreated: {name: orderCreated}
+                legacyOrderCreated: {$ref: '#/components/messages/orderCreated'}
+            """));
+
+        for (String server : List.of("production", "live")) {
+            assertEquals(IdSet.of(0), index.channelsOnServer(server), server);
+            assertEquals(IdSet.of(0), index.operationsOnServer(server), server);
+        }
+        for (String message : List.of("orderCreated", "legacyOrderCreated")) {
+            assertEquals(IdSet.of(0), index.channelsWithMessage(message), message);
+            assertEquals(IdSet.of(0), index.operationsWithMessage(message), message);
+        }
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
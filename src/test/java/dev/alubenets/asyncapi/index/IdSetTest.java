@@ -0,0 +1,121 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdSetTest {
+
+    @Test
+    void buildsSetsFromIds() {
+        IdSet set = IdSet.of(5, 1, 5, 200);
+
+        assertEquals(3, set.size());
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(200));
+        assertFalse(set.contains(2));
+        assertFalse(set.contains(-1));
+        assertArrayEquals(new int[]{1, 5, 200}, set.toArray());
+        assertEquals(IdSet.of(1, 5, 200), set);
+        assertEquals(IdSet.of(1, 5, 200).hashCode(), set.hashCode());
+        assertTrue(IdSet.of().isEmpty());
+        assertEquals(IdSet.EMPTY, IdSet.of());
+    }
+
+    @Test
+    void buildsRanges() {
+        for (int size : new int[]{0, 1, 63, 64, 65, 130}) {
+            IdSet range = IdSet.range(size);
+
+            assertEquals(size, range.size());
+            assertFalse(range.contains(size));
+            if (size > 0) {
+                assertTrue(range.contains(size - 1));
+            }
+        }
+    }
+
+    @Test
+    void iteratesInAscendingOrder() {
+        IdSet set = IdSet.of(64, 3, 1000, 0);
+        List<Integer> ids = new ArrayList<>();
+
+        set.forEach(ids::add);
+
+        assertEquals(List.of(0, 3, 64, 1000), ids);
+        assertEquals(3, set.next(1));
+        assertEquals(64, set.next(64));
+        assertEquals(-1, set.next(1001));
+    }
+
+    @Test
+    void matchesBitSetsForRandomSets() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            BitSet first = random(random);
+            BitSet second = random(random);
+            IdSet a = IdSet.of(first.stream().toArray());
+            IdSet b = IdSet.of(second.stream().toArray());
+
+            assertArrayEquals(first.stream().toArray(), a.toArray());
+            assertEquals(set(first, second, 'a'), a.and(b));
+            assertEquals(set(first, second, 'o'), a.or(b));
+            assertEquals(set(first, second, 'n'), a.andNot(b));
+        }
+    }
+
+    /**
+     * @return a sparse or dense set of ids below 1000.
+     */
+    private static BitSet random(Random random) {
+        BitSet bits = new BitSet();
+        int count = random.nextBoolean() ? random.nextInt(10) : random.nextInt(1000);
+        int bound = random.nextBoolean() ? 100 : 1000;
+        for (int i = 0; i < count; i++) {
+            bits.set(random.nextInt(bound));
+        }
+        return bits;
+    }
+
+    private static IdSet set(BitSet first, BitSet second, char operation) {
+        BitSet result = (BitSet) first.clone();
+        switch (operation) {
+            case 'a' -> result.and(second);
+            case 'o' -> result.or(second);
+            default -> result.andNot(second);
+        }
+        return IdSet.of(result.stream().toArray());
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.loader;
+
+import dev.alubenets.asyncapi.hash.CanonicalStore;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.parser.AsyncApiParseException;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.parser.InterningPool;
+import dev.alubenets.asyncapi.resolver.DocumentSource;
+import dev.alubenets.asyncapi.resolver.ReferenceResolutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsDocumentsInOrderAndSharesReferencedFiles() throws IOException {
+        write("common.yaml", "components: {messages: {m: {name: shared}}}");
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            paths.add(write("api" + i + ".yaml", """
+                info: {title: 'api%d', version: '1'}
+                channels:
+                  c: {address: c, messages: {m: {$ref: 'common.yaml#/components/messages/m'}}}
+                """.formatted(i)));
+        }
+        AtomicInteger loads = new AtomicInteger();
+        DocumentSource files = DocumentSource.files();
+
+        List<LoadResult> results = BatchLoader.create().withPool(new ForkJoinPool(4)).withSource(uri -> {
+            loads.incrementAndGet();
+            return files.load(uri);
+        }).load(paths);
+
+        assertEquals(20, results.size());
+        assertEquals(1, loads.get());
+        Message shared = results.get(0).resolver().resolve(results.get(0).document().channels().get("c").messages()
+            .get("m"));
+        assertEquals("shared", shared.name());
+        for (int i = 0; i < results.size(); i++) {
+            LoadResult result = results.get(i);
+            assertTrue(result.isSuccess());
+            assertEquals(paths.get(i), result.path());
+            assertEquals("api" + i, result.document().info().title());
+            assertSame(shared, result.resolver().resolve(result.document().channels().get("c").messages().get("m")));
+            assertEquals(Set.of(directory.resolve("common.yaml").toUri()), result.resolver().externalDocuments());
+        }
+    }
+
+    @Test
+    void reportsFailuresPerDocument() throws IOException {
+        Path valid = write("valid.yaml", "channels: {a: {address: a}}");
+        Path invalid = write("invalid.yaml", "channels: [");
+        Path dangling = write("dangling.yaml", "channels: {a: {$ref: '#/components/channels/missing'}}");
+        Path missing = directory.resolve("missing.yaml");
+
+        List<LoadResult> results = BatchLoader.create().load(List.of(valid, invalid, dangling, missing));
+
+        assertTrue(results.get(0).isSuccess());
+        assertInstanceOf(AsyncApiParseException.class, results.get(1).error());
+        assertInstanceOf(ReferenceResolutionException.class, results.get(2).error());
+        assertInstanceOf(NoSuchFileException.class, results.get(3).error());
+        assertFalse(results.get(3).isSuccess());
+        assertNull(results.get(3).document());
+        assertNull(results.get(3).resolver());
+    }
+
+    @Test
+    void skipsResolutionOnRequest() throws IOException {
+        Path dangling = write("dangling.yaml", "channels: {a: {$ref: '#/components/channels/missing'}}");
+
+        LoadResult result = BatchLoader.create().withResolution(false).load(List.of(dangling)).get(0);
+
+        assertTrue(result.isSuccess());
+        assertThrows(ReferenceResolutionException.class,
+            () -> result.resolver().resolve(result.document().channels().get("a")));
+    }
+
+    @Test
+    void sharesIdenticalPartsThroughTheStore() throws IOException {
+        Path first = write("first.yaml", "info: {title: t, version: '1'}\nchannels: {a: {address: orders}}");
+        Path second = write("second.yaml", "info: {title: t, version: '2'}\nchannels: {b: {address: orders}}");
+        CanonicalStore store = CanonicalStore.create();
+
+        List<LoadResult> results = BatchLoader.create().withStore(store).load(List.of(first, second));
+
+        assertSame(results.get(0).document().channels().get("a"), results.get(1).document().channels().get("b"));
+        assertTrue(store.hits() > 0);
+    }
+
+    @Test
+    void rejectsMissingSettings() {
+        BatchLoader loader = BatchLoader.create();
+
+        assertThrows(NullPointerException.class, () -> loader.withReader(null));
+        assertThrows(NullPointerException.class, () -> loader.withSource(null));
+        assertThrows(NullPointerException.class, () -> loader.withPool(null));
+        assertThrows(NullPointerException.class, () -> loader.withStore(null));
+        assertEquals(List.of(), loader.load(List.of()));
+    }
+
+    @Test
+    void bindsReferencedFilesWithTheReader() throws IOException {
+        write("common.yaml", """
+            channels:
+              shared:
+                address: shared
+                messages:
+                  m: {name: m, tags: [{name: billing}]}
+            """);
+        Path api = write("api.yaml", """
+            info: {title: t, version: '1', tags: [{name: billing}]}
+            channels:
+              a: {$ref: 'common.yaml#/channels/shared'}
+            """);
+        InterningPool pool = InterningPool.create();
+
+        LoadResult result = BatchLoader.create()
+            .withReader(AsyncApiReader.create().withInterning(pool).withFrozenMaps(true))
+            .load(List.of(api)).get(0);
+
+        Channel channel = result.resolver().resolve(result.document().channels().get("a"));
+        assertTrue(channel.messages().isFrozen());
+        assertSame(result.document().info().tags().get(0), channel.messages().get("m").tags().get(0));
+    }
+
+    @Test
+    void sharesReferencedComponentsReadOnly() throws IOException {
+        write("common.yaml", "components: {messages: {m: {name: shared, tags: [{name: billing}]}}}");
+        Path api = write("api.yaml", """
+            info: {title: t, version: '1'}
+            channels:
+              c: {address: c, messages: {m: {$ref: 'common.yaml#/components/messages/m'}}}
+            """);
+
+        LoadResult result = BatchLoader.create().load(List.of(api)).get(0);
+
+        Message shared = result.resolver().resolve(result.document().channels().get("c").messages().get("m"));
+        assertTrue(result.document().channels().isFrozen());
+        assertTrue(shared.tags().isFrozen());
+        assertThrows(UnsupportedOperationException.class, () -> shared.tags().clear());
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models;
+
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FreezableMapTest {
+
+    @Test
+    void behavesLikeAMapWhileMutable() {
+        Servers servers = new Servers();
+        Server a = server("a");
+
+        assertNull(servers.put("a", a));
+        servers.put("b", server("b"));
+        servers.put(null, server("null"));
+
+        assertFalse(servers.isFrozen());
+        assertEquals(3, servers.size());
+        assertSame(a, servers.get("a"));
+        assertTrue(servers.containsKey(null));
+        assertEquals(server("b"), servers.remove("b"));
+        servers.clear();
+        assertTrue(servers.isEmpty());
+    }
+
+    @Test
+    void keepsEntriesAndOrderWhenFrozen() {
+        Channels channels = new Channels();
+        for (int i = 0; i < 100; i++) {
+            channels.put("channel" + i, channel("address" + i));
+        }
+        Map<String, Channel> expected = new HashMap<>(channels);
+        List<String> order = new ArrayList<>(channels.keySet());
+
+        channels.freeze();
+
+        assertTrue(channels.isFrozen());
+        assertEquals(expected, channels);
+        assertEquals(channels, expected);
+        assertEquals(expected.hashCode(), channels.hashCode());
+        assertEquals(order, new ArrayList<>(channels.keySet()));
+        assertEquals(channel("address42"), channels.get("channel42"));
+        assertTrue(channels.containsKey("channel99"));
+        assertTrue(channels.containsValue(channel("address7")));
+        assertTrue(channels.entrySet().contains(Map.entry("channel3", channel("address3"))));
+        assertFalse(channels.entrySet().contains(Map.entry("channel3", channel("address4"))));
+        assertNull(channels.get("missing"));
+        assertNull(channels.get(42));
+        assertNull(channels.get(null));
+        assertFalse(channels.containsKey(null));
+    }
+
+    @Test
+    void findsKeysWithCollidingHashes() {
+        Messages messages = new Messages();
+        // "Aa" and "BB" share a hash code, as do all combinations of them.
+        String[] keys = {"AaAa", "AaBB", "BBAa", "BBBB", "Aa", "BB", ""};
+        for (String key : keys) {
+            messages.put(key, message(key));
+        }
+        messages.put(null, message("null"));
+
+        messages.freeze();
+
+        for (String key : keys) {
+            assertEquals(message(key), messages.get(key));
+        }
+        assertEquals(message("null"), messages.get(null));
+        assertTrue(messages.containsKey(null));
+        assertFalse(messages.containsKey("AaAaAa"));
+    }
+
+    @Test
+    void matchesHashMapForRandomKeys() {
+        Random random = new Random(7);
+        for (int size : new int[]{0, 1, 2, 3, 15, 16, 17, 1000}) {
+            Operations operations = new Operations();
+            Map<String, Operation> expected = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                String key = Integer.toString(random.nextInt(size * 2 + 1), 36);
+                Operation operation = operation(key + i);
+                operations.put(key, operation);
+                expected.put(key, operation);
+            }
+            operations.freeze();
+
+            assertEquals(expected, operations);
+            for (int i = 0; i < size * 3; i++) {
+                String key = Integer.toString(i, 36);
+                assertEquals(expected.get(key), operations.get(key));
+                assertEquals(expected.containsKey(key), operations.containsKey(key));
+            }
+        }
+    }
+
+    @Test
+    void rejectsModificationsWhenFrozen() {
+        Parameters parameters = new Parameters();
+        parameters.put("a", new Parameter(null, null, null, null, null, null));
+        parameters.freeze();
+        parameters.freeze();
+
+        assertThrows(UnsupportedOperationException.class, () -> parameters.put("b", null));
+        assertThrows(UnsupportedOperationException.class, () -> parameters.remove("a"));
+        assertThrows(UnsupportedOperationException.class, parameters::clear);
+        assertThrows(UnsupportedOperationException.class, () -> parameters.putAll(Map.of("c", parameters.get("a"))));
+        assertThrows(UnsupportedOperationException.class, () -> parameters.entrySet().iterator().next().setValue(null));
+        assertThrows(UnsupportedOperationException.class, () -> parameters.keySet().remove("a"));
+        assertEquals(1, parameters.size());
+    }
+
+    @Test
+    void loadsLazyValuesOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        Channels channels = new Channels();
+        String[] keys = {"a", "b", "c"};
+        List<String> addresses = List.of(keys);
+
+        channels.freezeLazily(keys, index -> {
+            loads.incrementAndGet();
+            return channel(addresses.get(index));
+        });
+        keys[0] = "changed";
+
+        assertTrue(channels.isFrozen());
+        assertEquals(3, channels.size());
+        assertTrue(channels.containsKey("a"));
+        assertEquals(0, loads.get());
+        assertEquals(channel("b"), channels.get("b"));
+        assertEquals(channel("b"), channels.get("b"));
+        assertEquals(1, loads.get());
+        assertEquals(Map.of("a", channel("a"), "b", channel("b"), "c", channel("c")), channels);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void loadsLazyValuesOnceUnderContention() {
+        AtomicInteger loads = new AtomicInteger();
+        Channels channels = new Channels();
+        channels.freezeLazily(new String[]{"a"}, index -> {
+            loads.incrementAndGet();
+            return channel("a");
+        });
+
+        List<Channel> values = IntStream.range(0, 1_000).parallel().mapToObj(i -> channels.get("a")).toList();
+
+        assertEquals(1, loads.get());
+        assertTrue(values.stream().allMatch(value -> value == values.get(0)));
+    }
+
+    @Test
+    void freezesOnlyEmptyMutableMapsLazily() {
+        Channels filled = new Channels();
+        filled.put("a", channel("a"));
+        Channels frozen = new Channels();
+        frozen.freeze();
+
+        assertThrows(IllegalStateException.class, () -> filled.freezeLazily(new String[0], index -> null));
+        assertThrows(IllegalStateException.class, () -> frozen.freezeLazily(new String[0], index -> null));
+    }
+
+    @Test
+    void readerFreezesModelMapsOnRequest() throws IOException {
+        AsyncAPI frozen;
+        AsyncAPI mutable;
+        try (InputStream in = FreezableMapTest.class.getResourceAsStream("/streetlights.yaml")) {
+            frozen = AsyncApiReader.create().withFrozenMaps(true).read(in);
+        }
+        try (InputStream in = FreezableMapTest.class.getResourceAsStream("/streetlights.yaml")) {
+            mutable = AsyncApiReader.create().read(in);
+        }
+
+        assertTrue(frozen.channels().isFrozen());
+        assertTrue(frozen.operations().isFrozen());
+        assertTrue(frozen.servers().isFrozen());
+        assertTrue(frozen.channels().get("lightTurnOn").messages().isFrozen());
+        assertFalse(mutable.channels().isFrozen());
+        assertEquals(mutable, frozen);
+        assertEquals(new LinkedHashMap<>(mutable.channels()).keySet(), frozen.channels().keySet());
+    }
+
+    private static Server server(String host) {
+        return new Server(null, host, "kafka", null, null, null, null, null, null, null, null, null, null);
+    }
+
+    private static Channel channel(String address) {
+        return new Channel(null, address, null, null, null, null, null, null, null, null, null);
+    }
+
+    private static Message message(String name) {
+        return new Message(null, null, null, null, null, name, null, null, null, null, null, null, null, null);
+    }
+
+    private static Operation operation(String title) {
+        return new Operation(null, Operation.Action.SEND, null, title, null, null, null, null, null, null, null, null,
+            null);
+    }
+}
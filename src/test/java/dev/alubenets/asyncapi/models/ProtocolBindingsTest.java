@@ -0,0 +1,227 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.models;
+
+import dev.alubenets.asyncapi.models.bindings.AmqpChannelBinding;
+import dev.alubenets.asyncapi.models.bindings.AmqpExchange;
+import dev.alubenets.asyncapi.models.bindings.AmqpOperationBinding;
+import dev.alubenets.asyncapi.models.bindings.KafkaChannelBinding;
+import dev.alubenets.asyncapi.models.bindings.KafkaMessageBinding;
+import dev.alubenets.asyncapi.models.bindings.KafkaServerBinding;
+import dev.alubenets.asyncapi.models.bindings.KafkaTopicConfiguration;
+import dev.alubenets.asyncapi.models.bindings.MqttLastWill;
+import dev.alubenets.asyncapi.models.bindings.MqttServerBinding;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.snapshot.Snapshot;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProtocolBindingsTest {
+
+    private static final String DOCUMENT = """
+        servers:
+          broker:
+            host: broker
+            protocol: kafka
+            bindings:
+              kafka:
+                schemaRegistryUrl: https://registry
+                bindingVersion: 0.5.0
+              mqtt:
+                clientId: guest
+                cleanSession: true
+                keepAlive: 60
+                lastWill: {topic: gone, qos: 1, retain: false}
+        channels:
+          orders:
+            address: orders
+            bindings:
+              kafka:
+                topic: orders
+                partitions: 20
+                topicConfiguration:
+                  cleanup.policy: [delete, compact]
+                  retention.ms: 604800000
+              amqp:
+                is: routingKey
+                exchange: {name: orders, type: topic, durable: true}
+            messages:
+              created:
+                bindings:
+                  kafka:
+                    key: {type: string}
+                    schemaIdLocation: payload
+                  amqp:
+                    contentEncoding: gzip
+        operations:
+          send:
+            action: send
+            channel: {$ref: '#/channels/orders'}
+            bindings:
+              amqp:
+                expiration: 100000
+                cc: [user.logs]
+                priority: 10
+                ack: false
+              $ref: '#/components/operationBindings/shared'
+        """;
+
+    @Test
+    void decodesTypedBindings() throws IOException {
+        AsyncAPI api = read(DOCUMENT);
+        ServerBindings server = api.servers().get("broker").bindings();
+        ChannelBindings channel = api.channels().get("orders").bindings();
+        MessageBindings message = api.channels().get("orders").messages().get("created").bindings();
+        OperationBindings operation = api.operations().get("send").bindings();
+
+        assertEquals(new KafkaServerBinding("https://registry", null, "0.5.0"), server.kafka());
+        assertEquals(new MqttServerBinding("guest", true, new MqttLastWill("gone", 1, null, false), 60, null, null,
+            null), server.mqtt());
+        KafkaTopicConfiguration configuration = new KafkaTopicConfiguration(List.of("delete", "compact"), 604800000L,
+            null, null, null, null, null, null, null);
+        assertEquals(new KafkaChannelBinding("orders", 20, null, configuration, null), channel.kafka());
+        assertEquals(new AmqpChannelBinding("routingKey", new AmqpExchange("orders", "topic", true, null, null), null,
+            null), channel.amqp());
+        assertNull(channel.ws());
+        assertEquals(new KafkaMessageBinding(Map.of("type", "string"), "payload", null, null, null), message.kafka());
+        assertEquals("gzip", message.amqp().contentEncoding());
+        assertNull(message.mqtt());
+        assertEquals(new AmqpOperationBinding(100000L, null, List.of("user.logs"), 10, null, null, null, null, false,
+            null), operation.amqp());
+        assertEquals("#/components/operationBindings/shared", operation.$ref());
+        assertNull(server.$ref());
+    }
+
+    @Test
+    void decodesEachBindingOnce() throws IOException {
+        MessageBindings bindings = read(DOCUMENT).channels().get("orders").messages().get("created").bindings();
+
+        assertSame(bindings.kafka(), bindings.kafka());
+        assertSame(bindings.amqp(), bindings.amqp());
+    }
+
+    @Test
+    void decodesBindingsOfFrozenAndSnapshotDocuments() throws IOException {
+        AsyncAPI api = read(DOCUMENT);
+        AsyncAPI frozen = AsyncApiReader.create().withFrozenMaps(true)
+            .read(new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8)));
+        AsyncAPI snapshot = Snapshot.read(ByteBuffer.wrap(Snapshot.toBytes(api)));
+
+        for (AsyncAPI other : List.of(frozen, snapshot)) {
+            ChannelBindings bindings = other.channels().get("orders").bindings();
+            assertTrue(bindings.isFrozen());
+            assertEquals(api.channels().get("orders").bindings().kafka(), bindings.kafka());
+            assertEquals(api.servers().get("broker").bindings().mqtt(),
+                other.servers().get("broker").bindings().mqtt());
+            assertSame(bindings.kafka(), bindings.kafka());
+        }
+    }
+
+    @Test
+    void rejectsBindingsThatDoNotMatchTheirModel() {
+        MessageBindings bindings = new MessageBindings();
+        bindings.put("kafka", Map.of("schemaIdLocation", 42));
+        bindings.put("amqp", "gzip");
+        ServerBindings server = new ServerBindings();
+        server.put("mqtt", Map.of("lastWill", Map.of("qos", "high")));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, bindings::kafka);
+        assertTrue(e.getMessage().startsWith("Invalid kafka binding: 'schemaIdLocation'"), e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> bindings.binding("amqp"));
+        assertEquals("The amqp binding is not an object", e.getMessage());
+        assertThrows(IllegalArgumentException.class, bindings::amqp);
+        e = assertThrows(IllegalArgumentException.class, server::mqtt);
+        assertTrue(e.getMessage().startsWith("Invalid mqtt binding: 'qos'"), e.getMessage());
+        assertNull(bindings.binding("mqtt"));
+    }
+
+    @Test
+    void forgetsDecodedBindingsOnEveryModification() {
+        assertDecodesAgain(bindings -> bindings.put("kafka", kafka("b")));
+        assertDecodesAgain(bindings -> bindings.putAll(Map.of("kafka", kafka("b"))));
+        assertDecodesAgain(bindings -> bindings.replaceAll((protocol, binding) -> kafka("b")));
+        assertDecodesAgain(bindings -> bindings.entrySet().iterator().next().setValue(kafka("b")));
+        assertDecodesAgain(bindings -> bindings.compute("kafka", (protocol, binding) -> kafka("b")));
+        assertDecodesAgain(bindings -> bindings.merge("kafka", kafka("b"), (binding, other) -> other));
+        assertDecodesAgain(bindings -> bindings.replace("kafka", kafka("b")));
+        assertRemoves(bindings -> bindings.remove("kafka"));
+        assertRemoves(Map::clear);
+        assertRemoves(bindings -> bindings.entrySet().removeIf(entry -> entry.getKey().equals("kafka")));
+        assertRemoves(bindings -> bindings.keySet().retainAll(Set.of("amqp")));
+        assertRemoves(bindings -> bindings.values().clear());
+        assertRemoves(bindings -> {
+            Iterator<String> keys = bindings.keySet().iterator();
+            keys.next();
+            keys.remove();
+        });
+    }
+
+    private static void assertDecodesAgain(Consumer<MessageBindings> modification) {
+        MessageBindings bindings = bindings();
+
+        modification.accept(bindings);
+
+        assertEquals("b", bindings.kafka().schemaLookupStrategy());
+        assertEquals("b", ((Map<?, ?>) bindings.get("kafka")).get("schemaLookupStrategy"));
+    }
+
+    private static void assertRemoves(Consumer<MessageBindings> modification) {
+        MessageBindings bindings = bindings();
+
+        modification.accept(bindings);
+
+        assertNull(bindings.kafka());
+    }
+
+    private static MessageBindings bindings() {
+        MessageBindings bindings = new MessageBindings();
+        bindings.put("kafka", kafka("a"));
+        assertEquals("a", bindings.kafka().schemaLookupStrategy());
+        return bindings;
+    }
+
+    private static Map<String, Object> kafka(String strategy) {
+        return Map.of("schemaLookupStrategy", strategy);
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncApiReaderTest {
+
+    @Test
+    void bindsYamlDocument() throws IOException {
+        AsyncAPI api = read("/streetlights.yaml");
+
+        assertEquals("urn:example:streetlights", api.id());
+        assertEquals("Streetlights Kafka API", api.info().title());
+        assertEquals("1.0.0", api.info().version());
+        assertEquals("lighting", api.info().tags().get(0).name());
+        assertEquals("application/json", api.defaultContentType());
+        assertEquals("kafka-secure", api.servers().get("scram-connections").protocol());
+
+        Channel channel = api.channels().get("lightingMeasured");
+        assertEquals("smartylighting.streetlights.1.0.event.{streetlightId}.lighting.measured", channel.address());
+        assertEquals("#/components/messages/lightMeasured", channel.messages().get("lightMeasured").$ref());
+        assertEquals("#/components/parameters/streetlightId", channel.parameters().get("streetlightId").$ref());
+
+        Operation operation = api.operations().get("receiveLightMeasurement");
+        assertEquals(Operation.Action.RECEIVE, operation.action());
+        assertEquals("#/channels/lightingMeasured", operation.channel().$ref());
+        assertEquals(1, operation.traits().size());
+        assertEquals(Operation.Action.SEND, api.operations().get("turnOn").action());
+    }
+
+    @Test
+    void keepsSchemasAsGenericValues() throws IOException {
+        AsyncAPI api = read("/streetlights.yaml");
+
+        Map<?, ?> schema = (Map<?, ?>) api.components().schemas().get("lightMeasuredPayload");
+        Map<?, ?> lumens = (Map<?, ?>) ((Map<?, ?>) schema.get("properties")).get("lumens");
+        assertEquals("integer", lumens.get("type"));
+        assertEquals(0, lumens.get("minimum"));
+        Map<?, ?> command = (Map<?, ?>) ((Map<?, ?>) ((Map<?, ?>) api.components().schemas().get("turnOnOffPayload"))
+            .get("properties")).get("command");
+        assertEquals(List.of("on", "off"), command.get("enum"));
+    }
+
+    @Test
+    void readsJsonAndYamlAlike() throws IOException {
+        assertEquals(read("/streetlights.yaml"), read("/streetlights.json"));
+    }
+
+    @Test
+    void readsBuffersWithoutMovingThem() throws IOException {
+        byte[] bytes = resource("/streetlights.json");
+        AsyncAPI expected = AsyncApiReader.create().read(new ByteArrayInputStream(bytes));
+
+        ByteBuffer heap = ByteBuffer.wrap(bytes);
+        assertEquals(expected, AsyncApiReader.create().read(heap));
+        assertEquals(0, heap.position());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        assertEquals(expected, AsyncApiReader.create().read(direct));
+        assertEquals(0, direct.position());
+
+        ByteBuffer yaml = ByteBuffer.wrap(resource("/streetlights.yaml"));
+        assertEquals(expected, AsyncApiReader.create().read(yaml));
+    }
+
+    @Test
+    void detectsFormatAfterByteOrderMarkAndWhitespace() throws IOException {
+        AsyncAPI json = read("\uFEFF\n  {\"asyncapi\": \"3.0.0\", \"info\": {\"title\": \"t\", \"version\": \"1\"}}");
+        AsyncAPI yaml = read("\uFEFF\nasyncapi: 3.0.0\ninfo:\n  title: t\n  version: '1'\n");
+
+        assertEquals(json, yaml);
+        assertEquals("t", json.info().title());
+    }
+
+    @Test
+    void honoursExplicitFormat() {
+        AsyncApiReader reader = AsyncApiReader.create().withFormat(DocumentFormat.JSON);
+
+        assertThrows(AsyncApiParseException.class, () -> reader.read(stream("info:\n  title: t\n")));
+    }
+
+    @Test
+    void skipsUnknownFields() throws IOException {
+        AsyncAPI api = read("""
+            asyncapi: 3.0.0
+            x-owner: team
+            info:
+              title: t
+              version: '1'
+              x-audience:
+                internal: true
+            channels:
+              a:
+                address: a
+                x-extra: [1, 2, {b: c}]
+            """);
+
+        assertEquals("t", api.info().title());
+        assertEquals("a", api.channels().get("a").address());
+    }
+
+    @Test
+    void keepsExplicitNulls() throws IOException {
+        AsyncAPI api = read("{\"info\": null, \"channels\": {\"a\": {\"address\": null}}}");
+
+        assertNull(api.info());
+        assertNull(api.channels().get("a").address());
+    }
+
+    @Test
+    void bindsSingleModelObject() throws IOException {
+        AsyncApiReader reader = AsyncApiReader.create();
+        try (TokenReader tokens = reader.tokens(stream("name: ping\npayload:\n  type: string\n"))) {
+            Message message = reader.read(tokens, Message.class);
+
+            assertEquals("ping", message.name());
+            assertEquals(Map.of("type", "string"), message.payload());
+        }
+    }
+
+    @Test
+    void readsGenericTree() throws IOException {
+        Object tree = AsyncApiReader.create().readTree(stream("a: [1, 2.5, true, null, x]\nb: {c: 12345678901}\n"));
+
+        Map<?, ?> map = (Map<?, ?>) tree;
+        assertEquals(List.of(1, 2.5, true, "x"), ((List<?>) map.get("a")).stream()
+            .filter(value -> value != null).toList());
+        assertTrue(((List<?>) map.get("a")).contains(null));
+        assertEquals(Map.of("c", 12345678901L), map.get("b"));
+        assertNull(AsyncApiReader.create().readTree(stream("")));
+    }
+
+    @Test
+    void rejectsEmptyDocument() {
+        AsyncApiParseException e = assertThrows(AsyncApiParseException.class, () -> read("   \n"));
+
+        assertTrue(e.getMessage().contains("Empty document"), e.getMessage());
+    }
+
+    @Test
+    void rejectsContentAfterDocument() {
+        assertThrows(AsyncApiParseException.class, () -> read("{\"info\": {}} {}"));
+    }
+
+    @Test
+    void reportsPositionOfErrors() {
+        AsyncApiParseException e = assertThrows(AsyncApiParseException.class,
+            () -> read("{\n  \"info\": {\n    \"title\": tru\n  }\n}"));
+
+        assertEquals(3, e.line());
+        assertTrue(e.column() > 0);
+    }
+
+    private static AsyncAPI read(String document) throws IOException {
+        if (document.startsWith("/")) {
+            return AsyncApiReader.create().read(new ByteArrayInputStream(resource(document)));
+        }
+        return AsyncApiReader.create().read(stream(document));
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream in = AsyncApiReaderTest.class.getResourceAsStream(name)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Info;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Server;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentVisitorTest {
+
+    @Test
+    void visitsTheSamePartsTheReaderBinds() throws IOException {
+        AsyncAPI api;
+        try (InputStream in = DocumentVisitorTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+        Collector collector = new Collector(pointer -> true);
+
+        try (InputStream in = DocumentVisitorTest.class.getResourceAsStream("/streetlights.yaml")) {
+            AsyncApiReader.create().read(in, collector);
+        }
+
+        assertEquals("3.0.0", collector.properties.get("asyncapi"));
+        assertEquals(api.info(), collector.info);
+        assertEquals(api.servers(), collector.servers);
+        assertEquals(api.channels(), collector.channels);
+        assertEquals(api.operations(), collector.operations);
+        assertEquals(api.components().schemas(), collector.components.get("schemas"));
+        assertEquals(api.components().messages(), collector.components.get("messages"));
+        assertEquals(api.components().messageTraits(), collector.components.get("messageTraits"));
+        assertEquals(api.channels().get("lightTurnOn").messages().get("turnOn"),
+            collector.messages.get("lightTurnOn/turnOn"));
+    }
+
+    @Test
+    void visitsInDocumentOrder() throws IOException {
+        Collector collector = new Collector(pointer -> true);
+
+        AsyncApiReader.create().read(stream("""
+            asyncapi: 3.0.0
+            channels:
+              b:
+                address: b
+                messages:
+                  m: {name: m}
+              a:
+                address: a
+            info:
+              title: t
+              version: '1'
+            components:
+              tags:
+                t: {name: t}
+            operations:
+              o: {action: send}
+            """), collector);
+
+        assertEquals(List.of("asyncapi", "/channels", "channel b", "message b/m", "channel a", "/info", "info",
+            "/components", "/components/tags", "component tags/t", "/operations", "operation o"), collector.events);
+    }
+
+    @Test
+    void skipsDeclinedSectionsWithoutBindingThem() throws IOException {
+        String document = """
+            info:
+              title: t
+              version: '1'
+            operations:
+              o: {action: jump}
+            components:
+              schemas:
+                s: {type: string}
+              tags:
+                t: {name: [not, a, string]}
+            """;
+        assertThrows(AsyncApiParseException.class, () -> AsyncApiReader.create().read(stream(document)));
+        Collector collector = new Collector(pointer -> !pointer.equals("/operations")
+            && !pointer.equals("/components/tags"));
+
+        AsyncApiReader.create().read(stream(document), collector);
+
+        assertEquals("t", collector.info.title());
+        assertTrue(collector.operations.isEmpty());
+        assertEquals(Set.of("schemas"), collector.components.keySet());
+    }
+
+    @Test
+    void keepsReferencesUnresolved() throws IOException {
+        Collector collector = new Collector(pointer -> true);
+
+        AsyncApiReader.create().read(stream("""
+            channels:
+              a:
+                $ref: '#/components/channels/shared'
+            components:
+              channels:
+                shared:
+                  address: shared
+            """), collector);
+
+        assertEquals("#/components/channels/shared", collector.channels.get("a").$ref());
+        assertEquals("shared", ((Channel) collector.components.get("channels").get("shared")).address());
+    }
+
+    @Test
+    void readsBuffersWithoutMovingThem() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap("channels: {a: {address: a}}".getBytes(StandardCharsets.UTF_8));
+        Collector collector = new Collector(pointer -> true);
+
+        AsyncApiReader.create().read(buffer, collector);
+
+        assertEquals("a", collector.channels.get("a").address());
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void rejectsMalformedDocuments() {
+        DocumentVisitor visitor = new DocumentVisitor() {
+        };
+
+        assertThrows(AsyncApiParseException.class, () -> AsyncApiReader.create().read(stream("  \n"), visitor));
+        assertThrows(AsyncApiParseException.class,
+            () -> AsyncApiReader.create().read(stream("{\"info\": {}} {}"), visitor));
+    }
+
+    private static InputStream stream(String document) {
+        return new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records every callback, and the parts of the document by name.
+     */
+    private static final class Collector implements DocumentVisitor {
+
+        private final Predicate<String> sections;
+        private final List<String> events = new ArrayList<>();
+        private final Map<String, String> properties = new HashMap<>();
+        private final Map<String, Server> servers = new HashMap<>();
+        private final Map<String, Channel> channels = new HashMap<>();
+        private final Map<String, Message> messages = new HashMap<>();
+        private final Map<String, Operation> operations = new HashMap<>();
+        private final Map<String, Map<String, Object>> components = new HashMap<>();
+        private Info info;
+
+        Collector(Predicate<String> sections) {
+            this.sections = sections;
+        }
+
+        @Override
+        public boolean enter(String pointer) {
+            events.add(pointer);
+            return sections.test(pointer);
+        }
+
+        @Override
+        public void onProperty(String name, String value) {
+            events.add(name);
+            properties.put(name, value);
+        }
+
+        @Override
+        public void onInfo(Info info) {
+            events.add("info");
+            this.info = info;
+        }
+
+        @Override
+        public void onServer(String name, Server server) {
+            events.add("server " + name);
+            servers.put(name, server);
+        }
+
+        @Override
+        public void onChannel(String name, Channel channel) {
+            events.add("channel " + name);
+            channels.put(name, channel);
+        }
+
+        @Override
+        public void onMessage(String channel, String name, Message message) {
+            events.add("message " + channel + "/" + name);
+            messages.put(channel + "/" + name, message);
+        }
+
+        @Override
+        public void onOperation(String name, Operation operation) {
+            events.add("operation " + name);
+            operations.put(name, operation);
+        }
+
+        @Override
+        public void onComponent(String type, String name, Object component) {
+            events.add("component " + type + "/" + name);
+            components.computeIfAbsent(type, ignored -> new HashMap<>()).put(name, component);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.ExternalDocumentation;
+import dev.alubenets.asyncapi.models.License;
+import dev.alubenets.asyncapi.models.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InterningPoolTest {
+
+    @Test
+    void returnsOneInstancePerDistinctString() {
+        InterningPool pool = InterningPool.create();
+        String first = new String("application/json");
+        String second = new String("application/json");
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertNotSame(first, pool.intern("text/plain"));
+        assertNull(pool.intern((String) null));
+        assertEquals(1, pool.hits());
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void estimatesSavedBytes() {
+        InterningPool pool = InterningPool.create();
+        pool.intern(new String("abcdefgh"));
+        pool.intern(new String("abcdefgh"));
+        pool.intern(new String("\u00fc\u00fc\u00fc\u00fc\u00fc\u00fc\u00fc\u00fc"));
+        pool.intern(new String("\u0100\u0100\u0100\u0100"));
+        long latin1 = pool.savedBytes();
+        pool.intern(new String("\u0100\u0100\u0100\u0100"));
+
+        assertEquals(48, latin1);
+        assertEquals(latin1 + 48, pool.savedBytes());
+    }
+
+    @Test
+    void internsValueRecords() {
+        InterningPool pool = InterningPool.create();
+        Tag tag = new Tag("billing", null);
+        License license = new License("MIT", null);
+        ExternalDocumentation docs = new ExternalDocumentation(null, "docs", "https://example.com");
+
+        assertSame(tag, pool.intern(tag));
+        assertSame(tag, pool.intern(new Tag("billing", null)));
+        assertNotSame(tag, pool.intern(new Tag("billing", "other")));
+        assertSame(license, pool.intern(license));
+        assertSame(license, pool.intern(new License("MIT", null)));
+        assertSame(docs, pool.intern(docs));
+        assertSame(docs, pool.intern(new ExternalDocumentation(null, "docs", "https://example.com")));
+        assertNull(pool.intern((Tag) null));
+        assertNull(pool.intern((License) null));
+        assertNull(pool.intern((ExternalDocumentation) null));
+        assertEquals(3, pool.hits());
+        assertEquals(24 + 24 + 24, pool.savedBytes());
+    }
+
+    @Test
+    void keepsStringsAndRecordsApart() {
+        InterningPool pool = InterningPool.create();
+
+        pool.intern("MIT");
+        pool.intern(new License("MIT", null));
+
+        assertEquals(0, pool.hits());
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void sharesInstancesAcrossDocuments() throws IOException {
+        InterningPool pool = InterningPool.create();
+        AsyncApiReader reader = AsyncApiReader.create().withInterning(pool);
+
+        AsyncAPI first = read(reader, "/streetlights.yaml");
+        AsyncAPI second = read(reader, "/streetlights.json");
+
+        assertEquals(first, second);
+        assertSame(first.info().tags().get(0), second.info().tags().get(0));
+        assertSame(first.info().license(), second.info().license());
+        assertSame(first.servers().get("scram-connections").protocol(),
+            second.servers().get("mtls-connections").protocol());
+        assertSame(first.components().messages().get("lightMeasured").contentType(),
+            second.components().messages().get("lightMeasured").contentType());
+        assertSame(key(first, "lightTurnOn"), key(second, "lightTurnOn"));
+        assertTrue(pool.hits() > 0);
+        assertTrue(pool.savedBytes() > 0);
+    }
+
+    @Test
+    void sharesInstancesWithinADocument() throws IOException {
+        InterningPool pool = InterningPool.create();
+        AsyncAPI api = AsyncApiReader.create().withInterning(pool).read(new ByteArrayInputStream("""
+            servers:
+              a: {host: a, protocol: kafka, tags: [{name: prod}]}
+              b: {host: b, protocol: kafka, tags: [{name: prod}]}
+            """.getBytes(StandardCharsets.UTF_8)));
+
+        assertSame(api.servers().get("a").protocol(), api.servers().get("b").protocol());
+        assertSame(api.servers().get("a").tags().get(0), api.servers().get("b").tags().get(0));
+    }
+
+    @Test
+    void internsTheKeysOfGenericValues() throws IOException {
+        AsyncApiReader reader = AsyncApiReader.create().withInterning(InterningPool.create());
+        String yaml = "components: {schemas: {order: {type: object, properties: {orderId: {type: string}}}}}";
+
+        Map<?, ?> first = (Map<?, ?>) reader.read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)))
+            .components().schemas().get("order");
+        Map<?, ?> second = (Map<?, ?>) reader.read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)))
+            .components().schemas().get("order");
+
+        assertSame(keyOf(first, "type"), keyOf(second, "type"));
+        assertSame(keyOf((Map<?, ?>) first.get("properties"), "orderId"),
+            keyOf((Map<?, ?>) second.get("properties"), "orderId"));
+    }
+
+    @Test
+    void readsTheSameDocumentWithAndWithoutPool() throws IOException {
+        AsyncAPI pooled = read(AsyncApiReader.create().withInterning(InterningPool.create()), "/streetlights.yaml");
+
+        assertEquals(read(AsyncApiReader.create(), "/streetlights.yaml"), pooled);
+    }
+
+    @Test
+    void internsConcurrently() {
+        InterningPool pool = InterningPool.create();
+
+        List<String> values = IntStream.range(0, 10_000).parallel()
+            .mapToObj(i -> pool.intern(new String("value" + i % 10)))
+            .toList();
+
+        for (String value : values) {
+            assertSame(pool.intern(value), value);
+        }
+        assertEquals(10, pool.size());
+        assertEquals(10_000 - 10, pool.hits());
+    }
+
+    private static Object keyOf(Map<?, ?> map, String key) {
+        return map.keySet().stream().filter(key::equals).findFirst().orElseThrow();
+    }
+
+    private static String key(AsyncAPI api, String channel) {
+        return api.channels().keySet().stream().filter(channel::equals).findFirst().orElseThrow();
+    }
+
+    private static AsyncAPI read(AsyncApiReader reader, String resource) throws IOException {
+        try (InputStream in = InterningPoolTest.class.getResourceAsStream(resource)) {
+            return reader.read(in);
+        }
+    }
+}
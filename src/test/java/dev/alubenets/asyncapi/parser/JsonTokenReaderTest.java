@@ -0,0 +1,168 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonTokenReaderTest {
+
+    @Test
+    void readsTokens() throws IOException {
+        assertEquals(List.of("START_OBJECT", "FIELD_NAME a", "START_ARRAY", "NUMBER 1", "STRING x", "TRUE true",
+                "FALSE false", "NULL null", "END_ARRAY", "FIELD_NAME b", "START_OBJECT", "END_OBJECT", "END_OBJECT"),
+            tokens("{\"a\": [1, \"x\", true, false, null], \"b\": {}}"));
+    }
+
+    @Test
+    void decodesEscapes() throws IOException {
+        assertEquals(List.of("STRING \"\\/\b\f\n\r\t\u00e9\uD83D\uDE00"),
+            tokens("\"\\\"\\\\\\/\\b\\f\\n\\r\\t\\u00e9\\ud83d\\ude00\""));
+        assertEquals(List.of("START_OBJECT", "FIELD_NAME a\nb", "NUMBER 1", "END_OBJECT"),
+            tokens("{\"a\\nb\": 1}"));
+    }
+
+    @Test
+    void keepsUtf8Text() throws IOException {
+        assertEquals(List.of("STRING \u00fcber \u6771\u4eac"), tokens("\"\u00fcber \u6771\u4eac\""));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-0", "7", "-12", "0.5", "-0.5e3", "0e1", "1E+2", "10", "100.001"})
+    void acceptsNumbers(String number) throws IOException {
+        assertEquals(List.of("NUMBER " + number), tokens(number));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"01", "-01", "00", "1.", "-", "1e", "1e+", ".5", "+1", "0x1"})
+    void rejectsMalformedNumbers(String number) {
+        assertThrows(AsyncApiParseException.class, () -> tokens("[" + number + "]"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"a\tb\"", "\"a\nb\"", "\"a\u0001b\"", "{\"a\tb\": 1}", "\"\\u00e9\u001f\""})
+    void rejectsUnescapedControlCharacters(String json) {
+        assertThrows(AsyncApiParseException.class, () -> tokens(json));
+    }
+
+    @Test
+    void rejectsControlCharactersInSkippedValues() throws IOException {
+        JsonTokenReader reader = reader("{\"a\": \"x\ty\"}");
+        reader.nextToken();
+        reader.nextToken();
+
+        assertThrows(AsyncApiParseException.class, () -> {
+            reader.nextToken();
+            reader.skipChildren();
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"\\x\"", "\"\\u12\"", "\"\\ud83d\"", "\"abc", "tru", "{\"a\" 1}", "[1 2]", "{1: 2}"})
+    void rejectsMalformedDocuments(String json) {
+        assertThrows(AsyncApiParseException.class, () -> tokens(json));
+    }
+
+    @Test
+    void readsAcrossBufferRefills() throws IOException {
+        String value = "v".repeat(100_000);
+        String json = "{\"" + "k".repeat(20_000) + "\": \"" + value + "\", \"n\": " + "9".repeat(5_000) + "}";
+        JsonTokenReader reader = new JsonTokenReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(JsonToken.START_OBJECT, reader.nextToken());
+        assertEquals(JsonToken.FIELD_NAME, reader.nextToken());
+        assertEquals(20_000, reader.text().length());
+        assertEquals(JsonToken.STRING, reader.nextToken());
+        assertEquals(value, reader.text());
+        assertEquals(JsonToken.FIELD_NAME, reader.nextToken());
+        assertEquals(JsonToken.NUMBER, reader.nextToken());
+        assertEquals(5_000, reader.text().length());
+        assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+        assertNull(reader.nextToken());
+    }
+
+    @Test
+    void skipsChildren() throws IOException {
+        JsonTokenReader reader = reader("{\"a\": {\"b\": [1, {\"c\": \"}\"}]}, \"d\": 2}");
+        reader.nextToken();
+        reader.nextToken();
+        reader.nextToken();
+        reader.skipChildren();
+
+        assertEquals(JsonToken.END_OBJECT, reader.currentToken());
+        assertEquals(JsonToken.FIELD_NAME, reader.nextToken());
+        assertEquals("d", reader.text());
+    }
+
+    @Test
+    void reportsLineAndColumn() throws IOException {
+        JsonTokenReader reader = reader("{\n  \"a\":\n    true}");
+        reader.nextToken();
+        reader.nextToken();
+
+        assertEquals(2, reader.line());
+        assertEquals(3, reader.column());
+        reader.nextToken();
+        assertEquals(3, reader.line());
+        assertEquals(5, reader.column());
+    }
+
+    @Test
+    void resetsOntoNewInput() throws IOException {
+        JsonTokenReader reader = reader("{\"a\": 1}");
+        reader.nextToken();
+        byte[] next = "[\"b\"]".getBytes(StandardCharsets.UTF_8);
+        reader.reset(next, 0, next.length);
+
+        assertEquals(JsonToken.START_ARRAY, reader.nextToken());
+        assertEquals(JsonToken.STRING, reader.nextToken());
+        assertEquals("b", reader.text());
+    }
+
+    private static JsonTokenReader reader(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return new JsonTokenReader(bytes, 0, bytes.length);
+    }
+
+    private static List<String> tokens(String json) throws IOException {
+        List<String> tokens = new ArrayList<>();
+        JsonTokenReader reader = reader(json);
+        for (JsonToken token = reader.nextToken(); token != null; token = reader.nextToken()) {
+            tokens.add(reader.text() == null ? token.name() : token.name() + " " + reader.text());
+        }
+        return tokens;
+    }
+}
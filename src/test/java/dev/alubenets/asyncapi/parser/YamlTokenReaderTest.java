@@ -0,0 +1,215 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YamlTokenReaderTest {
+
+    @Test
+    void readsBlockCollections() throws IOException {
+        assertEquals(Map.of("a", Map.of("b", "c", "d", List.of("e", Map.of("f", "g", "h", "i"))), "j", "k"),
+            tree("""
+                a:
+                  b: c
+                  d:
+                    - e
+                    - f: g
+                      h: i
+                j: k
+                """));
+    }
+
+    @Test
+    void readsSequencesAtTheIndentOfTheirKey() throws IOException {
+        assertEquals(Map.of("a", List.of("b", "c"), "d", "e"), tree("a:\n- b\n- c\nd: e\n"));
+    }
+
+    @Test
+    void acceptsTabsAsSeparators() throws IOException {
+        assertEquals(Map.of("a", "b", "c", List.of("x", "y"), "d", Map.of("k", "v"), "e", List.of(1, 2)),
+            tree("a:\tb\nc:\n  -\tx\n  - y\t# comment\nd:\t{k:\tv}\ne: [1,\t2]\t\n"));
+        assertEquals(Map.of("quoted key", "v"), tree("'quoted key':\tv\n"));
+    }
+
+    @Test
+    void rejectsTabsInIndentation() {
+        AsyncApiParseException e = assertThrows(AsyncApiParseException.class, () -> tree("a:\n\tb: c\n"));
+
+        assertEquals(2, e.line());
+    }
+
+    @Test
+    void readsFlowCollections() throws IOException {
+        assertEquals(Map.of("a", List.of(1, "two", Map.of("k", "v"), List.of()), "b", Map.of("x", "y", "z", "w")),
+            tree("a: [1, two, {k: v}, []]\nb: {x: y,\n  z: w}\n"));
+        assertEquals(Map.of("url", List.of("http://example.com:80")), tree("url: [http://example.com:80]\n"));
+    }
+
+    @Test
+    void keepsFlowKeysWithoutValues() throws IOException {
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("a", null);
+        expected.put("b", 1);
+
+        assertEquals(Map.of("m", expected), tree("m: {a, b: 1}\n"));
+    }
+
+    @Test
+    void readsQuotedScalars() throws IOException {
+        assertEquals(Map.of("a", "it's", "b", "tab\there \u00e9 \uD83D\uDE00", "c", "one two", "d", "123"),
+            tree("a: 'it''s'\nb: \"tab\\there \\u00e9 \\U0001F600\"\nc: \"one\n  two\"\nd: '123'\n"));
+    }
+
+    @Test
+    void readsBlockScalars() throws IOException {
+        assertEquals(Map.of(
+                "literal", "line one\nline two\n",
+                "folded", "line one line two\n",
+                "strip", "text",
+                "keep", "text\n\n",
+                "after", "x"),
+            tree("""
+                literal: |
+                  line one
+                  line two
+                folded: >
+                  line one
+                  line two
+                strip: |-
+                  text
+                keep: |+
+                  text
+
+                after: x
+                """));
+    }
+
+    @Test
+    void foldsMultiLinePlainScalars() throws IOException {
+        assertEquals(Map.of("a", "one two\nthree", "b", "c"), tree("a: one\n  two\n\n  three\nb: c\n"));
+    }
+
+    @Test
+    void resolvesScalarTypes() throws IOException {
+        Map<?, ?> tree = (Map<?, ?>) tree("""
+            n: ~
+            t: true
+            f: False
+            i: 42
+            l: 12345678901
+            d: 2.5
+            e: 1e3
+            hex: 0x1F
+            oct: 0o17
+            inf: -.inf
+            big: 123456789012345678901234567890
+            s: 1.0.0
+            tagged: !!str 42
+            """);
+
+        assertTrue(tree.containsKey("n") && tree.get("n") == null);
+        assertEquals(true, tree.get("t"));
+        assertEquals(false, tree.get("f"));
+        assertEquals(42, tree.get("i"));
+        assertEquals(12345678901L, tree.get("l"));
+        assertEquals(2.5, tree.get("d"));
+        assertEquals(1000.0, tree.get("e"));
+        assertEquals(31, tree.get("hex"));
+        assertEquals(15, tree.get("oct"));
+        assertEquals(Double.NEGATIVE_INFINITY, tree.get("inf"));
+        assertEquals(new BigInteger("123456789012345678901234567890"), tree.get("big"));
+        assertEquals("1.0.0", tree.get("s"));
+        assertEquals("42", tree.get("tagged"));
+    }
+
+    @Test
+    void ignoresCommentsAndDocumentMarkers() throws IOException {
+        assertEquals(Map.of("a", "b#c", "d", "e"), tree("%YAML 1.2\n---\n# comment\na: b#c # comment\n\nd: e\n...\n"));
+    }
+
+    @Test
+    void readsKeysContainingColons() throws IOException {
+        assertEquals(Map.of("urn:a", "b", "c", "d:e"), tree("urn:a: b\nc: d:e\n"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a: &x b\n", "a: *x\n", "? a\n: b\n", "a: [1, 2\n", "a: 'b\n", "a: |x\n  b\n"})
+    void rejectsUnsupportedOrMalformedContent(String yaml) {
+        assertThrows(AsyncApiParseException.class, () -> tree(yaml));
+    }
+
+    @Test
+    void reportsLines() throws IOException {
+        YamlTokenReader reader = new YamlTokenReader(new StringReader("a:\n  b: c\n"));
+        reader.nextToken();
+        reader.nextToken();
+        reader.nextToken();
+        reader.nextToken();
+
+        assertEquals(JsonToken.FIELD_NAME, reader.currentToken());
+        assertEquals("b", reader.text());
+        assertEquals(2, reader.line());
+        assertEquals(3, reader.column());
+    }
+
+    @Test
+    void readsLongDocuments() throws IOException {
+        StringBuilder yaml = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            yaml.append("k").append(i).append(": ").append(i).append('\n');
+        }
+
+        Map<?, ?> tree = (Map<?, ?>) tree(yaml.toString());
+        assertEquals(10_000, tree.size());
+        assertEquals(9_999, tree.get("k9999"));
+    }
+
+    @Test
+    void readsCarriageReturnLineFeeds() throws IOException {
+        assertEquals(Map.of("a", List.of("b", "c")), tree(String.join("\r\n", Arrays.asList("a:", "  - b", "  - c"))));
+    }
+
+    private static Object tree(String yaml) throws IOException {
+        return AsyncApiReader.create().withFormat(DocumentFormat.YAML)
+            .readTree(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
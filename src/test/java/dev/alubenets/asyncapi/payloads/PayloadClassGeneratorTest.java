@@ -0,0 +1,365 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.payloads;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiParseException;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayloadClassGeneratorTest {
+
+    private static final String ORDERS = """
+        defaultContentType: application/json
+        channels:
+          orders:
+            address: shop/orders
+            messages:
+              orderPlaced:
+                $ref: '#/components/messages/orderPlaced'
+        components:
+          messages:
+            orderPlaced:
+              payload:
+                $ref: '#/components/schemas/order'
+            readings:
+              payload:
+                type: object
+                required: [values, flags]
+                properties:
+                  values:
+                    type: array
+                    items:
+                      type: number
+                  flags:
+                    type: array
+                    items:
+                      type: boolean
+                  counts:
+                    type: array
+                    items:
+                      type: integer
+          schemas:
+            order:
+              type: object
+              required: [id, total, paid, customer]
+              properties:
+                id:
+                  type: string
+                total:
+                  type: number
+                paid:
+                  type: boolean
+                quantity:
+                  type: integer
+                discount:
+                  type: [number, 'null']
+                customer:
+                  type: object
+                  required: [name]
+                  properties:
+                    name:
+                      type: string
+                    vip:
+                      type: boolean
+                items:
+                  type: array
+                  items:
+                    $ref: '#/components/schemas/item'
+                note:
+                  oneOf:
+                    - type: string
+                    - type: integer
+                class:
+                  type: string
+            item:
+              type: object
+              required: [sku, count]
+              properties:
+                sku:
+                  type: string
+                count:
+                  type: integer
+        """;
+
+    @Test
+    void namesRecordsAfterSchemasMessagesAndProperties() throws IOException {
+        Map<String, String> sources = PayloadClassGenerator.create().withPackage("com.example.shop")
+            .generate(ReferenceResolver.of(read(ORDERS)));
+
+        assertEquals(List.of("com.example.shop.Order", "com.example.shop.OrderCustomer", "com.example.shop.Item",
+            "com.example.shop.ReadingsPayload"), new ArrayList<>(sources.keySet()));
+        String order = sources.get("com.example.shop.Order");
+        assertTrue(order.startsWith("package com.example.shop;"), order);
+        assertTrue(order.contains("public record Order("), order);
+        assertTrue(order.contains("    String id,\n"), order);
+        assertTrue(order.contains("    double total,\n"), order);
+        assertTrue(order.contains("    boolean paid,\n"), order);
+        assertTrue(order.contains("    Long quantity,\n"), order);
+        assertTrue(order.contains("    Double discount,\n"), order);
+        assertTrue(order.contains("    OrderCustomer customer,\n"), order);
+        assertTrue(order.contains("    List<Item> items,\n"), order);
+        assertTrue(order.contains("    Object note,\n"), order);
+        assertTrue(order.contains("    String _class\n"), order);
+        String readings = sources.get("com.example.shop.ReadingsPayload");
+        assertTrue(readings.contains("    double[] values,\n"), readings);
+        assertTrue(readings.contains("    boolean[] flags,\n"), readings);
+        assertTrue(readings.contains("    long[] counts\n"), readings);
+    }
+
+    @Test
+    void roundTripsPayloadsThroughTheGeneratedRecords(@TempDir Path directory) throws Exception {
+        try (URLClassLoader loader = compile(ORDERS, directory)) {
+            Class<?> order = loader.loadClass("payloads.Order");
+            byte[] json = """
+                {"id":"o-1","total":12.5,"paid":true,"unknown":{"a":[1,2]},"customer":{"name":"Ann"},\
+                "items":[{"sku":"a","count":2},{"sku":"b","count":1}],"note":7,"class":"gold"}\
+                """.getBytes(StandardCharsets.UTF_8);
+
+            Record decoded = fromJson(order, json);
+
+            assertEquals("o-1", component(decoded, "id"));
+            assertEquals(12.5, component(decoded, "total"));
+            assertEquals(true, component(decoded, "paid"));
+            assertNull(component(decoded, "quantity"));
+            assertNull(component(decoded, "discount"));
+            assertEquals("Ann", component((Record) component(decoded, "customer"), "name"));
+            assertEquals(2, ((List<?>) component(decoded, "items")).size());
+            assertEquals(7, component(decoded, "note"));
+            assertEquals("gold", component(decoded, "_class"));
+            byte[] encoded = (byte[]) order.getMethod("toJson").invoke(decoded);
+            assertEquals("""
+                {"id":"o-1","total":12.5,"paid":true,"customer":{"name":"Ann"},\
+                "items":[{"sku":"a","count":2},{"sku":"b","count":1}],"note":7,"class":"gold"}\
+                """, new String(encoded, StandardCharsets.UTF_8));
+            assertEquals(decoded, fromJson(order, encoded));
+            assertNull(fromJson(order, "null".getBytes(StandardCharsets.UTF_8)));
+
+            Class<?> readings = loader.loadClass("payloads.ReadingsPayload");
+            Record batch = fromJson(readings,
+                "{\"values\":[1,2.5],\"flags\":[true,false],\"counts\":[3]}".getBytes(StandardCharsets.UTF_8));
+            assertEquals(2, ((double[]) component(batch, "values")).length);
+            assertArrayEquals(new long[]{3}, (long[]) component(batch, "counts"));
+            assertEquals("{\"values\":[1,2.5],\"flags\":[true,false],\"counts\":[3]}",
+                new String((byte[]) readings.getMethod("toJson").invoke(batch), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void rejectsPayloadsThatDoNotMatchTheRecords(@TempDir Path directory) throws Exception {
+        try (URLClassLoader loader = compile(ORDERS, directory)) {
+            Class<?> order = loader.loadClass("payloads.Order");
+
+            AsyncApiParseException missing = assertThrows(AsyncApiParseException.class,
+                () -> fromJson(order, "{\"id\":\"o-1\",\"total\":1,\"customer\":{\"name\":\"a\"}}"
+                    .getBytes(StandardCharsets.UTF_8)));
+            assertTrue(missing.getMessage().contains("'paid'"), missing.getMessage());
+            AsyncApiParseException type = assertThrows(AsyncApiParseException.class,
+                () -> fromJson(order, "{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+            assertTrue(type.getMessage().startsWith("Expected a string"), type.getMessage());
+            assertThrows(AsyncApiParseException.class,
+                () -> fromJson(order, "[]".getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    void mergesAllOfSchemas() throws IOException {
+        Map<String, String> sources = PayloadClassGenerator.create().generate(ReferenceResolver.of(read("""
+            components:
+              schemas:
+                base:
+                  type: object
+                  required: [id]
+                  properties:
+                    id:
+                      type: integer
+                event:
+                  allOf:
+                    - $ref: '#/components/schemas/base'
+                    - type: object
+                      required: [at]
+                      properties:
+                        at:
+                          type: integer
+            """)));
+
+        String event = sources.get("payloads.Event");
+        assertTrue(event.contains("    long id,\n    long at\n"), event);
+    }
+
+    @Test
+    void skipsPayloadsThatAreNotJsonObjects() throws IOException {
+        Map<String, String> sources = PayloadClassGenerator.create().generate(ReferenceResolver.of(read("""
+            components:
+              messages:
+                avro:
+                  payload:
+                    schemaFormat: application/vnd.apache.avro;version=1.9.0
+                    schema:
+                      type: record
+                      properties:
+                        a:
+                          type: string
+                text:
+                  contentType: text/plain
+                  payload:
+                    type: object
+                    properties:
+                      a:
+                        type: string
+                wrapped:
+                  payload:
+                    schemaFormat: application/schema+json;version=draft-07
+                    schema:
+                      type: object
+                      properties:
+                        a:
+                          type: string
+                scalar:
+                  payload:
+                    type: string
+                free:
+                  payload:
+                    type: object
+            """)));
+
+        assertEquals(List.of("payloads.WrappedPayload"), new ArrayList<>(sources.keySet()));
+    }
+
+    @Test
+    void writesSourcesIntoThePackageDirectories(@TempDir Path directory) throws IOException {
+        List<Path> files = PayloadClassGenerator.create().withPackage("com.example")
+            .write(ReferenceResolver.of(read(ORDERS)), directory);
+
+        assertEquals(4, files.size());
+        assertEquals(directory.resolve("com/example/Order.java"), files.get(0));
+        try (Stream<Path> written = Files.list(directory.resolve("com/example"))) {
+            assertEquals(4, written.count());
+        }
+    }
+
+    @Test
+    void rejectsInvalidPackagesAndReferences() throws IOException {
+        PayloadClassGenerator generator = PayloadClassGenerator.create();
+
+        for (String name : new String[]{"", "a.", ".a", "a..b", "1a", "a.class", "a-b"}) {
+            assertThrows(IllegalArgumentException.class, () -> generator.withPackage(name), name);
+        }
+        ReferenceResolver resolver = ReferenceResolver.of(read("""
+            components:
+              schemas:
+                a:
+                  $ref: '#/components/schemas/missing'
+            """));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> generator.generate(resolver));
+        assertTrue(e.getMessage().contains("'#/components/schemas/missing'"), e.getMessage());
+    }
+
+    @Test
+    void readsAndWritesValuesInGenericForm() throws IOException {
+        PayloadInput in = PayloadInput.of("{\"a\":[1,5000000000,1.5,null,true],\"b\":{\"c\":\"d\\u00e9\"}}"
+            .getBytes(StandardCharsets.UTF_8));
+
+        Object value = in.readValue();
+
+        assertEquals(Map.of("a", Arrays.asList(1, 5000000000L, 1.5, null, true),
+            "b", Map.of("c", "d\u00e9")), value);
+        PayloadOutput out = PayloadOutput.create();
+        out.value(value);
+        assertEquals("{\"a\":[1,5000000000,1.5,null,true],\"b\":{\"c\":\"d\u00e9\"}}",
+            new String(out.toByteArray(), StandardCharsets.UTF_8));
+        out.reset();
+        assertEquals(0, out.size());
+        assertThrows(IllegalArgumentException.class, () -> out.value(new Object()));
+        assertThrows(IllegalArgumentException.class, () -> out.value(Double.NaN));
+
+        in.reset("{\"x\":\"y\"}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(Map.of("x", "y"), in.readValue());
+    }
+
+    private static URLClassLoader compile(String yaml, Path directory) throws Exception {
+        List<Path> files = PayloadClassGenerator.create().write(ReferenceResolver.of(read(yaml)), directory);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> arguments = new ArrayList<>(List.of("-classpath",
+            Path.of(PayloadInput.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString(),
+            "-d", directory.toString()));
+        files.forEach(file -> arguments.add(file.toString()));
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        int status = compiler.run(null, null, errors, arguments.toArray(new String[0]));
+        assertEquals(0, status, errors.toString(StandardCharsets.UTF_8));
+        return new URLClassLoader(new URL[]{directory.toUri().toURL()}, PayloadInput.class.getClassLoader());
+    }
+
+    private static Record fromJson(Class<?> type, byte[] json) throws Exception {
+        try {
+            Method method = type.getMethod("fromJson", byte[].class);
+            return (Record) method.invoke(null, (Object) json);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private static Object component(Record record, String name) throws ReflectiveOperationException {
+        for (RecordComponent component : record.getClass().getRecordComponents()) {
+            if (component.getName().equals(name)) {
+                return component.getAccessor().invoke(record);
+            }
+        }
+        throw new AssertionError("No component " + name);
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.registry;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolutionException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentRegistryTest {
+
+    private static final String DOCUMENT = """
+        id: urn:example:orders
+        info:
+          title: Orders
+          version: 1.0.0
+          tags:
+            - name: shop
+        channels:
+          orders:
+            address: orders.{id}
+            messages:
+              placed:
+                $ref: '#/components/messages/placed'
+        components:
+          messages:
+            placed:
+              payload:
+                type: object
+                properties:
+                  id:
+                    type: string
+        """;
+
+    @Test
+    void publishesFrozenCopies() throws IOException {
+        AsyncAPI api = read(DOCUMENT);
+        DocumentRegistry registry = DocumentRegistry.create();
+
+        RegisteredDocument published = registry.publish(api);
+        api.channels().put("refunds", new Channel(null, "refunds", null, null, null, null, null, null, null, null,
+            null));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> schema = (Map<String, Object>) api.components().messages().get("placed").payload();
+        schema.put("required", List.of("id"));
+
+        AsyncAPI document = registry.latest("urn:example:orders").document();
+        assertSame(published.document(), document);
+        assertEquals(read(DOCUMENT), document);
+        assertNull(published.router().route("refunds"));
+        assertSame(document, published.resolver().document());
+        assertSame(document.components().messages().get("placed"),
+            published.resolver().resolve(document.channels().get("orders").messages().get("placed")));
+        assertTrue(document.channels().isFrozen());
+        assertTrue(document.channels().get("orders").messages().isFrozen());
+        assertThrows(UnsupportedOperationException.class, () -> document.components().messages().remove("placed"));
+        assertThrows(UnsupportedOperationException.class,
+            () -> ((Map<?, ?>) document.components().messages().get("placed").payload()).clear());
+        assertSame(api.info().tags().get(0), document.info().tags().get(0));
+    }
+
+    @Test
+    void comparesUpdatesWithWhatWasPublished() throws IOException {
+        AsyncAPI api = read(DOCUMENT);
+        RegisteredDocument first = RegisteredDocument.of(api);
+        Channel orders = api.channels().get("orders");
+        api.channels().put("orders", new Channel(null, "orders.{id}.v2", orders.messages(), null, null, null, null,
+            null, null, null, null));
+
+        RegisteredDocument second = first.update(api, first.resolver().withDocument(api));
+
+        assertNull(second.router().route("orders.1"));
+        assertSame(second.document().channels().get("orders"), second.router().route("orders.1.v2"));
+        assertSame(first.document().channels().get("orders"), first.router().route("orders.1"));
+        assertTrue(second.document().channels().isFrozen());
+    }
+
+    @Test
+    void keepsTheLatestVersionsUpToTheRetention() throws IOException {
+        DocumentRegistry registry = DocumentRegistry.create(2);
+
+        registry.publish(version("a", "1.0.0"));
+        registry.publish(version("a", "1.1.0"));
+        RegisteredDocument latest = registry.publish(version("a", "0.9.0"));
+        registry.publish(version("b", "1.0.0"));
+
+        assertSame(latest, registry.latest("a"));
+        assertNull(registry.get("a", "1.0.0"));
+        assertEquals("1.1.0", registry.get("a", "1.1.0").version());
+        assertEquals(List.of("1.1.0", "0.9.0"), versions(registry.snapshot(), "a"));
+        assertEquals(Set.of("a", "b"), registry.snapshot().ids());
+        assertEquals(2, registry.snapshot().size());
+        assertEquals(4, registry.snapshot().generation());
+        assertNull(registry.latest("c"));
+        assertEquals(List.of(), registry.snapshot().versions("c"));
+    }
+
+    @Test
+    void replacesVersionsPublishedAgain() throws IOException {
+        DocumentRegistry registry = DocumentRegistry.create();
+        RegisteredDocument first = registry.publish(version("a", "1.0.0"));
+        registry.publish(version("a", "1.1.0"));
+
+        RegisteredDocument again = registry.publish(version("a", "1.0.0"));
+
+        assertNotSame(first, again);
+        assertSame(again, registry.get("a", "1.0.0"));
+        assertSame(again, registry.latest("a"));
+        assertEquals(List.of("1.1.0", "1.0.0"), versions(registry.snapshot(), "a"));
+    }
+
+    @Test
+    void keepsSnapshotsUnchanged() throws IOException {
+        DocumentRegistry registry = DocumentRegistry.create();
+        RegisteredDocument first = registry.publish(version("a", "1.0.0"));
+        RegistrySnapshot snapshot = registry.snapshot();
+
+        registry.publish(version("a", "2.0.0"));
+        registry.remove("a", "1.0.0");
+
+        assertSame(first, snapshot.latest("a"));
+        assertEquals(List.of("1.0.0"), versions(snapshot, "a"));
+        assertEquals(List.of("2.0.0"), versions(registry.snapshot(), "a"));
+        assertTrue(registry.snapshot().generation() > snapshot.generation());
+    }
+
+    @Test
+    void publishesBatchesInOneChange() throws IOException {
+        DocumentRegistry registry = DocumentRegistry.create();
+        long generation = registry.snapshot().generation();
+
+        registry.publishAll(List.of(RegisteredDocument.of(version("a", "1.0.0")),
+            RegisteredDocument.of(version("b", "1.0.0")), RegisteredDocument.of(version("a", "1.1.0"))));
+        registry.publishAll(List.of());
+
+        assertEquals(generation + 1, registry.snapshot().generation());
+        assertEquals("1.1.0", registry.latest("a").version());
+        assertEquals(List.of("1.0.0", "1.1.0"), versions(registry.snapshot(), "a"));
+        assertEquals("1.0.0", registry.latest("b").version());
+    }
+
+    @Test
+    void removesDocumentsAndVersions() throws IOException {
+        DocumentRegistry registry = DocumentRegistry.create();
+        registry.publish(version("a", "1.0.0"));
+        registry.publish(version("a", "1.1.0"));
+        registry.publish(version("b", "1.0.0"));
+
+        assertTrue(registry.remove("a", "1.1.0"));
+        assertEquals("1.0.0", registry.latest("a").version());
+        assertFalse(registry.remove("a", "1.1.0"));
+        assertTrue(registry.remove("a", "1.0.0"));
+        assertNull(registry.latest("a"));
+        assertTrue(registry.remove("b"));
+        assertFalse(registry.remove("b"));
+        assertEquals(0, registry.snapshot().size());
+    }
+
+    @Test
+    void rejectsDocumentsWithoutIdOrVersion() throws IOException {
+        DocumentRegistry registry = DocumentRegistry.create();
+
+        IllegalArgumentException id = assertThrows(IllegalArgumentException.class,
+            () -> registry.publish(read("info: {title: t, version: '1'}")));
+        IllegalArgumentException version = assertThrows(IllegalArgumentException.class,
+            () -> registry.publish(read("id: urn:a\ninfo: {title: t}")));
+        assertEquals("The document has no id", id.getMessage());
+        assertEquals("The document 'urn:a' has no version", version.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> DocumentRegistry.create(0));
+        assertThrows(ReferenceResolutionException.class,
+            () -> registry.publish(read("id: a\ninfo: {title: t, version: '1'}\nchannels: {c: {$ref: '#/x'}}")));
+        assertEquals(0, registry.snapshot().generation());
+    }
+
+    @Test
+    void servesReadersWhileVersionsArePublished() throws Exception {
+        DocumentRegistry registry = DocumentRegistry.create(3);
+        List<RegisteredDocument> versions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            versions.add(RegisteredDocument.of(version("a", "1." + i + ".0")));
+        }
+        registry.publish(versions.get(0));
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(4);
+        try {
+            List<Future<?>> lookups = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                lookups.add(readers.submit(() -> {
+                    long generation = 0;
+                    started.countDown();
+                    while (!done.get()) {
+                        RegistrySnapshot snapshot = registry.snapshot();
+                        assertTrue(snapshot.generation() >= generation);
+                        generation = snapshot.generation();
+                        List<RegisteredDocument> retained = snapshot.versions("a");
+                        assertSame(retained.get(retained.size() - 1), snapshot.latest("a"));
+                        assertTrue(retained.size() <= 3);
+                        assertSame(snapshot.latest("a").document().channels().get("orders"),
+                            snapshot.latest("a").router().route("orders.1"));
+                    }
+                    return null;
+                }));
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            for (RegisteredDocument version : versions.subList(1, versions.size())) {
+                registry.publish(version);
+            }
+            done.set(true);
+            for (Future<?> lookup : lookups) {
+                lookup.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            done.set(true);
+            readers.shutdownNow();
+        }
+        assertSame(versions.get(19), registry.latest("a"));
+        assertEquals(List.of("1.17.0", "1.18.0", "1.19.0"), versions(registry.snapshot(), "a"));
+    }
+
+    private static List<String> versions(RegistrySnapshot snapshot, String id) {
+        return snapshot.versions(id).stream().map(RegisteredDocument::version).toList();
+    }
+
+    private static AsyncAPI version(String id, String version) throws IOException {
+        return read("id: " + id + "\ninfo: {title: t, version: '" + version + "'}\n"
+            + "channels: {orders: {address: 'orders.{id}'}}");
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
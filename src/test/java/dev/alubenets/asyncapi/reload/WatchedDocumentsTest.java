@@ -0,0 +1,277 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.reload;
+
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.registry.DocumentRegistry;
+import dev.alubenets.asyncapi.registry.RegisteredDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WatchedDocumentsTest {
+
+    private static final String COMMON = """
+        components:
+          channels:
+            orders:
+              address: '%s.{id}'
+        """;
+
+    @Test
+    void bindsReferencedFilesWithTheReader(@TempDir Path directory) throws IOException {
+        Path api = write(directory.resolve("api.yaml"), """
+            id: urn:example:orders
+            info: {title: Orders, version: 1.0.0}
+            channels:
+              orders:
+                $ref: 'common.yaml#/components/channels/orders'
+            """);
+        write(directory.resolve("common.yaml"), """
+            components:
+              channels:
+                orders:
+                  address: orders
+                  messages:
+                    placed: {name: placed}
+            """);
+        DocumentRegistry registry = DocumentRegistry.create();
+
+        try (WatchedDocuments documents = HotReloader.create().withReader(AsyncApiReader.create().withFrozenMaps(true))
+            .open(registry)) {
+            assertTrue(documents.add(List.of(api)).isSuccess());
+        }
+
+        RegisteredDocument published = registry.latest("urn:example:orders");
+        Channel orders = published.resolver().resolve(published.document().channels().get("orders"));
+        assertTrue(orders.messages().isFrozen());
+    }
+
+    @Test
+    void publishesAddedDocuments(@TempDir Path directory) throws IOException {
+        Path api = write(directory.resolve("api.yaml"), document("1.0.0", "common.yaml"));
+        Path common = write(directory.resolve("common.yaml"), COMMON.formatted("orders"));
+        Path other = write(directory.resolve("other.yaml"), "id: urn:example:other\ninfo: {title: o, version: '2'}\n");
+        DocumentRegistry registry = DocumentRegistry.create();
+
+        try (WatchedDocuments documents = HotReloader.create().open(registry)) {
+            ReloadResult result = documents.add(List.of(api, directory.resolve("sub/../other.yaml")));
+
+            assertTrue(result.isSuccess());
+            assertEquals(List.of(api, other), result.files());
+            assertEquals(2, result.published().size());
+            assertEquals(Set.of(api, other), documents.files());
+            assertEquals(Set.of(common), documents.dependencies());
+        }
+        assertEquals("1.0.0", registry.latest("urn:example:orders").version());
+        assertNotNull(registry.latest("urn:example:orders").router().route("orders.1"));
+        assertEquals("2", registry.latest("urn:example:other").version());
+    }
+
+    @Test
+    void reloadsChangedDocuments(@TempDir Path directory) throws IOException {
+        Path api = write(directory.resolve("api.yaml"), document("1.0.0", "common.yaml"));
+        write(directory.resolve("common.yaml"), COMMON.formatted("orders"));
+        DocumentRegistry registry = DocumentRegistry.create();
+
+        try (WatchedDocuments documents = HotReloader.create().open(registry)) {
+            documents.add(List.of(api));
+            RegisteredDocument first = registry.latest("urn:example:orders");
+            write(api, document("1.1.0", "common.yaml"));
+
+            ReloadResult result = documents.reload(List.of(api));
+
+            assertEquals(List.of(api), result.files());
+            assertEquals(List.of(registry.latest("urn:example:orders")), result.published());
+            assertEquals("1.1.0", registry.latest("urn:example:orders").version());
+            assertSame(first, registry.get("urn:example:orders", "1.0.0"));
+        }
+    }
+
+    @Test
+    void reloadsTheDocumentsDependingOnAChangedFile(@TempDir Path directory) throws IOException {
+        Path first = write(directory.resolve("first.yaml"), document("1.0.0", "common.yaml"));
+        Path second = write(directory.resolve("second.yaml"),
+            document("1.0.0", "common.yaml").replace("urn:example:orders", "urn:example:second"));
+        Path unrelated = write(directory.resolve("unrelated.yaml"),
+            "id: urn:example:u\ninfo: {title: u, version: '1'}\n");
+        Path common = write(directory.resolve("common.yaml"), COMMON.formatted("orders"));
+        DocumentRegistry registry = DocumentRegistry.create();
+
+        try (WatchedDocuments documents = HotReloader.create().open(registry)) {
+            documents.add(List.of(first, second, unrelated));
+            RegisteredDocument before = registry.latest("urn:example:u");
+            write(common, COMMON.formatted("shop.orders"));
+
+            ReloadResult result = documents.reload(List.of(common, directory.resolve("unknown.yaml")));
+
+            assertEquals(List.of(common), result.files());
+            assertEquals(2, result.published().size());
+            assertSame(before, registry.latest("urn:example:u"));
+            for (String id : List.of("urn:example:orders", "urn:example:second")) {
+                RegisteredDocument published = registry.latest(id);
+                assertNull(published.router().route("orders.1"));
+                assertNotNull(published.router().route("shop.orders.1"));
+            }
+            assertTrue(documents.reload(List.of(directory.resolve("unknown.yaml"))).files().isEmpty());
+        }
+    }
+
+    @Test
+    void keepsTheLastGoodVersionOfFailedDocuments(@TempDir Path directory) throws IOException {
+        Path api = write(directory.resolve("api.yaml"), document("1.0.0", "common.yaml"));
+        Path common = write(directory.resolve("common.yaml"), COMMON.formatted("orders"));
+        DocumentRegistry registry = DocumentRegistry.create();
+
+        try (WatchedDocuments documents = HotReloader.create().open(registry)) {
+            documents.add(List.of(api));
+            RegisteredDocument good = registry.latest("urn:example:orders");
+            Files.delete(common);
+
+            ReloadResult missing = documents.reload(List.of(common));
+            write(api, "id: [unclosed");
+            ReloadResult invalid = documents.reload(List.of(api));
+
+            assertFalse(missing.isSuccess());
+            assertEquals(Set.of(api), missing.errors().keySet());
+            assertTrue(missing.published().isEmpty());
+            assertFalse(invalid.isSuccess());
+            assertSame(good, registry.latest("urn:example:orders"));
+            assertEquals(Set.of(common), documents.dependencies());
+
+            write(common, COMMON.formatted("orders"));
+            write(api, document("1.2.0", "common.yaml"));
+            assertTrue(documents.reload(List.of(common, api)).isSuccess());
+            assertEquals("1.2.0", registry.latest("urn:example:orders").version());
+        }
+    }
+
+    @Test
+    void replacesTheVersionOfAChangedId(@TempDir Path directory) throws IOException {
+        Path api = write(directory.resolve("api.yaml"), document("1.0.0", "common.yaml"));
+        write(directory.resolve("common.yaml"), COMMON.formatted("orders"));
+        DocumentRegistry registry = DocumentRegistry.create();
+
+        try (WatchedDocuments documents = HotReloader.create().open(registry)) {
+            documents.add(List.of(api));
+            write(api, document("1.0.0", "common.yaml").replace("urn:example:orders", "urn:example:renamed"));
+
+            assertTrue(documents.reload(List.of(api)).isSuccess());
+        }
+        assertNull(registry.latest("urn:example:orders"));
+        assertEquals("1.0.0", registry.latest("urn:example:renamed").version());
+    }
+
+    @Test
+    void dropsFilesNoLongerReferenced(@TempDir Path directory) throws IOException {
+        Path api = write(directory.resolve("api.yaml"), document("1.0.0", "common.yaml"));
+        Path common = write(directory.resolve("common.yaml"), COMMON.formatted("orders"));
+        Path moved = write(directory.resolve("moved.yaml"), COMMON.formatted("moved"));
+        DocumentRegistry registry = DocumentRegistry.create();
+
+        try (WatchedDocuments documents = HotReloader.create().open(registry)) {
+            documents.add(List.of(api));
+            write(api, document("1.1.0", "moved.yaml"));
+            documents.reload(List.of(api));
+
+            assertEquals(Set.of(moved), documents.dependencies());
+            assertTrue(documents.reload(List.of(common)).files().isEmpty());
+        }
+    }
+
+    @Test
+    void reloadsFilesChangedWhileWatching(@TempDir Path directory) throws Exception {
+        Path api = write(directory.resolve("api.yaml"), document("1.0.0", "common.yaml"));
+        Path common = write(directory.resolve("common.yaml"), COMMON.formatted("orders"));
+        DocumentRegistry registry = DocumentRegistry.create();
+        BlockingQueue<ReloadResult> results = new LinkedBlockingQueue<>();
+
+        try (WatchedDocuments documents = HotReloader.create().withDebounce(Duration.ofMillis(50)).open(registry)) {
+            documents.add(List.of(api));
+            documents.start(results::add);
+            assertThrows(IllegalStateException.class, () -> documents.start(results::add));
+
+            write(common, COMMON.formatted("shop.orders"));
+
+            ReloadResult result = results.poll(30, TimeUnit.SECONDS);
+            assertNotNull(result);
+            assertEquals(List.of(common), result.files());
+            assertNotNull(registry.latest("urn:example:orders").router().route("shop.orders.1"));
+        }
+    }
+
+    @Test
+    void rejectsUseAfterClose(@TempDir Path directory) throws IOException {
+        WatchedDocuments documents = HotReloader.create().open(DocumentRegistry.create());
+        documents.close();
+        documents.close();
+
+        assertThrows(IllegalStateException.class, () -> documents.add(List.of(directory.resolve("api.yaml"))));
+        assertThrows(IllegalStateException.class, () -> documents.reload(List.of()));
+        assertThrows(IllegalStateException.class, () -> documents.start(result -> { }));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        HotReloader reloader = HotReloader.create();
+
+        assertThrows(IllegalArgumentException.class, () -> reloader.withDebounce(Duration.ofMillis(-1)));
+        assertThrows(NullPointerException.class, () -> reloader.withReader(null));
+        assertThrows(NullPointerException.class, () -> reloader.withPool(null));
+        assertThrows(NullPointerException.class, () -> reloader.open(null));
+    }
+
+    private static String document(String version, String common) {
+        return """
+            id: urn:example:orders
+            info: {title: Orders, version: %s}
+            channels:
+              orders:
+                $ref: '%s#/components/channels/orders'
+            """.formatted(version, common);
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        return Files.writeString(file, content);
+    }
+}
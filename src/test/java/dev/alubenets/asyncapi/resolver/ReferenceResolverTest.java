@@ -0,0 +1,462 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.resolver;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.Parameter;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceResolverTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resolvesLocalReferencesToTheInstancesOfTheDocument() throws IOException {
+        AsyncAPI api = streetlights();
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+        Channel channel = api.channels().get("lightingMeasured");
+
+        assertSame(api.components().messages().get("lightMeasured"),
+            resolver.resolve(channel.messages().get("lightMeasured")));
+        assertSame(api.components().parameters().get("streetlightId"),
+            resolver.resolve(channel.parameters().get("streetlightId")));
+        assertSame(channel, resolver.resolve(api.operations().get("receiveLightMeasurement").channel()));
+    }
+
+    @Test
+    void sharesOneTargetBetweenReferences() throws IOException {
+        AsyncAPI api = streetlights();
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+
+        Message on = resolver.resolve(api.channels().get("lightTurnOn").messages().get("turnOn"));
+        Message off = resolver.resolve(api.channels().get("lightTurnOff").messages().get("turnOff"));
+
+        assertSame(on, off);
+        assertSame(on, resolver.resolve(api.channels().get("lightTurnOn").messages().get("turnOn")));
+    }
+
+    @Test
+    void followsChainsOfReferences() throws IOException {
+        AsyncAPI api = streetlights();
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+
+        Message message = resolver.resolve(api.operations().get("turnOn").messages().get(0));
+
+        assertSame(api.components().messages().get("turnOnOff"), message);
+        assertSame(message, resolver.resolve("#/operations/turnOn/messages/0", Message.class));
+    }
+
+    @Test
+    void returnsObjectsThatAreNotReferences() throws IOException {
+        AsyncAPI api = streetlights();
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+        Channel channel = api.channels().get("lightTurnOn");
+        Map<String, Object> schema = Map.of("type", "string");
+
+        assertSame(channel, resolver.resolve(channel));
+        assertNull(resolver.resolve((Channel) null));
+        assertSame(schema, resolver.resolveValue(schema));
+        assertEquals("x", resolver.resolveValue("x"));
+    }
+
+    @Test
+    void resolvesGenericValues() throws IOException {
+        AsyncAPI api = streetlights();
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+        Object payload = api.components().messages().get("lightMeasured").payload();
+
+        assertSame(api.components().schemas().get("lightMeasuredPayload"), resolver.resolveValue(payload));
+        assertEquals("date-time", resolver.resolve("#/components/schemas/sentAt/format", String.class));
+    }
+
+    @Test
+    void bindsGenericTargetsIntoModels() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              schemas:
+                message:
+                  name: ping
+                  payload:
+                    type: string
+            """);
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+
+        Message message = resolver.resolve("#/components/schemas/message", Message.class);
+
+        assertEquals("ping", message.name());
+        assertEquals(Map.of("type", "string"), message.payload());
+        assertSame(message, resolver.resolve("#/components/schemas/message", Message.class));
+    }
+
+    @Test
+    void unescapesPointers() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              messages:
+                a/b~c:
+                  name: slash
+                'x y':
+                  name: space
+            """);
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+
+        assertEquals("slash", resolver.resolve("#/components/messages/a~1b~0c", Message.class).name());
+        assertEquals("space", resolver.resolve("#/components/messages/x%20y", Message.class).name());
+    }
+
+    @Test
+    void navigatesModelsByTheirPropertyNames() throws IOException {
+        AsyncAPI api = read("""
+            info:
+              title: t
+              version: '1'
+              license: {name: MIT}
+            operations:
+              send:
+                action: send
+                channel: {$ref: '#/channels/orders'}
+            channels:
+              orders:
+                address: orders
+                bindings:
+                  kafka: {topic: orders}
+            components:
+              parameters:
+                region:
+                  enum: [eu, us]
+                  default: eu
+              securitySchemes:
+                user:
+                  type: userPassword
+            """);
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+
+        assertEquals("MIT", resolver.resolve("#/info/license/name", Object.class));
+        assertEquals("send", resolver.resolve("#/operations/send/action", Object.class));
+        assertEquals("orders", resolver.resolve("#/operations/send/channel/address", Object.class));
+        assertEquals("orders", resolver.resolve("#/channels/orders/bindings/kafka/topic", Object.class));
+        assertEquals(List.of("eu", "us"), resolver.resolve("#/components/parameters/region/enum", Object.class));
+        assertEquals("eu", resolver.resolve("#/components/parameters/region/default", Object.class));
+        assertEquals("userPassword", resolver.resolve("#/components/securitySchemes/user/type", Object.class));
+        assertThrows(ReferenceResolutionException.class,
+            () -> resolver.resolve("#/components/parameters/region/_enum", Object.class));
+        assertThrows(ReferenceResolutionException.class,
+            () -> resolver.resolve("#/info/license/missing", Object.class));
+    }
+
+    @Test
+    void reportsCircularReferences() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              messages:
+                a:
+                  $ref: '#/components/messages/b'
+                b:
+                  $ref: '#/components/messages/c'
+                c:
+                  $ref: '#/components/messages/a'
+            """);
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+
+        ReferenceResolutionException e = assertThrows(ReferenceResolutionException.class,
+            () -> resolver.resolve(api.components().messages().get("a")));
+        assertTrue(e.getMessage().startsWith("Circular reference"), e.getMessage());
+    }
+
+    @Test
+    void reportsMissingAndMistypedTargets() throws IOException {
+        ReferenceResolver resolver = ReferenceResolver.of(streetlights());
+
+        assertThrows(ReferenceResolutionException.class,
+            () -> resolver.resolve("#/components/messages/missing", Message.class));
+        assertThrows(ReferenceResolutionException.class,
+            () -> resolver.resolve("#/operations/turnOn/messages/7", Message.class));
+        assertThrows(ReferenceResolutionException.class, () -> resolver.resolve("#/info", Message.class));
+        assertThrows(ReferenceResolutionException.class, () -> resolver.resolve("#components", Message.class));
+        assertThrows(ReferenceResolutionException.class, () -> resolver.resolve("common.yaml#/a", Message.class));
+    }
+
+    @Test
+    void resolvesEveryReference() throws IOException {
+        ReferenceResolver resolver = ReferenceResolver.of(streetlights());
+
+        assertEquals(21, resolver.resolveAll());
+        assertEquals(Set.of(), resolver.externalDocuments());
+    }
+
+    @Test
+    void resolveAllReportsTheFirstBrokenReference() throws IOException {
+        ReferenceResolver resolver = ReferenceResolver.of(read("""
+            channels:
+              a:
+                messages:
+                  m:
+                    $ref: '#/components/messages/missing'
+            """));
+
+        assertThrows(ReferenceResolutionException.class, resolver::resolveAll);
+    }
+
+    @Test
+    void resolvesRelativeFileReferences() throws IOException {
+        Files.createDirectories(dir.resolve("shared"));
+        Files.writeString(dir.resolve("shared/messages.yaml"), """
+            components:
+              messages:
+                ping:
+                  name: ping
+                  payload:
+                    $ref: '#/components/schemas/Ping'
+                  traits:
+                    - $ref: 'traits.yaml#/common'
+              schemas:
+                Ping:
+                  type: object
+            """);
+        Files.writeString(dir.resolve("shared/traits.yaml"), """
+            common:
+              contentType: application/json
+            """);
+        AsyncAPI api = read("""
+            channels:
+              a:
+                messages:
+                  ping:
+                    $ref: 'shared/messages.yaml#/components/messages/ping'
+              b:
+                messages:
+                  ping:
+                    $ref: './shared/../shared/messages.yaml#/components/messages/ping'
+            """);
+        ReferenceResolver resolver = ReferenceResolver.of(api, dir.resolve("api.yaml").toUri());
+
+        Message ping = resolver.resolve(api.channels().get("a").messages().get("ping"));
+
+        assertEquals("ping", ping.name());
+        assertSame(ping, resolver.resolve(api.channels().get("b").messages().get("ping")));
+        assertEquals(Map.of("type", "object"), resolver.resolveValue(ping.payload()));
+        assertEquals("application/json", resolver.resolve(ping.traits().get(0)).contentType());
+        assertEquals(4, resolver.resolveAll());
+        assertEquals(Set.of(dir.resolve("shared/messages.yaml"), dir.resolve("shared/traits.yaml")),
+            resolver.externalDocuments().stream().map(Path::of).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void resolvesReferencesBackIntoTheDocument() throws IOException {
+        Files.writeString(dir.resolve("common.yaml"), """
+            parameter:
+              $ref: 'api.yaml#/components/parameters/id'
+            """);
+        AsyncAPI api = read("""
+            channels:
+              a:
+                parameters:
+                  id:
+                    $ref: 'common.yaml#/parameter'
+            components:
+              parameters:
+                id:
+                  description: local
+            """);
+        ReferenceResolver resolver = ReferenceResolver.of(api, dir.resolve("api.yaml").toUri());
+
+        Parameter parameter = resolver.resolve(api.channels().get("a").parameters().get("id"));
+
+        assertSame(api.components().parameters().get("id"), parameter);
+    }
+
+    @Test
+    void resolvesLocalReferencesInsideExternalValues() throws IOException {
+        Files.writeString(dir.resolve("common.yaml"), """
+            components:
+              schemas:
+                A:
+                  type: object
+                  properties:
+                    b:
+                      $ref: '#/components/schemas/B'
+                B:
+                  type: string
+                  format: from-common
+            """);
+        Path root = dir.resolve("root.yaml");
+        AsyncAPI document = read("""
+            asyncapi: 3.0.0
+            components:
+              schemas:
+                A:
+                  $ref: 'common.yaml#/components/schemas/A'
+                B:
+                  type: string
+                  format: from-root
+            """);
+        ReferenceResolver resolver = ReferenceResolver.of(document, root.toUri());
+
+        Map<?, ?> a = (Map<?, ?>) resolver.resolveValue(document.components().schemas().get("A"));
+        Object b = ((Map<?, ?>) a.get("properties")).get("b");
+
+        assertEquals(Map.of("type", "string", "format", "from-common"), resolver.resolveValue(b));
+        assertEquals(2, resolver.resolveAll());
+    }
+
+    @Test
+    void reportsUnreadableFiles() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              messages:
+                a:
+                  $ref: 'missing.yaml#/a'
+                b:
+                  $ref: 'https://example.com/b.yaml#/b'
+            """);
+        ReferenceResolver resolver = ReferenceResolver.of(api, dir.resolve("api.yaml").toUri());
+
+        assertThrows(ReferenceResolutionException.class, () -> resolver.resolve(api.components().messages().get("a")));
+        assertThrows(ReferenceResolutionException.class, () -> resolver.resolve(api.components().messages().get("b")));
+    }
+
+    @Test
+    void loadsEachFileOnce() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        DocumentSource source = uri -> {
+            loads.incrementAndGet();
+            return Map.of("m", Map.of("name", uri.getPath()));
+        };
+        AsyncAPI api = read("""
+            components:
+              messages:
+                a:
+                  $ref: 'common.yaml#/m'
+                b:
+                  $ref: './common.yaml#/m'
+            """);
+        ReferenceResolver resolver = ReferenceResolver.of(api, URI.create("mem:/api.yaml"), source);
+
+        Message a = resolver.resolve(api.components().messages().get("a"));
+
+        assertEquals("/common.yaml", a.name());
+        assertSame(a, resolver.resolve(api.components().messages().get("b")));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void cachingSourceSharesTargetsBetweenResolvers() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        DocumentSource source = DocumentSource.caching(uri -> {
+            loads.incrementAndGet();
+            return Map.of("m", Map.of("name", "shared"));
+        });
+        AsyncAPI first = read("components: {messages: {a: {$ref: 'common.yaml#/m'}}}");
+        AsyncAPI second = read("components: {messages: {b: {$ref: '../x/common.yaml#/m'}}}");
+
+        Message a = ReferenceResolver.of(first, URI.create("mem:/x/one.yaml"), source)
+            .resolve(first.components().messages().get("a"));
+        Message b = ReferenceResolver.of(second, URI.create("mem:/x/two.yaml"), source)
+            .resolve(second.components().messages().get("b"));
+
+        assertSame(a, b);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void separateResolversBindSeparateTargets() throws IOException {
+        DocumentSource source = uri -> Map.of("m", Map.of("name", "shared"));
+        AsyncAPI api = read("components: {messages: {a: {$ref: 'common.yaml#/m'}}}");
+
+        Message first = ReferenceResolver.of(api, URI.create("mem:/api.yaml"), source)
+            .resolve(api.components().messages().get("a"));
+        Message second = ReferenceResolver.of(api, URI.create("mem:/api.yaml"), source)
+            .resolve(api.components().messages().get("a"));
+
+        assertEquals(first, second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void resolvesConcurrentlyToOneInstance() throws IOException {
+        AsyncAPI api = read("components: {schemas: {m: {name: ping}}}");
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+
+        List<Message> messages = IntStream.range(0, 1_000).parallel()
+            .mapToObj(i -> resolver.resolve("#/components/schemas/m", Message.class))
+            .toList();
+
+        assertTrue(messages.stream().allMatch(message -> message == messages.get(0)));
+    }
+
+    @Test
+    void resolvesOperationReferences() throws IOException {
+        AsyncAPI api = read("""
+            operations:
+              a:
+                $ref: '#/components/operations/send'
+            components:
+              operations:
+                send:
+                  action: send
+            """);
+
+        Operation operation = ReferenceResolver.of(api).resolve(api.operations().get("a"));
+
+        assertEquals(Operation.Action.SEND, operation.action());
+    }
+
+    static AsyncAPI streetlights() throws IOException {
+        try (InputStream in = ReferenceResolverTest.class.getResourceAsStream("/streetlights.yaml")) {
+            return AsyncApiReader.create().read(in);
+        }
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
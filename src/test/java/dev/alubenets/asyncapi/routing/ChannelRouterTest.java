@@ -0,0 +1,289 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.routing;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChannelRouterTest {
+
+    @Test
+    void routesAddressesToChannels() throws IOException {
+        AsyncAPI api;
+        try (InputStream in = ChannelRouterTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+        ChannelRouter router = ChannelRouter.compile(api);
+        ChannelMatch match = router.newMatch();
+
+        assertEquals(3, router.size());
+        assertTrue(router.match("smartylighting.streetlights.1.0.action.17.turn.on", match));
+        assertEquals("lightTurnOn", match.channelName());
+        assertSame(api.channels().get("lightTurnOn"), match.channel());
+        assertEquals(1, match.parameterCount());
+        assertEquals("streetlightId", match.parameterName(0));
+        assertEquals("17", match.parameterValue(0));
+        assertEquals("17", match.parameter("streetlightId"));
+        assertNull(match.parameter("other"));
+        assertSame(api.channels().get("lightingMeasured"),
+            router.route("smartylighting.streetlights.1.0.event.abc.lighting.measured"));
+    }
+
+    @Test
+    void clearsTheMatchWhenNothingMatches() throws IOException {
+        ChannelRouter router = ChannelRouter.compile(read("""
+            channels:
+              signedUp:
+                address: 'user/{userId}/signedup'
+            """));
+        ChannelMatch match = router.newMatch();
+        assertTrue(router.match("user/1/signedup", match));
+
+        assertFalse(router.match("user/1/signedout", match));
+        assertNull(match.channel());
+        assertNull(match.channelName());
+        assertEquals(0, match.parameterCount());
+        assertThrows(IllegalStateException.class, () -> match.parameterValue(0));
+        assertEquals("ChannelMatch[none]", match.toString());
+    }
+
+    @Test
+    void rejectsEmptyValuesAndValuesWithSlashes() throws IOException {
+        ChannelRouter router = ChannelRouter.compile(read("""
+            channels:
+              signedUp:
+                address: 'user/{userId}/signedup'
+              tail:
+                address: 'files/{name}'
+            """));
+
+        assertNull(router.route("user//signedup"));
+        assertNull(router.route("user/a/b/signedup"));
+        assertNull(router.route("files/"));
+        assertNull(router.route("files/a/b"));
+        assertNull(router.route("user/1/signedup/"));
+        assertNull(router.route(""));
+        assertEquals("x.y", matchValue(router, "files/x.y"));
+    }
+
+    @Test
+    void prefersLiteralsOverParameters() throws IOException {
+        AsyncAPI api = read("""
+            channels:
+              any:
+                address: 'user/{userId}/signedup'
+              admin:
+                address: 'user/admin/signedup'
+              prefix:
+                address: 'user/ad{rest}/signedup'
+            """);
+        ChannelRouter router = ChannelRouter.compile(api);
+
+        assertSame(api.channels().get("admin"), router.route("user/admin/signedup"));
+        assertSame(api.channels().get("prefix"), router.route("user/adam/signedup"));
+        assertSame(api.channels().get("any"), router.route("user/bob/signedup"));
+        assertSame(api.channels().get("any"), router.route("user/ad/signedup"));
+    }
+
+    @Test
+    void backtracksWhenALiteralBranchFails() throws IOException {
+        AsyncAPI api = read("""
+            channels:
+              literal:
+                address: 'a.b.c'
+              parameter:
+                address: 'a.{x}.d'
+            """);
+        ChannelRouter router = ChannelRouter.compile(api);
+        ChannelMatch match = router.newMatch();
+
+        assertTrue(router.match("a.b.d", match));
+        assertEquals("parameter", match.channelName());
+        assertEquals("b", match.parameterValue(0));
+    }
+
+    @Test
+    void recordsOffsetsOfSeveralParameters() throws IOException {
+        ChannelRouter router = ChannelRouter.compile(read("""
+            channels:
+              orders:
+                address: '{region}.orders.{orderId}-{version}'
+            """));
+        ChannelMatch match = router.newMatch();
+
+        assertTrue(router.match("eu.orders.42-7", match));
+        assertEquals(3, match.parameterCount());
+        assertEquals(0, match.parameterStart(0));
+        assertEquals(2, match.parameterEnd(0));
+        assertEquals(10, match.parameterStart(1));
+        assertEquals(12, match.parameterEnd(1));
+        assertEquals("7", match.parameter("version"));
+        assertTrue(match.parameterEquals(1, "42"));
+        assertFalse(match.parameterEquals(1, "4"));
+        assertEquals("ChannelMatch[orders, region=eu orderId=42 version=7]", match.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> match.parameterName(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> match.parameterStart(-1));
+    }
+
+    @Test
+    void checksEnumeratedParameterValues() throws IOException {
+        AsyncAPI api = read("""
+            channels:
+              a-regional:
+                address: '{region}.orders'
+                parameters:
+                  region:
+                    $ref: '#/components/parameters/region'
+              b-any:
+                address: '{anything}.orders'
+            components:
+              parameters:
+                region:
+                  enum: [eu, us]
+            """);
+        ChannelRouter router = ChannelRouter.compile(api);
+
+        assertSame(api.channels().get("a-regional"), router.route("eu.orders"));
+        assertSame(api.channels().get("a-regional"), router.route("us.orders"));
+        assertSame(api.channels().get("b-any"), router.route("asia.orders"));
+        assertSame(api.channels().get("b-any"), router.route("e.orders"));
+    }
+
+    @Test
+    void resolvesReferencedChannels() throws IOException {
+        AsyncAPI api = read("""
+            channels:
+              a:
+                $ref: '#/components/channels/shared'
+              b:
+                title: no address
+            components:
+              channels:
+                shared:
+                  address: shared.topic
+            """);
+        ChannelRouter router = ChannelRouter.compile(api);
+
+        assertEquals(1, router.size());
+        assertSame(api.components().channels().get("shared"), router.route("shared.topic"));
+    }
+
+    @Test
+    void compilesEmptyDocuments() throws IOException {
+        ChannelRouter router = ChannelRouter.compile(read("asyncapi: 3.0.0\n"));
+
+        assertEquals(0, router.size());
+        assertNull(router.route("a"));
+    }
+
+    @Test
+    void rejectsInvalidTemplates() {
+        for (String address : new String[]{"a/{}", "a/{b", "{a}{b}", "a/{b{c}", "{a{b}}/c"}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ChannelRouter.compile(read("channels: {c: {address: '" + address + "'}}")));
+            assertTrue(e.getMessage().contains("'c'"), e.getMessage());
+        }
+    }
+
+    @Test
+    void rejectsHoldersOfOtherRouters() throws IOException {
+        ChannelRouter small = ChannelRouter.compile(read("channels: {a: {address: a}}"));
+        ChannelRouter large = ChannelRouter.compile(read("channels: {a: {address: '{x}.{y}'}}"));
+
+        assertThrows(IllegalArgumentException.class, () -> large.match("1.2", small.newMatch()));
+    }
+
+    @Test
+    void updatesChangedChannels() throws IOException {
+        AsyncAPI before = read("""
+            channels:
+              a:
+                address: 'orders.{id}'
+              b:
+                address: 'users.{id}'
+              c:
+                address: 'payments'
+            """);
+        AsyncAPI after = read("""
+            channels:
+              a:
+                address: 'orders.{id}.v2'
+              b:
+                address: 'users.{id}'
+              d:
+                address: 'refunds.{region}.{id}'
+            """);
+        ChannelRouter router = ChannelRouter.compile(before);
+
+        ChannelRouter updated = router.update(after.channels(), Set.of("a", "c", "d"), ReferenceResolver.of(after));
+
+        assertEquals(3, updated.size());
+        assertNull(updated.route("orders.1"));
+        assertSame(after.channels().get("a"), updated.route("orders.1.v2"));
+        assertSame(before.channels().get("b"), updated.route("users.1"));
+        assertNull(updated.route("payments"));
+        assertSame(after.channels().get("d"), updated.route("refunds.eu.1"));
+        assertSame(before.channels().get("a"), router.route("orders.1"));
+        assertSame(before.channels().get("c"), router.route("payments"));
+        assertNull(router.route("refunds.eu.1"));
+        assertSame(router, router.update(after.channels(), Set.of(), ReferenceResolver.of(after)));
+    }
+
+    @Test
+    void updatesToAnEmptyRouter() throws IOException {
+        AsyncAPI api = read("channels: {a: {address: a}}");
+        ChannelRouter router = ChannelRouter.compile(api);
+
+        ChannelRouter updated = router.update(null, Set.of("a"), ReferenceResolver.of(api));
+
+        assertEquals(0, updated.size());
+        assertNull(updated.route("a"));
+        assertSame(api.channels().get("a"), router.route("a"));
+    }
+
+    private static String matchValue(ChannelRouter router, String address) {
+        ChannelMatch match = router.newMatch();
+        return router.match(address, match) ? match.parameterValue(0) : null;
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.routing;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ServerUrlTemplateTest {
+
+    private static final String BROKER = """
+        servers:
+          broker:
+            host: '{tenant}.{region}.example.com:{port}'
+            pathname: '{tenant}/v1'
+            protocol: amqp
+            variables:
+              tenant: {default: demo}
+              region: {enum: [eu, us], default: eu}
+              port: {$ref: '#/components/serverVariables/port'}
+        components:
+          serverVariables:
+            port: {enum: ['5671', '5672']}
+        """;
+
+    @Test
+    void expandsVariables() throws IOException {
+        ServerUrlTemplate template = ServerUrlTemplate.compile(read(BROKER)).get("broker");
+
+        assertEquals(List.of("tenant", "region", "port"), template.variables());
+        assertEquals("amqp://acme.us.example.com:5671/acme/v1",
+            template.expand(Map.of("tenant", "acme", "region", "us", "port", "5671")));
+        assertEquals("amqp://demo.eu.example.com:5672/demo/v1", template.expand(null, null, "5672"));
+        assertEquals("amqp://{tenant}.{region}.example.com:{port}/{tenant}/v1", template.toString());
+    }
+
+    @Test
+    void checksValuesAgainstEnumsAndDefaults() throws IOException {
+        ServerUrlTemplate template = ServerUrlTemplate.compile(read(BROKER)).get("broker");
+
+        assertThrows(IllegalArgumentException.class, () -> template.expand("acme", "asia", "5671"));
+        assertThrows(IllegalArgumentException.class, () -> template.expand(Map.of()));
+        assertThrows(IllegalArgumentException.class, template::expandDefaults);
+        assertThrows(IllegalArgumentException.class, () -> template.expand("a", "eu", "5671", "extra"));
+    }
+
+    @Test
+    void enumeratesEndpoints() throws IOException {
+        ServerUrlTemplate template = ServerUrlTemplate.compile(read(BROKER)).get("broker");
+        List<String> visited = new ArrayList<>();
+
+        template.forEachEndpoint(visited::add);
+
+        assertEquals(4, template.endpointCount());
+        assertEquals(List.of(
+            "amqp://demo.eu.example.com:5671/demo/v1",
+            "amqp://demo.eu.example.com:5672/demo/v1",
+            "amqp://demo.us.example.com:5671/demo/v1",
+            "amqp://demo.us.example.com:5672/demo/v1"), visited);
+        assertEquals(visited, template.endpoints());
+    }
+
+    @Test
+    void requiresAValueForEveryEnumeratedVariable() throws IOException {
+        ServerUrlTemplate template = ServerUrlTemplate.compile(read("servers: {s: {host: '{free}', protocol: ws}}"))
+            .get("s");
+
+        assertEquals("ws://anything", template.expand("anything"));
+        assertThrows(IllegalStateException.class, template::endpointCount);
+        assertThrows(IllegalStateException.class, template::endpoints);
+    }
+
+    @Test
+    void compilesServersWithoutVariables() throws IOException {
+        AsyncAPI api;
+        try (InputStream in = ServerUrlTemplateTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+
+        Map<String, ServerUrlTemplate> templates = ServerUrlTemplate.compile(api);
+
+        assertEquals(List.copyOf(new TreeSet<>(api.servers().keySet())), List.copyOf(templates.keySet()));
+        ServerUrlTemplate template = templates.get("scram-connections");
+        assertEquals(List.of(), template.variables());
+        assertEquals(List.of(template.expandDefaults()), template.endpoints());
+        assertEquals(Map.of(), ServerUrlTemplate.compile(read("asyncapi: 3.0.0")));
+    }
+
+    @Test
+    void addsTheSlashBeforeThePathname() throws IOException {
+        AsyncAPI api = read("""
+            servers:
+              relative: {host: example.com, pathname: 'v1', protocol: ws}
+              absolute: {host: example.com, pathname: '/v1', protocol: ws}
+              bare: {host: example.com}
+            """);
+
+        Map<String, ServerUrlTemplate> templates = ServerUrlTemplate.compile(api);
+
+        assertEquals("ws://example.com/v1", templates.get("relative").expand());
+        assertEquals("ws://example.com/v1", templates.get("absolute").expand());
+        assertEquals("example.com", ServerUrlTemplate.compile(api.servers().get("bare"), ReferenceResolver.of(api))
+            .expand());
+    }
+
+    @Test
+    void rejectsInvalidTemplates() {
+        for (String host : new String[]{"{}", "{a", "a}{", "{a{b}", "{a{b}}", "x.{a}.{b{c}.y"}) {
+            assertThrows(IllegalArgumentException.class,
+                () -> ServerUrlTemplate.compile(read("servers: {s: {host: '" + host + "', protocol: kafka}}")), host);
+        }
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
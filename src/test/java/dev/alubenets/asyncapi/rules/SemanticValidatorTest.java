@@ -0,0 +1,271 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.rules;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Channel;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SemanticValidatorTest {
+
+    @Test
+    void acceptsValidDocuments() throws IOException {
+        AsyncAPI api;
+        try (InputStream in = SemanticValidatorTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+
+        assertEquals(List.of(), SemanticValidator.create().validate(api));
+    }
+
+    @Test
+    void checksChannelParameters() throws IOException {
+        AsyncAPI api = read("""
+            channels:
+              missing:
+                address: 'users.{userId}'
+              unused:
+                address: users
+                parameters:
+                  userId: {}
+              matching:
+                address: 'users.{userId}'
+                parameters:
+                  userId: {}
+            """);
+
+        assertEquals(List.of(
+            new Diagnostic("/channels/missing/address", "channel-parameters", "Placeholder {userId} has no parameter"),
+            new Diagnostic("/channels/unused/parameters/userId", "channel-parameters",
+                "Parameter userId does not occur in the address")
+        ), validate(api, Rules.channelParameters()));
+    }
+
+    @Test
+    void checksServerVariables() throws IOException {
+        AsyncAPI api = read("""
+            servers:
+              a:
+                host: '{region}.example.com'
+                pathname: '/{version}'
+                protocol: kafka
+                variables:
+                  region: {}
+                  port: {}
+            """);
+
+        assertEquals(Set.of(
+            new Diagnostic("/servers/a", "server-variables", "Placeholder {version} has no variable"),
+            new Diagnostic("/servers/a/variables/port", "server-variables",
+                "Variable port does not occur in the host or pathname")
+        ), Set.copyOf(validate(api, Rules.serverVariables())));
+    }
+
+    @Test
+    void checksOperationChannels() throws IOException {
+        AsyncAPI api = read("""
+            channels:
+              orders:
+                address: orders
+            operations:
+              a-none:
+                action: send
+              b-inline:
+                action: send
+                channel: {address: inline}
+              c-components:
+                action: send
+                channel: {$ref: '#/components/channels/orders'}
+              d-missing:
+                action: send
+                channel: {$ref: '#/channels/refunds'}
+              e-valid:
+                action: send
+                channel: {$ref: '#/channels/orders'}
+            components:
+              channels:
+                orders:
+                  address: orders
+              operations:
+                shared:
+                  action: receive
+                  channel: {$ref: '#/components/channels/payments'}
+            """);
+
+        assertEquals(List.of(
+            new Diagnostic("/operations/a-none", "operation-channel", "Operation has no channel"),
+            new Diagnostic("/operations/b-inline/channel", "operation-channel", "Channel must be a reference"),
+            new Diagnostic("/operations/c-components/channel", "operation-channel",
+                "Channel #/components/channels/orders is not a channel of the root channels"),
+            new Diagnostic("/operations/d-missing/channel", "operation-channel",
+                "Channel #/channels/refunds does not exist"),
+            new Diagnostic("/components/operations/shared/channel", "operation-channel",
+                "Channel #/components/channels/payments cannot be resolved")
+        ), validate(api, Rules.operationChannel()));
+    }
+
+    @Test
+    void checksOperationMessages() throws IOException {
+        AsyncAPI api = read("""
+            channels:
+              orders:
+                address: orders
+                messages:
+                  created: {$ref: '#/components/messages/created'}
+            operations:
+              send:
+                action: send
+                channel: {$ref: '#/channels/orders'}
+                messages:
+                  - $ref: '#/channels/orders/messages/created'
+                  - $ref: '#/channels/orders/messages/deleted'
+                  - $ref: '#/components/messages/created'
+                  - name: inline
+            components:
+              messages:
+                created: {name: created}
+              operations:
+                shared:
+                  action: send
+                  channel: {$ref: '#/channels/orders'}
+                  messages:
+                    - $ref: '#/components/messages/created'
+            """);
+
+        assertEquals(List.of(
+            new Diagnostic("/operations/send/messages/1", "operation-messages",
+                "Message deleted is not a message of channel #/channels/orders"),
+            new Diagnostic("/operations/send/messages/2", "operation-messages",
+                "Message #/components/messages/created is not a message of channel #/channels/orders"),
+            new Diagnostic("/operations/send/messages/3", "operation-messages", "Message must be a reference")
+        ), validate(api, Rules.operationMessages()));
+    }
+
+    @Test
+    void skipsReferencesAndRunsRulesInOrder() throws IOException {
+        AsyncAPI api = read("""
+            channels:
+              a:
+                $ref: '#/components/channels/shared'
+              b:
+                address: b
+            components:
+              channels:
+                shared:
+                  address: shared
+            """);
+        Rule first = channelRule("first");
+        Rule second = channelRule("second");
+
+        List<Diagnostic> diagnostics = SemanticValidator.create().withRules(List.of(first, second)).validate(api);
+
+        assertEquals(List.of(
+            new Diagnostic("/channels/b", "first", "b"),
+            new Diagnostic("/channels/b", "second", "b"),
+            new Diagnostic("/components/channels/shared", "first", "shared"),
+            new Diagnostic("/components/channels/shared", "second", "shared")
+        ), diagnostics);
+    }
+
+    @Test
+    void reportsTheSameInParallel() throws IOException {
+        StringBuilder yaml = new StringBuilder("channels:\n");
+        for (int i = 0; i < 1000; i++) {
+            yaml.append("  c").append(i).append(": {address: 'a.{id}'}\n");
+        }
+        yaml.append("operations:\n");
+        for (int i = 0; i < 1000; i++) {
+            yaml.append("  o").append(i).append(": {action: send, channel: {$ref: '#/channels/d").append(i)
+                .append("'}}\n");
+        }
+        AsyncAPI api = read(yaml.toString());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            List<Diagnostic> parallel = SemanticValidator.create().withPool(pool).validate(api);
+
+            assertEquals(2000, parallel.size());
+            assertEquals(SemanticValidator.create().withPool(single).validate(api), parallel);
+            assertEquals(Set.of("channel-parameters", "operation-channel"),
+                parallel.stream().map(Diagnostic::rule).collect(Collectors.toSet()));
+        } finally {
+            pool.shutdown();
+            single.shutdown();
+        }
+        assertThrows(NullPointerException.class, () -> SemanticValidator.create().withPool(null));
+    }
+
+    @Test
+    void sortsDiagnosticsByName() throws IOException {
+        StringBuilder yaml = new StringBuilder("channels:\n");
+        for (int i = 999; i >= 0; i--) {
+            yaml.append("  c").append(i).append(": {address: 'a.{id}'}\n");
+        }
+        AsyncAPI api = read(yaml.toString());
+
+        List<String> paths = SemanticValidator.create().validate(api).stream().map(Diagnostic::path).toList();
+
+        assertEquals(IntStream.range(0, 1000).mapToObj(i -> "/channels/c" + i + "/address").sorted().toList(), paths);
+    }
+
+    private static List<Diagnostic> validate(AsyncAPI api, Rule rule) {
+        List<Diagnostic> diagnostics = SemanticValidator.create().withRules(List.of(rule)).validate(api);
+        assertTrue(diagnostics.stream().allMatch(diagnostic -> diagnostic.rule().equals(rule.name())));
+        return diagnostics;
+    }
+
+    private static Rule channelRule(String name) {
+        return new Rule() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public void checkChannel(RuleContext context, String path, Channel channel) {
+                context.report(path, channel.address());
+            }
+        };
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.snapshot;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.parser.InterningPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotTest {
+
+    @Test
+    void roundTripsDocuments() throws IOException {
+        AsyncAPI api;
+        try (InputStream in = SnapshotTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+
+        AsyncAPI snapshot = Snapshot.read(ByteBuffer.wrap(Snapshot.toBytes(api)));
+
+        assertEquals(api, snapshot);
+        assertEquals(api.channels().get("lightTurnOn"), snapshot.channels().get("lightTurnOn"));
+        assertTrue(snapshot.channels().isFrozen());
+        assertTrue(snapshot.operations().isFrozen());
+        assertTrue(snapshot.servers().isFrozen());
+        assertTrue(snapshot.channels().get("lightTurnOn").messages().isFrozen());
+        assertArrayEquals(Snapshot.toBytes(api), Snapshot.toBytes(api));
+    }
+
+    @Test
+    void roundTripsScalarValues() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              schemas:
+                values:
+                  enum: [null, true, false, 1, 5000000000, 123456789012345678901234567890, 1.5, '', 'caf\u00e9']
+                  nested: [[1, [2]], {a: {b: c}}]
+            """);
+
+        assertEquals(api, Snapshot.read(ByteBuffer.wrap(Snapshot.toBytes(api))));
+    }
+
+    @Test
+    void storesSharedObjectsOnce() throws IOException {
+        AsyncAPI api = AsyncApiReader.create().withInterning(InterningPool.create()).read(new ByteArrayInputStream("""
+            servers:
+              a: {host: a, protocol: kafka, tags: [{name: prod, description: production servers}]}
+              b: {host: b, protocol: kafka, tags: [{name: prod, description: production servers}]}
+            """.getBytes(StandardCharsets.UTF_8)));
+
+        AsyncAPI snapshot = Snapshot.read(ByteBuffer.wrap(Snapshot.toBytes(api)));
+
+        assertEquals(api, snapshot);
+        assertSame(snapshot.servers().get("a").tags().get(0), snapshot.servers().get("b").tags().get(0));
+    }
+
+    @Test
+    void storesSharedMapsAndListsOnce() throws IOException {
+        AsyncAPI api = AsyncApiReader.create().read(new ByteArrayInputStream(
+            "components: {schemas: {order: {type: object, required: [id, total]}}}".getBytes(StandardCharsets.UTF_8)));
+        Map<String, Object> schemas = api.components().schemas();
+        schemas.put("legacyOrder", schemas.get("order"));
+        schemas.put("required", ((Map<?, ?>) schemas.get("order")).get("required"));
+
+        AsyncAPI snapshot = Snapshot.read(ByteBuffer.wrap(Snapshot.toBytes(api)));
+
+        assertEquals(api, snapshot);
+        assertSame(snapshot.components().schemas().get("order"), snapshot.components().schemas().get("legacyOrder"));
+        assertSame(((Map<?, ?>) snapshot.components().schemas().get("order")).get("required"),
+            snapshot.components().schemas().get("required"));
+    }
+
+    @Test
+    void writesAndMapsFiles(@TempDir Path directory) throws IOException {
+        AsyncAPI api = read("channels: {a: {address: orders}}");
+        Path file = directory.resolve("api.snapshot");
+
+        Snapshot.write(api, file);
+        Snapshot.write(api, file);
+
+        assertEquals(api, Snapshot.read(file));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        byte[] bytes = Snapshot.toBytes(read("channels: {a: {address: orders}}"));
+
+        assertThrows(SnapshotFormatException.class, () -> Snapshot.read(ByteBuffer.wrap(new byte[0])));
+        assertThrows(SnapshotFormatException.class,
+            () -> Snapshot.read(ByteBuffer.wrap("asyncapi: 3.0.0".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(SnapshotFormatException.class,
+            () -> Snapshot.read(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 1))));
+
+        byte[] version = bytes.clone();
+        ByteBuffer.wrap(version).putInt(4, Snapshot.FORMAT_VERSION + 1);
+        SnapshotFormatException e = assertThrows(SnapshotFormatException.class,
+            () -> Snapshot.read(ByteBuffer.wrap(version)));
+        assertTrue(e.getMessage().contains("version"), e.getMessage());
+    }
+
+    @Test
+    void rejectsSnapshotsOfChangedModels() throws IOException {
+        byte[] bytes = Snapshot.toBytes(read("info: {title: t, version: '1', tags: [{name: a}]}"));
+        replace(bytes, "dev.alubenets.asyncapi.models.Tag", "dev.alubenets.asyncapi.models.Tog");
+
+        SnapshotFormatException e = assertThrows(SnapshotFormatException.class,
+            () -> Snapshot.read(ByteBuffer.wrap(bytes)));
+        assertTrue(e.getMessage().startsWith("Stale snapshot"), e.getMessage());
+    }
+
+    @Test
+    void rejectsValuesOutsideTheModels() throws IOException {
+        AsyncAPI api = read("components: {schemas: {a: {type: string}}}");
+        Map<String, Object> schema = new HashMap<>();
+        schema.put("custom", new Object());
+        api.components().schemas().put("b", schema);
+
+        assertThrows(IllegalArgumentException.class, () -> Snapshot.toBytes(api));
+    }
+
+    @Test
+    void materializesComponentEntriesOnAccess() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              schemas:
+                healthy:
+                  type: string
+                broken:
+                  type: number
+                  maximum: 1.2345e300
+            """);
+        byte[] bytes = Snapshot.toBytes(api);
+        corrupt(bytes, 1.2345e300);
+
+        AsyncAPI snapshot = Snapshot.read(ByteBuffer.wrap(bytes));
+        Map<String, Object> schemas = snapshot.components().schemas();
+
+        assertEquals(2, schemas.size());
+        assertEquals(Map.of("type", "string"), schemas.get("healthy"));
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> schemas.get("broken"));
+        assertInstanceOf(SnapshotFormatException.class, e.getCause());
+    }
+
+    @Test
+    void readsComponentMapsAsReadOnlyMaps() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              schemas:
+                a: {type: string}
+              messages:
+                m: {name: m}
+            """);
+
+        AsyncAPI snapshot = Snapshot.read(ByteBuffer.wrap(Snapshot.toBytes(api)));
+
+        assertEquals(api, snapshot);
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.components().schemas().put("b", "x"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.components().messages().remove("m"));
+        assertEquals(api, Snapshot.read(ByteBuffer.wrap(Snapshot.toBytes(snapshot))));
+    }
+
+    /**
+     * Replaces the tag of the encoded double with an unknown tag.
+     */
+    private static void corrupt(byte[] bytes, double value) {
+        byte[] encoded = ByteBuffer.allocate(9).put(SnapshotFormat.DOUBLE).putDouble(value).array();
+        for (int i = 0; i + encoded.length <= bytes.length; i++) {
+            if (ByteBuffer.wrap(bytes, i, encoded.length).equals(ByteBuffer.wrap(encoded))) {
+                bytes[i] = 99;
+                return;
+            }
+        }
+        throw new AssertionError("Value not found");
+    }
+
+    private static void replace(byte[] bytes, String value, String replacement) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i + encoded.length <= bytes.length; i++) {
+            if (ByteBuffer.wrap(bytes, i, encoded.length).equals(ByteBuffer.wrap(encoded))) {
+                System.arraycopy(replacement.getBytes(StandardCharsets.UTF_8), 0, bytes, i, encoded.length);
+                return;
+            }
+        }
+        throw new AssertionError("Value not found");
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
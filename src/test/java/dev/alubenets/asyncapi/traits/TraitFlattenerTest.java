@@ -0,0 +1,177 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.traits;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.models.MessageTrait;
+import dev.alubenets.asyncapi.models.Operation;
+import dev.alubenets.asyncapi.models.OperationBindings;
+import dev.alubenets.asyncapi.models.Tag;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TraitFlattenerTest {
+
+    @Test
+    void appliesTraitsOfTheDocument() throws IOException {
+        AsyncAPI api;
+        try (InputStream in = TraitFlattenerTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+        TraitFlattener traits = TraitFlattener.of(api);
+
+        Message message = traits.effective(api.components().messages().get("lightMeasured"));
+        Operation operation = traits.effective(api.operations().get("turnOn"));
+
+        assertNull(message.traits());
+        assertEquals("lightMeasured", message.name());
+        assertSame(api.components().messages().get("lightMeasured").payload(), message.payload());
+        assertEquals(((MessageTrait) api.components().messageTraits().get("commonHeaders")).headers(),
+            message.headers());
+        assertNull(operation.traits());
+        assertInstanceOf(OperationBindings.class, operation.bindings());
+        assertEquals(Map.of("clientId", Map.of("type", "string", "enum", List.of("my-app-id"))),
+            operation.bindings().get("kafka"));
+        assertSame(api.operations().get("turnOn").channel(), operation.channel());
+    }
+
+    @Test
+    void letsTheTargetAndLaterTraitsWin() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              messages:
+                m:
+                  title: own title
+                  headers:
+                    type: object
+                    properties:
+                      id: {type: integer}
+                  traits:
+                    - $ref: '#/components/messageTraits/first'
+                    - $ref: '#/components/messageTraits/second'
+              messageTraits:
+                first:
+                  title: first title
+                  summary: first summary
+                  contentType: application/json
+                  tags: [{name: a}, {name: b}]
+                  headers:
+                    required: [id]
+                    properties:
+                      id: {type: string, description: identifier}
+                      trace: {type: string}
+                second:
+                  summary: second summary
+                  tags: [{name: c}]
+            """);
+
+        Message message = TraitFlattener.of(api).effective(api.components().messages().get("m"));
+
+        assertEquals("own title", message.title());
+        assertEquals("second summary", message.summary());
+        assertEquals("application/json", message.contentType());
+        // Arrays are replaced as a whole, objects are merged property by property.
+        assertEquals(List.of(new Tag("c", null)), message.tags());
+        assertEquals(Map.of(
+            "type", "object",
+            "required", List.of("id"),
+            "properties", Map.of(
+                "id", Map.of("type", "integer", "description", "identifier"),
+                "trace", Map.of("type", "string"))), message.headers());
+    }
+
+    @Test
+    void returnsObjectsWithoutTraitsAsTheyAre() throws IOException {
+        AsyncAPI api = read("""
+            operations:
+              a: {$ref: '#/components/operations/shared'}
+            components:
+              operations:
+                shared: {action: send, title: shared}
+            """);
+        TraitFlattener traits = TraitFlattener.of(api);
+
+        assertSame(api.components().operations().get("shared"), traits.effective(api.operations().get("a")));
+        assertNull(traits.effective((Operation) null));
+        assertNull(traits.effective((Message) null));
+    }
+
+    @Test
+    void cachesEffectiveObjects() throws IOException {
+        AsyncAPI api = read("""
+            operations:
+              a:
+                action: send
+                traits: [{title: from trait}]
+            """);
+        TraitFlattener traits = TraitFlattener.of(api);
+
+        Operation operation = traits.effective(api.operations().get("a"));
+
+        assertEquals("from trait", operation.title());
+        assertSame(operation, traits.effective(api.operations().get("a")));
+    }
+
+    @Test
+    void replacesReferencedObjectsInsteadOfMergingThem() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              messages:
+                m:
+                  externalDocs: {$ref: '#/components/externalDocs/own'}
+                  traits: [{externalDocs: {url: 'https://trait.example.com', description: from trait}}]
+              externalDocs:
+                own: {url: 'https://own.example.com'}
+            """);
+
+        Message message = TraitFlattener.of(api).effective(api.components().messages().get("m"));
+
+        assertSame(api.components().messages().get("m").externalDocs(), message.externalDocs());
+    }
+
+    @Test
+    void rejectsMissingResolvers() {
+        assertThrows(NullPointerException.class,
+            () -> TraitFlattener.of((dev.alubenets.asyncapi.resolver.ReferenceResolver) null));
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.validation;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Message;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import dev.alubenets.asyncapi.traits.TraitFlattener;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageValidatorTest {
+
+    @Test
+    void validatesHeadersAndPayloads() throws IOException {
+        AsyncAPI api;
+        try (InputStream in = MessageValidatorTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+        ReferenceResolver resolver = ReferenceResolver.of(api);
+        Message message = TraitFlattener.of(resolver).effective(
+            api.channels().get("lightingMeasured").messages().get("lightMeasured"));
+        MessageValidator validator = MessageValidator.compile(message, resolver);
+        Map<String, Object> payload = Map.of("lumens", 3, "sentAt", "2024-01-01T00:00:00Z");
+
+        assertTrue(validator.isValid(Map.of("my-app-header", 10), payload));
+        assertFalse(validator.isValid(Map.of("my-app-header", 1000), payload));
+        assertFalse(validator.isValid(Map.of(), Map.of("lumens", -1)));
+        List<ValidationError> errors = validator.validate(Map.of("my-app-header", 1000), Map.of("lumens", -1));
+        assertEquals(2, errors.size());
+        assertEquals("/headers/my-app-header", errors.get(0).path());
+        assertEquals("/payload/lumens", errors.get(1).path());
+        assertEquals(List.of(), validator.validate(Map.of(), payload));
+    }
+
+    @Test
+    void acceptsMultiFormatJsonSchemas() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              messages:
+                m:
+                  payload:
+                    schemaFormat: application/schema+json;version=draft-07
+                    schema: {type: string}
+            """);
+
+        MessageValidator validator = MessageValidator.compile(api.components().messages().get("m"),
+            ReferenceResolver.of(api));
+
+        assertTrue(validator.isValid(null, "a"));
+        assertFalse(validator.isValid(null, 1));
+        assertTrue(validator.isValid("headers without a schema", "a"));
+    }
+
+    @Test
+    void rejectsOtherSchemaFormats() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              messages:
+                m:
+                  payload:
+                    schemaFormat: application/vnd.apache.avro;version=1.9.0
+                    schema: {type: record}
+            """);
+
+        assertThrows(SchemaCompilationException.class, () -> MessageValidator.compile(
+            api.components().messages().get("m"), ReferenceResolver.of(api)));
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
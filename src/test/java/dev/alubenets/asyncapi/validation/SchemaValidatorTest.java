@@ -0,0 +1,241 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.validation;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.resolver.ReferenceResolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaValidatorTest {
+
+    @Test
+    void checksTypes() throws IOException {
+        SchemaValidator integer = compile("{type: integer}");
+        SchemaValidator nullable = compile("{type: [string, 'null']}");
+
+        assertTrue(integer.isValid(1));
+        assertTrue(integer.isValid(5_000_000_000L));
+        assertTrue(integer.isValid(new BigInteger("123456789012345678901234567890")));
+        assertTrue(integer.isValid(2.0));
+        assertFalse(integer.isValid(2.5));
+        assertFalse(integer.isValid("1"));
+        assertFalse(integer.isValid(null));
+        assertTrue(nullable.isValid("a"));
+        assertTrue(nullable.isValid(null));
+        assertFalse(nullable.isValid(true));
+        assertTrue(compile("{type: number}").isValid(new BigDecimal("0.1")));
+        assertTrue(compile("{type: object}").isValid(Map.of()));
+        assertTrue(compile("{type: array}").isValid(List.of()));
+        assertTrue(compile("{type: boolean}").isValid(false));
+    }
+
+    @Test
+    void checksNumbers() throws IOException {
+        SchemaValidator range = compile("{minimum: 1, exclusiveMaximum: 10}");
+        SchemaValidator multiple = compile("{multipleOf: 0.01}");
+
+        assertTrue(range.isValid(1));
+        assertTrue(range.isValid(9.99));
+        assertFalse(range.isValid(0));
+        assertFalse(range.isValid(10));
+        assertTrue(range.isValid("not a number"));
+        assertTrue(multiple.isValid(0.07));
+        assertTrue(multiple.isValid(3));
+        assertFalse(multiple.isValid(0.001));
+        assertTrue(compile("{multipleOf: 3}").isValid(9L));
+        assertFalse(compile("{multipleOf: 3}").isValid(10L));
+        assertTrue(compile("{multipleOf: 3}").isValid(new BigInteger("300000000000000000000000000000")));
+    }
+
+    @Test
+    void checksStrings() throws IOException {
+        SchemaValidator validator = compile("{minLength: 2, maxLength: 3, pattern: '^[a-z]+$'}");
+
+        assertTrue(validator.isValid("ab"));
+        assertFalse(validator.isValid("a"));
+        assertFalse(validator.isValid("abcd"));
+        assertFalse(validator.isValid("AB"));
+        // Lengths count code points, not UTF-16 units.
+        assertTrue(compile("{maxLength: 1}").isValid("\uD83D\uDE00"));
+        assertTrue(compile("{const: a}").isValid("a"));
+        assertFalse(compile("{enum: [a, b]}").isValid("c"));
+    }
+
+    @Test
+    void checksArrays() throws IOException {
+        SchemaValidator validator = compile("{minItems: 1, maxItems: 3, uniqueItems: true, items: {type: integer}}");
+        SchemaValidator tuple = compile("{items: [{type: string}, {type: integer}], additionalItems: false}");
+
+        assertTrue(validator.isValid(List.of(1, 2, 3)));
+        assertFalse(validator.isValid(List.of()));
+        assertFalse(validator.isValid(List.of(1, 2, 3, 4)));
+        assertFalse(validator.isValid(List.of(1, 1)));
+        assertFalse(validator.isValid(List.of(1, 1.0)));
+        assertFalse(validator.isValid(List.of("a")));
+        assertTrue(tuple.isValid(List.of("a", 1)));
+        assertFalse(tuple.isValid(List.of("a", 1, 2)));
+        assertFalse(tuple.isValid(List.of(1, "a")));
+        assertTrue(compile("{contains: {const: 2}}").isValid(List.of(1, 2)));
+        assertFalse(compile("{contains: {const: 2}}").isValid(List.of(1, 3)));
+    }
+
+    @Test
+    void checksObjects() throws IOException {
+        SchemaValidator validator = compile("""
+            required: [id]
+            properties:
+              id: {type: string}
+            patternProperties:
+              '^x-': {type: integer}
+            additionalProperties: false
+            dependencies:
+              card: [billing]
+            """);
+
+        assertTrue(validator.isValid(Map.of("id", "1", "x-count", 2)));
+        assertFalse(validator.isValid(Map.of()));
+        assertFalse(validator.isValid(Map.of("id", 1)));
+        assertFalse(validator.isValid(Map.of("id", "1", "x-count", "2")));
+        assertFalse(validator.isValid(Map.of("id", "1", "other", 1)));
+        assertTrue(compile("{propertyNames: {maxLength: 2}, maxProperties: 1}").isValid(Map.of("ab", 1)));
+        assertFalse(compile("{propertyNames: {maxLength: 2}}").isValid(Map.of("abc", 1)));
+        assertFalse(compile("{maxProperties: 1}").isValid(Map.of("a", 1, "b", 2)));
+        assertFalse(compile("{dependencies: {card: [billing]}}").isValid(Map.of("card", 1)));
+    }
+
+    @Test
+    void combinesSchemas() throws IOException {
+        SchemaValidator oneOf = compile("{oneOf: [{type: integer}, {minimum: 5}]}");
+        SchemaValidator conditional = compile("""
+            if: {properties: {kind: {const: card}}}
+            then: {required: [number]}
+            else: {required: [iban]}
+            """);
+
+        assertTrue(oneOf.isValid(1));
+        assertFalse(oneOf.isValid(6));
+        assertTrue(oneOf.isValid(5.5));
+        assertTrue(compile("{anyOf: [{type: string}, {type: integer}]}").isValid(1));
+        assertFalse(compile("{allOf: [{type: integer}, {minimum: 5}]}").isValid(1));
+        assertFalse(compile("{not: {type: string}}").isValid("a"));
+        assertTrue(conditional.isValid(Map.of("kind", "card", "number", 1)));
+        assertFalse(conditional.isValid(Map.of("kind", "card", "iban", 1)));
+        assertTrue(conditional.isValid(Map.of("kind", "bank", "iban", 1)));
+        assertTrue(SchemaValidator.compile(true).isValid("anything"));
+        assertFalse(SchemaValidator.compile(false).isValid(null));
+    }
+
+    @Test
+    void reportsErrorsWithPaths() throws IOException {
+        SchemaValidator validator = compile("""
+            type: object
+            required: [id, items]
+            properties:
+              items:
+                type: array
+                items:
+                  properties:
+                    'a/b': {type: integer}
+            """);
+        Map<String, Object> valid = Map.of("id", 1, "items", List.of(Map.of("a/b", 1)));
+        Map<String, Object> invalid = Map.of("items", List.of(Map.of("a/b", 1), Map.of("a/b", "x")));
+
+        assertEquals(List.of(), validator.validate(valid));
+        List<ValidationError> errors = validator.validate(invalid);
+        assertEquals(2, errors.size());
+        assertTrue(errors.contains(new ValidationError("", "required", "Missing property id")), errors.toString());
+        assertEquals("/items/1/a~1b", errors.stream().filter(e -> e.keyword().equals("type")).findFirst()
+            .orElseThrow().path());
+    }
+
+    @Test
+    void resolvesRecursiveReferences() throws IOException {
+        AsyncAPI api = read("""
+            components:
+              schemas:
+                node:
+                  type: object
+                  properties:
+                    value: {type: integer}
+                    children:
+                      type: array
+                      items: {$ref: '#/components/schemas/node'}
+            """);
+        SchemaValidator validator = SchemaValidator.compile(api.components().schemas().get("node"),
+            ReferenceResolver.of(api));
+        Map<String, Object> tree = Map.of("value", 1, "children", List.of(
+            Map.of("value", 2, "children", List.of()),
+            Map.of("value", 3, "children", List.of(Map.of("value", 4)))));
+
+        assertTrue(validator.isValid(tree));
+        assertFalse(validator.isValid(Map.of("children", List.of(Map.of("children", List.of(Map.of("value", "x")))))));
+        assertEquals("/children/0/children/0/value",
+            validator.validate(Map.of("children", List.of(Map.of("children", List.of(Map.of("value", "x"))))))
+                .get(0).path());
+    }
+
+    @Test
+    void rejectsInvalidSchemas() throws IOException {
+        assertThrows(SchemaCompilationException.class, () -> SchemaValidator.compile("string"));
+        assertThrows(SchemaCompilationException.class, () -> compile("{$ref: '#/components/schemas/a'}"));
+        assertThrows(SchemaCompilationException.class, () -> compile("{pattern: '('}"));
+        AsyncAPI api = read("asyncapi: 3.0.0");
+        assertThrows(SchemaCompilationException.class, () -> SchemaValidator.compile(
+            Map.of("$ref", "#/components/schemas/missing"), ReferenceResolver.of(api)));
+    }
+
+    @Test
+    void acceptsArraysAsLists() throws IOException {
+        assertTrue(compile("{items: {type: integer}}").isValid(Arrays.asList(1, 2)));
+    }
+
+    private static SchemaValidator compile(String schema) throws IOException {
+        AsyncAPI api = read("components:\n  schemas:\n    s: " + indent(schema));
+        return SchemaValidator.compile(api.components().schemas().get("s"));
+    }
+
+    private static String indent(String schema) {
+        return schema.startsWith("{") ? schema : "\n      " + schema.strip().replace("\n", "\n      ");
+    }
+
+    private static AsyncAPI read(String yaml) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
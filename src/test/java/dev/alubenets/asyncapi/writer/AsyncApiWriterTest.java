@@ -0,0 +1,173 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024. Aleksey Lubenets <alubenets.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.alubenets.asyncapi.writer;
+
+import dev.alubenets.asyncapi.models.AsyncAPI;
+import dev.alubenets.asyncapi.models.Tag;
+import dev.alubenets.asyncapi.parser.AsyncApiReader;
+import dev.alubenets.asyncapi.parser.DocumentFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncApiWriterTest {
+
+    @ParameterizedTest
+    @EnumSource(DocumentFormat.class)
+    void roundTripsDocuments(DocumentFormat format) throws IOException {
+        AsyncAPI api;
+        try (InputStream in = AsyncApiWriterTest.class.getResourceAsStream("/streetlights.yaml")) {
+            api = AsyncApiReader.create().read(in);
+        }
+        AsyncApiWriter writer = AsyncApiWriter.create().withFormat(format);
+
+        byte[] bytes = writer.toBytes(api);
+
+        assertEquals(api, read(bytes));
+        assertArrayEquals(bytes, writer.toBytes(read(bytes)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(DocumentFormat.class)
+    void roundTripsStringsThatNeedQuoting(DocumentFormat format) throws IOException {
+        List<Object> values = new ArrayList<>(List.of("", " padded ", "true", "no", "null", "~", "1", "0x1F", "1e3",
+            ".inf", "- item", "key: value", "a #comment", "#comment", "'quoted'", "\"quoted\"", "[a]", "{a}",
+            "line\nbreak", "tab\there", "back\\slash", "control\u0001", "caf\u00e9", "\uD83D\uDE00", "@at", "`tick",
+            "%percent", "&anchor", "*alias", "!tag", "|", ">", "?", "---", "..."));
+        values.addAll(Arrays.asList(null, true, 1, -5_000_000_000L, 1.5,
+            new BigInteger("123456789012345678901234567890")));
+        AsyncAPI document = withSchema(Map.of("enum", values));
+
+        AsyncAPI copy = read(AsyncApiWriter.create().withFormat(format).toBytes(document));
+
+        assertEquals(document, copy);
+    }
+
+    @Test
+    void sortsMapEntriesByKey() throws IOException {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("b", 1);
+        first.put("a", Map.of("y", 1, "x", 2));
+        Map<String, Object> second = new HashMap<>();
+        second.put("a", Map.of("x", 2, "y", 1));
+        second.put("b", 1);
+        AsyncApiWriter writer = AsyncApiWriter.create();
+
+        String json = new String(writer.toBytes(withSchema(first)), StandardCharsets.UTF_8);
+
+        assertArrayEquals(writer.toBytes(withSchema(first)), writer.toBytes(withSchema(second)));
+        assertTrue(json.contains("{\"a\":{\"x\":2,\"y\":1},\"b\":1}"), json);
+        assertTrue(json.startsWith("{\"asyncapi\":\"3.0.0\""), json);
+    }
+
+    @Test
+    void writesYamlInBlockStyle() throws IOException {
+        String yaml = new String(AsyncApiWriter.create().withFormat(DocumentFormat.YAML)
+            .toBytes(read("info: {title: Orders, version: '1.0', tags: [{name: billing}]}".getBytes(
+                StandardCharsets.UTF_8))), StandardCharsets.UTF_8);
+
+        assertEquals("""
+            asyncapi: "3.0.0"
+            info:
+              title: Orders
+              version: "1.0"
+              tags:
+                - name: billing
+            """, yaml);
+    }
+
+    @Test
+    void writesIntoBuffersAndChannels() throws IOException {
+        AsyncAPI api = read("info: {title: Orders, version: '1.0'}".getBytes(StandardCharsets.UTF_8));
+        AsyncApiWriter writer = AsyncApiWriter.create();
+        byte[] expected = writer.toBytes(api);
+
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 10).position(3);
+        writer.write(api, buffer);
+        ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+        writer.write(api, direct);
+        ByteBuffer small = ByteBuffer.allocate(expected.length - 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(api, Channels.newChannel(out));
+
+        assertEquals(3 + expected.length, buffer.position());
+        assertArrayEquals(expected, Arrays.copyOfRange(buffer.array(), 3, 3 + expected.length));
+        assertEquals(expected.length, direct.position());
+        assertThrows(BufferOverflowException.class, () -> writer.write(api, small));
+        assertEquals(0, small.position());
+        assertArrayEquals(expected, out.toByteArray());
+    }
+
+    @Test
+    void writesSingleValues() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        AsyncApiWriter.create().writeValue(List.of(new Tag("billing", null), Map.of("a", "b"), new BigDecimal("0.10"),
+            1e300), out);
+
+        assertEquals("[{\"name\":\"billing\"},{\"a\":\"b\"},0.10,1.0E300]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rejectsValuesOutsideTheModels() throws IOException {
+        AsyncAPI document = withSchema(Map.of("custom", new Object()));
+
+        assertThrows(IllegalArgumentException.class, () -> AsyncApiWriter.create().toBytes(document));
+        assertThrows(NullPointerException.class, () -> AsyncApiWriter.create().toBytes(null));
+        assertThrows(NullPointerException.class, () -> AsyncApiWriter.create().withFormat(null));
+    }
+
+    private static AsyncAPI withSchema(Map<String, Object> schema) throws IOException {
+        AsyncAPI api = read("components: {schemas: {s: {}}}".getBytes(StandardCharsets.UTF_8));
+        api.components().schemas().put("s", schema);
+        return api;
+    }
+
+    private static AsyncAPI read(byte[] document) throws IOException {
+        return AsyncApiReader.create().read(new ByteArrayInputStream(document));
+    }
+}